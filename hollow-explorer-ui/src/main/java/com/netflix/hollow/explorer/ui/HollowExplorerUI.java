@@ -23,6 +23,7 @@ import com.netflix.hollow.explorer.ui.pages.BrowseSchemaPage;
 import com.netflix.hollow.explorer.ui.pages.BrowseSelectedTypePage;
 import com.netflix.hollow.explorer.ui.pages.QueryPage;
 import com.netflix.hollow.explorer.ui.pages.ShowAllTypesPage;
+import com.netflix.hollow.tools.query.HollowFieldMatchIndex;
 import com.netflix.hollow.ui.HollowUIRouter;
 import com.netflix.hollow.ui.HollowUISession;
 import java.io.IOException;
@@ -46,6 +47,9 @@ public class HollowExplorerUI extends HollowUIRouter {
     private final BrowseSelectedTypePage browseTypePage;
     private final BrowseSchemaPage browseSchemaPage;
     private final QueryPage queryPage;
+
+    private long fieldMatchIndexMaxSizeInBytes = -1;
+    private HollowFieldMatchIndex fieldMatchIndex;
     
     public HollowExplorerUI(String baseUrlPath, HollowConsumer consumer) {
         this(baseUrlPath, consumer, null, null);
@@ -110,6 +114,39 @@ public class HollowExplorerUI extends HollowUIRouter {
         return stateEngine;
     }
 
+    /**
+     * Answer queries from a {@link HollowFieldMatchIndex}, built in the background and rebuilt whenever the state engine
+     * is replaced, rather than by scanning every record.
+     *
+     * @param maxSizeInBytes the approximate maximum heap footprint of the index
+     */
+    public synchronized void enableFieldMatchIndex(long maxSizeInBytes) {
+        if(fieldMatchIndex != null && fieldMatchIndexMaxSizeInBytes != maxSizeInBytes) {
+            fieldMatchIndex.detach();
+            fieldMatchIndex = null;
+        }
+        this.fieldMatchIndexMaxSizeInBytes = maxSizeInBytes;
+        getFieldMatchIndex();
+    }
+
+    /**
+     * @return the field match index for the current state engine, or null if it has not been enabled
+     */
+    public synchronized HollowFieldMatchIndex getFieldMatchIndex() {
+        HollowReadStateEngine currentStateEngine = getStateEngine();
+        if(fieldMatchIndexMaxSizeInBytes < 0 || currentStateEngine == null)
+            return null;
+
+        if(fieldMatchIndex == null || fieldMatchIndex.getStateEngine() != currentStateEngine) {
+            if(fieldMatchIndex != null)
+                fieldMatchIndex.detach();
+            fieldMatchIndex = new HollowFieldMatchIndex(currentStateEngine, fieldMatchIndexMaxSizeInBytes);
+            fieldMatchIndex.buildInBackground();
+        }
+
+        return fieldMatchIndex;
+    }
+
     public String getHeaderDisplayString() {
         return headerDisplayMap.get(HEADER_DISPLAY_STRING);
     }
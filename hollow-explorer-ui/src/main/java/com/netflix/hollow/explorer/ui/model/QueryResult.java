@@ -17,6 +17,7 @@
 package com.netflix.hollow.explorer.ui.model;
 
 import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.tools.query.HollowFieldMatchIndex;
 import com.netflix.hollow.tools.query.HollowFieldMatchQuery;
 import com.netflix.hollow.tools.traverse.TransitiveSetTraverser;
 import java.util.ArrayList;
@@ -61,20 +62,35 @@ public class QueryResult {
     }
     
     public void recalculateIfNotCurrent(HollowReadStateEngine stateEngine) {
+        recalculateIfNotCurrent(stateEngine, null);
+    }
+
+    public void recalculateIfNotCurrent(HollowReadStateEngine stateEngine, HollowFieldMatchIndex index) {
         if(stateEngine.getCurrentRandomizedTag() != randomizedStateTag) {        
             queryMatches.clear();
             List<QueryClause> requeryClauses = new ArrayList<QueryClause>(this.queryClauses);
             this.queryClauses.clear();
     
             for(QueryClause clause : requeryClauses)
-                augmentQuery(clause, stateEngine);
+                augmentQuery(clause, stateEngine, index);
         
             randomizedStateTag = stateEngine.getCurrentRandomizedTag();
         }
     }
     
     public void augmentQuery(QueryClause clause, HollowReadStateEngine stateEngine) {
-        HollowFieldMatchQuery query = new HollowFieldMatchQuery(stateEngine);
+        augmentQuery(clause, stateEngine, null);
+    }
+
+    /**
+     * @param clause the clause to add to this query
+     * @param stateEngine the state engine to query
+     * @param index an index used to match field values, or null to scan; ignored if it is not for the state engine
+     */
+    public void augmentQuery(QueryClause clause, HollowReadStateEngine stateEngine, HollowFieldMatchIndex index) {
+        if(index != null && index.getStateEngine() != stateEngine)
+            index = null;
+        HollowFieldMatchQuery query = new HollowFieldMatchQuery(stateEngine, index);
         Map<String, BitSet> clauseMatches = clause.getType() != null ? query.findMatchingRecords(clause.getType(), clause.getField(), clause.getValue()) : query.findMatchingRecords(clause.getField(), clause.getValue());
         TransitiveSetTraverser.addReferencingOutsideClosure(stateEngine, clauseMatches);
                 
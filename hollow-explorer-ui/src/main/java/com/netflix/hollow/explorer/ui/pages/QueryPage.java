@@ -55,7 +55,7 @@ public class QueryPage extends HollowExplorerPage {
         
         QueryResult result = (QueryResult) session.getAttribute("query-result");
         if(result != null)
-            result.recalculateIfNotCurrent(ui.getStateEngine());
+            result.recalculateIfNotCurrent(ui.getStateEngine(), ui.getFieldMatchIndex());
         
         if(field != null && queryValue != null) {
             HollowReadStateEngine stateEngine = ui.getStateEngine();
@@ -67,7 +67,7 @@ public class QueryPage extends HollowExplorerPage {
                 session.setAttribute("query-result", result);
             }
             
-            result.augmentQuery(queryClause, ui.getStateEngine());
+            result.augmentQuery(queryClause, ui.getStateEngine(), ui.getFieldMatchIndex());
             
             type = null;
             field = null;
@@ -0,0 +1,81 @@
+package com.netflix.hollow.api.objects.provider;
+
+import com.netflix.hollow.api.custom.HollowTypeAPI;
+import com.netflix.hollow.api.objects.generic.GenericHollowObject;
+import com.netflix.hollow.core.read.AbstractReadPathBenchmark;
+import com.netflix.hollow.core.read.ReadPathDataset;
+import com.netflix.hollow.core.read.dataaccess.HollowObjectTypeDataAccess;
+import com.netflix.hollow.core.read.dataaccess.HollowTypeDataAccess;
+import com.netflix.hollow.core.read.engine.HollowTypeReadState;
+import java.io.IOException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the object providers used by generated APIs to return a record object for an ordinal, followed by
+ * field reads on that object.
+ */
+public class HollowObjectProviderBenchmark extends AbstractReadPathBenchmark {
+
+    public enum ProviderType {
+        FACTORY, CACHE, BOUNDED_CACHE
+    }
+
+    @Param( {"FACTORY", "CACHE", "BOUNDED_CACHE"})
+    public ProviderType providerType;
+
+    //@Param( {"256", "4096", "65536"})
+    @Param( {"4096"})
+    public int boundedCacheSize;
+
+    private HollowObjectProvider<GenericHollowObject> provider;
+
+    @Setup
+    public void setup() throws IOException {
+        HollowTypeReadState typeState = readStateEngine.getTypeState(ReadPathDataset.MOVIE_TYPE);
+        GenericObjectFactory factory = new GenericObjectFactory();
+
+        switch (providerType) {
+            case FACTORY:
+                provider = new HollowObjectFactoryProvider<>(typeState, null, factory);
+                break;
+            case CACHE:
+                provider = new HollowObjectCacheProvider<>(typeState, null, factory);
+                break;
+            case BOUNDED_CACHE:
+                provider = new HollowObjectBoundedCacheProvider<>(typeState, null, factory, boundedCacheSize);
+                break;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void getHollowObject(Blackhole bh) {
+        for (int ordinal : ordinals) {
+            bh.consume(provider.getHollowObject(ordinal));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long readFields(Blackhole bh) {
+        long sum = 0;
+        for (int ordinal : ordinals) {
+            GenericHollowObject movie = provider.getHollowObject(ordinal);
+            sum += movie.getLong("id");
+            sum += movie.getInt("releaseYear");
+            bh.consume(movie.getString("title"));
+        }
+        return sum;
+    }
+
+    private static class GenericObjectFactory extends HollowFactory<GenericHollowObject> {
+        @Override
+        public GenericHollowObject newHollowObject(HollowTypeDataAccess dataAccess, HollowTypeAPI typeAPI, int ordinal) {
+            return new GenericHollowObject((HollowObjectTypeDataAccess) dataAccess, ordinal);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.netflix.hollow.api.perfapi;
+
+import com.netflix.hollow.core.read.AbstractReadPathBenchmark;
+import com.netflix.hollow.core.read.ReadPathDataset;
+import com.netflix.hollow.core.read.dataaccess.HollowDataAccess;
+import com.netflix.hollow.core.schema.HollowObjectSchema;
+import java.io.IOException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks reads through a {@link HollowPerformanceAPI}.  The type APIs below are written out by hand in the same
+ * form the performance API generator produces for the {@link ReadPathDataset} data model.
+ */
+public class HollowPerformanceAPIBenchmark extends AbstractReadPathBenchmark {
+
+    private ReadPathPerfAPI api;
+    private long[] refs;
+
+    @Setup
+    public void setup() throws IOException {
+        api = new ReadPathPerfAPI(readStateEngine);
+        refs = new long[ordinals.length];
+        for (int i = 0; i < ordinals.length; i++) {
+            refs[i] = api.Movie.refForOrdinal(ordinals[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long readFields(Blackhole bh) {
+        long sum = 0;
+        for (long ref : refs) {
+            sum += api.Movie.getId(ref);
+            sum += api.Movie.getReleaseYear(ref);
+            sum += (long) api.Movie.getRating(ref);
+            bh.consume(api.Movie.getTitle(ref));
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void traverseReference(Blackhole bh) {
+        for (long ref : refs) {
+            long director = api.Movie.getDirectorRef(ref);
+            bh.consume(api.String.getValue(api.Person.getNameRef(director)));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int iterateList() {
+        int sum = 0;
+        for (long ref : refs) {
+            HollowPerfReferenceIterator iter = api.cast.iterator(api.Movie.getCastRef(ref));
+            while (iter.hasNext()) {
+                sum += api.Person.getId(iter.next());
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int iterateSet() {
+        int sum = 0;
+        for (long ref : refs) {
+            HollowPerfReferenceIterator iter = api.tags.iterator(api.Movie.getTagsRef(ref));
+            while (iter.hasNext()) {
+                sum += Ref.ordinal(iter.next());
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int iterateMap() {
+        int sum = 0;
+        for (long ref : refs) {
+            HollowPerfMapEntryIterator iter = api.ratingsByCountry.iterator(api.Movie.getRatingsByCountryRef(ref));
+            while (iter.next()) {
+                sum += Ref.ordinal(iter.getKey()) + Ref.ordinal(iter.getValue());
+            }
+        }
+        return sum;
+    }
+
+    static class ReadPathPerfAPI extends HollowPerformanceAPI {
+        final MoviePerfAPI Movie;
+        final PersonPerfAPI Person;
+        final StringPerfAPI String;
+        final HollowListTypePerfAPI cast;
+        final HollowSetTypePerfAPI tags;
+        final HollowMapTypePerfAPI ratingsByCountry;
+
+        ReadPathPerfAPI(HollowDataAccess dataAccess) {
+            super(dataAccess);
+
+            HollowObjectSchema movieSchema = (HollowObjectSchema) dataAccess.getSchema(ReadPathDataset.MOVIE_TYPE);
+            this.Movie = new MoviePerfAPI(dataAccess, ReadPathDataset.MOVIE_TYPE, this);
+            this.Person = new PersonPerfAPI(dataAccess, ReadPathDataset.PERSON_TYPE, this);
+            this.String = new StringPerfAPI(dataAccess, "String", this);
+            this.cast = new HollowListTypePerfAPI(dataAccess, movieSchema.getReferencedType("cast"), this);
+            this.tags = new HollowSetTypePerfAPI(dataAccess, movieSchema.getReferencedType("tags"), this);
+            this.ratingsByCountry = new HollowMapTypePerfAPI(dataAccess, movieSchema.getReferencedType("ratingsByCountry"), this);
+        }
+    }
+
+    static class MoviePerfAPI extends HollowObjectTypePerfAPI {
+        static final String fieldNames[] = { "id", "releaseYear", "rating", "title", "director", "cast", "tags", "ratingsByCountry" };
+
+        MoviePerfAPI(HollowDataAccess dataAccess, String typeName, HollowPerformanceAPI api) {
+            super(dataAccess, typeName, api, fieldNames);
+        }
+
+        long getId(long ref) {
+            return typeAccess.readLong(ordinal(ref), fieldIdx[0]);
+        }
+
+        int getReleaseYear(long ref) {
+            return typeAccess.readInt(ordinal(ref), fieldIdx[1]);
+        }
+
+        double getRating(long ref) {
+            return typeAccess.readDouble(ordinal(ref), fieldIdx[2]);
+        }
+
+        String getTitle(long ref) {
+            return typeAccess.readString(ordinal(ref), fieldIdx[3]);
+        }
+
+        long getDirectorRef(long ref) {
+            return Ref.toRefWithTypeMasked(refMaskedTypeIdx[4], typeAccess.readOrdinal(ordinal(ref), fieldIdx[4]));
+        }
+
+        long getCastRef(long ref) {
+            return Ref.toRefWithTypeMasked(refMaskedTypeIdx[5], typeAccess.readOrdinal(ordinal(ref), fieldIdx[5]));
+        }
+
+        long getTagsRef(long ref) {
+            return Ref.toRefWithTypeMasked(refMaskedTypeIdx[6], typeAccess.readOrdinal(ordinal(ref), fieldIdx[6]));
+        }
+
+        long getRatingsByCountryRef(long ref) {
+            return Ref.toRefWithTypeMasked(refMaskedTypeIdx[7], typeAccess.readOrdinal(ordinal(ref), fieldIdx[7]));
+        }
+    }
+
+    static class PersonPerfAPI extends HollowObjectTypePerfAPI {
+        static final String fieldNames[] = { "id", "name" };
+
+        PersonPerfAPI(HollowDataAccess dataAccess, String typeName, HollowPerformanceAPI api) {
+            super(dataAccess, typeName, api, fieldNames);
+        }
+
+        int getId(long ref) {
+            return typeAccess.readInt(ordinal(ref), fieldIdx[0]);
+        }
+
+        long getNameRef(long ref) {
+            return Ref.toRefWithTypeMasked(refMaskedTypeIdx[1], typeAccess.readOrdinal(ordinal(ref), fieldIdx[1]));
+        }
+    }
+
+    static class StringPerfAPI extends HollowObjectTypePerfAPI {
+        static final String fieldNames[] = { "value" };
+
+        StringPerfAPI(HollowDataAccess dataAccess, String typeName, HollowPerformanceAPI api) {
+            super(dataAccess, typeName, api, fieldNames);
+        }
+
+        String getValue(long ref) {
+            return typeAccess.readString(ordinal(ref), fieldIdx[0]);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.netflix.hollow.api.producer;
+
+import com.netflix.hollow.api.producer.ProducerStageListener.Stage;
+import com.netflix.hollow.api.producer.fs.HollowInMemoryBlobStager;
+import com.netflix.hollow.api.producer.validation.DuplicateDataDetectionValidator;
+import com.netflix.hollow.core.write.objectmapper.flatrecords.FlatRecordWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.LogManager;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for complete {@link HollowProducer} and {@link HollowIncrementalProducer} cycles over a
+ * {@link ProducerCycleDataset}, staging and publishing blobs in memory.
+ * <p>
+ * Each benchmark also reports the time spent in each stage of the cycle, in milliseconds, as the secondary
+ * results of {@link StageCounters}.
+ */
+public class HollowProducerCycleBenchmark {
+
+    private static final long SEED = 0xC0FFEEL;
+
+    @State(Scope.Benchmark)
+    public static abstract class AbstractCycleBenchmark {
+        //@Param( {"10000", "100000", "1000000"})
+        @Param( {"100000"})
+        public int size;
+
+        //@Param( {"0", "3", "8"})
+        @Param( {"3"})
+        public int referenceDepth;
+
+        //@Param( {"2", "8", "64"})
+        @Param( {"8"})
+        public int collectionSize;
+
+        //@Param( {"0.0", "1.0", "1.5"})
+        @Param( {"1.0"})
+        public double stringSkew;
+
+        //@Param( {"0.001", "0.01", "0.1", "0.5"})
+        @Param( {"0.01"})
+        public double churn;
+
+        @Param( {"false", "true"})
+        public boolean integrityCheck;
+
+        ProducerCycleDataset dataset;
+        ProducerStageListener stages;
+        HollowProducer producer;
+
+        void setupProducer() {
+            LogManager.getLogManager().reset();
+
+            dataset = new ProducerCycleDataset(size, referenceDepth, collectionSize, stringSkew, size / 10, SEED);
+            stages = new ProducerStageListener();
+
+            HollowProducer.Builder<?> builder = HollowProducer.withPublisher(new InMemoryPublisher())
+                    .withBlobStager(new HollowInMemoryBlobStager())
+                    .withListener(stages)
+                    .withValidator(new DuplicateDataDetectionValidator(ProducerCycleDataset.RECORD_TYPE));
+            if (!integrityCheck) {
+                builder.noIntegrityCheck();
+            }
+            producer = builder.build();
+            producer.initializeDataModel(dataset.getSchemas());
+        }
+    }
+
+    @State(Scope.Benchmark)
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 20)
+    @Fork(1)
+    public static class FullCycleBenchmark extends AbstractCycleBenchmark {
+
+        @Setup
+        public void setup() {
+            setupProducer();
+            producer.runCycle(state -> dataset.populate(state.getStateEngine()));
+        }
+
+        @Setup(Level.Invocation)
+        public void nextCycle() {
+            dataset.nextCycle(churn);
+        }
+
+        @Benchmark
+        public long runCycle(StageCounters counters) {
+            long version = producer.runCycle(state -> dataset.populate(state.getStateEngine()));
+            counters.record(stages);
+            return version;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 20)
+    @Fork(1)
+    public static class IncrementalCycleBenchmark extends AbstractCycleBenchmark {
+
+        private HollowIncrementalProducer incrementalProducer;
+        private FlatRecordWriter flatRecordWriter;
+
+        @Setup
+        public void setup() {
+            setupProducer();
+            incrementalProducer = HollowIncrementalProducer.withProducer(producer).build();
+            flatRecordWriter = dataset.newFlatRecordWriter();
+
+            for (int id = 0; id < dataset.getNumRecords(); id++) {
+                incrementalProducer.addOrModify(dataset.flatRecord(flatRecordWriter, id));
+            }
+            incrementalProducer.runCycle();
+        }
+
+        @Setup(Level.Invocation)
+        public void nextCycle() {
+            for (int id : dataset.nextCycle(churn)) {
+                incrementalProducer.addOrModify(dataset.flatRecord(flatRecordWriter, id));
+            }
+        }
+
+        @Benchmark
+        public long runCycle(StageCounters counters) {
+            long version = incrementalProducer.runCycle();
+            counters.record(stages);
+            return version;
+        }
+    }
+
+    /**
+     * The time, in milliseconds, spent in each stage of the measured producer cycles.
+     * <p>
+     * Writing the delta includes preparing the write state and calculating the delta.  Stage durations are reported
+     * by the producer's listeners with millisecond resolution; see {@code HollowWriteStateEngineBenchmark} for finer
+     * grained measurements of the write stages.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class StageCounters {
+        public double populate;
+        public double writeSnapshot;
+        public double writeDelta;
+        public double writeReverseDelta;
+        public double publish;
+        public double integrityCheck;
+        public double validation;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            populate = 0;
+            writeSnapshot = 0;
+            writeDelta = 0;
+            writeReverseDelta = 0;
+            publish = 0;
+            integrityCheck = 0;
+            validation = 0;
+        }
+
+        void record(ProducerStageListener stages) {
+            populate += millis(stages, Stage.POPULATE);
+            writeSnapshot += millis(stages, Stage.WRITE_SNAPSHOT);
+            writeDelta += millis(stages, Stage.WRITE_DELTA);
+            writeReverseDelta += millis(stages, Stage.WRITE_REVERSE_DELTA);
+            publish += millis(stages, Stage.PUBLISH);
+            integrityCheck += millis(stages, Stage.INTEGRITY_CHECK);
+            validation += millis(stages, Stage.VALIDATION);
+        }
+
+        private static double millis(ProducerStageListener stages, Stage stage) {
+            return stages.getElapsedNanos(stage) / 1_000_000d;
+        }
+    }
+
+    /**
+     * Reads each published blob fully, so that the cost of producing the staged blob is paid, and then discards it.
+     */
+    private static class InMemoryPublisher implements HollowProducer.Publisher {
+        private final byte[] buffer = new byte[8192];
+
+        @Override
+        public void publish(HollowProducer.PublishArtifact publishArtifact) {
+            try (InputStream is = publishArtifact.newInputStream()) {
+                while (is.read(buffer) != -1) {
+                    // discard
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.netflix.hollow.api.producer;
+
+import com.netflix.hollow.core.write.HollowWriteStateEngineBenchmark;
+import java.io.File;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the producer cycle benchmark suite with the GC profiler, so that each result is accompanied by its
+ * normalized allocation rate ({@code gc.alloc.rate.norm}), and writes the results as JSON.
+ * <p>
+ * The single optional argument is the result file, which defaults to {@code build/results/jmh/producer-cycle.json}.
+ * See the README for how results are kept as baselines.
+ */
+public class ProducerCycleBenchmarks {
+
+    public static void main(String[] args) throws RunnerException {
+        String resultFile = args.length > 0 ? args[0] : "build/results/jmh/producer-cycle.json";
+        File parent = new File(resultFile).getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+
+        Options opt = new OptionsBuilder()
+                .include(HollowProducerCycleBenchmark.class.getSimpleName())
+                .include(HollowWriteStateEngineBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile)
+                .build();
+        new Runner(opt).run();
+    }
+}
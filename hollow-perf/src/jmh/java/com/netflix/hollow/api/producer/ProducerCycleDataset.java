@@ -0,0 +1,287 @@
+package com.netflix.hollow.api.producer;
+
+import com.netflix.hollow.core.HollowDataset;
+import com.netflix.hollow.core.index.key.PrimaryKey;
+import com.netflix.hollow.core.schema.HollowListSchema;
+import com.netflix.hollow.core.schema.HollowObjectSchema;
+import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
+import com.netflix.hollow.core.schema.HollowSchema;
+import com.netflix.hollow.core.schema.HollowSetSchema;
+import com.netflix.hollow.core.util.HollowWriteStateCreator;
+import com.netflix.hollow.core.write.HollowListWriteRecord;
+import com.netflix.hollow.core.write.HollowObjectWriteRecord;
+import com.netflix.hollow.core.write.HollowSetWriteRecord;
+import com.netflix.hollow.core.write.HollowWriteRecord;
+import com.netflix.hollow.core.write.HollowWriteStateEngine;
+import com.netflix.hollow.core.write.objectmapper.flatrecords.FlatRecord;
+import com.netflix.hollow.core.write.objectmapper.flatrecords.FlatRecordWriter;
+import com.netflix.hollow.core.write.objectmapper.flatrecords.HollowSchemaIdentifierMapper;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A configurable synthetic dataset for producer cycle benchmarks.
+ * <p>
+ * Each {@code Record} references a chain of {@code referenceDepth} nested {@code Node} types, a list of
+ * {@code collectionSize} {@code Item}s and a set of {@code Tag}s.  String values shared between records are drawn
+ * from a pool with a Zipf distribution, so that a few values are very common; {@code stringSkew} is the Zipf exponent,
+ * where 0 is uniform.
+ * <p>
+ * The dataset is mutable:  {@link #nextCycle(double)} modifies a fraction of the records.  A modified record changes
+ * the value of its first item and the label of its most deeply nested node, so that each change is propagated up
+ * through every level of references.
+ */
+public class ProducerCycleDataset {
+
+    public static final String RECORD_TYPE = "Record";
+
+    private final int numRecords;
+    private final int referenceDepth;
+    private final int collectionSize;
+    private final long seed;
+
+    private final HollowObjectSchema recordSchema;
+    private final HollowObjectSchema[] nodeSchemas;
+    private final HollowObjectSchema itemSchema;
+    private final HollowListSchema itemListSchema;
+    private final HollowObjectSchema tagSchema;
+    private final HollowSetSchema tagSetSchema;
+    private final List<HollowSchema> schemas;
+
+    private final String[] stringPool;
+    private final double[] stringCdf;
+
+    private final int[] versions;
+    private int cycle;
+
+    public ProducerCycleDataset(int numRecords, int referenceDepth, int collectionSize, double stringSkew, int numDistinctStrings, long seed) {
+        this.numRecords = numRecords;
+        this.referenceDepth = referenceDepth;
+        this.collectionSize = collectionSize;
+        this.seed = seed;
+
+        this.nodeSchemas = new HollowObjectSchema[referenceDepth];
+        for (int i = 0; i < referenceDepth; i++) {
+            boolean leaf = i == referenceDepth - 1;
+            nodeSchemas[i] = new HollowObjectSchema("Node" + i, leaf ? 2 : 3);
+            nodeSchemas[i].addField("id", FieldType.INT);
+            nodeSchemas[i].addField("label", FieldType.STRING);
+            if (!leaf) {
+                nodeSchemas[i].addField("child", FieldType.REFERENCE, "Node" + (i + 1));
+            }
+        }
+
+        this.itemSchema = new HollowObjectSchema("Item", 3);
+        itemSchema.addField("id", FieldType.INT);
+        itemSchema.addField("value", FieldType.LONG);
+        itemSchema.addField("label", FieldType.STRING);
+        this.itemListSchema = new HollowListSchema("ListOfItem", "Item");
+
+        this.tagSchema = new HollowObjectSchema("Tag", 1);
+        tagSchema.addField("value", FieldType.STRING);
+        this.tagSetSchema = new HollowSetSchema("SetOfTag", "Tag");
+
+        this.recordSchema = new HollowObjectSchema(RECORD_TYPE, referenceDepth > 0 ? 6 : 5, new PrimaryKey(RECORD_TYPE, "id"));
+        recordSchema.addField("id", FieldType.LONG);
+        recordSchema.addField("category", FieldType.STRING);
+        recordSchema.addField("description", FieldType.STRING);
+        recordSchema.addField("items", FieldType.REFERENCE, "ListOfItem");
+        recordSchema.addField("tags", FieldType.REFERENCE, "SetOfTag");
+        if (referenceDepth > 0) {
+            recordSchema.addField("node", FieldType.REFERENCE, "Node0");
+        }
+
+        List<HollowSchema> schemas = new ArrayList<>();
+        schemas.add(recordSchema);
+        schemas.addAll(Arrays.asList(nodeSchemas));
+        schemas.add(itemSchema);
+        schemas.add(itemListSchema);
+        schemas.add(tagSchema);
+        schemas.add(tagSetSchema);
+        this.schemas = Collections.unmodifiableList(schemas);
+
+        this.stringPool = new String[numDistinctStrings];
+        this.stringCdf = new double[numDistinctStrings];
+        double total = 0;
+        for (int i = 0; i < numDistinctStrings; i++) {
+            stringPool[i] = "value-" + i;
+            total += 1.0d / Math.pow(i + 1, stringSkew);
+            stringCdf[i] = total;
+        }
+        for (int i = 0; i < numDistinctStrings; i++) {
+            stringCdf[i] /= total;
+        }
+
+        this.versions = new int[numRecords];
+    }
+
+    public HollowSchema[] getSchemas() {
+        return schemas.toArray(new HollowSchema[0]);
+    }
+
+    public int getNumRecords() {
+        return numRecords;
+    }
+
+    /**
+     * Modify each record with probability {@code churn}.
+     *
+     * @param churn the fraction of records to modify
+     * @return the ids of the modified records
+     */
+    public int[] nextCycle(double churn) {
+        cycle++;
+        Random r = new Random(seed ^ (cycle * 0x9E3779B97F4A7C15L));
+        int[] changed = new int[numRecords];
+        int numChanged = 0;
+        for (int id = 0; id < numRecords; id++) {
+            if (r.nextDouble() < churn) {
+                versions[id] = cycle;
+                changed[numChanged++] = id;
+            }
+        }
+        return Arrays.copyOf(changed, numChanged);
+    }
+
+    /**
+     * Add the current version of every record to the write state engine.
+     */
+    public void populate(HollowWriteStateEngine writeEngine) {
+        RecordWriter writer = (schema, rec) -> writeEngine.add(schema.getName(), rec);
+        for (int id = 0; id < numRecords; id++) {
+            writeRecord(writer, id);
+        }
+    }
+
+    public FlatRecordWriter newFlatRecordWriter() {
+        HollowWriteStateEngine dataset = HollowWriteStateCreator.createWithSchemas(schemas);
+        return new FlatRecordWriter(dataset, new SchemaIdentifierMapper(dataset));
+    }
+
+    /**
+     * @return the current version of the record, for {@link HollowIncrementalProducer#addOrModify(FlatRecord)}
+     */
+    public FlatRecord flatRecord(FlatRecordWriter writer, int id) {
+        writer.reset();
+        writeRecord(writer::write, id);
+        return writer.generateFlatRecord();
+    }
+
+    private int writeRecord(RecordWriter writer, int id) {
+        int version = versions[id];
+        Random r = new Random(seed * 31 + id);
+
+        HollowListWriteRecord items = new HollowListWriteRecord();
+        for (int i = 0; i < collectionSize; i++) {
+            HollowObjectWriteRecord item = new HollowObjectWriteRecord(itemSchema);
+            item.setInt("id", id * collectionSize + i);
+            item.setLong("value", i == 0 ? version : r.nextLong());
+            item.setString("label", nextPooledString(r));
+            items.addElement(writer.write(itemSchema, item));
+        }
+
+        HollowSetWriteRecord tags = new HollowSetWriteRecord();
+        int numTags = r.nextInt(8);
+        for (int i = 0; i < numTags; i++) {
+            HollowObjectWriteRecord tag = new HollowObjectWriteRecord(tagSchema);
+            tag.setString("value", nextPooledString(r));
+            int tagOrdinal = writer.write(tagSchema, tag);
+            tags.addElement(tagOrdinal);
+        }
+
+        HollowObjectWriteRecord rec = new HollowObjectWriteRecord(recordSchema);
+        rec.setLong("id", id);
+        rec.setString("category", nextPooledString(r));
+        rec.setString("description", description(r));
+        rec.setReference("items", writer.write(itemListSchema, items));
+        rec.setReference("tags", writer.write(tagSetSchema, tags));
+        if (referenceDepth > 0) {
+            rec.setReference("node", writeNode(writer, r, id, version, 0));
+        }
+        return writer.write(recordSchema, rec);
+    }
+
+    private int writeNode(RecordWriter writer, Random r, int id, int version, int level) {
+        HollowObjectSchema schema = nodeSchemas[level];
+        HollowObjectWriteRecord node = new HollowObjectWriteRecord(schema);
+        node.setInt("id", id);
+        if (level == referenceDepth - 1) {
+            node.setString("label", nextPooledString(r) + "-" + version);
+        } else {
+            node.setString("label", nextPooledString(r));
+            node.setReference("child", writeNode(writer, r, id, version, level + 1));
+        }
+        return writer.write(schema, node);
+    }
+
+    private String nextPooledString(Random r) {
+        int idx = Arrays.binarySearch(stringCdf, r.nextDouble());
+        if (idx < 0) {
+            idx = -idx - 1;
+        }
+        return stringPool[Math.min(idx, stringPool.length - 1)];
+    }
+
+    /**
+     * Description lengths are spread from a few characters up to a few hundred, with most descriptions short.
+     */
+    private static String description(Random r) {
+        int length = 8 + (int) (Math.abs(r.nextGaussian()) * 48);
+        StringBuilder sb = new StringBuilder(length);
+        while (sb.length() < length) {
+            sb.append((char) ('a' + r.nextInt(26)));
+        }
+        return sb.toString();
+    }
+
+    private interface RecordWriter {
+        int write(HollowSchema schema, HollowWriteRecord rec);
+    }
+
+    private static class SchemaIdentifierMapper implements HollowSchemaIdentifierMapper {
+        private final HollowDataset dataset;
+        private final List<HollowSchema> schemas;
+
+        SchemaIdentifierMapper(HollowDataset dataset) {
+            this.dataset = dataset;
+            this.schemas = dataset.getSchemas();
+        }
+
+        @Override
+        public HollowSchema getSchema(int identifier) {
+            return schemas.get(identifier);
+        }
+
+        @Override
+        public FieldType[] getPrimaryKeyFieldTypes(int identifier) {
+            HollowSchema schema = getSchema(identifier);
+            if (schema.getSchemaType() != HollowSchema.SchemaType.OBJECT) {
+                return null;
+            }
+
+            PrimaryKey primaryKey = ((HollowObjectSchema) schema).getPrimaryKey();
+            if (primaryKey == null) {
+                return null;
+            }
+
+            FieldType[] fieldTypes = new FieldType[primaryKey.numFields()];
+            for (int i = 0; i < fieldTypes.length; i++) {
+                fieldTypes[i] = primaryKey.getFieldType(dataset, i);
+            }
+            return fieldTypes;
+        }
+
+        @Override
+        public int getSchemaId(HollowSchema schema) {
+            for (int i = 0; i < schemas.size(); i++) {
+                if (schemas.get(i).getName().equals(schema.getName())) {
+                    return i;
+                }
+            }
+            throw new IllegalArgumentException("Unknown schema " + schema.getName());
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.netflix.hollow.api.producer;
+
+import com.netflix.hollow.api.producer.listener.CycleListener;
+import com.netflix.hollow.api.producer.listener.IntegrityCheckListener;
+import com.netflix.hollow.api.producer.listener.PopulateListener;
+import com.netflix.hollow.api.producer.listener.PublishListener;
+import com.netflix.hollow.api.producer.validation.ValidationStatus;
+import com.netflix.hollow.api.producer.validation.ValidationStatusListener;
+import java.time.Duration;
+
+/**
+ * Records the elapsed time of each stage of the most recent producer cycle.
+ * <p>
+ * Writing the snapshot, delta and reverse delta blobs are reported separately.  The write state is prepared for
+ * writing, and the delta is calculated, as part of writing the first blob of the cycle.
+ */
+public class ProducerStageListener implements CycleListener, PopulateListener, PublishListener,
+        IntegrityCheckListener, ValidationStatusListener {
+
+    public enum Stage {
+        POPULATE, WRITE_SNAPSHOT, WRITE_DELTA, WRITE_REVERSE_DELTA, PUBLISH, INTEGRITY_CHECK, VALIDATION, CYCLE
+    }
+
+    private final long[] elapsedNanos = new long[Stage.values().length];
+
+    /**
+     * @return the elapsed time of the stage in the most recent cycle, or 0 if the stage did not run
+     */
+    public long getElapsedNanos(Stage stage) {
+        return elapsedNanos[stage.ordinal()];
+    }
+
+    private void record(Stage stage, Duration elapsed) {
+        elapsedNanos[stage.ordinal()] += elapsed.toNanos();
+    }
+
+    @Override
+    public void onCycleStart(long version) {
+        for (int i = 0; i < elapsedNanos.length; i++) {
+            elapsedNanos[i] = 0;
+        }
+    }
+
+    @Override
+    public void onCycleComplete(Status status, HollowProducer.ReadState readState, long version, Duration elapsed) {
+        record(Stage.CYCLE, elapsed);
+    }
+
+    @Override
+    public void onCycleSkip(CycleSkipReason reason) {
+    }
+
+    @Override
+    public void onNewDeltaChain(long version) {
+    }
+
+    @Override
+    public void onPopulateStart(long version) {
+    }
+
+    @Override
+    public void onPopulateComplete(Status status, long version, Duration elapsed) {
+        record(Stage.POPULATE, elapsed);
+    }
+
+    @Override
+    public void onNoDeltaAvailable(long version) {
+    }
+
+    @Override
+    public void onPublishStart(long version) {
+    }
+
+    @Override
+    public void onBlobStage(Status status, HollowProducer.Blob blob, Duration elapsed) {
+        switch (blob.getType()) {
+            case SNAPSHOT:
+                record(Stage.WRITE_SNAPSHOT, elapsed);
+                break;
+            case DELTA:
+                record(Stage.WRITE_DELTA, elapsed);
+                break;
+            case REVERSE_DELTA:
+                record(Stage.WRITE_REVERSE_DELTA, elapsed);
+                break;
+        }
+    }
+
+    @Override
+    public void onBlobPublish(Status status, HollowProducer.Blob blob, Duration elapsed) {
+    }
+
+    @Override
+    public void onPublishComplete(Status status, long version, Duration elapsed) {
+        record(Stage.PUBLISH, elapsed);
+    }
+
+    @Override
+    public void onIntegrityCheckStart(long version) {
+    }
+
+    @Override
+    public void onIntegrityCheckComplete(Status status, HollowProducer.ReadState readState, long version, Duration elapsed) {
+        record(Stage.INTEGRITY_CHECK, elapsed);
+    }
+
+    @Override
+    public void onValidationStatusStart(long version) {
+    }
+
+    @Override
+    public void onValidationStatusComplete(ValidationStatus status, long version, Duration elapsed) {
+        record(Stage.VALIDATION, elapsed);
+    }
+}
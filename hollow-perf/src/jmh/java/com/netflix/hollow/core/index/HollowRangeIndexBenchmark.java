@@ -0,0 +1,88 @@
+package com.netflix.hollow.core.index;
+
+import com.netflix.hollow.core.read.iterator.HollowOrdinalIterator;
+import java.util.concurrent.ThreadLocalRandom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+public class HollowRangeIndexBenchmark {
+    public static class BuildHollowRangeIndexBenchmark extends AbstractHollowRangeIndexBenchmark {
+        @Override
+        protected boolean shouldCreateIndexes() {
+            return false;
+        }
+
+        @Benchmark
+        public HollowRangeIndex buildIndex() {
+            return createIndex();
+        }
+    }
+
+    public static class LoadHollowRangeIndexBenchmark extends AbstractHollowRangeIndexBenchmark {
+        //@Param( {"1", "10", "100", "1000"})
+        @Param( {"10"})
+        public int rangeSize;
+
+        @Benchmark
+        public int findRange() {
+            int from = (Integer) nextKeys()[0];
+            return drain(nextIndex().findRange(from, from + 8 * rangeSize));
+        }
+
+        @Benchmark
+        public int findFloor() {
+            return nextIndex().findFloor(ThreadLocalRandom.current().nextInt(8 * size));
+        }
+
+        @Benchmark
+        public int findCeiling() {
+            return nextIndex().findCeiling(ThreadLocalRandom.current().nextInt(8 * size));
+        }
+
+        @Benchmark
+        public int findLargest() {
+            return drain(nextIndex().findLargest(rangeSize));
+        }
+
+        private int drain(HollowOrdinalIterator iter) {
+            int count = 0;
+            while (iter.next() != HollowOrdinalIterator.NO_MORE_ORDINALS) {
+                count++;
+            }
+            return count;
+        }
+    }
+
+    public static class AbstractHollowRangeIndexBenchmark extends AbstractHollowIndexBenchmark<HollowRangeIndex> {
+        //@Param( {"1", "1000", "10000", "100000"})
+        @Param( {"1"})
+        public int cardinality;
+
+        @Override
+        protected int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        public HollowRangeIndex createIndex() {
+            return new HollowRangeIndex(readStateEngine, IntType.class.getSimpleName(), matchFields[0]);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(HollowRangeIndexBenchmark.class.getSimpleName())
+                .warmupIterations(5)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(1)
+                .measurementTime(TimeValue.seconds(3))
+                .forks(1)
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,55 @@
+package com.netflix.hollow.core.read;
+
+import com.netflix.hollow.core.memory.MemoryMode;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.write.HollowWriteStateEngine;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.LogManager;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Abstract benchmark class for the consumer read path.  Loads a {@link ReadPathDataset} snapshot in each memory mode,
+ * and selects a batch of random {@code Movie} ordinals to read per invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class AbstractReadPathBenchmark {
+    protected static final int BATCH_SIZE = 1024;
+    private static final long SEED = 0xC0FFEEL;
+
+    @Param( {"ON_HEAP", "SHARED_MEMORY_LAZY", "OFF_HEAP"})
+    public MemoryMode memoryMode;
+
+    //@Param( {"10000", "100000", "1000000"})
+    @Param( {"100000"})
+    public int size;
+
+    protected HollowReadStateEngine readStateEngine;
+    protected int[] ordinals;
+
+    @Setup
+    public void setupReadPath() throws IOException {
+        LogManager.getLogManager().reset();
+
+        ReadPathDataset dataset = new ReadPathDataset(size, SEED);
+        HollowWriteStateEngine writeStateEngine = dataset.newWriteStateEngine();
+        dataset.populate(writeStateEngine, 0, 0);
+
+        readStateEngine = ReadPathDataset.readSnapshot(ReadPathDataset.writeSnapshot(writeStateEngine), memoryMode);
+        ordinals = ReadPathDataset.randomOrdinals(readStateEngine.getTypeState(ReadPathDataset.MOVIE_TYPE), BATCH_SIZE, SEED);
+    }
+}
@@ -0,0 +1,44 @@
+package com.netflix.hollow.core.read;
+
+import com.netflix.hollow.api.objects.provider.HollowObjectProviderBenchmark;
+import com.netflix.hollow.api.perfapi.HollowPerformanceAPIBenchmark;
+import com.netflix.hollow.core.read.engine.HollowBlobReaderBenchmark;
+import com.netflix.hollow.core.read.engine.HollowCollectionIterationBenchmark;
+import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadStateBenchmark;
+import java.io.File;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the consumer read path benchmark suite with the GC profiler, so that each result is accompanied by its
+ * normalized allocation rate ({@code gc.alloc.rate.norm}), and writes the results as JSON.
+ * <p>
+ * The single optional argument is the result file, which defaults to {@code build/results/jmh/read-path.json}.
+ * See the README for how results are kept as baselines.
+ */
+public class ReadPathBenchmarks {
+
+    public static void main(String[] args) throws RunnerException {
+        String resultFile = args.length > 0 ? args[0] : "build/results/jmh/read-path.json";
+        File parent = new File(resultFile).getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+
+        Options opt = new OptionsBuilder()
+                .include(HollowObjectTypeReadStateBenchmark.class.getSimpleName())
+                .include(HollowCollectionIterationBenchmark.class.getSimpleName())
+                .include(HollowPerformanceAPIBenchmark.class.getSimpleName())
+                .include(HollowObjectProviderBenchmark.class.getSimpleName())
+                .include(HollowBlobReaderBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile)
+                .build();
+        new Runner(opt).run();
+    }
+}
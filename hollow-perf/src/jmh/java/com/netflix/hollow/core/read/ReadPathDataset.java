@@ -0,0 +1,222 @@
+package com.netflix.hollow.core.read;
+
+import com.netflix.hollow.core.memory.MemoryMode;
+import com.netflix.hollow.core.memory.pool.DirectMemoryRecycler;
+import com.netflix.hollow.core.read.engine.HollowBlobReader;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.read.engine.HollowTypeReadState;
+import com.netflix.hollow.core.write.HollowBlobWriter;
+import com.netflix.hollow.core.write.HollowWriteStateEngine;
+import com.netflix.hollow.core.write.objectmapper.HollowInline;
+import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * A synthetic dataset for read path benchmarks.  Each {@code Movie} has inline primitive and string fields, a
+ * reference to a shared {@code Person}, and a list, set and map of references.  Records are generated
+ * deterministically from a seed, so the same parameters always produce the same blobs.
+ */
+public class ReadPathDataset {
+
+    public static final String MOVIE_TYPE = "Movie";
+    public static final String PERSON_TYPE = "Person";
+
+    private static final int NUM_TAGS = 256;
+    private static final String[] COUNTRIES = { "US", "CA", "MX", "BR", "GB", "FR", "DE", "ES", "IT", "JP", "KR", "IN", "AU" };
+
+    private final int numMovies;
+    private final int numPeople;
+    private final long seed;
+
+    public ReadPathDataset(int numMovies, long seed) {
+        this.numMovies = numMovies;
+        this.numPeople = Math.max(1, numMovies / 4);
+        this.seed = seed;
+    }
+
+    /**
+     * Add all records to the write state engine.
+     * <p>
+     * A record is modified in a cycle with probability {@code churn}; cycle 0 is the initial state.
+     *
+     * @param writeEngine the write state engine
+     * @param cycle the cycle number
+     * @param churn the fraction of records modified in each cycle after the first
+     */
+    public void populate(HollowWriteStateEngine writeEngine, int cycle, double churn) {
+        HollowObjectMapper mapper = new HollowObjectMapper(writeEngine);
+        Random churnRandom = new Random(seed ^ cycle);
+
+        for(int i=0;i<numMovies;i++) {
+            int version = cycle > 0 && churnRandom.nextDouble() < churn ? cycle : 0;
+            mapper.add(movie(i, version));
+        }
+    }
+
+    public HollowWriteStateEngine newWriteStateEngine() {
+        HollowWriteStateEngine writeEngine = new HollowWriteStateEngine();
+        new HollowObjectMapper(writeEngine).initializeTypeState(Movie.class);
+        return writeEngine;
+    }
+
+    private Movie movie(int id, int version) {
+        Random r = new Random(seed * 31 + id * 17L + version);
+
+        Movie movie = new Movie();
+        movie.id = id;
+        movie.releaseYear = 1920 + r.nextInt(100);
+        movie.rating = r.nextDouble() * 5;
+        movie.title = title(r, id, version);
+        movie.director = person(skewed(r, numPeople));
+
+        int castSize = 1 + r.nextInt(16);
+        movie.cast = new ArrayList<>(castSize);
+        for(int i=0;i<castSize;i++)
+            movie.cast.add(person(skewed(r, numPeople)));
+
+        int numTags = r.nextInt(8);
+        movie.tags = new HashSet<>();
+        for(int i=0;i<numTags;i++)
+            movie.tags.add("tag-" + skewed(r, NUM_TAGS));
+
+        int numCountries = 1 + r.nextInt(COUNTRIES.length);
+        movie.ratingsByCountry = new HashMap<>();
+        for(int i=0;i<numCountries;i++)
+            movie.ratingsByCountry.put(COUNTRIES[i], r.nextInt(1000000));
+
+        return movie;
+    }
+
+    private Person person(int id) {
+        Person person = new Person();
+        person.id = id;
+        person.name = "person-" + id;
+        return person;
+    }
+
+    /**
+     * Title lengths are spread from a few characters up to a few hundred, with most titles short.
+     */
+    private static String title(Random r, int id, int version) {
+        int length = 4 + (int)(Math.abs(r.nextGaussian()) * 24);
+        StringBuilder sb = new StringBuilder(length + 16);
+        sb.append(id).append('-').append(version).append(' ');
+        while(sb.length() < length)
+            sb.append((char)('a' + r.nextInt(26)));
+        return sb.toString();
+    }
+
+    /**
+     * @return a value in [0, bound) where low values are much more likely than high values
+     */
+    private static int skewed(Random r, int bound) {
+        double d = r.nextDouble();
+        return (int)(d * d * d * bound);
+    }
+
+    public static byte[] writeSnapshot(HollowWriteStateEngine writeEngine) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        new HollowBlobWriter(writeEngine).writeSnapshot(baos);
+        return baos.toByteArray();
+    }
+
+    public static byte[] writeDelta(HollowWriteStateEngine writeEngine) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        new HollowBlobWriter(writeEngine).writeDelta(baos);
+        return baos.toByteArray();
+    }
+
+    /**
+     * Read a snapshot in the given memory mode.  Memory modes which map blobs from disk are read from a temporary
+     * file, which is deleted when the JVM exits.
+     */
+    public static HollowReadStateEngine readSnapshot(byte[] snapshot, MemoryMode memoryMode) throws IOException {
+        File snapshotFile = memoryMode.blobInputMode() == MemoryMode.SHARED_MEMORY_LAZY ? writeTempFile(snapshot) : null;
+        return readSnapshot(snapshot, snapshotFile, memoryMode);
+    }
+
+    /**
+     * Read a snapshot in the given memory mode, from the file if the memory mode maps blobs from disk or from the
+     * bytes otherwise.
+     */
+    public static HollowReadStateEngine readSnapshot(byte[] snapshot, File snapshotFile, MemoryMode memoryMode) throws IOException {
+        HollowReadStateEngine readEngine = memoryMode == MemoryMode.OFF_HEAP
+                ? new HollowReadStateEngine(new DirectMemoryRecycler())
+                : new HollowReadStateEngine();
+        HollowBlobReader reader = new HollowBlobReader(readEngine, memoryMode);
+
+        if(memoryMode.blobInputMode() == MemoryMode.SHARED_MEMORY_LAZY) {
+            try (HollowBlobInput in = HollowBlobInput.randomAccess(snapshotFile)) {
+                reader.readSnapshot(in);
+            }
+        } else {
+            try (HollowBlobInput in = HollowBlobInput.serial(snapshot)) {
+                reader.readSnapshot(in);
+            }
+        }
+
+        return readEngine;
+    }
+
+    public static File writeTempFile(byte[] blob) throws IOException {
+        File file = File.createTempFile("hollow-perf-", ".blob");
+        file.deleteOnExit();
+        try (OutputStream os = new FileOutputStream(file)) {
+            os.write(blob);
+        }
+        return file;
+    }
+
+    public static void applyDelta(HollowReadStateEngine readEngine, MemoryMode memoryMode, byte[] delta) throws IOException {
+        try (HollowBlobInput in = HollowBlobInput.serial(delta)) {
+            new HollowBlobReader(readEngine, memoryMode).applyDelta(in);
+        }
+    }
+
+    /**
+     * @return populated ordinals of the type, in a random order, repeated as necessary to fill the array
+     */
+    public static int[] randomOrdinals(HollowTypeReadState typeState, int count, long seed) {
+        BitSet populated = typeState.getPopulatedOrdinals();
+        int[] ordinals = new int[populated.cardinality()];
+        int idx = 0;
+        for(int ordinal = populated.nextSetBit(0); ordinal != -1; ordinal = populated.nextSetBit(ordinal + 1))
+            ordinals[idx++] = ordinal;
+
+        Random r = new Random(seed);
+        int[] result = new int[count];
+        for(int i=0;i<count;i++)
+            result[i] = ordinals[r.nextInt(ordinals.length)];
+        return result;
+    }
+
+    @SuppressWarnings("unused")
+    public static class Movie {
+        long id;
+        int releaseYear;
+        double rating;
+        @HollowInline String title;
+        Person director;
+        List<Person> cast;
+        Set<String> tags;
+        Map<String, Integer> ratingsByCountry;
+    }
+
+    @SuppressWarnings("unused")
+    public static class Person {
+        int id;
+        String name;
+    }
+}
@@ -0,0 +1,113 @@
+package com.netflix.hollow.core.read.engine;
+
+import com.netflix.hollow.core.memory.MemoryMode;
+import com.netflix.hollow.core.read.ReadPathDataset;
+import com.netflix.hollow.core.write.HollowWriteStateEngine;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.LogManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for loading a {@link ReadPathDataset} snapshot and applying a delta to it.
+ */
+public class HollowBlobReaderBenchmark {
+
+    private static final long SEED = 0xC0FFEEL;
+
+    @State(Scope.Benchmark)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(1)
+    public static class ReadSnapshotBenchmark {
+        @Param( {"ON_HEAP", "SHARED_MEMORY_LAZY", "OFF_HEAP"})
+        public MemoryMode memoryMode;
+
+        //@Param( {"10000", "100000", "1000000"})
+        @Param( {"100000"})
+        public int size;
+
+        private byte[] snapshot;
+        private File snapshotFile;
+
+        @Setup
+        public void setup() throws IOException {
+            LogManager.getLogManager().reset();
+
+            ReadPathDataset dataset = new ReadPathDataset(size, SEED);
+            HollowWriteStateEngine writeStateEngine = dataset.newWriteStateEngine();
+            dataset.populate(writeStateEngine, 0, 0);
+
+            snapshot = ReadPathDataset.writeSnapshot(writeStateEngine);
+            snapshotFile = ReadPathDataset.writeTempFile(snapshot);
+        }
+
+        @Benchmark
+        public HollowReadStateEngine readSnapshot() throws IOException {
+            return ReadPathDataset.readSnapshot(snapshot, snapshotFile, memoryMode);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 10)
+    @Measurement(iterations = 20)
+    @Fork(1)
+    public static class ApplyDeltaBenchmark {
+        // SHARED_MEMORY_LAZY does not support delta transitions
+        @Param( {"ON_HEAP", "OFF_HEAP"})
+        public MemoryMode memoryMode;
+
+        //@Param( {"10000", "100000", "1000000"})
+        @Param( {"100000"})
+        public int size;
+
+        //@Param( {"0.001", "0.01", "0.1"})
+        @Param( {"0.01"})
+        public double churn;
+
+        private byte[] snapshot;
+        private byte[] delta;
+        private HollowReadStateEngine readStateEngine;
+
+        @Setup
+        public void setup() throws IOException {
+            LogManager.getLogManager().reset();
+
+            ReadPathDataset dataset = new ReadPathDataset(size, SEED);
+            HollowWriteStateEngine writeStateEngine = dataset.newWriteStateEngine();
+            dataset.populate(writeStateEngine, 0, 0);
+            snapshot = ReadPathDataset.writeSnapshot(writeStateEngine);
+            writeStateEngine.prepareForNextCycle();
+
+            dataset.populate(writeStateEngine, 1, churn);
+            delta = ReadPathDataset.writeDelta(writeStateEngine);
+        }
+
+        @Setup(Level.Invocation)
+        public void loadSnapshot() throws IOException {
+            readStateEngine = ReadPathDataset.readSnapshot(snapshot, memoryMode);
+        }
+
+        @Benchmark
+        public HollowReadStateEngine applyDelta() throws IOException {
+            ReadPathDataset.applyDelta(readStateEngine, memoryMode, delta);
+            return readStateEngine;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.netflix.hollow.core.read.engine;
+
+import com.netflix.hollow.core.read.AbstractReadPathBenchmark;
+import com.netflix.hollow.core.read.ReadPathDataset;
+import com.netflix.hollow.core.read.engine.list.HollowListTypeReadState;
+import com.netflix.hollow.core.read.engine.map.HollowMapTypeReadState;
+import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
+import com.netflix.hollow.core.read.engine.set.HollowSetTypeReadState;
+import com.netflix.hollow.core.read.iterator.HollowMapEntryOrdinalIterator;
+import com.netflix.hollow.core.read.iterator.HollowOrdinalIterator;
+import com.netflix.hollow.core.schema.HollowObjectSchema;
+import java.io.IOException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Benchmarks list, set and map traversal for the collections referenced by each {@code Movie}.  Each operation
+ * traverses a single collection.
+ */
+public class HollowCollectionIterationBenchmark extends AbstractReadPathBenchmark {
+
+    private HollowListTypeReadState castState;
+    private HollowSetTypeReadState tagsState;
+    private HollowMapTypeReadState ratingsState;
+    private int[] castOrdinals;
+    private int[] tagsOrdinals;
+    private int[] ratingsOrdinals;
+    private int[] ratingsKeyOrdinals;
+
+    @Setup
+    public void setup() throws IOException {
+        HollowObjectTypeReadState movieState = (HollowObjectTypeReadState) readStateEngine.getTypeState(ReadPathDataset.MOVIE_TYPE);
+        HollowObjectSchema schema = movieState.getSchema();
+        castState = (HollowListTypeReadState) readStateEngine.getTypeState(schema.getReferencedType("cast"));
+        tagsState = (HollowSetTypeReadState) readStateEngine.getTypeState(schema.getReferencedType("tags"));
+        ratingsState = (HollowMapTypeReadState) readStateEngine.getTypeState(schema.getReferencedType("ratingsByCountry"));
+
+        castOrdinals = readOrdinals(movieState, schema.getPosition("cast"));
+        tagsOrdinals = readOrdinals(movieState, schema.getPosition("tags"));
+        ratingsOrdinals = readOrdinals(movieState, schema.getPosition("ratingsByCountry"));
+
+        ratingsKeyOrdinals = new int[ratingsOrdinals.length];
+        for (int i = 0; i < ratingsOrdinals.length; i++) {
+            HollowMapEntryOrdinalIterator iter = ratingsState.ordinalIterator(ratingsOrdinals[i]);
+            ratingsKeyOrdinals[i] = iter.next() ? iter.getKey() : -1;
+        }
+    }
+
+    private int[] readOrdinals(HollowObjectTypeReadState movieState, int fieldIndex) {
+        int[] result = new int[ordinals.length];
+        for (int i = 0; i < ordinals.length; i++) {
+            result[i] = movieState.readOrdinal(ordinals[i], fieldIndex);
+        }
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int listGetElementOrdinal() {
+        int sum = 0;
+        for (int ordinal : castOrdinals) {
+            int size = castState.size(ordinal);
+            for (int i = 0; i < size; i++) {
+                sum += castState.getElementOrdinal(ordinal, i);
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int listIterator() {
+        return drainAll(castState, castOrdinals);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int setIterator() {
+        return drainAll(tagsState, tagsOrdinals);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int mapIterator() {
+        int sum = 0;
+        for (int ordinal : ratingsOrdinals) {
+            HollowMapEntryOrdinalIterator iter = ratingsState.ordinalIterator(ordinal);
+            while (iter.next()) {
+                sum += iter.getKey() + iter.getValue();
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int mapGet() {
+        int sum = 0;
+        for (int i = 0; i < ratingsOrdinals.length; i++) {
+            sum += ratingsState.get(ratingsOrdinals[i], ratingsKeyOrdinals[i]);
+        }
+        return sum;
+    }
+
+    private static int drainAll(HollowCollectionTypeReadState typeState, int[] collectionOrdinals) {
+        int sum = 0;
+        for (int ordinal : collectionOrdinals) {
+            HollowOrdinalIterator iter = typeState.ordinalIterator(ordinal);
+            int element = iter.next();
+            while (element != HollowOrdinalIterator.NO_MORE_ORDINALS) {
+                sum += element;
+                element = iter.next();
+            }
+        }
+        return sum;
+    }
+}
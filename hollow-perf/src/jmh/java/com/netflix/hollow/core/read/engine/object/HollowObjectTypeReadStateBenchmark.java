@@ -0,0 +1,133 @@
+package com.netflix.hollow.core.read.engine.object;
+
+import com.netflix.hollow.core.read.AbstractReadPathBenchmark;
+import com.netflix.hollow.core.read.ReadPathDataset;
+import com.netflix.hollow.core.schema.HollowObjectSchema;
+import java.io.IOException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks field reads on {@link HollowObjectTypeReadState}, which delegate to the shard for each ordinal.
+ */
+public class HollowObjectTypeReadStateBenchmark extends AbstractReadPathBenchmark {
+
+    private HollowObjectTypeReadState typeState;
+    private int idField;
+    private int releaseYearField;
+    private int ratingField;
+    private int titleField;
+    private int directorField;
+    private String[] titles;
+    private int[] intValues = new int[BATCH_SIZE];
+
+    @Setup
+    public void setup() throws IOException {
+        typeState = (HollowObjectTypeReadState) readStateEngine.getTypeState(ReadPathDataset.MOVIE_TYPE);
+        HollowObjectSchema schema = typeState.getSchema();
+        idField = schema.getPosition("id");
+        releaseYearField = schema.getPosition("releaseYear");
+        ratingField = schema.getPosition("rating");
+        titleField = schema.getPosition("title");
+        directorField = schema.getPosition("director");
+
+        titles = new String[ordinals.length];
+        for (int i = 0; i < ordinals.length; i++) {
+            // copy so that equality checks compare contents rather than identity
+            titles[i] = new String(typeState.readString(ordinals[i], titleField));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int readInt() {
+        int sum = 0;
+        for (int ordinal : ordinals) {
+            sum += typeState.readInt(ordinal, releaseYearField);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int readIntSequential() {
+        int sum = 0;
+        for (int ordinal = 0; ordinal < BATCH_SIZE; ordinal++) {
+            sum += typeState.readInt(ordinal, releaseYearField);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int readIntsBulk() {
+        int read = typeState.readInts(0, releaseYearField, intValues, null);
+        int sum = 0;
+        for (int i = 0; i < read; i++) {
+            sum += intValues[i];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long readLong() {
+        long sum = 0;
+        for (int ordinal : ordinals) {
+            sum += typeState.readLong(ordinal, idField);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public double readDouble() {
+        double sum = 0;
+        for (int ordinal : ordinals) {
+            sum += typeState.readDouble(ordinal, ratingField);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int readOrdinal() {
+        int sum = 0;
+        for (int ordinal : ordinals) {
+            sum += typeState.readOrdinal(ordinal, directorField);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void readString(Blackhole bh) {
+        for (int ordinal : ordinals) {
+            bh.consume(typeState.readString(ordinal, titleField));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int isStringFieldEqual() {
+        int matches = 0;
+        for (int i = 0; i < ordinals.length; i++) {
+            if (typeState.isStringFieldEqual(ordinals[i], titleField, titles[i])) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int findVarLengthFieldHashCode() {
+        int hash = 0;
+        for (int ordinal : ordinals) {
+            hash ^= typeState.findVarLengthFieldHashCode(ordinal, titleField);
+        }
+        return hash;
+    }
+}
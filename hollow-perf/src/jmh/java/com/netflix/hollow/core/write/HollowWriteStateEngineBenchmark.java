@@ -0,0 +1,123 @@
+package com.netflix.hollow.core.write;
+
+import com.netflix.hollow.api.producer.ProducerCycleDataset;
+import com.netflix.hollow.core.util.HollowWriteStateCreator;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.LogManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the stages of a producer cycle which take place inside the {@link HollowWriteStateEngine} once it
+ * has been populated: preparing for write, calculating and writing the delta and reverse delta, and writing the
+ * snapshot.
+ * <p>
+ * Each invocation repopulates the same changes on top of the previous cycle, so every measurement starts from an
+ * identical write state.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+public class HollowWriteStateEngineBenchmark {
+
+    private static final long SEED = 0xC0FFEEL;
+
+    //@Param( {"10000", "100000", "1000000"})
+    @Param( {"100000"})
+    public int size;
+
+    //@Param( {"0", "3", "8"})
+    @Param( {"3"})
+    public int referenceDepth;
+
+    //@Param( {"2", "8", "64"})
+    @Param( {"8"})
+    public int collectionSize;
+
+    //@Param( {"0.0", "1.0", "1.5"})
+    @Param( {"1.0"})
+    public double stringSkew;
+
+    //@Param( {"0.001", "0.01", "0.1", "0.5"})
+    @Param( {"0.01"})
+    public double churn;
+
+    private ProducerCycleDataset dataset;
+    private HollowWriteStateEngine writeStateEngine;
+    private HollowBlobWriter writer;
+    private final OutputStream out = new DiscardingOutputStream();
+
+    @Setup
+    public void setup() throws IOException {
+        LogManager.getLogManager().reset();
+
+        dataset = new ProducerCycleDataset(size, referenceDepth, collectionSize, stringSkew, size / 10, SEED);
+        writeStateEngine = HollowWriteStateCreator.createWithSchemas(Arrays.asList(dataset.getSchemas()));
+        writer = new HollowBlobWriter(writeStateEngine);
+
+        dataset.populate(writeStateEngine);
+        writer.writeSnapshot(out);
+        writeStateEngine.prepareForNextCycle();
+
+        dataset.nextCycle(churn);
+    }
+
+    @Setup(Level.Invocation)
+    public void populate() {
+        writeStateEngine.resetToLastPrepareForNextCycle();
+        dataset.populate(writeStateEngine);
+    }
+
+    @Benchmark
+    public HollowWriteStateEngine prepareForWrite() {
+        writeStateEngine.prepareForWrite();
+        return writeStateEngine;
+    }
+
+    @Benchmark
+    public HollowWriteStateEngine writeDelta() throws IOException {
+        writeStateEngine.prepareForWrite();
+        writer.writeDelta(out);
+        return writeStateEngine;
+    }
+
+    @Benchmark
+    public HollowWriteStateEngine writeReverseDelta() throws IOException {
+        writeStateEngine.prepareForWrite();
+        writer.writeReverseDelta(out);
+        return writeStateEngine;
+    }
+
+    @Benchmark
+    public HollowWriteStateEngine writeSnapshot() throws IOException {
+        writeStateEngine.prepareForWrite();
+        writer.writeSnapshot(out);
+        return writeStateEngine;
+    }
+
+    private static class DiscardingOutputStream extends OutputStream {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+}
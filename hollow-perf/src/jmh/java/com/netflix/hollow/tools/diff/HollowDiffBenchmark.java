@@ -0,0 +1,128 @@
+package com.netflix.hollow.tools.diff;
+
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
+import com.netflix.hollow.core.util.StateEngineRoundTripper;
+import com.netflix.hollow.core.write.HollowWriteStateEngine;
+import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
+import com.netflix.hollow.core.write.objectmapper.HollowPrimaryKey;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.LogManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures a full {@link HollowDiff} between two states of a single large type, where a fraction of the
+ * records are modified, removed or added between the states.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HollowDiffBenchmark {
+
+    //@Param( {"100000", "1000000", "10000000"})
+    @Param( {"1000000"})
+    public int size;
+
+    // percentage of records which differ between the from and to states
+    @Param( {"10"})
+    public int changePercent;
+
+    private HollowReadStateEngine fromStateEngine;
+    private HollowReadStateEngine toStateEngine;
+
+    @Setup
+    public void setup() throws IOException {
+        LogManager.getLogManager().reset();
+        Random random = new Random(size);
+
+        HollowWriteStateEngine fromWriteStateEngine = new HollowWriteStateEngine();
+        HollowWriteStateEngine toWriteStateEngine = new HollowWriteStateEngine();
+        HollowObjectMapper fromMapper = new HollowObjectMapper(fromWriteStateEngine);
+        HollowObjectMapper toMapper = new HollowObjectMapper(toWriteStateEngine);
+
+        for (int i = 0; i < size; i++) {
+            Movie movie = new Movie(i, "title" + i, random.nextInt(100), new Country("C" + random.nextInt(200)));
+            boolean changed = random.nextInt(100) < changePercent;
+
+            if (!changed || random.nextBoolean()) {
+                fromMapper.add(movie);
+            }
+            if (!changed) {
+                toMapper.add(movie);
+            } else if (random.nextBoolean()) {
+                toMapper.add(new Movie(i, "title" + i, movie.rating + 1, movie.country));
+            } else {
+                toMapper.add(new Movie(size + i, "title" + (size + i), movie.rating, movie.country));
+            }
+        }
+
+        fromStateEngine = StateEngineRoundTripper.roundTripSnapshot(fromWriteStateEngine);
+        toStateEngine = StateEngineRoundTripper.roundTripSnapshot(toWriteStateEngine);
+    }
+
+    @Benchmark
+    public HollowDiff calculateDiffs() {
+        HollowDiff diff = new HollowDiff(fromStateEngine, toStateEngine);
+        diff.calculateDiffs();
+        return diff;
+    }
+
+    @Benchmark
+    public HollowDiffMatcher calculateMatches() {
+        HollowDiffMatcher matcher = new HollowDiffMatcher(
+                (HollowObjectTypeReadState) fromStateEngine.getTypeState("Movie"),
+                (HollowObjectTypeReadState) toStateEngine.getTypeState("Movie"));
+        matcher.addMatchPath("id");
+        matcher.calculateMatches();
+        return matcher;
+    }
+
+    @HollowPrimaryKey(fields = "id")
+    static class Movie {
+        int id;
+        String title;
+        int rating;
+        Country country;
+
+        Movie(int id, String title, int rating, Country country) {
+            this.id = id;
+            this.title = title;
+            this.rating = rating;
+            this.country = country;
+        }
+    }
+
+    static class Country {
+        String code;
+
+        Country(String code) {
+            this.code = code;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(HollowDiffBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
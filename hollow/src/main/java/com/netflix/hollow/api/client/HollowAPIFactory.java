@@ -22,6 +22,7 @@ import com.netflix.hollow.core.read.dataaccess.HollowDataAccess;
 import java.lang.reflect.Constructor;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -60,19 +61,39 @@ public interface HollowAPIFactory {
 
         private final Class<T> generatedAPIClass;
         private final Set<String> cachedTypes;
+        private final Map<String, Integer> boundedCachedTypes;
         
         public ForGeneratedAPI(Class<T> generatedAPIClass) {
             this(generatedAPIClass, new String[0]);
         }
         
         public ForGeneratedAPI(Class<T> generatedAPIClass, String... cachedTypes) {
+            this(generatedAPIClass, Collections.<String, Integer>emptyMap(), cachedTypes);
+        }
+
+        /**
+         * @param generatedAPIClass the generated API class
+         * @param boundedCachedTypes the types for which a bounded number of objects should be cached, mapped to the
+         *                           maximum number of objects to cache for each type
+         * @param cachedTypes the types for which objects for all records should be cached
+         * @throws IllegalArgumentException if bounded cached types are specified for an API which was generated
+         *                                  before they were supported
+         */
+        public ForGeneratedAPI(Class<T> generatedAPIClass, Map<String, Integer> boundedCachedTypes, String... cachedTypes) {
             this.generatedAPIClass = generatedAPIClass;
             this.cachedTypes = new HashSet<String>(Arrays.asList(cachedTypes));
+            this.boundedCachedTypes = new HashMap<String, Integer>(boundedCachedTypes);
+
+            if(!boundedCachedTypes.isEmpty())
+                boundedCacheConstructor();
         }
 
         
         @Override
         public T createAPI(HollowDataAccess dataAccess) {
+            if(!boundedCachedTypes.isEmpty())
+                return createAPI(dataAccess, null);
+
             try {
                 Constructor<T> constructor = generatedAPIClass.getConstructor(HollowDataAccess.class, Set.class);
                 return constructor.newInstance(dataAccess, cachedTypes);
@@ -88,6 +109,14 @@ public interface HollowAPIFactory {
 
         @Override
         public T createAPI(HollowDataAccess dataAccess, HollowAPI previousCycleAPI) {
+            if(!boundedCachedTypes.isEmpty()) {
+                try {
+                    return boundedCacheConstructor().newInstance(dataAccess, cachedTypes, Collections.emptyMap(), boundedCachedTypes, previousCycleAPI);
+                } catch(Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+
             try {
                 Constructor<T> constructor = generatedAPIClass.getConstructor(HollowDataAccess.class, Set.class, Map.class, generatedAPIClass);
                 return constructor.newInstance(dataAccess, cachedTypes, Collections.emptyMap(), previousCycleAPI);
@@ -100,6 +129,15 @@ public interface HollowAPIFactory {
                 }
             }
         }
+
+        private Constructor<T> boundedCacheConstructor() {
+            try {
+                return generatedAPIClass.getConstructor(HollowDataAccess.class, Set.class, Map.class, Map.class, generatedAPIClass);
+            } catch(NoSuchMethodException e) {
+                throw new IllegalArgumentException("The generated API " + generatedAPIClass.getName()
+                        + " does not support bounded cached types; regenerate it with this version of Hollow to use them", e);
+            }
+        }
     }
 
 }
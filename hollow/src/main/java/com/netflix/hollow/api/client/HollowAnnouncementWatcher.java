@@ -23,6 +23,7 @@ import com.netflix.hollow.core.HollowConstants;
 import java.util.Random;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -43,6 +44,7 @@ import java.util.logging.Logger;
 public abstract class HollowAnnouncementWatcher {
     private static final Logger log = Logger.getLogger(HollowAnnouncementWatcher.class.getName());
     private final ExecutorService refreshExecutor;
+    private final AtomicBoolean refreshQueued = new AtomicBoolean();
 
     /**
      * Construct a HollowAnnouncementWatcher with a default ExecutorService.
@@ -116,26 +118,40 @@ public abstract class HollowAnnouncementWatcher {
      * Triggers async refresh after the specified number of milliseconds has passed.
      *
      * Any subsequent calls for async refresh will not begin until after the specified delay
-     * has completed.
+     * has completed.  Calls made while a refresh is already waiting to begin are coalesced into
+     * that refresh, which updates to the latest version announced when it begins.
      *
      * @param delayMillis the delay in milliseconds
      */
     public void triggerAsyncRefreshWithDelay(int delayMillis) {
+        if(!refreshQueued.compareAndSet(false, true))
+            return;
+
         final HollowClient client = this.client;
         final long targetBeginTime = System.currentTimeMillis() + delayMillis;
 
-        refreshExecutor.execute(new Runnable() {
-            public void run() {
-                try {
-                    long delay = targetBeginTime - System.currentTimeMillis();
-                    if(delay > 0)
-                        Thread.sleep(delay);
-                    client.triggerRefresh();
-                } catch(Throwable th) {
-                    log.log(Level.SEVERE, "Async refresh failed", th);
+        try {
+            refreshExecutor.execute(new Runnable() {
+                public void run() {
+                    try {
+                        try {
+                            long delay = targetBeginTime - System.currentTimeMillis();
+                            if(delay > 0)
+                                Thread.sleep(delay);
+                        } finally {
+                            /// announcements from here on queue a follow-up refresh
+                            refreshQueued.set(false);
+                        }
+                        client.triggerRefresh();
+                    } catch(Throwable th) {
+                        log.log(Level.SEVERE, "Async refresh failed", th);
+                    }
                 }
-            }
-        });
+            });
+        } catch(RuntimeException e) {
+            refreshQueued.set(false);
+            throw e;
+        }
     }
 
 
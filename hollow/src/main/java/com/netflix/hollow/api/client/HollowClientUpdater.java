@@ -23,7 +23,9 @@ import com.netflix.hollow.api.metrics.HollowMetricsCollector;
 import com.netflix.hollow.core.HollowConstants;
 import com.netflix.hollow.core.memory.MemoryMode;
 import com.netflix.hollow.core.memory.pool.ArraySegmentRecycler;
+import com.netflix.hollow.core.memory.pool.DirectMemoryRecycler;
 import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.read.engine.object.HollowStringCacheConfig;
 import com.netflix.hollow.core.read.filter.HollowFilterConfig;
 import com.netflix.hollow.core.read.filter.TypeFilter;
 import com.netflix.hollow.core.util.HollowObjectHashCodeFinder;
@@ -56,9 +58,17 @@ public class HollowClientUpdater {
     private final HollowMetricsCollector<HollowConsumerMetrics> metricsCollector;
 
     private boolean skipTypeShardUpdateWithNoAdditions;
+    private HollowStringCacheConfig stringCacheConfig;
+    private boolean mapSnapshots;
+    private boolean lazyTypeMaterialization;
 
     private TypeFilter filter;
 
+    // shared by the state engines of every data holder, including those built for double snapshots, so it is kept
+    // for the lifetime of the updater; the arrays of replaced data holders are reclaimed through phantom references
+    private DirectMemoryRecycler offHeapRecycler;
+    private boolean destroyed;
+
     public HollowClientUpdater(HollowConsumer.BlobRetriever transitionCreator,
                                List<HollowConsumer.RefreshListener> refreshListeners,
                                HollowAPIFactory apiFactory,
@@ -93,6 +103,34 @@ public class HollowClientUpdater {
             dataHolder.getStateEngine().setSkipTypeShardUpdateWithNoAdditions(skipTypeShardUpdateWithNoAdditions);
     }
 
+    /**
+     * Sets the string cache config used for state engines created by subsequent snapshot loads.
+     *
+     * @param stringCacheConfig the string cache config
+     */
+    public void setStringCacheConfig(HollowStringCacheConfig stringCacheConfig) {
+        this.stringCacheConfig = stringCacheConfig;
+    }
+
+    /**
+     * Sets whether snapshot blobs available as local files are mapped rather than decoded by subsequent snapshot loads.
+     *
+     * @param mapSnapshots whether to map snapshots
+     */
+    public void setMapSnapshots(boolean mapSnapshots) {
+        this.mapSnapshots = mapSnapshots;
+    }
+
+    /**
+     * Sets whether types in snapshots loaded from local files are materialized on first access by subsequent
+     * snapshot loads.
+     *
+     * @param lazyTypeMaterialization whether to materialize types on first access
+     */
+    public void setLazyTypeMaterialization(boolean lazyTypeMaterialization) {
+        this.lazyTypeMaterialization = lazyTypeMaterialization;
+    }
+
     /**
      * Updates the client's state to the requested version, or to the version closest to but less than the requested version.
      *
@@ -110,6 +148,9 @@ public class HollowClientUpdater {
      * under us.
      */
     public synchronized boolean updateTo(long requestedVersion) throws Throwable {
+        if (destroyed) {
+            throw new IllegalStateException("The consumer's data has been destroyed");
+        }
         if (requestedVersion == getCurrentVersionId()) {
             if (requestedVersion == HollowConstants.VERSION_NONE && hollowDataHolderVolatile == null) {
                 LOG.warning("No versions to update to, initializing to empty state");
@@ -252,17 +293,37 @@ public class HollowClientUpdater {
                 doubleSnapshotConfig, failedTransitionTracker,
                 staleReferenceDetector, objectLongevityConfig)
                 .setFilter(filter)
-                .setSkipTypeShardUpdateWithNoAdditions(skipTypeShardUpdateWithNoAdditions);
+                .setSkipTypeShardUpdateWithNoAdditions(skipTypeShardUpdateWithNoAdditions)
+                .setStringCacheConfig(stringCacheConfig)
+                .setMapSnapshots(mapSnapshots)
+                .setLazyTypeMaterialization(lazyTypeMaterialization);
     }
 
     private HollowReadStateEngine newStateEngine() {
         HollowDataHolder hollowDataHolderLocal = hollowDataHolderVolatile;
+        ArraySegmentRecycler recycler;
         if (hollowDataHolderLocal != null) {
-            ArraySegmentRecycler existingRecycler =
-                    hollowDataHolderLocal.getStateEngine().getMemoryRecycler();
-            return new HollowReadStateEngine(hashCodeFinder, true, existingRecycler);
+            recycler = hollowDataHolderLocal.getStateEngine().getMemoryRecycler();
+        } else if (memoryMode.equals(MemoryMode.OFF_HEAP)) {
+            if (offHeapRecycler == null) {
+                offHeapRecycler = new DirectMemoryRecycler();
+            }
+            recycler = offHeapRecycler;
+        } else {
+            return new HollowReadStateEngine(hashCodeFinder);
+        }
+        return new HollowReadStateEngine(hashCodeFinder, true, recycler);
+    }
+
+    /**
+     * Return the off-heap memory held by the current data, if any, to the operating system.  The data, and any API
+     * or objects created from it, must not be used afterwards, and no further updates may be applied.
+     */
+    public synchronized void destroy() {
+        destroyed = true;
+        if (offHeapRecycler != null) {
+            offHeapRecycler.destroy();
         }
-        return new HollowReadStateEngine(hashCodeFinder);
     }
 
     public StackTraceRecorder getStaleReferenceUsageStackTraceRecorder() {
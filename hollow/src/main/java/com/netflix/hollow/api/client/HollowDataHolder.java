@@ -20,6 +20,7 @@ import com.netflix.hollow.api.consumer.HollowConsumer;
 import com.netflix.hollow.api.consumer.HollowConsumer.TransitionAwareRefreshListener;
 import com.netflix.hollow.api.custom.HollowAPI;
 import com.netflix.hollow.core.HollowConstants;
+import com.netflix.hollow.core.HollowStringEncoding;
 import com.netflix.hollow.core.memory.MemoryMode;
 import com.netflix.hollow.core.read.HollowBlobInput;
 import com.netflix.hollow.core.read.OptionalBlobPartInput;
@@ -27,10 +28,15 @@ import com.netflix.hollow.core.read.dataaccess.HollowDataAccess;
 import com.netflix.hollow.core.read.dataaccess.proxy.HollowProxyDataAccess;
 import com.netflix.hollow.core.read.engine.HollowBlobReader;
 import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.read.engine.object.HollowStringCacheConfig;
 import com.netflix.hollow.core.read.filter.HollowFilterConfig;
 import com.netflix.hollow.core.read.filter.TypeFilter;
 import com.netflix.hollow.tools.history.HollowHistoricalStateCreator;
 import com.netflix.hollow.tools.history.HollowHistoricalStateDataAccess;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.lang.ref.WeakReference;
 import java.util.logging.Logger;
@@ -51,6 +57,7 @@ class HollowDataHolder {
     private final HollowConsumer.ObjectLongevityConfig objLongevityConfig;
 
     private TypeFilter filter;
+    private boolean mapSnapshots;
 
     private HollowAPI currentAPI;
 
@@ -105,6 +112,21 @@ class HollowDataHolder {
         return this;
     }
 
+    HollowDataHolder setMapSnapshots(boolean mapSnapshots) {
+        this.mapSnapshots = mapSnapshots;
+        return this;
+    }
+
+    HollowDataHolder setLazyTypeMaterialization(boolean lazyTypeMaterialization) {
+        this.stateEngine.setLazyTypeMaterialization(lazyTypeMaterialization);
+        return this;
+    }
+
+    HollowDataHolder setStringCacheConfig(HollowStringCacheConfig stringCacheConfig) {
+        this.stateEngine.setStringCacheConfig(stringCacheConfig);
+        return this;
+    }
+
     void update(HollowUpdatePlan updatePlan, HollowConsumer.RefreshListener[] refreshListeners,
             Runnable apiInitCallback) throws Throwable {
         // Only fail if double snapshot is configured.
@@ -150,7 +172,7 @@ class HollowDataHolder {
     private void applySnapshotTransition(HollowConsumer.Blob snapshotBlob,
             HollowConsumer.RefreshListener[] refreshListeners,
             Runnable apiInitCallback) throws Throwable {
-        try (HollowBlobInput in = HollowBlobInput.modeBasedSelector(memoryMode, snapshotBlob);
+        try (HollowBlobInput in = snapshotInput(snapshotBlob);
              OptionalBlobPartInput optionalPartIn = snapshotBlob.getOptionalBlobPartInputs()) {
             applyStateEngineTransition(in, optionalPartIn, snapshotBlob, refreshListeners);
             initializeAPI(apiInitCallback);
@@ -165,6 +187,37 @@ class HollowDataHolder {
         }
     }
 
+    /**
+     * When snapshots are mapped, a snapshot blob which is available as a local file (such as one kept by the
+     * {@link com.netflix.hollow.api.consumer.fs.HollowFilesystemBlobRetriever}) is mapped in place rather than decoded
+     * onto the heap.  Each type shard is copied into the configured memory mode when a delta is first applied to it.
+     * Snapshots are also mapped when types are materialized lazily, since deferred types are read from the file.
+     * A file which does not begin with a blob header, such as one holding the blob as a retriever stored it
+     * compressed, is not mapped; the blob is read from its input stream instead.
+     */
+    private HollowBlobInput snapshotInput(HollowConsumer.Blob snapshotBlob) throws IOException {
+        if ((mapSnapshots || stateEngine.isLazyTypeMaterialization()) && memoryMode.supportsDeltas()) {
+            File file;
+            try {
+                file = snapshotBlob.getFile();
+            } catch (UnsupportedOperationException e) {
+                file = null;
+            }
+            if (file != null && isRawBlob(file)) {
+                return HollowBlobInput.randomAccess(file);
+            }
+        }
+        return HollowBlobInput.modeBasedSelector(memoryMode, snapshotBlob);
+    }
+
+    private static boolean isRawBlob(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            return HollowStringEncoding.forBlobFormatVersion(in.readInt()) != null;
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
     private void applyStateEngineTransition(HollowBlobInput in, OptionalBlobPartInput optionalPartIn, HollowConsumer.Blob transition, HollowConsumer.RefreshListener[] refreshListeners) throws IOException {
         if(transition.isSnapshot()) {
             if(filter == null) {
@@ -206,7 +259,7 @@ class HollowDataHolder {
     }
 
     private void applyDeltaTransition(HollowConsumer.Blob blob, boolean isSnapshotPlan, HollowConsumer.RefreshListener[] refreshListeners) throws Throwable {
-        if (!memoryMode.equals(MemoryMode.ON_HEAP)) {
+        if (!memoryMode.supportsDeltas()) {
             LOG.warning("Skipping delta transition in shared-memory mode");
             return;
         }
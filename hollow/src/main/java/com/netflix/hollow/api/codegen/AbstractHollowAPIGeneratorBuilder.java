@@ -132,6 +132,16 @@ public abstract class AbstractHollowAPIGeneratorBuilder<B extends AbstractHollow
         return getBuilder();
     }
 
+    public B withCachedPrimitiveFieldsOnly(boolean useCachedPrimitiveFieldsOnly) {
+        config.setUseCachedPrimitiveFieldsOnly(useCachedPrimitiveFieldsOnly);
+        return getBuilder();
+    }
+
+    public B withRangeIndex(boolean generateRangeIndex) {
+        config.setGenerateRangeIndex(generateRangeIndex);
+        return getBuilder();
+    }
+
     public B withDestination(String destinationPath) {
         return withDestination(Paths.get(destinationPath));
     }
@@ -27,6 +27,8 @@ public class CodeGeneratorConfig {
     private boolean useHollowPrimitiveTypes = false;
     private boolean restrictApiToFieldType = false;
     private boolean useVerboseToString = false;
+    private boolean useCachedPrimitiveFieldsOnly = false;
+    private boolean generateRangeIndex = false;
 
     public CodeGeneratorConfig() {}
 
@@ -121,16 +123,34 @@ public class CodeGeneratorConfig {
         this.useVerboseToString = useVerboseToString;
     }
 
+    public boolean isUseCachedPrimitiveFieldsOnly() {
+        return useCachedPrimitiveFieldsOnly;
+    }
+
+    public void setUseCachedPrimitiveFieldsOnly(boolean useCachedPrimitiveFieldsOnly) {
+        this.useCachedPrimitiveFieldsOnly = useCachedPrimitiveFieldsOnly;
+    }
+
+    public boolean isGenerateRangeIndex() {
+        return generateRangeIndex;
+    }
+
+    public void setGenerateRangeIndex(boolean generateRangeIndex) {
+        this.generateRangeIndex = generateRangeIndex;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
         int result = 1;
         result = prime * result + ((classPostfix == null) ? 0 : classPostfix.hashCode());
+        result = prime * result + (generateRangeIndex ? 1231 : 1237);
         result = prime * result + ((getterPrefix == null) ? 0 : getterPrefix.hashCode());
         result = prime * result + (reservePrimaryKeyIndexForTypeWithPrimaryKey ? 1231 : 1237);
         result = prime * result + (restrictApiToFieldType ? 1231 : 1237);
         result = prime * result + (useAggressiveSubstitutions ? 1231 : 1237);
         result = prime * result + (useBooleanFieldErgonomics ? 1231 : 1237);
+        result = prime * result + (useCachedPrimitiveFieldsOnly ? 1231 : 1237);
         result = prime * result + (useHollowPrimitiveTypes ? 1231 : 1237);
         result = prime * result + (usePackageGrouping ? 1231 : 1237);
         result = prime * result + (useVerboseToString ? 1231 : 1237);
@@ -156,6 +176,8 @@ public class CodeGeneratorConfig {
                 return false;
         } else if (!getterPrefix.equals(other.getterPrefix))
             return false;
+        if (generateRangeIndex != other.generateRangeIndex)
+            return false;
         if (reservePrimaryKeyIndexForTypeWithPrimaryKey != other.reservePrimaryKeyIndexForTypeWithPrimaryKey)
             return false;
         if (restrictApiToFieldType != other.restrictApiToFieldType)
@@ -164,6 +186,8 @@ public class CodeGeneratorConfig {
             return false;
         if (useBooleanFieldErgonomics != other.useBooleanFieldErgonomics)
             return false;
+        if (useCachedPrimitiveFieldsOnly != other.useCachedPrimitiveFieldsOnly)
+            return false;
         if (useHollowPrimitiveTypes != other.useHollowPrimitiveTypes)
             return false;
         if (usePackageGrouping != other.usePackageGrouping)
@@ -194,6 +218,10 @@ public class CodeGeneratorConfig {
         builder.append(restrictApiToFieldType);
         builder.append(", useVerboseToString=");
         builder.append(useVerboseToString);
+        builder.append(", useCachedPrimitiveFieldsOnly=");
+        builder.append(useCachedPrimitiveFieldsOnly);
+        builder.append(", generateRangeIndex=");
+        builder.append(generateRangeIndex);
         builder.append("]");
         return builder.toString();
     }
@@ -26,6 +26,7 @@ import com.netflix.hollow.api.codegen.delegate.HollowObjectDelegateInterfaceGene
 import com.netflix.hollow.api.codegen.delegate.HollowObjectDelegateLookupImplGenerator;
 import com.netflix.hollow.api.codegen.indexes.HollowHashIndexGenerator;
 import com.netflix.hollow.api.codegen.indexes.HollowPrimaryKeyIndexGenerator;
+import com.netflix.hollow.api.codegen.indexes.HollowRangeIndexGenerator;
 import com.netflix.hollow.api.codegen.indexes.HollowUniqueKeyIndexGenerator;
 import com.netflix.hollow.api.codegen.indexes.LegacyHollowPrimaryKeyIndexGenerator;
 import com.netflix.hollow.api.codegen.objects.HollowFactoryJavaGenerator;
@@ -432,6 +433,8 @@ public class HollowAPIGenerator {
         generateFile(directory, apiClassGenerator);
         generateFile(directory, apiFactoryGenerator);
         generateFile(directory, hashIndexGenerator);
+        if (config.isGenerateRangeIndex())
+            generateFile(directory, new HollowRangeIndexGenerator(packageName, apiClassname, dataset, config));
 
         generateFilesForHollowSchemas(directory);
     }
@@ -33,6 +33,7 @@ import com.netflix.hollow.api.objects.delegate.HollowCachedDelegate;
 import com.netflix.hollow.api.objects.delegate.HollowObjectAbstractDelegate;
 import com.netflix.hollow.core.HollowDataset;
 import com.netflix.hollow.core.read.dataaccess.HollowObjectTypeDataAccess;
+import com.netflix.hollow.core.read.engine.object.HollowObjectRecordReader;
 import com.netflix.hollow.core.schema.HollowObjectSchema;
 import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
 
@@ -56,6 +57,7 @@ public class HollowObjectDelegateCachedImplGenerator extends HollowObjectDelegat
 
         builder.append("import ").append(HollowObjectAbstractDelegate.class.getName()).append(";\n");
         builder.append("import ").append(HollowObjectTypeDataAccess.class.getName()).append(";\n");
+        builder.append("import ").append(HollowObjectRecordReader.class.getName()).append(";\n");
         builder.append("import ").append(HollowObjectSchema.class.getName()).append(";\n");
         builder.append("import ").append(HollowTypeAPI.class.getName()).append(";\n");
         builder.append("import ").append(HollowCachedDelegate.class.getName()).append(";\n");
@@ -69,7 +71,8 @@ public class HollowObjectDelegateCachedImplGenerator extends HollowObjectDelegat
                 builder.append("    private final Boolean ").append(substituteInvalidChars(schema.getFieldName(i))).append(";\n");
                 break;
             case BYTES:
-                builder.append("    private final byte[] ").append(substituteInvalidChars(schema.getFieldName(i))).append(";\n");
+                if(isCachedField(FieldType.BYTES))
+                    builder.append("    private final byte[] ").append(substituteInvalidChars(schema.getFieldName(i))).append(";\n");
                 break;
             case DOUBLE:
                 builder.append("    private final Double ").append(substituteInvalidChars(schema.getFieldName(i))).append(";\n");
@@ -85,12 +88,13 @@ public class HollowObjectDelegateCachedImplGenerator extends HollowObjectDelegat
                 break;
             case REFERENCE:
                 Shortcut shortcut = ergonomicShortcuts.getShortcut(schema.getName() + "." + schema.getFieldName(i));
-                if(shortcut != null)
+                if(shortcut != null && isCachedField(shortcut.getType()))
                     builder.append("    private final ").append(HollowCodeGenerationUtils.getJavaBoxedType(shortcut.getType())).append(" ").append(substituteInvalidChars(schema.getFieldName(i))).append(";\n");
                 builder.append("    private final int ").append(substituteInvalidChars(schema.getFieldName(i))).append("Ordinal;\n");
                 break;
             case STRING:
-                builder.append("    private final String ").append(substituteInvalidChars(schema.getFieldName(i))).append(";\n");
+                if(isCachedField(FieldType.STRING))
+                    builder.append("    private final String ").append(substituteInvalidChars(schema.getFieldName(i))).append(";\n");
                 break;
             }
         }
@@ -99,24 +103,67 @@ public class HollowObjectDelegateCachedImplGenerator extends HollowObjectDelegat
 
         builder.append("    public ").append(className).append("(").append(typeAPIClassname(schema.getName())).append(" typeAPI, int ordinal) {\n");
 
+        /// the record's own fields are copied with a single safety check when the type's data allows it
+        StringBuilder readerReads = new StringBuilder();
+        StringBuilder typeAPIReads = new StringBuilder();
+        StringBuilder assignments = new StringBuilder();
         for(int i=0;i<schema.numFields();i++) {
+            FieldType fieldType = schema.getFieldType(i);
             String fieldName = substituteInvalidChars(schema.getFieldName(i));
-            switch(schema.getFieldType(i)) {
+            String javaType;
+            String readerMethod;
+            String typeAPIMethod;
+            switch(fieldType) {
             case STRING:
             case BYTES:
-                builder.append("        this.").append(fieldName).append(" = typeAPI.get").append(uppercase(fieldName)).append("(ordinal);\n");
+                if(!isCachedField(fieldType))
+                    continue;
+                javaType = HollowCodeGenerationUtils.getJavaBoxedType(fieldType);
+                readerMethod = fieldType == FieldType.STRING ? "readString" : "readBytes";
+                typeAPIMethod = "get" + uppercase(fieldName);
                 break;
             case BOOLEAN:
-            case DOUBLE:
-            case FLOAT:
-            case INT:
-            case LONG:
-                builder.append("        this.").append(fieldName).append(" = typeAPI.get").append(uppercase(fieldName)).append("Boxed(ordinal);\n");
+                javaType = "Boolean";
+                readerMethod = "readBoolean";
+                typeAPIMethod = "get" + uppercase(fieldName) + "Boxed";
                 break;
             case REFERENCE:
-                builder.append("        this.").append(fieldName).append("Ordinal = typeAPI.get").append(uppercase(fieldName)).append("Ordinal(ordinal);\n");
+                javaType = "int";
+                readerMethod = "readOrdinal";
+                typeAPIMethod = "get" + uppercase(fieldName) + "Ordinal";
+                fieldName = fieldName + "Ordinal";
+                break;
+            default:
+                javaType = HollowCodeGenerationUtils.getJavaBoxedType(fieldType);
+                readerMethod = "read" + uppercase(HollowCodeGenerationUtils.getJavaScalarType(fieldType)) + "Boxed";
+                typeAPIMethod = "get" + uppercase(fieldName) + "Boxed";
+                break;
+            }
+
+            builder.append("        ").append(javaType).append(" ").append(fieldName).append("Value;\n");
+            readerReads.append("                ").append(fieldName).append("Value = reader.").append(readerMethod).append("(typeAPI.fieldPosition(").append(i).append("));\n");
+            typeAPIReads.append("            ").append(fieldName).append("Value = typeAPI.").append(typeAPIMethod).append("(ordinal);\n");
+            assignments.append("        this.").append(fieldName).append(" = ").append(fieldName).append("Value;\n");
+        }
+
+        if(assignments.length() > 0) {
+            builder.append("        HollowObjectRecordReader reader = typeAPI.createRecordReader();\n");
+            builder.append("        if(reader != null) {\n");
+            builder.append("            do {\n");
+            builder.append("                reader.begin(ordinal);\n");
+            builder.append(readerReads);
+            builder.append("            } while(!reader.end());\n");
+            builder.append("        } else {\n");
+            builder.append(typeAPIReads);
+            builder.append("        }\n");
+            builder.append(assignments);
+        }
+
+        for(int i=0;i<schema.numFields();i++) {
+            String fieldName = substituteInvalidChars(schema.getFieldName(i));
+            if(schema.getFieldType(i) == FieldType.REFERENCE) {
                 Shortcut shortcut = ergonomicShortcuts.getShortcut(schema.getName() + "." + schema.getFieldName(i));
-                if(shortcut != null) {
+                if(shortcut != null && isCachedField(shortcut.getType())) {
                     String ordinalVariableName = fieldName + "TempOrdinal";
 
                     builder.append("        int ").append(ordinalVariableName).append(" = ").append(fieldName).append("Ordinal;\n");
@@ -140,14 +187,18 @@ public class HollowObjectDelegateCachedImplGenerator extends HollowObjectDelegat
             String fieldName = substituteInvalidChars(schema.getFieldName(i));
             if(schema.getFieldType(i) == FieldType.REFERENCE) {
                 Shortcut shortcut = ergonomicShortcuts.getShortcut(schema.getName() + "." + schema.getFieldName(i));
-                if(shortcut != null)
+                if(shortcut != null && isCachedField(shortcut.getType()))
                     addAccessor(builder, shortcut.getType(), fieldName);
+                else if(shortcut != null)
+                    addUncachedShortcutAccessor(builder, shortcut, fieldName);
 
                 builder.append("    public int get").append(uppercase(fieldName)).append("Ordinal(int ordinal) {\n");
                 builder.append("        return ").append(fieldName).append("Ordinal;\n");
                 builder.append("    }\n\n");
-            } else {
+            } else if(isCachedField(fieldType)) {
                 addAccessor(builder, fieldType, fieldName);
+            } else {
+                addUncachedAccessor(builder, fieldType, fieldName);
             }
         }
 
@@ -174,6 +225,71 @@ public class HollowObjectDelegateCachedImplGenerator extends HollowObjectDelegat
         return builder.toString();
     }
 
+    /**
+     * When configured to cache primitive fields only, STRING and BYTES values are not copied into the
+     * cached delegate and are instead read through the type API on each access.
+     */
+    private boolean isCachedField(FieldType fieldType) {
+        if(!config.isUseCachedPrimitiveFieldsOnly())
+            return true;
+        return fieldType != FieldType.STRING && fieldType != FieldType.BYTES;
+    }
+
+    private void addUncachedAccessor(StringBuilder builder, FieldType fieldType, String fieldName) {
+        switch(fieldType) {
+        case BYTES:
+            builder.append("    public byte[] get").append(uppercase(fieldName)).append("(int ordinal) {\n");
+            builder.append("        return typeAPI.get").append(uppercase(fieldName)).append("(ordinal);\n");
+            builder.append("    }\n\n");
+            break;
+        case STRING:
+            builder.append("    public String get").append(uppercase(fieldName)).append("(int ordinal) {\n");
+            builder.append("        return typeAPI.get").append(uppercase(fieldName)).append("(ordinal);\n");
+            builder.append("    }\n\n");
+            builder.append("    public boolean is").append(uppercase(fieldName)).append("Equal(int ordinal, String testValue) {\n");
+            builder.append("        return typeAPI.is").append(uppercase(fieldName)).append("Equal(ordinal, testValue);\n");
+            builder.append("    }\n\n");
+            break;
+        default:
+            throw new IllegalArgumentException();
+        }
+    }
+
+    private void addUncachedShortcutAccessor(StringBuilder builder, Shortcut shortcut, String fieldName) {
+        String[] path = shortcut.getPath();
+        String[] pathTypes = shortcut.getPathTypes();
+        String finalTypeAPI = HollowCodeGenerationUtils.typeAPIClassname(pathTypes[pathTypes.length-1]);
+        String finalFieldName = uppercase(path[path.length-1]);
+
+        StringBuilder traversal = new StringBuilder();
+        traversal.append("        int refOrdinal = ").append(fieldName).append("Ordinal;\n");
+        for(int j=0;j<path.length-1;j++) {
+            String typeAPIName = HollowCodeGenerationUtils.typeAPIClassname(pathTypes[j]);
+            traversal.append("        refOrdinal = refOrdinal == -1 ? -1 : typeAPI.getAPI().get").append(typeAPIName).append("().get").append(uppercase(path[j])).append("Ordinal(refOrdinal);\n");
+        }
+
+        switch(shortcut.getType()) {
+        case BYTES:
+            builder.append("    public byte[] get").append(uppercase(fieldName)).append("(int ordinal) {\n");
+            builder.append(traversal);
+            builder.append("        return refOrdinal == -1 ? null : typeAPI.getAPI().get").append(finalTypeAPI).append("().get").append(finalFieldName).append("(refOrdinal);\n");
+            builder.append("    }\n\n");
+            break;
+        case STRING:
+            builder.append("    public String get").append(uppercase(fieldName)).append("(int ordinal) {\n");
+            builder.append(traversal);
+            builder.append("        return refOrdinal == -1 ? null : typeAPI.getAPI().get").append(finalTypeAPI).append("().get").append(finalFieldName).append("(refOrdinal);\n");
+            builder.append("    }\n\n");
+            builder.append("    public boolean is").append(uppercase(fieldName)).append("Equal(int ordinal, String testValue) {\n");
+            builder.append(traversal);
+            builder.append("        return refOrdinal == -1 ? testValue == null : typeAPI.getAPI().get").append(finalTypeAPI).append("().is").append(finalFieldName).append("Equal(refOrdinal, testValue);\n");
+            builder.append("    }\n\n");
+            break;
+        default:
+            throw new IllegalArgumentException();
+        }
+    }
+
     private void addAccessor(StringBuilder builder, FieldType fieldType, String fieldName) {
         switch(fieldType) {
         case BOOLEAN:
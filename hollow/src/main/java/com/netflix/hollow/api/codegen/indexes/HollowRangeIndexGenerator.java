@@ -0,0 +1,109 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.codegen.indexes;
+
+import static com.netflix.hollow.api.codegen.HollowCodeGenerationUtils.getJavaBoxedType;
+import static com.netflix.hollow.api.codegen.HollowCodeGenerationUtils.substituteInvalidChars;
+import static com.netflix.hollow.api.codegen.HollowCodeGenerationUtils.uppercase;
+
+import com.netflix.hollow.api.codegen.CodeGeneratorConfig;
+import com.netflix.hollow.api.codegen.HollowAPIGenerator;
+import com.netflix.hollow.api.consumer.HollowConsumer;
+import com.netflix.hollow.api.consumer.index.RangeIndex;
+import com.netflix.hollow.api.custom.HollowAPI;
+import com.netflix.hollow.core.HollowDataset;
+import com.netflix.hollow.core.schema.HollowObjectSchema;
+import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
+import com.netflix.hollow.core.schema.HollowSchema;
+import com.netflix.hollow.core.schema.HollowSchema.SchemaType;
+import com.netflix.hollow.core.schema.HollowSchemaSorter;
+import java.util.List;
+
+/**
+ * This class contains template logic for generating a {@link HollowAPI} implementation.  Not intended for external consumption.
+ * <p>
+ * The generated class is only generated if {@link CodeGeneratorConfig#isGenerateRangeIndex()} is set.
+ *
+ * @see HollowAPIGenerator
+ *
+ */
+public class HollowRangeIndexGenerator extends HollowIndexGenerator {
+
+    private final HollowDataset dataset;
+
+    public HollowRangeIndexGenerator(String packageName, String apiClassname, HollowDataset dataset, CodeGeneratorConfig config) {
+        super(packageName, apiClassname, dataset, config);
+        this.className = apiClassname + "RangeIndex";
+        this.dataset = dataset;
+    }
+
+    @Override
+    public String generate() {
+        List<HollowSchema> schemaList = HollowSchemaSorter.dependencyOrderedSchemaList(dataset);
+
+        StringBuilder builder = new StringBuilder();
+        appendPackageAndCommonImports(builder, apiClassname, schemaList);
+
+        builder.append("import " + HollowConsumer.class.getName() + ";\n");
+        builder.append("import " + RangeIndex.class.getName() + ";\n\n");
+
+        builder.append("\n");
+        builder.append("/**\n");
+        builder.append(" * Creates type safe range indexes over the types of this API, each ordering the records of a type by the value\n");
+        builder.append(" * of a numeric or string field.  An index tracks updates only once it is registered with the consumer.\n");
+        builder.append(" *\n");
+        builder.append(" * @see RangeIndex\n");
+        builder.append(" */\n");
+        builder.append("@SuppressWarnings(\"all\")\n");
+        builder.append("public class " + className + " {\n\n");
+
+        builder.append("    private final HollowConsumer consumer;\n\n");
+
+        builder.append("    public " + className + "(HollowConsumer consumer) {\n");
+        builder.append("        this.consumer = consumer;\n");
+        builder.append("    }\n\n");
+
+        for(HollowSchema schema : schemaList) {
+            if(schema.getSchemaType() != SchemaType.OBJECT)
+                continue;
+
+            HollowObjectSchema objectSchema = (HollowObjectSchema) schema;
+            String typeName = hollowImplClassname(schema.getName());
+            String methodName = "index" + substituteInvalidChars(uppercase(schema.getName())) + "By";
+
+            builder.append("    public <Q> RangeIndex<" + typeName + ", Q> " + methodName + "(String fieldPath, Class<Q> valueType) {\n");
+            builder.append("        return RangeIndex.from(consumer, " + typeName + ".class).usingPath(fieldPath, valueType);\n");
+            builder.append("    }\n\n");
+
+            for(int i=0;i<objectSchema.numFields();i++) {
+                FieldType fieldType = objectSchema.getFieldType(i);
+                if(fieldType != FieldType.INT && fieldType != FieldType.LONG && fieldType != FieldType.FLOAT
+                        && fieldType != FieldType.DOUBLE && fieldType != FieldType.STRING)
+                    continue;
+
+                String fieldName = objectSchema.getFieldName(i);
+                String valueType = getJavaBoxedType(fieldType);
+                builder.append("    public RangeIndex<" + typeName + ", " + valueType + "> " + methodName + substituteInvalidChars(uppercase(fieldName)) + "() {\n");
+                builder.append("        return " + methodName + "(\"" + fieldName + "\", " + valueType + ".class);\n");
+                builder.append("    }\n\n");
+            }
+        }
+        builder.append("}");
+
+        return builder.toString();
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.consumer;
+
+import static com.netflix.hollow.core.util.Threads.daemonThread;
+import static java.util.concurrent.Executors.newScheduledThreadPool;
+
+import com.netflix.hollow.api.consumer.metrics.RefreshLatencyHistogram;
+import com.netflix.hollow.core.HollowConstants;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A base {@link HollowConsumer.AnnouncementWatcher} which schedules the refreshes of its subscribed consumers.
+ * Implementations observe announcements (by polling, file watching, or a push mechanism) and pass each announced
+ * version to {@link #announce(long)}.
+ * <p>
+ * Announcements are coalesced: while a consumer's refresh is scheduled or in progress, further announcements only
+ * move the latest version forward, and when the refresh completes a single follow-up refresh is scheduled if a
+ * later version was announced in the meantime.  A producer which announces in quick succession therefore costs each consumer at most
+ * one queued refresh, to the latest version.
+ * <p>
+ * Refreshes are staged across a fleet of consumers: each watcher picks a random offset within the staging window
+ * when it is created, and delays the refreshes it schedules by that offset, so that a fleet spreads the load of
+ * each announcement evenly over the window.  A consumer which has not yet loaded any data is refreshed immediately.
+ * <p>
+ * The time from an announcement being observed to the consumer arriving at the announced version is recorded in
+ * {@link #getAnnouncementToAppliedLatency()}.
+ */
+public abstract class CoalescingAnnouncementWatcher implements HollowConsumer.AnnouncementWatcher {
+
+    private static final int MAX_TRACKED_ANNOUNCEMENTS = 64;
+
+    private final ScheduledExecutorService scheduler;
+    private final long stagingOffsetMillis;
+    private final List<Subscription> subscriptions;
+    private final Map<Long, Long> announcementTimes;
+    private final RefreshLatencyHistogram announcementToAppliedLatency;
+
+    private volatile long latestVersion = NO_ANNOUNCEMENT_AVAILABLE;
+
+    /**
+     * @param stagingWindowMillis the window over which a fleet of consumers is spread when refreshing, or 0 to
+     *                            refresh as soon as a version is announced
+     */
+    protected CoalescingAnnouncementWatcher(long stagingWindowMillis) {
+        this(newScheduledThreadPool(1,
+                r -> daemonThread(r, CoalescingAnnouncementWatcher.class, "refresh-scheduler")), stagingWindowMillis);
+    }
+
+    /**
+     * @param scheduler the executor on which refreshes are scheduled
+     * @param stagingWindowMillis the window over which a fleet of consumers is spread when refreshing, or 0 to
+     *                            refresh as soon as a version is announced
+     */
+    protected CoalescingAnnouncementWatcher(ScheduledExecutorService scheduler, long stagingWindowMillis) {
+        if(stagingWindowMillis < 0)
+            throw new IllegalArgumentException("stagingWindowMillis must not be negative, was " + stagingWindowMillis);
+
+        this.scheduler = scheduler;
+        this.stagingOffsetMillis = stagingWindowMillis == 0 ? 0 : ThreadLocalRandom.current().nextLong(stagingWindowMillis);
+        this.subscriptions = new CopyOnWriteArrayList<>();
+        this.announcementTimes = new LinkedHashMap<Long, Long>() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                return size() > MAX_TRACKED_ANNOUNCEMENTS;
+            }
+        };
+        this.announcementToAppliedLatency = new RefreshLatencyHistogram();
+    }
+
+    @Override
+    public long getLatestVersion() {
+        return latestVersion;
+    }
+
+    @Override
+    public void subscribeToUpdates(HollowConsumer consumer) {
+        Subscription subscription = new Subscription(consumer);
+        consumer.addRefreshListener(subscription);
+        subscriptions.add(subscription);
+    }
+
+    /**
+     * Records the latest announced version, and schedules a refresh of each subscribed consumer which is not already
+     * refreshing.
+     *
+     * @param version the announced version
+     */
+    protected void announce(long version) {
+        synchronized(announcementTimes) {
+            if(version == latestVersion)
+                return;
+            latestVersion = version;
+            announcementTimes.put(version, System.currentTimeMillis());
+        }
+
+        for(Subscription subscription : subscriptions)
+            subscription.schedule(false);
+    }
+
+    /**
+     * Sets the latest version without scheduling refreshes, such as for the version already announced when the
+     * watcher is created.
+     *
+     * @param version the announced version
+     */
+    protected void setLatestVersion(long version) {
+        latestVersion = version;
+    }
+
+    /**
+     * @return the offset, within the staging window, by which this watcher delays the refreshes it schedules
+     */
+    public long getStagingOffsetMillis() {
+        return stagingOffsetMillis;
+    }
+
+    /**
+     * @return the time from an announcement being observed to a subscribed consumer arriving at the announced version
+     */
+    public RefreshLatencyHistogram getAnnouncementToAppliedLatency() {
+        return announcementToAppliedLatency;
+    }
+
+    protected ScheduledExecutorService getScheduler() {
+        return scheduler;
+    }
+
+    private Long announcementTime(long version) {
+        synchronized(announcementTimes) {
+            return announcementTimes.get(version);
+        }
+    }
+
+    private class Subscription extends HollowConsumer.AbstractRefreshListener {
+        private final HollowConsumer consumer;
+        private boolean scheduled;
+        private boolean refreshing;
+
+        Subscription(HollowConsumer consumer) {
+            this.consumer = consumer;
+        }
+
+        synchronized void schedule(boolean followUp) {
+            if(scheduled || refreshing)
+                return;     /// coalesced; the version is picked up by the scheduled or in progress refresh
+            scheduled = true;
+
+            /// a follow-up refresh has already been staged, as has one for a consumer with no data yet
+            boolean staged = followUp || consumer.getCurrentVersionId() == HollowConstants.VERSION_NONE;
+            long delay = staged ? 0 : stagingOffsetMillis;
+            scheduler.schedule(this::trigger, delay, TimeUnit.MILLISECONDS);
+        }
+
+        private synchronized void trigger() {
+            scheduled = false;
+            long requestedVersion = latestVersion;
+            if(consumer.getCurrentVersionId() == requestedVersion)
+                return;
+
+            /// the flag is cleared when the refresh task finishes, rather than by the refresh listener callbacks,
+            /// which are not called when the requested version resolves to the current version
+            refreshing = true;
+            CompletableFuture<Void> refresh;
+            try {
+                refresh = consumer.asyncRefresh(0);
+            } catch(RuntimeException e) {
+                refreshing = false;
+                throw e;
+            }
+            refresh.whenComplete((v, failure) -> refreshCompleted(requestedVersion, failure == null));
+        }
+
+        @Override
+        public void refreshSuccessful(long beforeVersion, long afterVersion, long requestedVersion) {
+            Long announcedAt = announcementTime(afterVersion);
+            if(announcedAt != null && beforeVersion != afterVersion)
+                announcementToAppliedLatency.record(System.currentTimeMillis() - announcedAt);
+        }
+
+        private void refreshCompleted(long requestedVersion, boolean succeeded) {
+            synchronized(this) {
+                refreshing = false;
+            }
+            /// a failed refresh is retried on the next announcement, rather than immediately, and a refresh which
+            /// did not arrive at the requested version is not retried until a later version is announced
+            if(succeeded && latestVersion != requestedVersion)
+                schedule(true);
+        }
+    }
+}
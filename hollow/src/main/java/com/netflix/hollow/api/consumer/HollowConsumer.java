@@ -30,10 +30,12 @@ import com.netflix.hollow.api.consumer.fs.HollowFilesystemBlobRetriever;
 import com.netflix.hollow.api.custom.HollowAPI;
 import com.netflix.hollow.api.metrics.HollowConsumerMetrics;
 import com.netflix.hollow.api.metrics.HollowMetricsCollector;
+import com.netflix.hollow.api.producer.HollowProducer;
 import com.netflix.hollow.core.HollowConstants;
 import com.netflix.hollow.core.memory.MemoryMode;
 import com.netflix.hollow.core.read.OptionalBlobPartInput;
 import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.read.engine.object.HollowStringCacheConfig;
 import com.netflix.hollow.core.read.filter.HollowFilterConfig;
 import com.netflix.hollow.core.read.filter.TypeFilter;
 import com.netflix.hollow.core.util.DefaultHashCodeFinder;
@@ -201,6 +203,9 @@ public class HollowConsumer {
         updater.setFilter(builder.typeFilter);
         if(builder.skipTypeShardUpdateWithNoAdditions)
             updater.setSkipShardUpdateWithNoAdditions(true);
+        updater.setStringCacheConfig(builder.stringCacheConfig);
+        updater.setMapSnapshots(builder.mapSnapshots);
+        updater.setLazyTypeMaterialization(builder.lazyTypeMaterialization);
         this.announcementWatcher = builder.announcementWatcher;
         this.refreshExecutor = builder.refreshExecutor;
         this.refreshLock = new ReentrantReadWriteLock();
@@ -254,7 +259,19 @@ public class HollowConsumer {
      * @param delayMillis the delay, in millseconds, before triggering the refresh
      */
     public void triggerAsyncRefreshWithDelay(int delayMillis) {
+        asyncRefresh(delayMillis);
+    }
+
+    /**
+     * Triggers async refresh after the specified number of milliseconds has passed.
+     *
+     * @param delayMillis the delay, in millseconds, before triggering the refresh
+     * @return a future which completes when the refresh task finishes, whether or not the refresh changed the
+     * version, and which completes exceptionally if the refresh failed
+     */
+    CompletableFuture<Void> asyncRefresh(int delayMillis) {
         final long targetBeginTime = System.currentTimeMillis() + delayMillis;
+        final CompletableFuture<Void> completion = new CompletableFuture<>();
 
         refreshExecutor.execute(() -> {
             try {
@@ -265,17 +282,22 @@ public class HollowConsumer {
                 // Interrupting, such as shutting down the executor pool,
                 // cancels the trigger
                 LOG.log(Level.INFO, "Async refresh interrupted before trigger, refresh cancelled", e);
+                completion.complete(null);
                 return;
             }
 
             try {
                 triggerRefresh();
+                completion.complete(null);
             } catch (Error | RuntimeException e) {
                 // Ensure exceptions are propagated to the executor
                 LOG.log(Level.SEVERE, "Async refresh failed", e);
+                completion.completeExceptionally(e);
                 throw e;
             }
         });
+
+        return completion;
     }
 
     /**
@@ -441,6 +463,22 @@ public class HollowConsumer {
         return metrics;
     }
 
+    /**
+     * Release the memory held by this consumer's data.  This is only necessary in the {@link MemoryMode#OFF_HEAP}
+     * memory mode, where it returns the off-heap memory to the operating system.
+     * <p>
+     * The consumer must not be used after this method is called: the state engine, the API, and any objects obtained
+     * from them must not be read, and subsequent refreshes fail.
+     */
+    public void destroy() {
+        refreshLock.writeLock().lock();
+        try {
+            updater.destroy();
+        } finally {
+            refreshLock.writeLock().unlock();
+        }
+    }
+
     /**
      * An interface which defines the necessary interactions of Hollow with a blob data store.
      * <p>
@@ -1021,6 +1059,10 @@ public class HollowConsumer {
         protected MemoryMode memoryMode = MemoryMode.ON_HEAP;
         protected HollowMetricsCollector<HollowConsumerMetrics> metricsCollector;
         protected boolean skipTypeShardUpdateWithNoAdditions = false;
+        protected HollowStringCacheConfig stringCacheConfig = null;
+        protected boolean mapSnapshots = false;
+        protected boolean lazyTypeMaterialization = false;
+        protected HollowProducer.BlobCompressor blobDecompressor = null;
 
         public B withBlobRetriever(HollowConsumer.BlobRetriever blobRetriever) {
             this.blobRetriever = blobRetriever;
@@ -1215,6 +1257,70 @@ public class HollowConsumer {
             return (B)this;
         }
 
+        /**
+         * Cache decoded values of the STRING fields specified by the config.
+         *
+         * @param stringCacheConfig the string cache config
+         * @return this builder
+         * @see HollowStringCacheConfig
+         */
+        public B withStringCacheConfig(HollowStringCacheConfig stringCacheConfig) {
+            this.stringCacheConfig = stringCacheConfig;
+            return (B)this;
+        }
+
+        /**
+         * Map snapshot blobs which are available as local files, such as those kept by a
+         * {@link com.netflix.hollow.api.consumer.fs.HollowFilesystemBlobRetriever}, instead of decoding them.
+         * <p>
+         * A consumer restarting at a version whose snapshot is already in the local blob store becomes ready as soon as
+         * the file is mapped.  Type data is paged in from the file on access, and each type shard is copied into
+         * the configured {@link MemoryMode} the first time a delta is applied to it.  Only applies to memory modes
+         * which support deltas; snapshot blobs which cannot provide a local file are decoded as usual.
+         *
+         * @return this builder
+         */
+        public B withMappedSnapshots() {
+            this.mapSnapshots = true;
+            return (B)this;
+        }
+
+        /**
+         * Defer reading each type in a snapshot which is available as a local file until the type is first accessed.
+         * <p>
+         * A consumer which only uses some of the types in a dataset then pays the load time and memory cost of just
+         * those types.  A deferred type is materialized, together with the types it references, the first time its
+         * data is read, or when a delta changes it; types which are never read and never change are never loaded.
+         * Building a generated API does not materialize its types.  Only applies to memory modes which support deltas,
+         * and to snapshot blobs which can provide a local file; the local file must remain unmodified while types are
+         * deferred.
+         *
+         * @return this builder
+         * @see #withMappedSnapshots()
+         */
+        public B withLazyTypeMaterialization() {
+            this.lazyTypeMaterialization = true;
+            return (B)this;
+        }
+
+        /**
+         * Decompress blobs which are retrieved exactly as they were written by a producer configured with
+         * {@link HollowProducer.Builder#withBlobCompressor(HollowProducer.BlobCompressor)}, such as blobs published
+         * from the staged file of a {@link com.netflix.hollow.api.producer.BlockFramedBlobCompressor}.
+         * <p>
+         * Blobs are decompressed as they are read, after any local blob store, which therefore keeps the compressed
+         * blobs.  Decompressed blobs are read as streams, so they are never mapped, and the
+         * {@code SHARED_MEMORY_LAZY} memory mode is not supported.
+         *
+         * @param blobDecompressor the compressor the blobs were written with
+         * @return this builder
+         * @see HollowDecompressingBlobRetriever
+         */
+        public B withBlobDecompressor(HollowProducer.BlobCompressor blobDecompressor) {
+            this.blobDecompressor = blobDecompressor;
+            return (B)this;
+        }
+
         @Deprecated
         public B withHashCodeFinder(HollowObjectHashCodeFinder hashCodeFinder) {
             this.hashCodeFinder = hashCodeFinder;
@@ -1237,6 +1343,13 @@ public class HollowConsumer {
                         localBlobStoreDir.toPath(), blobRetriever, useExistingStaleSnapshot);
             }
 
+            if (blobDecompressor != null) {
+                if (!memoryMode.blobInputMode().equals(MemoryMode.ON_HEAP)) {
+                    throw new UnsupportedOperationException("Blob decompression is not supported in " + memoryMode + " mode");
+                }
+                this.blobRetriever = new HollowDecompressingBlobRetriever(this.blobRetriever, blobDecompressor);
+            }
+
             if (refreshExecutor == null) {
                 refreshExecutor = newSingleThreadExecutor(r -> daemonThread(r, getClass(), "refresh"));
             }
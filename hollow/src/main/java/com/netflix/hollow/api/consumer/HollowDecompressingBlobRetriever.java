@@ -0,0 +1,112 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.consumer;
+
+import com.netflix.hollow.api.producer.HollowProducer;
+import com.netflix.hollow.core.read.OptionalBlobPartInput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
+
+/**
+ * A {@link HollowConsumer.BlobRetriever} which decompresses the blobs returned by another retriever, for blob stores
+ * holding blobs exactly as they were written by a producer's {@link HollowProducer.BlobCompressor}.
+ * <p>
+ * The wrapped retriever's blob files hold compressed bytes, so blobs returned by this retriever do not provide a
+ * {@link HollowConsumer.Blob#getFile() file}; they are always read as streams.
+ *
+ * @see HollowConsumer.Builder#withBlobDecompressor(HollowProducer.BlobCompressor)
+ */
+public class HollowDecompressingBlobRetriever implements HollowConsumer.BlobRetriever {
+    private final HollowConsumer.BlobRetriever delegate;
+    private final HollowProducer.BlobCompressor compressor;
+
+    /**
+     * @param delegate the retriever of compressed blobs
+     * @param compressor the compressor the blobs were written with
+     */
+    public HollowDecompressingBlobRetriever(HollowConsumer.BlobRetriever delegate, HollowProducer.BlobCompressor compressor) {
+        this.delegate = delegate;
+        this.compressor = compressor;
+    }
+
+    @Override
+    public HollowConsumer.Blob retrieveSnapshotBlob(long desiredVersion) {
+        return wrap(delegate.retrieveSnapshotBlob(desiredVersion));
+    }
+
+    @Override
+    public HollowConsumer.Blob retrieveDeltaBlob(long currentVersion) {
+        return wrap(delegate.retrieveDeltaBlob(currentVersion));
+    }
+
+    @Override
+    public HollowConsumer.Blob retrieveReverseDeltaBlob(long currentVersion) {
+        return wrap(delegate.retrieveReverseDeltaBlob(currentVersion));
+    }
+
+    @Override
+    public Set<String> configuredOptionalBlobParts() {
+        return delegate.configuredOptionalBlobParts();
+    }
+
+    @Override
+    public HollowConsumer.HeaderBlob retrieveHeaderBlob(long currentVersion) {
+        HollowConsumer.HeaderBlob headerBlob = delegate.retrieveHeaderBlob(currentVersion);
+        if(headerBlob == null)
+            return null;
+
+        return new HollowConsumer.HeaderBlob(headerBlob.getVersion()) {
+            @Override
+            public InputStream getInputStream() throws IOException {
+                return compressor.decompress(headerBlob.getInputStream());
+            }
+        };
+    }
+
+    private HollowConsumer.Blob wrap(HollowConsumer.Blob blob) {
+        if(blob == null)
+            return null;
+        return new DecompressingBlob(blob);
+    }
+
+    private class DecompressingBlob extends HollowConsumer.Blob {
+        private final HollowConsumer.Blob blob;
+
+        DecompressingBlob(HollowConsumer.Blob blob) {
+            super(blob.getFromVersion(), blob.getToVersion());
+            this.blob = blob;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return compressor.decompress(blob.getInputStream());
+        }
+
+        @Override
+        public OptionalBlobPartInput getOptionalBlobPartInputs() throws IOException {
+            OptionalBlobPartInput compressedParts = blob.getOptionalBlobPartInputs();
+            if(compressedParts == null)
+                return null;
+
+            OptionalBlobPartInput parts = new OptionalBlobPartInput();
+            for(String partName : compressedParts.getPartNames())
+                parts.addInput(partName, compressor.decompress(compressedParts.getInputStream(partName)));
+            return parts;
+        }
+    }
+}
@@ -0,0 +1,446 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.consumer;
+
+import com.netflix.hollow.core.read.OptionalBlobPartInput;
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A {@link HollowConsumer.BlobRetriever} which may be shared by several consumers of the same dataset, so that a blob
+ * retrieved by more than one of them is downloaded and decompressed only once.
+ * <p>
+ * Each blob returned by the wrapped retriever is keyed by its type and its from and to versions.  While any consumer
+ * holds a blob with a given key, every other consumer retrieving the same transition is handed a blob backed by the
+ * same content.  The content is pulled from the wrapped blob's input stream by whichever reader gets ahead, spilled
+ * to a temporary file, and replayed to the others; it is released, and the file deleted, once every blob handed out
+ * for it has been read (its input stream closed) or garbage collected.
+ * <p>
+ * Blobs returned by this retriever provide the temporary file through {@link HollowConsumer.Blob#getFile()}, so
+ * consumers in the {@code SHARED_MEMORY_LAZY} memory mode, or which map snapshots, may use them.  Optional blob parts
+ * and header blobs are retrieved from the wrapped retriever without sharing.
+ * <pre>{@code
+ * HollowSharedBlobRetriever shared = new HollowSharedBlobRetriever(remoteBlobRetriever);
+ * HollowConsumer filtered = HollowConsumer.withBlobRetriever(shared).withFilterConfig(filter).build();
+ * HollowConsumer unfiltered = HollowConsumer.withBlobRetriever(shared).build();
+ * }</pre>
+ */
+public class HollowSharedBlobRetriever implements HollowConsumer.BlobRetriever {
+    private static final Logger LOG = Logger.getLogger(HollowSharedBlobRetriever.class.getName());
+
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    private final HollowConsumer.BlobRetriever delegate;
+    private final File tempDir;
+    private final Map<BlobKey, SharedContent> inFlight;
+    private final Set<BlobReference> outstandingReferences;
+    private final ReferenceQueue<SharedBlob> unreachableBlobs;
+
+    /**
+     * @param delegate the retriever whose blobs are shared
+     */
+    public HollowSharedBlobRetriever(HollowConsumer.BlobRetriever delegate) {
+        this(delegate, null);
+    }
+
+    /**
+     * @param delegate the retriever whose blobs are shared
+     * @param tempDir the directory in which shared content is kept while it is in use, or null for the default
+     *                temporary-file directory
+     */
+    public HollowSharedBlobRetriever(HollowConsumer.BlobRetriever delegate, File tempDir) {
+        this.delegate = delegate;
+        this.tempDir = tempDir;
+        this.inFlight = new HashMap<>();
+        this.outstandingReferences = new HashSet<>();
+        this.unreachableBlobs = new ReferenceQueue<>();
+    }
+
+    @Override
+    public HollowConsumer.Blob retrieveSnapshotBlob(long desiredVersion) {
+        return share(delegate.retrieveSnapshotBlob(desiredVersion));
+    }
+
+    @Override
+    public HollowConsumer.Blob retrieveDeltaBlob(long currentVersion) {
+        return share(delegate.retrieveDeltaBlob(currentVersion));
+    }
+
+    @Override
+    public HollowConsumer.Blob retrieveReverseDeltaBlob(long currentVersion) {
+        return share(delegate.retrieveReverseDeltaBlob(currentVersion));
+    }
+
+    @Override
+    public Set<String> configuredOptionalBlobParts() {
+        return delegate.configuredOptionalBlobParts();
+    }
+
+    @Override
+    public HollowConsumer.HeaderBlob retrieveHeaderBlob(long currentVersion) {
+        return delegate.retrieveHeaderBlob(currentVersion);
+    }
+
+    /**
+     * @return the number of blobs whose content is currently shared, for monitoring
+     */
+    public int getNumSharedBlobs() {
+        synchronized(inFlight) {
+            reclaimUnreachableBlobs();
+            return inFlight.size();
+        }
+    }
+
+    private HollowConsumer.Blob share(HollowConsumer.Blob blob) {
+        if(blob == null)
+            return null;
+
+        BlobKey key = new BlobKey(blob);
+        synchronized(inFlight) {
+            reclaimUnreachableBlobs();
+
+            SharedContent content = inFlight.get(key);
+            if(content == null) {
+                content = new SharedContent(key, blob);
+                inFlight.put(key, content);
+            }
+
+            content.references++;
+            SharedBlob sharedBlob = new SharedBlob(blob);
+            sharedBlob.reference = new BlobReference(sharedBlob, content, unreachableBlobs);
+            outstandingReferences.add(sharedBlob.reference);
+            return sharedBlob;
+        }
+    }
+
+    private void reclaimUnreachableBlobs() {
+        Reference<? extends SharedBlob> ref;
+        while((ref = unreachableBlobs.poll()) != null)
+            ((BlobReference)ref).release();
+    }
+
+    private void release(SharedContent content) {
+        synchronized(inFlight) {
+            if(--content.references == 0) {
+                if(inFlight.get(content.key) == content)
+                    inFlight.remove(content.key);
+                content.discard();
+            }
+        }
+    }
+
+    private void discardFailed(SharedContent content) {
+        synchronized(inFlight) {
+            /// a retrieval after a failure starts over with the wrapped blob, rather than sharing the failure
+            if(inFlight.get(content.key) == content)
+                inFlight.remove(content.key);
+        }
+    }
+
+    private static class BlobKey {
+        private final HollowConsumer.Blob.BlobType type;
+        private final long fromVersion;
+        private final long toVersion;
+
+        BlobKey(HollowConsumer.Blob blob) {
+            this.type = blob.getBlobType();
+            this.fromVersion = blob.getFromVersion();
+            this.toVersion = blob.getToVersion();
+        }
+
+        @Override
+        public int hashCode() {
+            int hashCode = type.hashCode();
+            hashCode = 31 * hashCode + Long.hashCode(fromVersion);
+            hashCode = 31 * hashCode + Long.hashCode(toVersion);
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if(!(obj instanceof BlobKey))
+                return false;
+            BlobKey other = (BlobKey)obj;
+            return type == other.type && fromVersion == other.fromVersion && toVersion == other.toVersion;
+        }
+
+        @Override
+        public String toString() {
+            return type.getType() + "-" + fromVersion + "-" + toVersion;
+        }
+    }
+
+    /**
+     * Holds a reference to shared content on behalf of a blob, released when the first stream opened from the
+     * blob is closed or when the blob becomes unreachable.
+     */
+    private class BlobReference extends PhantomReference<SharedBlob> {
+        private final SharedContent content;
+        private volatile boolean released;
+
+        BlobReference(SharedBlob blob, SharedContent content, ReferenceQueue<SharedBlob> queue) {
+            super(blob, queue);
+            this.content = content;
+        }
+
+        void release() {
+            synchronized(this) {
+                if(released)
+                    return;
+                released = true;
+            }
+            synchronized(inFlight) {
+                outstandingReferences.remove(this);
+                HollowSharedBlobRetriever.this.release(content);
+            }
+        }
+    }
+
+    private class SharedBlob extends HollowConsumer.Blob {
+        private final HollowConsumer.Blob blob;
+        private BlobReference reference;
+
+        SharedBlob(HollowConsumer.Blob blob) {
+            super(blob.getFromVersion(), blob.getToVersion());
+            this.blob = blob;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            BlobReference ref = reference;
+            synchronized(inFlight) {
+                if(ref.released) {
+                    /// the content may already have been discarded; share whichever content is now in flight
+                    SharedBlob replacement = (SharedBlob)share(blob);
+                    reference.clear();
+                    reference = ref = replacement.reference;
+                }
+                ref.content.references++;
+            }
+            ref.release();
+            return new BufferedInputStream(new SharedContentInputStream(ref.content));
+        }
+
+        /**
+         * Pulls the complete content, if it has not been pulled already, and returns the temporary file containing
+         * it.  The file remains until the shared content is released.
+         */
+        @Override
+        public File getFile() throws IOException {
+            SharedContent content;
+            synchronized(inFlight) {
+                if(reference.released) {
+                    SharedBlob replacement = (SharedBlob)share(blob);
+                    reference.clear();
+                    reference = replacement.reference;
+                }
+                content = reference.content;
+            }
+            try {
+                return content.completeFile();
+            } catch(IOException e) {
+                discardFailed(content);
+                throw e;
+            }
+        }
+
+        @Override
+        public OptionalBlobPartInput getOptionalBlobPartInputs() throws IOException {
+            return blob.getOptionalBlobPartInputs();
+        }
+    }
+
+    /**
+     * The content of a blob, pulled from the wrapped blob's input stream in chunks as it is first read and spilled to
+     * a temporary file.  Content which has already been pulled is read from the file without locking, so only a
+     * reader which has caught up with the download waits for the next chunk.
+     */
+    private class SharedContent {
+        private final BlobKey key;
+        private final HollowConsumer.Blob blob;
+        private File file;
+        private FileChannel channel;
+        private InputStream source;
+        private byte[] pullBuffer;
+        private volatile long length;
+        private volatile boolean complete;
+        private IOException failure;
+        private int references;
+
+        SharedContent(BlobKey key, HollowConsumer.Blob blob) {
+            this.key = key;
+            this.blob = blob;
+        }
+
+        int read(long position, byte[] b, int off, int len) throws IOException {
+            long available = length;
+            if(position >= available) {
+                available = pullTo(position);
+                if(position >= available)
+                    return -1;
+            }
+
+            int bytesToRead = (int)Math.min(len, available - position);
+            ByteBuffer buffer = ByteBuffer.wrap(b, off, bytesToRead);
+            while(buffer.hasRemaining()) {
+                if(channel.read(buffer, position + buffer.position() - off) < 0)
+                    throw new EOFException("Unexpected end of shared blob " + key);
+            }
+            return bytesToRead;
+        }
+
+        /**
+         * @return the file containing the complete content
+         */
+        synchronized File completeFile() throws IOException {
+            pullTo(Long.MAX_VALUE);
+            return file;
+        }
+
+        private synchronized long pullTo(long position) throws IOException {
+            while(position >= length && !complete)
+                pullChunk();
+            return length;
+        }
+
+        private void pullChunk() throws IOException {
+            if(failure != null)
+                throw new IOException("Retrieval of shared blob " + key + " failed", failure);
+
+            try {
+                if(source == null) {
+                    file = File.createTempFile("hollow-shared-" + key + "-", ".blob", tempDir);
+                    channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+                    pullBuffer = new byte[CHUNK_SIZE];
+                    source = blob.getInputStream();
+                }
+
+                int chunkLength = 0;
+                boolean endOfStream = false;
+                while(chunkLength < CHUNK_SIZE) {
+                    int bytesRead = source.read(pullBuffer, chunkLength, CHUNK_SIZE - chunkLength);
+                    if(bytesRead < 0) {
+                        endOfStream = true;
+                        break;
+                    }
+                    chunkLength += bytesRead;
+                }
+
+                ByteBuffer buffer = ByteBuffer.wrap(pullBuffer, 0, chunkLength);
+                while(buffer.hasRemaining())
+                    channel.write(buffer, length + buffer.position());
+                length += chunkLength;
+
+                if(endOfStream) {
+                    complete = true;
+                    pullBuffer = null;
+                    closeSource();
+                }
+            } catch(IOException e) {
+                failure = e;
+                closeSource();
+                throw e;
+            }
+        }
+
+        synchronized void discard() {
+            if(failure == null)
+                failure = new IOException("Shared blob " + key + " was released");
+            closeSource();
+            pullBuffer = null;
+            if(channel != null) {
+                try {
+                    channel.close();
+                } catch(IOException e) {
+                    LOG.log(Level.WARNING, "Failed to close temporary file of blob " + key, e);
+                }
+            }
+            /// a file which is still mapped by a consumer can not be deleted on some platforms
+            if(file != null && !file.delete())
+                file.deleteOnExit();
+        }
+
+        private void closeSource() {
+            if(source != null) {
+                try {
+                    source.close();
+                } catch(IOException e) {
+                    LOG.log(Level.WARNING, "Failed to close input stream of blob " + key, e);
+                }
+                source = null;
+            }
+        }
+    }
+
+    private class SharedContentInputStream extends InputStream {
+        private final SharedContent content;
+        private long position;
+        private boolean closed;
+
+        SharedContentInputStream(SharedContent content) {
+            this.content = content;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            int bytesRead = read(b, 0, 1);
+            return bytesRead < 0 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if(closed)
+                throw new IOException("Stream closed");
+            if(len == 0)
+                return 0;
+            int bytesRead;
+            try {
+                bytesRead = content.read(position, b, off, len);
+            } catch(IOException e) {
+                discardFailed(content);
+                throw e;
+            }
+            if(bytesRead > 0)
+                position += bytesRead;
+            return bytesRead;
+        }
+
+        @Override
+        public void close() {
+            if(!closed) {
+                closed = true;
+                release(content);
+            }
+        }
+    }
+}
@@ -18,38 +18,48 @@ package com.netflix.hollow.api.consumer.fs;
 
 import static com.netflix.hollow.core.util.Threads.daemonThread;
 import static java.nio.file.Files.getLastModifiedTime;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
 
-import com.netflix.hollow.api.consumer.HollowConsumer;
+import com.netflix.hollow.api.consumer.CoalescingAnnouncementWatcher;
 import com.netflix.hollow.api.producer.fs.HollowFilesystemAnnouncer;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
 import java.lang.ref.WeakReference;
+import java.nio.file.ClosedWatchServiceException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.nio.file.attribute.FileTime;
-import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-public class HollowFilesystemAnnouncementWatcher implements HollowConsumer.AnnouncementWatcher {
+/**
+ * An announcement watcher which reads the version announced by a {@link HollowFilesystemAnnouncer}.
+ * <p>
+ * Changes to the announcement file are picked up by a {@link WatchService} registered on the publish directory, with
+ * a once a second check of the file's modification time as a fallback for file systems which do not deliver watch
+ * events.  Refreshes of the subscribed consumers are coalesced and staged as described by
+ * {@link CoalescingAnnouncementWatcher}.
+ */
+public class HollowFilesystemAnnouncementWatcher extends CoalescingAnnouncementWatcher {
 
     private static final Logger log = Logger.getLogger(HollowFilesystemAnnouncementWatcher.class.getName());
 
     private final Path announcePath;
 
-    private final List<HollowConsumer> subscribedConsumers;
     private final ScheduledExecutorService executor;
     private final ScheduledFuture<?> watchFuture;
+    private final WatchService watchService;
     private boolean ownedExecutor;
 
-    private long latestVersion;
-
     /**
      * Creates a file system announcement watcher.
      *
@@ -72,12 +82,24 @@ public class HollowFilesystemAnnouncementWatcher implements HollowConsumer.Annou
      */
     @SuppressWarnings("WeakerAccess")
     public HollowFilesystemAnnouncementWatcher(Path publishPath, ScheduledExecutorService executor) {
+        this(publishPath, executor, 0);
+    }
+
+    /**
+     * Creates a file system announcement watcher which stages the refreshes of its consumers.
+     *
+     * @param publishPath the publish path
+     * @param executor the executor from which watching is executed and refreshes are scheduled
+     * @param stagingWindowMillis the window over which a fleet of consumers is spread when refreshing
+     */
+    public HollowFilesystemAnnouncementWatcher(Path publishPath, ScheduledExecutorService executor, long stagingWindowMillis) {
+        super(executor, stagingWindowMillis);
         this.executor = executor;
 
         this.announcePath = publishPath.resolve(HollowFilesystemAnnouncer.ANNOUNCEMENT_FILENAME);
-        this.subscribedConsumers = new CopyOnWriteArrayList<>();
-        this.latestVersion = readLatestVersion();
+        setLatestVersion(readLatestVersion());
 
+        this.watchService = registerWatchService(publishPath);
         this.watchFuture = setupWatch();
     }
 
@@ -86,6 +108,9 @@ public class HollowFilesystemAnnouncementWatcher implements HollowConsumer.Annou
         super.finalize();
 
         watchFuture.cancel(true);
+        if (watchService != null) {
+            watchService.close();
+        }
 
         if (ownedExecutor) {
             executor.shutdownNow();
@@ -96,14 +121,17 @@ public class HollowFilesystemAnnouncementWatcher implements HollowConsumer.Annou
         return executor.scheduleWithFixedDelay(new Watch(this), 0, 1, TimeUnit.SECONDS);
     }
 
-    @Override
-    public long getLatestVersion() {
-        return latestVersion;
-    }
-
-    @Override
-    public void subscribeToUpdates(final HollowConsumer consumer) {
-        subscribedConsumers.add(consumer);
+    private WatchService registerWatchService(Path publishPath) {
+        try {
+            WatchService service = publishPath.getFileSystem().newWatchService();
+            publishPath.register(service, ENTRY_CREATE, ENTRY_MODIFY);
+            daemonThread(new FileWatch(this, service), HollowFilesystemAnnouncementWatcher.class,
+                    "file-watch; path=" + publishPath).start();
+            return service;
+        } catch (IOException | UnsupportedOperationException e) {
+            log.log(Level.INFO, "File watching unavailable for " + publishPath + "; polling for announcements", e);
+            return null;
+        }
     }
 
     private long readLatestVersion() {
@@ -117,6 +145,22 @@ public class HollowFilesystemAnnouncementWatcher implements HollowConsumer.Annou
         }
     }
 
+    private void readAnnouncement() {
+        if (!Files.isReadable(announcePath))
+            return;
+
+        String line;
+        try (BufferedReader reader = new BufferedReader(new FileReader(announcePath.toFile()))) {
+            line = reader.readLine();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        /// a watch event may arrive while the announcer is still writing the file; the completed write raises another
+        if (line != null && !line.isEmpty())
+            announce(Long.parseLong(line.trim()));
+    }
+
     static class Watch implements Runnable {
         private FileTime previousFileTime = FileTime.from(0, TimeUnit.MILLISECONDS);
         private final WeakReference<HollowFilesystemAnnouncementWatcher> ref;
@@ -135,13 +179,7 @@ public class HollowFilesystemAnnouncementWatcher implements HollowConsumer.Annou
                     FileTime lastModifiedTime = getLastModifiedTime(watcher.announcePath);
                     if (lastModifiedTime.compareTo(previousFileTime) > 0) {
                         previousFileTime = lastModifiedTime;
-
-                        long currentVersion = watcher.readLatestVersion();
-                        if (watcher.latestVersion != currentVersion) {
-                            watcher.latestVersion = currentVersion;
-                            for (HollowConsumer consumer : watcher.subscribedConsumers)
-                                consumer.triggerAsyncRefresh();
-                        }
+                        watcher.readAnnouncement();
                     }
                 }
             } catch (Exception ex) {
@@ -152,4 +190,44 @@ public class HollowFilesystemAnnouncementWatcher implements HollowConsumer.Annou
             }
         }
     }
+
+    static class FileWatch implements Runnable {
+        private final WeakReference<HollowFilesystemAnnouncementWatcher> ref;
+        private final WatchService watchService;
+        private final Path announceFileName;
+
+        FileWatch(HollowFilesystemAnnouncementWatcher watcher, WatchService watchService) {
+            this.ref = new WeakReference<>(watcher);
+            this.watchService = watchService;
+            this.announceFileName = watcher.announcePath.getFileName();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    WatchKey key = watchService.take();
+                    boolean announced = false;
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (announceFileName.equals(event.context()))
+                            announced = true;
+                    }
+                    key.reset();
+
+                    HollowFilesystemAnnouncementWatcher watcher = ref.get();
+                    if (watcher == null)
+                        return;
+                    if (announced) {
+                        try {
+                            watcher.readAnnouncement();
+                        } catch (Exception ex) {
+                            log.log(Level.WARNING, "Exception reading the current announced version", ex);
+                        }
+                    }
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                /// the watcher was finalized
+            }
+        }
+    }
 }
@@ -0,0 +1,268 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.consumer.index;
+
+import com.netflix.hollow.api.consumer.HollowConsumer;
+import com.netflix.hollow.api.custom.HollowAPI;
+import com.netflix.hollow.api.objects.HollowObject;
+import com.netflix.hollow.core.HollowConstants;
+import com.netflix.hollow.core.index.HollowRangeIndex;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.read.iterator.HollowOrdinalIterator;
+import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
+import com.netflix.hollow.core.write.objectmapper.HollowObjectTypeMapper;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A type safe index for range, floor and ceiling, and smallest or largest k queries over the value of a field.
+ * <p>
+ * If the index is {@link HollowConsumer#addRefreshListener(HollowConsumer.RefreshListener) registered} with its
+ * associated {@link HollowConsumer} then the index will track updates and changes will be reflected in matched results
+ * (performed after such updates).  When a registered index is no longer needed it should be
+ * {@link HollowConsumer#removeRefreshListener(HollowConsumer.RefreshListener) deregistered} to avoid unnecessary
+ * index recalculation and to ensure the index is reclaimed by the garbage collector.
+ *
+ * @param <T> the root, and result, type
+ * @param <Q> the value type
+ * @see HollowRangeIndex
+ */
+public final class RangeIndex<T extends HollowObject, Q>
+        implements HollowConsumer.RefreshListener, HollowConsumer.RefreshRegistrationListener {
+    final HollowConsumer consumer;
+    HollowAPI api;
+    final SelectFieldPathResultExtractor<T> resultExtractor;
+    final String rootTypeName;
+    final String fieldPath;
+    HollowRangeIndex hri;
+
+    RangeIndex(
+            HollowConsumer consumer,
+            Class<T> rootType,
+            String fieldPath, Class<Q> valueType) {
+        this.consumer = consumer;
+        this.api = consumer.getAPI();
+        this.rootTypeName = HollowObjectTypeMapper.getDefaultTypeName(rootType);
+        this.fieldPath = fieldPath;
+
+        this.resultExtractor = SelectFieldPathResultExtractor
+                .from(consumer.getAPI().getClass(), consumer.getStateEngine(), rootType, "", rootType);
+
+        this.hri = new HollowRangeIndex(consumer.getStateEngine(), rootTypeName, fieldPath);
+        if (valueType != valueTypeOf(hri.getFieldType())) {
+            throw new IllegalArgumentException(
+                    String.format("Value type %s is incompatible with field path %s resolving to field of type %s",
+                            valueType.getName(), fieldPath, hri.getFieldType()));
+        }
+    }
+
+    private static Class<?> valueTypeOf(FieldType fieldType) {
+        switch (fieldType) {
+            case INT:
+                return Integer.class;
+            case LONG:
+                return Long.class;
+            case FLOAT:
+                return Float.class;
+            case DOUBLE:
+                return Double.class;
+            default:
+                return String.class;
+        }
+    }
+
+    /**
+     * Finds the records whose value lies between {@code from} and {@code to}, both inclusive.
+     *
+     * @param from the lower bound, or null if the range is unbounded below
+     * @param to the upper bound, or null if the range is unbounded above
+     * @return a stream of matching records, in ascending order of value
+     */
+    public Stream<T> findRange(Q from, Q to) {
+        return findRange(from, true, to, true);
+    }
+
+    /**
+     * Finds the records whose value lies between {@code from} and {@code to}.
+     *
+     * @param from the lower bound, or null if the range is unbounded below
+     * @param fromInclusive whether records with a value equal to {@code from} match
+     * @param to the upper bound, or null if the range is unbounded above
+     * @param toInclusive whether records with a value equal to {@code to} match
+     * @return a stream of matching records, in ascending order of value
+     */
+    public Stream<T> findRange(Q from, boolean fromInclusive, Q to, boolean toInclusive) {
+        return stream(hri.findRange(from, fromInclusive, to, toInclusive));
+    }
+
+    /**
+     * Finds the record with the greatest value less than or equal to the given value.
+     *
+     * @param value the value
+     * @return the matching record, or null if there is no such record
+     */
+    public T findFloor(Q value) {
+        return record(hri.findFloor(value));
+    }
+
+    /**
+     * Finds the record with the smallest value greater than or equal to the given value.
+     *
+     * @param value the value
+     * @return the matching record, or null if there is no such record
+     */
+    public T findCeiling(Q value) {
+        return record(hri.findCeiling(value));
+    }
+
+    /**
+     * Finds the {@code k} records with the smallest values.
+     *
+     * @param k the maximum number of records to return
+     * @return a stream of at most {@code k} records, in ascending order of value
+     */
+    public Stream<T> findSmallest(int k) {
+        return stream(hri.findSmallest(k));
+    }
+
+    /**
+     * Finds the {@code k} records with the largest values.
+     *
+     * @param k the maximum number of records to return
+     * @return a stream of at most {@code k} records, in descending order of value
+     */
+    public Stream<T> findLargest(int k) {
+        return stream(hri.findLargest(k));
+    }
+
+    private T record(int ordinal) {
+        if (ordinal == HollowConstants.ORDINAL_NONE) {
+            return null;
+        }
+        return resultExtractor.extract(api, ordinal);
+    }
+
+    private Stream<T> stream(HollowOrdinalIterator ordinals) {
+        HollowAPI api = this.api;
+        Spliterator.OfInt spliterator = new Spliterators.AbstractIntSpliterator(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override public boolean tryAdvance(IntConsumer action) {
+                int ordinal = ordinals.next();
+                if (ordinal == HollowOrdinalIterator.NO_MORE_ORDINALS) {
+                    return false;
+                }
+                action.accept(ordinal);
+                return true;
+            }
+        };
+        return StreamSupport.intStream(spliterator, false).mapToObj(i -> resultExtractor.extract(api, i));
+    }
+
+    // HollowConsumer.RefreshListener
+
+    @Override public void refreshStarted(long currentVersion, long requestedVersion) {
+    }
+
+    @Override public void snapshotUpdateOccurred(HollowAPI api, HollowReadStateEngine stateEngine, long version) {
+        HollowRangeIndex hri = this.hri;
+        hri.detachFromDeltaUpdates();
+        hri = new HollowRangeIndex(consumer.getStateEngine(), rootTypeName, fieldPath);
+        hri.listenForDeltaUpdates();
+        this.hri = hri;
+        this.api = api;
+    }
+
+    @Override public void deltaUpdateOccurred(HollowAPI api, HollowReadStateEngine stateEngine, long version) {
+        this.api = api;
+    }
+
+    @Override public void blobLoaded(HollowConsumer.Blob transition) {
+    }
+
+    @Override public void refreshSuccessful(long beforeVersion, long afterVersion, long requestedVersion) {
+    }
+
+    @Override public void refreshFailed(
+            long beforeVersion, long afterVersion, long requestedVersion, Throwable failureCause) {
+    }
+
+    // HollowConsumer.RefreshRegistrationListener
+
+    @Override public void onBeforeAddition(HollowConsumer c) {
+        if (c != consumer) {
+            throw new IllegalStateException("The index's consumer and the listener's consumer are not the same");
+        }
+        hri.listenForDeltaUpdates();
+    }
+
+    @Override public void onAfterRemoval(HollowConsumer c) {
+        hri.detachFromDeltaUpdates();
+    }
+
+    /**
+     * Starts the building of a {@link RangeIndex}.
+     *
+     * @param consumer the consumer containing instances of the given root type
+     * @param rootType the root type to order and return
+     * @param <T> the root type
+     * @return a builder
+     */
+    public static <T extends HollowObject> Builder<T> from(HollowConsumer consumer, Class<T> rootType) {
+        Objects.requireNonNull(consumer);
+        Objects.requireNonNull(rootType);
+        return new Builder<>(consumer, rootType);
+    }
+
+    /**
+     * The builder of a {@link RangeIndex}.
+     *
+     * @param <T> the root type
+     */
+    public static final class Builder<T extends HollowObject> {
+        final HollowConsumer consumer;
+        final Class<T> rootType;
+
+        Builder(HollowConsumer consumer, Class<T> rootType) {
+            this.consumer = consumer;
+            this.rootType = rootType;
+        }
+
+        /**
+         * Creates a {@link RangeIndex} ordering records by the value of a field path.
+         *
+         * @param valueFieldPath the value field path, leading to an INT, LONG, FLOAT, DOUBLE or STRING field
+         * @param valueFieldType the value type, the boxed type of the field resolved by the field path
+         * @param <Q> the value type
+         * @return a {@code RangeIndex}
+         * @throws IllegalArgumentException if the value field path is empty or invalid
+         * @throws IllegalArgumentException if the value field type is invalid given resolution of the
+         * value field path
+         */
+        public <Q> RangeIndex<T, Q> usingPath(String valueFieldPath, Class<Q> valueFieldType) {
+            Objects.requireNonNull(valueFieldPath);
+            if (valueFieldPath.isEmpty()) {
+                throw new IllegalArgumentException("valueFieldPath argument is an empty String");
+            }
+            Objects.requireNonNull(valueFieldType);
+            return new RangeIndex<>(consumer, rootType, valueFieldPath, valueFieldType);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.consumer.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of latencies in milliseconds, with buckets whose upper bounds are successive powers of two.
+ * <p>
+ * Bucket {@code i} counts latencies in {@code [2^(i-1), 2^i)} milliseconds, with bucket 0 counting latencies under
+ * one millisecond.  Recording is lock free, and safe to call from any thread.
+ */
+public class RefreshLatencyHistogram {
+
+    private static final int NUM_BUCKETS = 48;
+
+    private final AtomicLongArray buckets;
+    private final AtomicLong count;
+    private final AtomicLong totalMillis;
+    private final AtomicLong maxMillis;
+
+    public RefreshLatencyHistogram() {
+        this.buckets = new AtomicLongArray(NUM_BUCKETS);
+        this.count = new AtomicLong();
+        this.totalMillis = new AtomicLong();
+        this.maxMillis = new AtomicLong();
+    }
+
+    public void record(long latencyMillis) {
+        if(latencyMillis < 0)
+            latencyMillis = 0;
+
+        buckets.incrementAndGet(bucket(latencyMillis));
+        count.incrementAndGet();
+        totalMillis.addAndGet(latencyMillis);
+        maxMillis.accumulateAndGet(latencyMillis, Math::max);
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getMaxMillis() {
+        return maxMillis.get();
+    }
+
+    public double getMeanMillis() {
+        long n = count.get();
+        return n == 0 ? 0d : (double)totalMillis.get() / n;
+    }
+
+    /**
+     * @param percentile the percentile, between 0 and 100
+     * @return the upper bound, in milliseconds, of the bucket holding the given percentile of recorded latencies; or
+     * 0 if no latencies have been recorded
+     */
+    public long getPercentileMillis(double percentile) {
+        if(percentile < 0 || percentile > 100)
+            throw new IllegalArgumentException("percentile must be between 0 and 100, was " + percentile);
+
+        long n = count.get();
+        if(n == 0)
+            return 0;
+
+        long rank = Math.max(1, (long)Math.ceil(n * percentile / 100d));
+        long seen = 0;
+        for(int i=0;i<NUM_BUCKETS;i++) {
+            seen += buckets.get(i);
+            if(seen >= rank)
+                return Math.min(1L << i, maxMillis.get());
+        }
+        return maxMillis.get();
+    }
+
+    /**
+     * @return a copy of the bucket counts, where bucket {@code i} counts latencies below {@code 2^i} milliseconds
+     * and at or above the previous bucket's bound
+     */
+    public long[] getBucketCounts() {
+        long[] counts = new long[NUM_BUCKETS];
+        for(int i=0;i<NUM_BUCKETS;i++)
+            counts[i] = buckets.get(i);
+        return counts;
+    }
+
+    private static int bucket(long latencyMillis) {
+        int bucket = 64 - Long.numberOfLeadingZeros(latencyMillis);
+        return Math.min(bucket, NUM_BUCKETS - 1);
+    }
+}
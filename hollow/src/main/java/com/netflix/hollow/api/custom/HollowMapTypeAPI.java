@@ -54,6 +54,42 @@ public class HollowMapTypeAPI extends HollowTypeAPI {
         return getTypeDataAccess().findEntry(ordinal, hashKey);
     }
 
+    public int findKey(int ordinal, long hashKey) {
+        return getTypeDataAccess().findKey(ordinal, hashKey);
+    }
+
+    public int findKey(int ordinal, String hashKey) {
+        return getTypeDataAccess().findKey(ordinal, hashKey);
+    }
+
+    public int findKey(int ordinal, Object hashKey0, Object hashKey1) {
+        return getTypeDataAccess().findKey(ordinal, hashKey0, hashKey1);
+    }
+
+    public int findValue(int ordinal, long hashKey) {
+        return getTypeDataAccess().findValue(ordinal, hashKey);
+    }
+
+    public int findValue(int ordinal, String hashKey) {
+        return getTypeDataAccess().findValue(ordinal, hashKey);
+    }
+
+    public int findValue(int ordinal, Object hashKey0, Object hashKey1) {
+        return getTypeDataAccess().findValue(ordinal, hashKey0, hashKey1);
+    }
+
+    public long findEntry(int ordinal, long hashKey) {
+        return getTypeDataAccess().findEntry(ordinal, hashKey);
+    }
+
+    public long findEntry(int ordinal, String hashKey) {
+        return getTypeDataAccess().findEntry(ordinal, hashKey);
+    }
+
+    public long findEntry(int ordinal, Object hashKey0, Object hashKey1) {
+        return getTypeDataAccess().findEntry(ordinal, hashKey0, hashKey1);
+    }
+
     public HollowMapEntryOrdinalIterator getOrdinalIterator(int ordinal) {
         return getTypeDataAccess().ordinalIterator(ordinal);
     }
@@ -23,6 +23,9 @@ import com.netflix.hollow.api.sampling.HollowSamplingDirector;
 import com.netflix.hollow.core.read.dataaccess.HollowDataAccess;
 import com.netflix.hollow.core.read.dataaccess.HollowObjectTypeDataAccess;
 import com.netflix.hollow.core.read.dataaccess.missing.HollowObjectMissingDataAccess;
+import com.netflix.hollow.core.read.engine.HollowDeferredTypeDataAccess;
+import com.netflix.hollow.core.read.engine.object.HollowObjectRecordReader;
+import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
 import com.netflix.hollow.core.read.filter.HollowFilterConfig;
 import com.netflix.hollow.core.read.missing.MissingDataHandler;
 import com.netflix.hollow.core.schema.HollowObjectSchema;
@@ -69,6 +72,36 @@ public abstract class HollowObjectTypeAPI extends HollowTypeAPI {
         return (HollowObjectTypeDataAccess) typeDataAccess;
     }
 
+    /**
+     * Create a reader of many fields of a record of this type with a single safety check, as generated cached delegates
+     * do when they copy a record's fields.  The field of this API at a position in its field names is read from the
+     * reader at {@link #fieldPosition(int)}.
+     *
+     * @return a new record reader, or null if this type's data is not a {@link HollowObjectTypeReadState} or is missing
+     * any of this API's fields, in which case the fields must be read through this API one at a time
+     */
+    public HollowObjectRecordReader createRecordReader() {
+        HollowObjectTypeDataAccess typeDataAccess =
+                (HollowObjectTypeDataAccess) HollowDeferredTypeDataAccess.materialized(getTypeDataAccess());
+        if(!(typeDataAccess instanceof HollowObjectTypeReadState))
+            return null;
+
+        for(int i=0;i<fieldIndex.length;i++) {
+            if(fieldIndex[i] == -1)
+                return null;
+        }
+
+        return ((HollowObjectTypeReadState) typeDataAccess).createRecordReader();
+    }
+
+    /**
+     * @param fieldNum the position of a field in this API's field names
+     * @return the position of the field in the schema of this type's data, or -1 if the data does not have the field
+     */
+    public int fieldPosition(int fieldNum) {
+        return fieldIndex[fieldNum];
+    }
+
     public HollowDataAccess getDataAccess() {
         return typeDataAccess.getDataAccess();
     }
@@ -46,6 +46,18 @@ public class HollowSetTypeAPI extends HollowTypeAPI {
         return getTypeDataAccess().findElement(ordinal, hashKey);
     }
 
+    public int findElement(int ordinal, long hashKey) {
+        return getTypeDataAccess().findElement(ordinal, hashKey);
+    }
+
+    public int findElement(int ordinal, String hashKey) {
+        return getTypeDataAccess().findElement(ordinal, hashKey);
+    }
+
+    public int findElement(int ordinal, Object hashKey0, Object hashKey1) {
+        return getTypeDataAccess().findElement(ordinal, hashKey0, hashKey1);
+    }
+
     public HollowOrdinalIterator potentialMatchOrdinalIterator(int ordinal, int hashCode) {
         return getTypeDataAccess().potentialMatchOrdinalIterator(ordinal, hashCode);
     }
@@ -19,8 +19,12 @@ package com.netflix.hollow.api.custom;
 import com.netflix.hollow.api.sampling.HollowSamplingDirector;
 import com.netflix.hollow.api.sampling.SampleResult;
 import com.netflix.hollow.core.read.dataaccess.HollowTypeDataAccess;
+import com.netflix.hollow.core.read.engine.HollowDeferredTypeDataAccess;
+import com.netflix.hollow.core.read.engine.HollowTypeReadState;
 import com.netflix.hollow.core.read.filter.HollowFilterConfig;
+import java.lang.ref.WeakReference;
 import java.util.Collection;
+import java.util.function.Consumer;
 
 /**
  *  A Hollow Type API provides methods for accessing data in Hollow records without creating
@@ -32,11 +36,13 @@ import java.util.Collection;
 public abstract class HollowTypeAPI {
 
     protected final HollowAPI api;
-    protected final HollowTypeDataAccess typeDataAccess;
+    protected HollowTypeDataAccess typeDataAccess;
 
     protected HollowTypeAPI(HollowAPI api, HollowTypeDataAccess typeDataAccess) {
         this.api = api;
         this.typeDataAccess = typeDataAccess;
+        if(typeDataAccess instanceof HollowDeferredTypeDataAccess)
+            ((HollowDeferredTypeDataAccess) typeDataAccess).addMaterializationListener(new TypeStateResolver(this));
     }
 
     public HollowAPI getAPI() {
@@ -63,4 +69,23 @@ public abstract class HollowTypeAPI {
         return typeDataAccess.getSampler().getSampleResults();
     }
 
+    /// Once a deferred type is materialized, this type API reads from the type state rather than delegating each call
+    /// through the deferred data access.  The swap is not published through a volatile write; a thread which has not
+    /// yet observed it continues to read correctly through the deferred data access, which delegates to the same state.
+    /// The type API is weakly referenced so that a deferred data access does not retain APIs which have been replaced.
+    private static class TypeStateResolver implements Consumer<HollowTypeReadState> {
+        private final WeakReference<HollowTypeAPI> typeAPI;
+
+        TypeStateResolver(HollowTypeAPI typeAPI) {
+            this.typeAPI = new WeakReference<HollowTypeAPI>(typeAPI);
+        }
+
+        @Override
+        public void accept(HollowTypeReadState typeState) {
+            HollowTypeAPI api = typeAPI.get();
+            if(api != null)
+                api.typeDataAccess = typeState;
+        }
+    }
+
 }
@@ -43,7 +43,7 @@ public abstract class HollowMetrics {
      * @param hollowReadStateEngine
      */
     void calculateTypeMetrics(HollowReadStateEngine hollowReadStateEngine) {
-        Collection<HollowTypeReadState> typeStates = hollowReadStateEngine.getTypeStates();
+        Collection<HollowTypeReadState> typeStates = hollowReadStateEngine.getMaterializedTypeStates();
         if (typeStates == null)
             return;
 
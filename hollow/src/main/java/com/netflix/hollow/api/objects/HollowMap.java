@@ -16,6 +16,8 @@
  */
 package com.netflix.hollow.api.objects;
 
+import static com.netflix.hollow.core.HollowConstants.ORDINAL_NONE;
+
 import com.netflix.hollow.api.objects.delegate.HollowMapDelegate;
 import com.netflix.hollow.api.objects.delegate.HollowRecordDelegate;
 import com.netflix.hollow.core.read.dataaccess.HollowMapTypeDataAccess;
@@ -84,6 +86,61 @@ public abstract class HollowMap<K, V> extends AbstractMap<K, V> implements Hollo
     public final Map.Entry<K, V> findEntry(Object... hashKey) {
         return delegate.findEntry(this, ordinal, hashKey);
     }
+
+    /*
+     * The following lookups take a single INT, LONG or REFERENCE hash key field without boxing it, a single STRING
+     * hash key field, or two hash key fields without allocating an array for them.
+     */
+
+    public final K findKey(long hashKey) {
+        return instantiateKeyIfPresent(delegate.getTypeDataAccess().findKey(ordinal, hashKey));
+    }
+
+    public final K findKey(String hashKey) {
+        return instantiateKeyIfPresent(delegate.getTypeDataAccess().findKey(ordinal, hashKey));
+    }
+
+    public final K findKey(Object hashKey0, Object hashKey1) {
+        return instantiateKeyIfPresent(delegate.getTypeDataAccess().findKey(ordinal, hashKey0, hashKey1));
+    }
+
+    public final V findValue(long hashKey) {
+        return instantiateValueIfPresent(delegate.getTypeDataAccess().findValue(ordinal, hashKey));
+    }
+
+    public final V findValue(String hashKey) {
+        return instantiateValueIfPresent(delegate.getTypeDataAccess().findValue(ordinal, hashKey));
+    }
+
+    public final V findValue(Object hashKey0, Object hashKey1) {
+        return instantiateValueIfPresent(delegate.getTypeDataAccess().findValue(ordinal, hashKey0, hashKey1));
+    }
+
+    public final Map.Entry<K, V> findEntry(long hashKey) {
+        return instantiateEntryIfPresent(delegate.getTypeDataAccess().findEntry(ordinal, hashKey));
+    }
+
+    public final Map.Entry<K, V> findEntry(String hashKey) {
+        return instantiateEntryIfPresent(delegate.getTypeDataAccess().findEntry(ordinal, hashKey));
+    }
+
+    public final Map.Entry<K, V> findEntry(Object hashKey0, Object hashKey1) {
+        return instantiateEntryIfPresent(delegate.getTypeDataAccess().findEntry(ordinal, hashKey0, hashKey1));
+    }
+
+    private K instantiateKeyIfPresent(int keyOrdinal) {
+        return keyOrdinal == ORDINAL_NONE ? null : instantiateKey(keyOrdinal);
+    }
+
+    private V instantiateValueIfPresent(int valueOrdinal) {
+        return valueOrdinal == ORDINAL_NONE ? null : instantiateValue(valueOrdinal);
+    }
+
+    private Map.Entry<K, V> instantiateEntryIfPresent(long entryOrdinals) {
+        if(entryOrdinals == -1L)
+            return null;
+        return new SimpleImmutableEntry<>(instantiateKey((int)(entryOrdinals >> 32)), instantiateValue((int)entryOrdinals));
+    }
     
 
     public abstract K instantiateKey(int keyOrdinal);
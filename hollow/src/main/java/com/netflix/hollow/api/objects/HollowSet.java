@@ -16,6 +16,8 @@
  */
 package com.netflix.hollow.api.objects;
 
+import static com.netflix.hollow.core.HollowConstants.ORDINAL_NONE;
+
 import com.netflix.hollow.api.objects.delegate.HollowRecordDelegate;
 import com.netflix.hollow.api.objects.delegate.HollowSetDelegate;
 import com.netflix.hollow.core.read.dataaccess.HollowSetTypeDataAccess;
@@ -66,6 +68,41 @@ public abstract class HollowSet<T> extends AbstractSet<T> implements HollowRecor
         return delegate.findElement(this, ordinal, hashKey);
     }
 
+    /**
+     * Find an element with the specified single field INT, LONG or REFERENCE hash key, without boxing the key.
+     *
+     * @param hashKey The hash key to match.
+     * @return The element if discovered, null otherwise.
+     */
+    public T findElement(long hashKey) {
+        return instantiateElementIfPresent(delegate.getTypeDataAccess().findElement(ordinal, hashKey));
+    }
+
+    /**
+     * Find an element with the specified single field STRING hash key.
+     *
+     * @param hashKey The hash key to match.
+     * @return The element if discovered, null otherwise.
+     */
+    public T findElement(String hashKey) {
+        return instantiateElementIfPresent(delegate.getTypeDataAccess().findElement(ordinal, hashKey));
+    }
+
+    /**
+     * Find an element with the specified two field hash key, without allocating an array for the key.
+     *
+     * @param hashKey0 The first hash key field to match.
+     * @param hashKey1 The second hash key field to match.
+     * @return The element if discovered, null otherwise.
+     */
+    public T findElement(Object hashKey0, Object hashKey1) {
+        return instantiateElementIfPresent(delegate.getTypeDataAccess().findElement(ordinal, hashKey0, hashKey1));
+    }
+
+    private T instantiateElementIfPresent(int elementOrdinal) {
+        return elementOrdinal == ORDINAL_NONE ? null : instantiateElement(elementOrdinal);
+    }
+
     public abstract T instantiateElement(int elementOrdinal);
     public abstract boolean equalsElement(int elementOrdinal, Object testObject);
 
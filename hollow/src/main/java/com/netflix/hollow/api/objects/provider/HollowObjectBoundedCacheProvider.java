@@ -0,0 +1,262 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.objects.provider;
+
+import com.netflix.hollow.api.custom.HollowTypeAPI;
+import com.netflix.hollow.api.objects.HollowRecord;
+import com.netflix.hollow.api.objects.delegate.HollowCachedDelegate;
+import com.netflix.hollow.core.read.dataaccess.HollowTypeDataAccess;
+import com.netflix.hollow.core.read.engine.HollowDeferredTypeDataAccess;
+import com.netflix.hollow.core.read.engine.HollowTypeReadState;
+import com.netflix.hollow.core.read.engine.HollowTypeStateListener;
+import com.netflix.hollow.core.read.engine.PopulatedOrdinalListener;
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A HollowObjectBoundedCacheProvider caches Object representations (presumably {@link HollowRecord}s) of 
+ * records of a specific type, up to a fixed number of records.
+ * <p>
+ * Unlike the {@link HollowObjectCacheProvider}, which holds an object for every populated ordinal, records are
+ * cached lazily as they are requested.  The cache is divided into small sets of entries, and each ordinal maps to a 
+ * single set.  When a set is full, an entry is chosen for eviction with the CLOCK algorithm:  entries which were
+ * accessed since the clock hand last passed them are given a second chance.
+ * <p>
+ * When attached to a {@link HollowTypeReadState}, only the entries for ordinals added or removed by a delta are 
+ * invalidated.  Cached objects for all other records survive the update.
+ */
+public class HollowObjectBoundedCacheProvider<T> extends HollowObjectProvider<T> implements HollowTypeStateListener {
+    private static final Logger log = Logger.getLogger(HollowObjectBoundedCacheProvider.class.getName());
+
+    static final int ENTRIES_PER_SET = 8;
+
+    private final HollowTypeDataAccess typeDataAccess;
+    private final HollowTypeAPI typeAPI;
+    private final HollowFactory<T> factory;
+
+    private final AtomicReferenceArray<CacheEntry<T>> entries;
+    private final int[] clockHands;
+    private final int setMask;
+
+    private final BitSet changedOrdinals;
+    private volatile int updateVersion;
+
+    private HollowTypeReadState typeReadState;
+    private volatile boolean detached;
+
+    public HollowObjectBoundedCacheProvider(HollowTypeDataAccess typeDataAccess, HollowTypeAPI typeAPI, HollowFactory<T> factory, int maxCachedObjects) {
+        this(typeDataAccess, typeAPI, factory, maxCachedObjects, null);
+    }
+
+    /**
+     * @param typeDataAccess the type data access
+     * @param typeAPI the type API
+     * @param factory the factory used to instantiate cached objects
+     * @param maxCachedObjects the maximum number of objects to cache.  This is rounded up to a power of two multiple of 8.
+     * @param previous the provider from the prior cycle's API, if any.  Objects cached for records which were not changed
+     *                 are carried over.
+     */
+    public HollowObjectBoundedCacheProvider(HollowTypeDataAccess typeDataAccess, HollowTypeAPI typeAPI, HollowFactory<T> factory, int maxCachedObjects, HollowObjectBoundedCacheProvider<T> previous) {
+        if(maxCachedObjects <= 0)
+            throw new IllegalArgumentException("maxCachedObjects must be positive: " + maxCachedObjects);
+
+        int numSets = 1;
+        while(numSets * ENTRIES_PER_SET < maxCachedObjects)
+            numSets <<= 1;
+
+        this.typeDataAccess = typeDataAccess;
+        this.typeAPI = typeAPI;
+        this.factory = factory;
+        this.entries = new AtomicReferenceArray<CacheEntry<T>>(numSets * ENTRIES_PER_SET);
+        this.clockHands = new int[numSets];
+        this.setMask = numSets - 1;
+        this.changedOrdinals = new BitSet();
+
+        if(typeDataAccess != null && previous != null)
+            carryOver(previous);
+
+        if(typeDataAccess instanceof HollowTypeReadState || typeDataAccess instanceof HollowDeferredTypeDataAccess) {
+            this.typeReadState = typeDataAccess.getTypeState();
+            this.typeReadState.addListener(this);
+        }
+    }
+
+    private void carryOver(HollowObjectBoundedCacheProvider<T> previous) {
+        PopulatedOrdinalListener listener = typeDataAccess.getTypeState().getListener(PopulatedOrdinalListener.class);
+        BitSet populatedOrdinals = listener.getPopulatedOrdinals();
+        BitSet previousOrdinals = listener.getPreviousOrdinals();
+
+        for(int i=0;i<previous.entries.length();i++) {
+            CacheEntry<T> entry = previous.entries.get(i);
+            if(entry != null && previousOrdinals.get(entry.ordinal) && populatedOrdinals.get(entry.ordinal)) {
+                if(entry.object instanceof HollowRecord)
+                    ((HollowCachedDelegate)((HollowRecord)entry.object).getDelegate()).updateTypeAPI(typeAPI);
+                admit(new CacheEntry<T>(entry.ordinal, entry.object));
+            }
+        }
+    }
+
+    @Override
+    public T getHollowObject(int ordinal) {
+        if(detached)
+            return instantiateCachedObject(ordinal);
+
+        int base = setIndex(ordinal) * ENTRIES_PER_SET;
+        for(int i=0;i<ENTRIES_PER_SET;i++) {
+            CacheEntry<T> entry = entries.get(base + i);
+            if(entry != null && entry.ordinal == ordinal) {
+                if(!entry.referenced)
+                    entry.referenced = true;
+                return entry.object;
+            }
+        }
+
+        int version = updateVersion;
+        T object = instantiateCachedObject(ordinal);
+
+        /// only admit objects which were read entirely outside of a delta update
+        if(object != null && (version & 1) == 0) {
+            CacheEntry<T> entry = new CacheEntry<T>(ordinal, object);
+            int idx = admit(entry);
+            if(idx != -1 && updateVersion != version)
+                entries.compareAndSet(idx, entry, null);
+        }
+
+        return object;
+    }
+
+    /**
+     * @return the maximum number of objects which may be cached by this provider.
+     */
+    public int getCapacity() {
+        return entries.length();
+    }
+
+    /**
+     * @return the number of objects currently cached by this provider.
+     */
+    public int size() {
+        int size = 0;
+        for(int i=0;i<entries.length();i++) {
+            if(entries.get(i) != null)
+                size++;
+        }
+        return size;
+    }
+
+    public void detach() {
+        detached = true;
+        if(typeReadState != null)
+            typeReadState.removeListener(this);
+        typeReadState = null;
+        for(int i=0;i<entries.length();i++)
+            entries.set(i, null);
+    }
+
+    @Override
+    public void beginUpdate() {
+        updateVersion++;
+    }
+
+    @Override
+    public void addedOrdinal(int ordinal) {
+        changedOrdinals.set(ordinal);
+        invalidate(ordinal);
+    }
+
+    @Override
+    public void removedOrdinal(int ordinal) {
+        changedOrdinals.set(ordinal);
+        invalidate(ordinal);
+    }
+
+    @Override
+    public void endUpdate() {
+        /// objects instantiated concurrently with the update may have been admitted after the ordinal was invalidated
+        int ordinal = changedOrdinals.nextSetBit(0);
+        while(ordinal != -1) {
+            invalidate(ordinal);
+            ordinal = changedOrdinals.nextSetBit(ordinal + 1);
+        }
+        changedOrdinals.clear();
+        updateVersion++;
+    }
+
+    /**
+     * Place the entry in its set, evicting the first entry the clock hand finds which has not been referenced since
+     * the hand last passed it.
+     * 
+     * @return the index at which the entry was placed, or -1 if it could not be placed due to contention
+     */
+    private int admit(CacheEntry<T> entry) {
+        int set = setIndex(entry.ordinal);
+        int base = set * ENTRIES_PER_SET;
+        int hand = clockHands[set];
+
+        for(int i=0;i<ENTRIES_PER_SET*2;i++) {
+            int way = (hand + i) & (ENTRIES_PER_SET - 1);
+            CacheEntry<T> current = entries.get(base + way);
+            if(current == null || !current.referenced) {
+                if(entries.compareAndSet(base + way, current, entry)) {
+                    clockHands[set] = (way + 1) & (ENTRIES_PER_SET - 1);
+                    return base + way;
+                }
+            } else {
+                current.referenced = false;
+            }
+        }
+
+        return -1;
+    }
+
+    private void invalidate(int ordinal) {
+        int base = setIndex(ordinal) * ENTRIES_PER_SET;
+        for(int i=0;i<ENTRIES_PER_SET;i++) {
+            CacheEntry<T> entry = entries.get(base + i);
+            if(entry != null && entry.ordinal == ordinal)
+                entries.compareAndSet(base + i, entry, null);
+        }
+    }
+
+    private int setIndex(int ordinal) {
+        int hash = ordinal * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & setMask;
+    }
+
+    private T instantiateCachedObject(int ordinal) {
+        try {
+            return factory.newCachedHollowObject(typeDataAccess, typeAPI, ordinal);
+        } catch(Throwable th) {
+            log.log(Level.SEVERE, "Cached object instantiation failed", th);
+            return null;
+        }
+    }
+
+    private static class CacheEntry<T> {
+        private final int ordinal;
+        private final T object;
+        /// written without synchronization; a lost update only affects which entry is evicted
+        private boolean referenced;
+
+        CacheEntry(int ordinal, T object) {
+            this.ordinal = ordinal;
+            this.object = object;
+        }
+    }
+}
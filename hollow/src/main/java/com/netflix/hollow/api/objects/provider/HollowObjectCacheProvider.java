@@ -20,6 +20,7 @@ import com.netflix.hollow.api.custom.HollowTypeAPI;
 import com.netflix.hollow.api.objects.HollowRecord;
 import com.netflix.hollow.api.objects.delegate.HollowCachedDelegate;
 import com.netflix.hollow.core.read.dataaccess.HollowTypeDataAccess;
+import com.netflix.hollow.core.read.engine.HollowDeferredTypeDataAccess;
 import com.netflix.hollow.core.read.engine.HollowTypeReadState;
 import com.netflix.hollow.core.read.engine.HollowTypeStateListener;
 import com.netflix.hollow.core.read.engine.PopulatedOrdinalListener;
@@ -69,10 +70,10 @@ public class HollowObjectCacheProvider<T> extends HollowObjectProvider<T> implem
                 }
             }
 
-            if(typeDataAccess instanceof HollowTypeReadState) {
+            if(typeDataAccess instanceof HollowTypeReadState || typeDataAccess instanceof HollowDeferredTypeDataAccess) {
                 this.factory = factory;
                 this.typeAPI = typeAPI;
-                this.typeReadState = (HollowTypeReadState)typeDataAccess;
+                this.typeReadState = typeDataAccess.getTypeState();
                 this.typeReadState.addListener(this);
             }
 
@@ -17,8 +17,8 @@
 package com.netflix.hollow.api.objects.provider;
 
 /**
- * A HollowObjectProvider, either one of {@link HollowObjectFactoryProvider} or {@link HollowObjectCacheProvider},
- * depending on whether the specific type is "cached".
+ * A HollowObjectProvider, either one of {@link HollowObjectFactoryProvider}, {@link HollowObjectCacheProvider} or
+ * {@link HollowObjectBoundedCacheProvider}, depending on whether and how the specific type is "cached".
  */
 public abstract class HollowObjectProvider<T> {
 
@@ -34,6 +34,7 @@ import com.netflix.hollow.api.producer.validation.ValidationStatusException;
 import com.netflix.hollow.api.producer.validation.ValidatorListener;
 import com.netflix.hollow.core.HollowConstants;
 import com.netflix.hollow.core.HollowStateEngine;
+import com.netflix.hollow.core.HollowStringEncoding;
 import com.netflix.hollow.core.read.HollowBlobInput;
 import com.netflix.hollow.core.read.engine.HollowBlobHeaderReader;
 import com.netflix.hollow.core.read.engine.HollowBlobReader;
@@ -95,7 +96,7 @@ abstract class AbstractHollowProducer {
         this(new HollowFilesystemBlobStager(), publisher, announcer,
                 Collections.emptyList(),
                 new VersionMinterWithCounter(), null, 0,
-                DEFAULT_TARGET_MAX_TYPE_SHARD_SIZE, false, null,
+                DEFAULT_TARGET_MAX_TYPE_SHARD_SIZE, false, HollowStringEncoding.VARINT_CHARS, null,
                 new DummyBlobStorageCleaner(), new BasicSingleProducerEnforcer(),
                 null, true);
     }
@@ -108,7 +109,7 @@ abstract class AbstractHollowProducer {
                 b.eventListeners,
                 b.versionMinter, b.snapshotPublishExecutor,
                 b.numStatesBetweenSnapshots, b.targetMaxTypeShardSize, b.focusHoleFillInFewestShards,
-                b.metricsCollector, b.blobStorageCleaner, b.singleProducerEnforcer,
+                b.stringEncoding, b.metricsCollector, b.blobStorageCleaner, b.singleProducerEnforcer,
                 b.hashCodeFinder, b.doIntegrityCheck);
     }
 
@@ -122,6 +123,7 @@ abstract class AbstractHollowProducer {
             int numStatesBetweenSnapshots,
             long targetMaxTypeShardSize,
             boolean focusHoleFillInFewestShards,
+            HollowStringEncoding stringEncoding,
             HollowMetricsCollector<HollowProducerMetrics> metricsCollector,
             HollowProducer.BlobStorageCleaner blobStorageCleaner,
             SingleProducerEnforcer singleProducerEnforcer,
@@ -142,6 +144,7 @@ abstract class AbstractHollowProducer {
                 : new HollowWriteStateEngine(hashCodeFinder);
         writeEngine.setTargetMaxTypeShardSize(targetMaxTypeShardSize);
         writeEngine.setFocusHoleFillInFewestShards(focusHoleFillInFewestShards);
+        writeEngine.setStringEncoding(stringEncoding);
 
         this.objectMapper = new HollowObjectMapper(writeEngine);
         if (hashCodeFinder != null) {
@@ -279,6 +282,7 @@ abstract class AbstractHollowProducer {
                 HollowWriteStateEngine writeEngine = hashCodeFinder == null
                         ? new HollowWriteStateEngine()
                         : new HollowWriteStateEngine(hashCodeFinder);
+                writeEngine.setStringEncoding(objectMapper.getStateEngine().getStringEncoding());
                 HollowWriteStateCreator.populateStateEngineWithTypeWriteStates(writeEngine, schemas);
                 HollowObjectMapper newObjectMapper = new HollowObjectMapper(writeEngine);
                 if (hashCodeFinder != null) {
@@ -0,0 +1,439 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.producer;
+
+import static com.netflix.hollow.core.util.Threads.daemonThread;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A {@link HollowProducer.BlobCompressor} which splits a blob into independently compressed blocks, so that blocks
+ * can be compressed and decompressed in parallel.
+ * <p>
+ * The compressed format is a header (magic number, format version, codec id and block size) followed by a sequence of
+ * frames, each holding the uncompressed length, the compressed length and the compressed bytes of one block.  A frame
+ * with an uncompressed length of zero ends the blob.  The frame headers index the blocks, so a reader can hand each
+ * block to a worker thread as soon as its compressed bytes have been read.
+ * <p>
+ * The producer compresses blocks on a pool of worker threads while the blob is being written.  The stream returned by
+ * {@link #decompress(InputStream)} keeps a bounded number of blocks decompressing ahead of the reader: a new block is
+ * only read and submitted once the reader has consumed one, so decompression proceeds at the rate the blob is read.
+ * <p>
+ * The same codec must be configured by the producer and the consumer; a mismatch is detected from the header.
+ * A consumer applies the decompressor with
+ * {@link com.netflix.hollow.api.consumer.HollowConsumer.Builder#withBlobDecompressor(HollowProducer.BlobCompressor)}.
+ */
+public class BlockFramedBlobCompressor implements HollowProducer.BlobCompressor {
+
+    static final int MAGIC = 0x48424c4b; // "HBLK"
+    static final int FORMAT_VERSION = 1;
+
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+
+    private final BlockCodec codec;
+    private final int blockSize;
+    private final int maxBlocksInFlight;
+    private final ExecutorService executor;
+
+    /**
+     * Compresses 1MB blocks with {@link BlockCodec#DEFLATE}, using one worker thread per available processor.
+     */
+    public BlockFramedBlobCompressor() {
+        this(BlockCodec.DEFLATE, DEFAULT_BLOCK_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param codec the codec used to compress each block
+     * @param blockSize the uncompressed size of each block
+     * @param parallelism the number of worker threads
+     */
+    public BlockFramedBlobCompressor(BlockCodec codec, int blockSize, int parallelism) {
+        if(blockSize <= 0)
+            throw new IllegalArgumentException("blockSize must be positive: " + blockSize);
+        if(parallelism <= 0)
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        this.codec = codec;
+        this.blockSize = blockSize;
+        this.maxBlocksInFlight = parallelism * 2;
+        this.executor = Executors.newFixedThreadPool(parallelism,
+                r -> daemonThread(r, BlockFramedBlobCompressor.class, "block-codec"));
+    }
+
+    @Override
+    public OutputStream compress(OutputStream os) {
+        return new BlockCompressingOutputStream(os);
+    }
+
+    @Override
+    public InputStream decompress(InputStream is) {
+        return new BlockDecompressingInputStream(is);
+    }
+
+    /**
+     * Stop the worker threads.  Streams which are still open will fail.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Compresses and decompresses a single, self-contained block.  Implementations must be thread-safe.
+     */
+    public interface BlockCodec {
+
+        /**
+         * Compresses blocks with {@link Deflater} at its default compression level.
+         */
+        BlockCodec DEFLATE = new DeflateBlockCodec(Deflater.DEFAULT_COMPRESSION);
+
+        /**
+         * @return an id identifying this codec, which is recorded in the header of each compressed blob
+         */
+        int getId();
+
+        /**
+         * @param block the uncompressed block
+         * @param length the number of bytes in the block
+         * @return the compressed block
+         */
+        byte[] compress(byte[] block, int length);
+
+        /**
+         * @param compressed the compressed block
+         * @param dest the array to decompress into, which is exactly the uncompressed length of the block
+         * @throws IOException if the block is corrupt
+         */
+        void decompress(byte[] compressed, byte[] dest) throws IOException;
+
+        /**
+         * Frames which claim a larger compressed length are rejected as corrupt before the compressed bytes are read.
+         * Codecs should override this with a tight bound; the default accepts any length.
+         *
+         * @param uncompressedLength the number of bytes in an uncompressed block
+         * @return the greatest number of bytes the block may compress to
+         */
+        default int maxCompressedLength(int uncompressedLength) {
+            return Integer.MAX_VALUE;
+        }
+    }
+
+    /**
+     * A {@link BlockCodec} backed by {@link Deflater} and {@link Inflater}.
+     */
+    public static class DeflateBlockCodec implements BlockCodec {
+        private final int level;
+
+        public DeflateBlockCodec(int level) {
+            this.level = level;
+        }
+
+        @Override
+        public int getId() {
+            return 1;
+        }
+
+        @Override
+        public byte[] compress(byte[] block, int length) {
+            Deflater deflater = new Deflater(level);
+            try {
+                deflater.setInput(block, 0, length);
+                deflater.finish();
+
+                byte[] out = new byte[maxCompressedLength(length)];
+                int n = 0;
+                while(!deflater.finished()) {
+                    if(n == out.length)
+                        out = Arrays.copyOf(out, out.length * 2);
+                    n += deflater.deflate(out, n, out.length - n);
+                }
+                return Arrays.copyOf(out, n);
+            } finally {
+                deflater.end();
+            }
+        }
+
+        @Override
+        public int maxCompressedLength(int uncompressedLength) {
+            /// larger than zlib's compressBound, so it holds at every compression level
+            return uncompressedLength + (uncompressedLength >>> 6) + 64;
+        }
+
+        @Override
+        public void decompress(byte[] compressed, byte[] dest) throws IOException {
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(compressed);
+                int n = 0;
+                while(n < dest.length) {
+                    int inflated = inflater.inflate(dest, n, dest.length - n);
+                    if(inflated == 0 && (inflater.finished() || inflater.needsInput()))
+                        throw new IOException("Corrupt block: expected " + dest.length + " bytes but inflated " + n);
+                    n += inflated;
+                }
+            } catch(DataFormatException e) {
+                throw new IOException("Corrupt block", e);
+            } finally {
+                inflater.end();
+            }
+        }
+    }
+
+    private class BlockCompressingOutputStream extends OutputStream {
+        private final DataOutputStream out;
+        private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+        private final Deque<Integer> pendingLengths = new ArrayDeque<>();
+
+        private byte[] block;
+        private int position;
+        private boolean headerWritten;
+        private boolean closed;
+
+        BlockCompressingOutputStream(OutputStream os) {
+            this.out = new DataOutputStream(os);
+            this.block = new byte[blockSize];
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if(position == block.length)
+                submitBlock();
+            block[position++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while(len > 0) {
+                if(position == block.length)
+                    submitBlock();
+                int n = Math.min(len, block.length - position);
+                System.arraycopy(b, off, block, position, n);
+                position += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if(closed)
+                return;
+            closed = true;
+
+            try {
+                writeHeader();
+                if(position > 0)
+                    submitBlock();
+                while(!pending.isEmpty())
+                    writeFrame(pending.removeFirst());
+                out.writeInt(0);
+                out.writeInt(0);
+            } finally {
+                out.close();
+            }
+        }
+
+        private void submitBlock() throws IOException {
+            writeHeader();
+
+            final byte[] toCompress = block;
+            final int length = position;
+            pending.addLast(executor.submit(() -> codec.compress(toCompress, length)));
+            pendingLengths.addLast(length);
+
+            block = new byte[blockSize];
+            position = 0;
+
+            while(pending.size() >= maxBlocksInFlight || (!pending.isEmpty() && pending.peekFirst().isDone()))
+                writeFrame(pending.removeFirst());
+        }
+
+        private void writeHeader() throws IOException {
+            if(headerWritten)
+                return;
+            headerWritten = true;
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(codec.getId());
+            out.writeInt(blockSize);
+        }
+
+        private void writeFrame(Future<byte[]> future) throws IOException {
+            byte[] compressed = await(future);
+            int length = pendingLengths.removeFirst();
+            if(compressed.length > codec.maxCompressedLength(length))
+                throw new IOException("Codec " + codec.getId() + " compressed a block of " + length + " bytes to "
+                        + compressed.length + " bytes, which exceeds its bound of " + codec.maxCompressedLength(length));
+            out.writeInt(length);
+            out.writeInt(compressed.length);
+            out.write(compressed);
+        }
+    }
+
+    private class BlockDecompressingInputStream extends InputStream {
+        private final DataInputStream in;
+        private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+
+        private boolean headerRead;
+        private int frameBlockSize;
+        private boolean endOfFrames;
+        private byte[] block = new byte[0];
+        private int position;
+
+        BlockDecompressingInputStream(InputStream is) {
+            this.in = new DataInputStream(is);
+        }
+
+        @Override
+        public int read() throws IOException {
+            if(position == block.length && !nextBlock())
+                return -1;
+            return block[position++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if(len == 0)
+                return 0;
+            if(position == block.length && !nextBlock())
+                return -1;
+            int n = Math.min(len, block.length - position);
+            System.arraycopy(block, position, b, off, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = 0;
+            while(skipped < n) {
+                if(position == block.length && !nextBlock())
+                    break;
+                int s = (int) Math.min(n - skipped, block.length - position);
+                position += s;
+                skipped += s;
+            }
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return block.length - position;
+        }
+
+        @Override
+        public void close() throws IOException {
+            for(Future<byte[]> future : pending)
+                future.cancel(true);
+            pending.clear();
+            in.close();
+        }
+
+        private boolean nextBlock() throws IOException {
+            if(!headerRead)
+                readHeader();
+
+            fillPending();
+            if(pending.isEmpty())
+                return false;
+
+            block = await(pending.removeFirst());
+            position = 0;
+
+            fillPending();
+            return true;
+        }
+
+        private void readHeader() throws IOException {
+            headerRead = true;
+            int magic = in.readInt();
+            if(magic != MAGIC)
+                throw new IOException("Not a block framed blob");
+            int formatVersion = in.readInt();
+            if(formatVersion != FORMAT_VERSION)
+                throw new IOException("Unsupported block framed blob format version " + formatVersion);
+            int codecId = in.readInt();
+            if(codecId != codec.getId())
+                throw new IOException("Blob was compressed with codec " + codecId + " but codec " + codec.getId() + " is configured");
+            frameBlockSize = in.readInt();
+            if(frameBlockSize <= 0)
+                throw new IOException("Corrupt block framed blob: block size " + frameBlockSize);
+        }
+
+        private void fillPending() throws IOException {
+            while(!endOfFrames && pending.size() < maxBlocksInFlight) {
+                int uncompressedLength;
+                int compressedLength;
+                try {
+                    uncompressedLength = in.readInt();
+                    compressedLength = in.readInt();
+                } catch(EOFException e) {
+                    throw new IOException("Truncated block framed blob", e);
+                }
+
+                if(uncompressedLength == 0 && compressedLength == 0) {
+                    endOfFrames = true;
+                    return;
+                }
+
+                if(uncompressedLength <= 0 || uncompressedLength > frameBlockSize)
+                    throw new IOException("Corrupt block framed blob: uncompressed length " + uncompressedLength
+                            + " is not within the block size " + frameBlockSize);
+                if(compressedLength <= 0 || compressedLength > codec.maxCompressedLength(uncompressedLength))
+                    throw new IOException("Corrupt block framed blob: compressed length " + compressedLength
+                            + " is not within the bound for a block of " + uncompressedLength + " bytes");
+
+                byte[] compressed = new byte[compressedLength];
+                in.readFully(compressed);
+
+                pending.addLast(executor.submit(() -> {
+                    byte[] dest = new byte[uncompressedLength];
+                    codec.decompress(compressed, dest);
+                    return dest;
+                }));
+            }
+        }
+    }
+
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for block");
+        } catch(ExecutionException e) {
+            if(e.getCause() instanceof IOException)
+                throw (IOException) e.getCause();
+            throw new IOException(e.getCause());
+        }
+    }
+}
@@ -26,6 +26,7 @@ import com.netflix.hollow.api.producer.enforcer.SingleProducerEnforcer;
 import com.netflix.hollow.api.producer.fs.HollowFilesystemBlobStager;
 import com.netflix.hollow.api.producer.listener.HollowProducerEventListener;
 import com.netflix.hollow.api.producer.validation.ValidatorListener;
+import com.netflix.hollow.core.HollowStringEncoding;
 import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
 import com.netflix.hollow.core.schema.HollowSchema;
 import com.netflix.hollow.core.util.HollowObjectHashCodeFinder;
@@ -83,7 +84,8 @@ import java.util.concurrent.Executor;
  * these "staged" blobs will be written prior to publish.  Staged blobs will be cleaned up automatically after publish.</dd>
  *
  * <dt>{@link HollowProducer.BlobCompressor}</dt>
- * <dd>Implementations of this class intercept blob input/output streams to allow for compression in the blob store.</dd>
+ * <dd>Implementations of this class intercept blob input/output streams to allow for compression in the blob store.
+ * The {@link BlockFramedBlobCompressor} compresses and decompresses independent blocks in parallel.</dd>
  *
  * <dt>{@link HollowProducer.BlobStager}</dt>
  * <dd>Implementations will define how to stage blobs, if the default behavior of staging blobs on local disk is not desirable.
@@ -721,6 +723,7 @@ public class HollowProducer extends AbstractHollowProducer {
         int numStatesBetweenSnapshots = 0;
         boolean focusHoleFillInFewestShards = false;
         long targetMaxTypeShardSize = DEFAULT_TARGET_MAX_TYPE_SHARD_SIZE;
+        HollowStringEncoding stringEncoding = HollowStringEncoding.VARINT_CHARS;
         HollowMetricsCollector<HollowProducerMetrics> metricsCollector;
         BlobStorageCleaner blobStorageCleaner = new DummyBlobStorageCleaner();
         SingleProducerEnforcer singleProducerEnforcer = new BasicSingleProducerEnforcer();
@@ -855,6 +858,21 @@ public class HollowProducer extends AbstractHollowProducer {
             return (B) this;
         }
 
+        /**
+         * Sets the encoding of STRING field values in published blobs.
+         * <p>
+         * Consumers cannot apply a delta with a different encoding than their current state, and a producer cannot
+         * restore from a state with a different encoding, so changing the encoding requires a new delta chain.
+         *
+         * @param stringEncoding the string encoding
+         * @return this builder
+         * @see HollowStringEncoding
+         */
+        public B withStringEncoding(HollowStringEncoding stringEncoding) {
+            this.stringEncoding = stringEncoding;
+            return (B) this;
+        }
+
         public B withMetricsCollector(HollowMetricsCollector<HollowProducerMetrics> metricsCollector) {
             this.metricsCollector = metricsCollector;
             return (B) this;
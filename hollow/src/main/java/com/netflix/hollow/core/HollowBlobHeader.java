@@ -43,6 +43,7 @@ import java.util.Objects;
 public class HollowBlobHeader {
 
     public static final int HOLLOW_BLOB_VERSION_HEADER = 1030;
+    public static final int HOLLOW_BLOB_VERSION_HEADER_UTF8_STRINGS = 1031;
 
     private Map<String, String> headerTags = new HashMap<String, String>();
     private List<HollowSchema> schemas = new ArrayList<HollowSchema>();
@@ -90,6 +91,10 @@ public class HollowBlobHeader {
         return blobFormatVersion;
     }
 
+    public HollowStringEncoding getStringEncoding() {
+        return HollowStringEncoding.forBlobFormatVersion(blobFormatVersion);
+    }
+
     @Override
     public boolean equals(Object other) {
         if(other instanceof HollowBlobHeader) {
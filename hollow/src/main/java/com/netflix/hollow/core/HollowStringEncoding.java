@@ -0,0 +1,64 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core;
+
+/**
+ * The encoding of STRING field values in the variable length data of a blob.
+ * <p>
+ * The encoding is signalled by the blob format version in the {@link HollowBlobHeader}, so that consumers which do not
+ * support an encoding refuse the blob rather than decode its strings incorrectly.
+ */
+public enum HollowStringEncoding {
+
+    /**
+     * Each UTF-16 character is encoded as a VarInt.  This is the original encoding, and can be read by all consumers.
+     */
+    VARINT_CHARS(HollowBlobHeader.HOLLOW_BLOB_VERSION_HEADER),
+
+    /**
+     * Values are encoded as standard UTF-8, as by {@link String#getBytes(java.nio.charset.Charset)}, so that they
+     * can be decoded with the JDK's intrinsic decoder.  Unlike the JDK encoder, which replaces unpaired surrogate
+     * characters with '?', writing a STRING value containing an unpaired surrogate with this encoding fails with an
+     * {@link IllegalArgumentException}.
+     * <p>
+     * Blobs with this encoding can only be read by consumers which support it.
+     */
+    UTF_8(HollowBlobHeader.HOLLOW_BLOB_VERSION_HEADER_UTF8_STRINGS);
+
+    private final int blobFormatVersion;
+
+    HollowStringEncoding(int blobFormatVersion) {
+        this.blobFormatVersion = blobFormatVersion;
+    }
+
+    public int getBlobFormatVersion() {
+        return blobFormatVersion;
+    }
+
+    /**
+     * @param blobFormatVersion the blob format version read from a blob header
+     * @return the string encoding signalled by the version, or null if the version is not supported
+     */
+    public static HollowStringEncoding forBlobFormatVersion(int blobFormatVersion) {
+        for(HollowStringEncoding encoding : values()) {
+            if(encoding.blobFormatVersion == blobFormatVersion)
+                return encoding;
+        }
+        return null;
+    }
+
+}
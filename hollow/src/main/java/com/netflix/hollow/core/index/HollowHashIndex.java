@@ -25,6 +25,7 @@ import com.netflix.hollow.core.memory.encoding.HashCodes;
 import com.netflix.hollow.core.read.HollowReadFieldUtils;
 import com.netflix.hollow.core.read.dataaccess.HollowDataAccess;
 import com.netflix.hollow.core.read.dataaccess.HollowObjectTypeDataAccess;
+import com.netflix.hollow.core.read.engine.HollowDeferredTypeDataAccess;
 import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
 import com.netflix.hollow.core.read.engine.HollowTypeStateListener;
 import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
@@ -77,7 +78,7 @@ public class HollowHashIndex implements HollowTypeStateListener {
 
         this.hollowDataAccess = hollowDataAccess;
         this.type = type;
-        this.typeState = (HollowObjectTypeDataAccess) hollowDataAccess.getTypeDataAccess(type);
+        this.typeState = (HollowObjectTypeDataAccess) HollowDeferredTypeDataAccess.materialized(hollowDataAccess.getTypeDataAccess(type));
         this.selectField = selectField;
         this.matchFields = matchFields;
 
@@ -124,9 +125,13 @@ public class HollowHashIndex implements HollowTypeStateListener {
             while (!bucketIsEmpty) {
                 if (matchIsEqual(hashState.getMatchHashTable(), hashBucketBit, query)) {
                     int selectSize = (int) hashState.getMatchHashTable().getElementValue(hashBucketBit + hashState.getBitsPerMatchHashKey(), hashState.getBitsPerSelectTableSize());
-                    long selectBucketPointer = hashState.getMatchHashTable().getElementValue(hashBucketBit + hashState.getBitsPerMatchHashKey() + hashState.getBitsPerSelectTableSize(), hashState.getBitsPerSelectTablePointer());
+                    long selectPointerBit = hashBucketBit + hashState.getBitsPerMatchHashKey() + hashState.getBitsPerSelectTableSize();
+                    long selectBucketPointer = hashState.getMatchHashTable().getElementValue(selectPointerBit, hashState.getBitsPerSelectTablePointer());
 
-                    result = new HollowHashIndexResult(hashState, selectBucketPointer, selectSize);
+                    if(hashState.getMatchHashTable().getElementValue(selectPointerBit + hashState.getBitsPerSelectTablePointer(), 1) != 0)
+                        result = new HollowHashIndexResult(hashState.getSelectBitmaps()[(int)selectBucketPointer]);
+                    else
+                        result = new HollowHashIndexResult(hashState, selectBucketPointer, selectSize);
                     break;
                 }
 
@@ -261,6 +266,7 @@ public class HollowHashIndex implements HollowTypeStateListener {
 
         final FixedLengthElementArray selectHashArray;
         final int bitsPerSelectHashEntry;
+        private final HollowOrdinalBitmap[] selectBitmaps;
         private final FixedLengthElementArray matchHashTable;
         private final HollowHashIndexField[] matchFields;
         private final int matchHashMask;
@@ -274,6 +280,7 @@ public class HollowHashIndex implements HollowTypeStateListener {
         public HollowHashIndexState(HollowHashIndexBuilder builder) {
             matchHashTable = builder.getFinalMatchHashTable();
             selectHashArray = builder.getFinalSelectHashArray();
+            selectBitmaps = builder.getFinalSelectBitmaps();
             matchFields = builder.getMatchFields();
             matchHashMask = (int) builder.getFinalMatchHashMask();
             bitsPerMatchHashKey = builder.getBitsPerMatchHashKey();
@@ -293,6 +300,10 @@ public class HollowHashIndex implements HollowTypeStateListener {
             return bitsPerSelectHashEntry;
         }
 
+        public HollowOrdinalBitmap[] getSelectBitmaps() {
+            return selectBitmaps;
+        }
+
         public FixedLengthElementArray getMatchHashTable() {
             return matchHashTable;
         }
@@ -29,11 +29,22 @@ import com.netflix.hollow.core.read.HollowReadFieldUtils;
 import com.netflix.hollow.core.read.dataaccess.HollowDataAccess;
 import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
 import com.netflix.hollow.core.read.iterator.HollowOrdinalIterator;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 
 public class HollowHashIndexBuilder {
 
+    /**
+     * Keys which select at least this many records are considered for a bitmap select table, which is used if it is
+     * smaller than the equivalent select hash table.
+     */
+    static final int MIN_SELECT_BITMAP_SIZE = 1024;
+
     private final HollowPreindexer preindexer;
 
     private final int[] bitsPerTraverserField;
@@ -49,6 +60,7 @@ public class HollowHashIndexBuilder {
     private int finalBitsPerMatchHashEntry;
     private int finalBitsPerSelectTableSize;
     private int finalBitsPerSelectTablePointer;
+    private HollowOrdinalBitmap[] finalSelectBitmaps;
 
     private GrowingSegmentedLongArray matchIndexHashAndSizeArray;
     private FixedLengthElementArray intermediateMatchHashTable;
@@ -58,6 +70,8 @@ public class HollowHashIndexBuilder {
     private int intermediateMatchHashMask;
     private int intermediateMatchHashTableSizeBeforeGrow;
     private int matchCount;
+    private Map<Integer, Integer> selectBitmapIdxByMatchIdx;
+    private List<HollowOrdinalBitmap> selectBitmaps;
 
 
     /**
@@ -105,6 +119,8 @@ public class HollowHashIndexBuilder {
 
     public void buildIndex() {
         matchIndexHashAndSizeArray = new GrowingSegmentedLongArray(memoryRecycler);
+        selectBitmapIdxByMatchIdx = new HashMap<Integer, Integer>();
+        selectBitmaps = new ArrayList<HollowOrdinalBitmap>();
 
         BitSet populatedOrdinals = preindexer.getHollowTypeDataAccess().getTypeState().getPopulatedOrdinals();
 
@@ -184,9 +200,10 @@ public class HollowHashIndexBuilder {
         long totalNumberOfSelectBuckets = totalNumberOfSelectBucketsAndBitsRequiredForSelectTableSize & 0xFFFFFFFFFFFFFFL;
         long totalNumberOfMatchBuckets = HashCodes.hashTableSize(matchCount);
 
-        int bitsPerFinalSelectBucketPointer = bitsRequiredToRepresentValue(totalNumberOfSelectBuckets);
+        /// the select table pointer of a key with a bitmap select table is the index of the bitmap, flagged by a trailing bit
+        int bitsPerFinalSelectBucketPointer = bitsRequiredToRepresentValue(Math.max(totalNumberOfSelectBuckets, selectBitmaps.size()));
         int bitsPerSelectTableSize = (int)(totalNumberOfSelectBucketsAndBitsRequiredForSelectTableSize >>> 56);
-        int finalBitsPerMatchHashEntry = bitsPerMatchHashKey + bitsPerSelectTableSize + bitsPerFinalSelectBucketPointer;
+        int finalBitsPerMatchHashEntry = bitsPerMatchHashKey + bitsPerSelectTableSize + bitsPerFinalSelectBucketPointer + 1;
 
         FixedLengthElementArray finalMatchArray = new FixedLengthElementArray(memoryRecycler, totalNumberOfMatchBuckets * finalBitsPerMatchHashEntry);
         FixedLengthElementArray finalSelectArray = new FixedLengthElementArray(memoryRecycler, totalNumberOfSelectBuckets * bitsPerSelectHashEntry);
@@ -198,11 +215,12 @@ public class HollowHashIndexBuilder {
         for(int i=0;i<matchCount;i++) {
             long matchIndexHashAndSize = matchIndexHashAndSizeArray.get(i);
             int matchIndexSize = (int)(matchIndexHashAndSize >> 32);
-            int matchIndexTableSize = HashCodes.hashTableSize(matchIndexSize);
+            Integer selectBitmapIdx = selectBitmapIdxByMatchIdx.get(i);
+            int matchIndexTableSize = selectBitmapIdx != null ? 0 : HashCodes.hashTableSize(matchIndexSize);
             int matchIndexBucketMask = matchIndexTableSize - 1;
 
             HollowOrdinalIterator selectOrdinalIter = intermediateSelectLists.iterator(i);
-            int selectOrdinal = selectOrdinalIter.next();
+            int selectOrdinal = selectBitmapIdx != null ? HollowOrdinalIterator.NO_MORE_ORDINALS : selectOrdinalIter.next();
             while(selectOrdinal != HollowOrdinalIterator.NO_MORE_ORDINALS) {
                 int selectBucket = HashCodes.hashInt(selectOrdinal) & matchIndexBucketMask;
                 int bucketOrdinal = (int)finalSelectArray.getElementValue((currentSelectArrayBucket + selectBucket) * bitsPerSelectHashEntry, bitsPerSelectHashEntry) - 1;
@@ -242,7 +260,12 @@ public class HollowHashIndexBuilder {
             }
 
             finalMatchArray.setElementValue(finalMatchIndexBucketBit + bitsPerMatchHashKey, bitsPerSelectTableSize, matchIndexSize);
-            finalMatchArray.setElementValue(finalMatchIndexBucketBit + bitsPerMatchHashKey + bitsPerSelectTableSize, bitsPerFinalSelectBucketPointer, currentSelectArrayBucket);
+            if(selectBitmapIdx != null) {
+                finalMatchArray.setElementValue(finalMatchIndexBucketBit + bitsPerMatchHashKey + bitsPerSelectTableSize, bitsPerFinalSelectBucketPointer, selectBitmapIdx);
+                finalMatchArray.setElementValue(finalMatchIndexBucketBit + bitsPerMatchHashKey + bitsPerSelectTableSize + bitsPerFinalSelectBucketPointer, 1, 1);
+            } else {
+                finalMatchArray.setElementValue(finalMatchIndexBucketBit + bitsPerMatchHashKey + bitsPerSelectTableSize, bitsPerFinalSelectBucketPointer, currentSelectArrayBucket);
+            }
 
             currentSelectArrayBucket += matchIndexTableSize;
         }
@@ -253,6 +276,10 @@ public class HollowHashIndexBuilder {
         this.finalBitsPerSelectTablePointer = bitsPerFinalSelectBucketPointer;
         this.finalBitsPerSelectTableSize = bitsPerSelectTableSize;
         this.finalMatchHashMask = finalMatchHashMask;
+        this.finalSelectBitmaps = selectBitmaps.toArray(new HollowOrdinalBitmap[0]);
+
+        this.selectBitmapIdxByMatchIdx = null;
+        this.selectBitmaps = null;
     }
 
     private void growIntermediateHashTable() {
@@ -306,6 +333,7 @@ public class HollowHashIndexBuilder {
     /**
      * Called after initial pass.
      * Returns the sum total number of select buckets in the low 7 bytes, and the bits required for the max set size in the high 1 byte.
+     * Keys whose select set is held as a bitmap require no select buckets.
      */
     private long calculateDedupedSizesAndTotalNumberOfSelectBuckets(MultiLinkedElementArray elementArray, GrowingSegmentedLongArray matchIndexHashAndSizeArray) {
         long totalBuckets = 0;
@@ -347,7 +375,8 @@ public class HollowHashIndexBuilder {
             matchIndexHashAndSize |= (long)setSize << 32;
             matchIndexHashAndSizeArray.set(i, matchIndexHashAndSize);
 
-            totalBuckets += HashCodes.hashTableSize(setSize);
+            if(setSize < MIN_SELECT_BITMAP_SIZE || !useSelectBitmap(i, selectArray, predictedBuckets, setSize))
+                totalBuckets += HashCodes.hashTableSize(setSize);
             if(setSize > maxSize)
                 maxSize = setSize;
         }
@@ -355,6 +384,27 @@ public class HollowHashIndexBuilder {
         return totalBuckets | (long)bitsRequiredToRepresentValue(maxSize) << 56;
     }
 
+    /**
+     * Builds a bitmap from the deduped select ordinals of a key, and keeps it if it is smaller than a select hash table.
+     */
+    private boolean useSelectBitmap(int matchIdx, int[] selectArray, int selectArrayBuckets, int setSize) {
+        int[] ordinals = new int[setSize];
+        int size = 0;
+        for(int j=0;j<selectArrayBuckets;j++) {
+            if(selectArray[j] != -1)
+                ordinals[size++] = selectArray[j];
+        }
+        Arrays.sort(ordinals);
+
+        HollowOrdinalBitmap bitmap = HollowOrdinalBitmap.fromSorted(ordinals, size);
+        if(bitmap.approximateHeapFootprintInBytes() * 8 >= (long)HashCodes.hashTableSize(setSize) * bitsPerSelectHashEntry)
+            return false;
+
+        selectBitmapIdxByMatchIdx.put(matchIdx, selectBitmaps.size());
+        selectBitmaps.add(bitmap);
+        return true;
+    }
+
     private boolean intermediateMatchIsEqual(int matchIdx, long hashBucketBit) {
         for(int i=0;i<preindexer.getMatchFieldSpecs().length;i++) {
             HollowHashIndexField field = preindexer.getMatchFieldSpecs()[i];
@@ -450,6 +500,13 @@ public class HollowHashIndexBuilder {
         return finalSelectHashArray;
     }
 
+    /**
+     * @return the select tables of keys whose matches are held as bitmaps, indexed by the select table pointer of those keys
+     */
+    public HollowOrdinalBitmap[] getFinalSelectBitmaps() {
+        return finalSelectBitmaps;
+    }
+
     public HollowHashIndexField getSelectField() {
         return preindexer.getSelectFieldSpec();
     }
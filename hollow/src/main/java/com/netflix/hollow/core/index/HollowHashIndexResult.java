@@ -18,6 +18,8 @@ package com.netflix.hollow.core.index;
 
 import com.netflix.hollow.core.memory.encoding.HashCodes;
 import com.netflix.hollow.core.read.iterator.HollowOrdinalIterator;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Spliterator;
 import java.util.function.IntConsumer;
 import java.util.stream.IntStream;
@@ -25,7 +27,10 @@ import java.util.stream.StreamSupport;
 
 /**
  * A HollowHashIndexResult contains the matches for a query to a {@link HollowHashIndex}.
- *
+ * <p>
+ * Matches for keys which select few records are held in a hash table; matches for keys which select many records may be
+ * held in a {@link HollowOrdinalBitmap}, in which case they are iterated in ascending order and combined with other
+ * results a container at a time.
  */
 public class HollowHashIndexResult {
 
@@ -34,6 +39,7 @@ public class HollowHashIndexResult {
     private final int selectTableSize;
     private final int selectTableBuckets;
     private final int selectBucketMask;
+    private final HollowOrdinalBitmap selectBitmap;
 
     HollowHashIndexResult(HollowHashIndex.HollowHashIndexState hashIndexState, long selectTableStartPointer, int selectTableSize) {
         this.hashIndexState = hashIndexState;
@@ -41,6 +47,16 @@ public class HollowHashIndexResult {
         this.selectTableSize = selectTableSize;
         this.selectTableBuckets = HashCodes.hashTableSize(selectTableSize);
         this.selectBucketMask = selectTableBuckets - 1;
+        this.selectBitmap = null;
+    }
+
+    HollowHashIndexResult(HollowOrdinalBitmap selectBitmap) {
+        this.hashIndexState = null;
+        this.selectTableStartPointer = 0;
+        this.selectTableSize = selectBitmap.cardinality();
+        this.selectTableBuckets = 0;
+        this.selectBucketMask = -1;
+        this.selectBitmap = selectBitmap;
     }
 
     /**
@@ -55,6 +71,9 @@ public class HollowHashIndexResult {
      * @return {@code true} if the ordinal is matched, otherwise {@code false}
      */
     public boolean contains(int value) {
+        if(selectBitmap != null)
+            return selectBitmap.contains(value);
+
         int hash = HashCodes.hashInt(value);
         int bucket = hash & selectBucketMask;
 
@@ -75,6 +94,9 @@ public class HollowHashIndexResult {
      * the matched records.
      */
     public HollowOrdinalIterator iterator() {
+        if(selectBitmap != null)
+            return selectBitmap.iterator();
+
         return new HollowOrdinalIterator() {
             final long endBucket = selectTableStartPointer + selectTableBuckets;
             long currentBucket = selectTableStartPointer;
@@ -101,6 +123,9 @@ public class HollowHashIndexResult {
      * @return an {@code IntStream} of matching ordinals
      */
     public IntStream stream() {
+        if(selectBitmap != null)
+            return bitmapStream();
+
         Spliterator.OfInt si = new Spliterator.OfInt() {
             final long endBucket = selectTableStartPointer + selectTableBuckets;
             long currentBucket = selectTableStartPointer;
@@ -139,4 +164,89 @@ public class HollowHashIndexResult {
         };
         return StreamSupport.intStream(si, false);
     }
+
+    private IntStream bitmapStream() {
+        Spliterator.OfInt si = new Spliterator.OfInt() {
+            final HollowOrdinalIterator iter = selectBitmap.iterator();
+            int remaining = selectTableSize;
+
+            @Override
+            public OfInt trySplit() {
+                return null;
+            }
+
+            @Override
+            public boolean tryAdvance(IntConsumer action) {
+                int ordinal = iter.next();
+                if(ordinal == HollowOrdinalIterator.NO_MORE_ORDINALS)
+                    return false;
+                remaining--;
+                action.accept(ordinal);
+                return true;
+            }
+
+            @Override
+            public long estimateSize() {
+                return remaining;
+            }
+
+            @Override
+            public int characteristics() {
+                return Spliterator.SIZED | Spliterator.DISTINCT | Spliterator.SORTED | Spliterator.ORDERED | Spliterator.NONNULL;
+            }
+
+            @Override
+            public Comparator<? super Integer> getComparator() {
+                return null;
+            }
+        };
+        return StreamSupport.intStream(si, false);
+    }
+
+    /**
+     * @return the matched ordinals as a bitmap.  Results which are held as a bitmap are returned without copying.
+     */
+    public HollowOrdinalBitmap toBitmap() {
+        if(selectBitmap != null)
+            return selectBitmap;
+
+        int[] ordinals = new int[selectTableSize];
+        int size = 0;
+        HollowOrdinalIterator iter = iterator();
+        int ordinal = iter.next();
+        while(ordinal != HollowOrdinalIterator.NO_MORE_ORDINALS) {
+            ordinals[size++] = ordinal;
+            ordinal = iter.next();
+        }
+        Arrays.sort(ordinals, 0, size);
+        return HollowOrdinalBitmap.fromSorted(ordinals, size);
+    }
+
+    /**
+     * @param other another result
+     * @return the ordinals matched by both this and the other result
+     */
+    public HollowOrdinalBitmap and(HollowHashIndexResult other) {
+        return toBitmap().and(other.toBitmap());
+    }
+
+    /**
+     * @param other another result
+     * @return the ordinals matched by either this or the other result
+     */
+    public HollowOrdinalBitmap or(HollowHashIndexResult other) {
+        return toBitmap().or(other.toBitmap());
+    }
+
+    /**
+     * @param other another result
+     * @return the ordinals matched by this result but not the other result
+     */
+    public HollowOrdinalBitmap andNot(HollowHashIndexResult other) {
+        return toBitmap().andNot(other.toBitmap());
+    }
+
+    boolean isBitmap() {
+        return selectBitmap != null;
+    }
 }
@@ -0,0 +1,441 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.index;
+
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.read.engine.HollowTypeReadState;
+import com.netflix.hollow.core.read.iterator.HollowOrdinalIterator;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * A boolean combination of index lookups, evaluated to a {@link HollowOrdinalBitmap} of the matching records.
+ * <pre>{@code
+ *     HollowIndexQuery query = HollowIndexQuery.and(
+ *             HollowIndexQuery.matches(countryIndex, "US"),
+ *             HollowIndexQuery.matches(typeIndex, "MOVIE"),
+ *             HollowIndexQuery.not(HollowIndexQuery.withPrefix(titleIndex, "the")),
+ *             HollowIndexQuery.inRange(releaseYearIndex, 1990, 1999));
+ *     HollowOrdinalBitmap movies = query.evaluate(readStateEngine, "Movie");
+ * }</pre>
+ * <p>
+ * All of the indexes combined in a query must return ordinals of the same type, which is the type passed to
+ * {@link #evaluate(HollowReadStateEngine, String)}.
+ * <p>
+ * Conjunctions are evaluated in ascending order of the estimated number of records matched by each operand, so that
+ * the smallest candidate set is materialized first and each subsequent operand can only shrink it.  Operands which
+ * can cheaply test a single ordinal, such as hash index matches, are probed for each remaining candidate instead of
+ * being materialized once there are fewer candidates than the operand is estimated to match.  Negated operands are
+ * subtracted from the candidates last, and evaluation stops as soon as there are no candidates left.
+ */
+public abstract class HollowIndexQuery {
+
+    HollowIndexQuery() { }
+
+    /**
+     * @param index a hash index
+     * @param keys the keys to match, as for {@link HollowHashIndex#findMatches(Object...)}
+     * @return a query matching the records selected by the hash index for the given keys
+     */
+    public static HollowIndexQuery matches(HollowHashIndex index, Object... keys) {
+        return new HashIndexMatch(index, keys);
+    }
+
+    /**
+     * @param index a prefix index
+     * @param prefix the prefix
+     * @return a query matching the records returned by the prefix index for the given prefix
+     */
+    public static HollowIndexQuery withPrefix(HollowPrefixIndex index, String prefix) {
+        return new PrefixIndexMatch(index, prefix);
+    }
+
+    /**
+     * @param index a range index
+     * @param from the inclusive lower bound, or null if the range is unbounded below
+     * @param to the inclusive upper bound, or null if the range is unbounded above
+     * @return a query matching the records returned by the range index for the given range
+     */
+    public static HollowIndexQuery inRange(HollowRangeIndex index, Object from, Object to) {
+        return inRange(index, from, true, to, true);
+    }
+
+    /**
+     * @param index a range index
+     * @param from the lower bound, or null if the range is unbounded below
+     * @param fromInclusive whether records with a value equal to {@code from} match
+     * @param to the upper bound, or null if the range is unbounded above
+     * @param toInclusive whether records with a value equal to {@code to} match
+     * @return a query matching the records returned by the range index for the given range
+     */
+    public static HollowIndexQuery inRange(HollowRangeIndex index, Object from, boolean fromInclusive, Object to, boolean toInclusive) {
+        return new RangeIndexMatch(index, from, fromInclusive, to, toInclusive);
+    }
+
+    /**
+     * @param ordinals a set of ordinals, for example the result of a previously evaluated query
+     * @return a query matching exactly the given ordinals
+     */
+    public static HollowIndexQuery ordinals(HollowOrdinalBitmap ordinals) {
+        return new OrdinalsMatch(ordinals);
+    }
+
+    /**
+     * @param queries the operands
+     * @return a query matching the records matched by all of the operands
+     */
+    public static HollowIndexQuery and(HollowIndexQuery... queries) {
+        if (queries.length == 0)
+            throw new IllegalArgumentException("at least one query must be provided");
+        return new And(queries);
+    }
+
+    /**
+     * @param queries the operands
+     * @return a query matching the records matched by any of the operands
+     */
+    public static HollowIndexQuery or(HollowIndexQuery... queries) {
+        if (queries.length == 0)
+            throw new IllegalArgumentException("at least one query must be provided");
+        return new Or(queries);
+    }
+
+    /**
+     * @param query the operand
+     * @return a query matching the populated records of the type which are not matched by the operand
+     */
+    public static HollowIndexQuery not(HollowIndexQuery query) {
+        return new Not(query);
+    }
+
+    /**
+     * Evaluate this query.
+     *
+     * @param readStateEngine the read state engine holding the queried type
+     * @param type the type of the ordinals returned by the indexes in this query
+     * @return the ordinals of the matching records
+     */
+    public HollowOrdinalBitmap evaluate(HollowReadStateEngine readStateEngine, String type) {
+        HollowTypeReadState typeState = readStateEngine.getTypeState(type);
+        if (typeState == null)
+            throw new IllegalArgumentException("Type " + type + " does not exist in the read state engine");
+        return evaluate(new Context(typeState.getPopulatedOrdinals()));
+    }
+
+    /**
+     * @return an estimate of the number of records matched by this query, used to order the evaluation of operands
+     */
+    abstract int estimateCardinality(Context context);
+
+    abstract HollowOrdinalBitmap evaluate(Context context);
+
+    /**
+     * @return a predicate testing whether a single ordinal is matched by this query, or null if this query cannot
+     * test single ordinals more cheaply than by evaluating the whole query
+     */
+    IntPredicate prober(Context context) {
+        return null;
+    }
+
+    /**
+     * State for a single evaluation of a query.
+     */
+    static class Context {
+        private final BitSet populatedOrdinals;
+        private final int universeCardinality;
+        private HollowOrdinalBitmap universe;
+        private final Map<HashIndexMatch, HollowHashIndexResult> hashIndexResults = new IdentityHashMap<>();
+
+        Context(BitSet populatedOrdinals) {
+            this.populatedOrdinals = populatedOrdinals;
+            this.universeCardinality = populatedOrdinals.cardinality();
+        }
+
+        HollowOrdinalBitmap universe() {
+            if (universe == null)
+                universe = HollowOrdinalBitmap.from(populatedOrdinals);
+            return universe;
+        }
+
+        int universeCardinality() {
+            return universeCardinality;
+        }
+
+        /**
+         * A hash index operand may be estimated, probed and evaluated during one evaluation, so its matches are
+         * found once and retained.
+         */
+        HollowHashIndexResult hashIndexResult(HashIndexMatch match) {
+            if (hashIndexResults.containsKey(match))
+                return hashIndexResults.get(match);
+            HollowHashIndexResult result = match.index.findMatches(match.keys);
+            hashIndexResults.put(match, result);
+            return result;
+        }
+    }
+
+    private static class HashIndexMatch extends HollowIndexQuery {
+        private final HollowHashIndex index;
+        private final Object[] keys;
+
+        private HashIndexMatch(HollowHashIndex index, Object[] keys) {
+            this.index = index;
+            this.keys = keys;
+        }
+
+        @Override
+        int estimateCardinality(Context context) {
+            HollowHashIndexResult result = context.hashIndexResult(this);
+            return result == null ? 0 : result.numResults();
+        }
+
+        @Override
+        HollowOrdinalBitmap evaluate(Context context) {
+            HollowHashIndexResult result = context.hashIndexResult(this);
+            return result == null ? HollowOrdinalBitmap.EMPTY : result.toBitmap();
+        }
+
+        @Override
+        IntPredicate prober(Context context) {
+            HollowHashIndexResult result = context.hashIndexResult(this);
+            return result == null ? ordinal -> false : result::contains;
+        }
+    }
+
+    private static class PrefixIndexMatch extends HollowIndexQuery {
+        private final HollowPrefixIndex index;
+        private final String prefix;
+
+        private PrefixIndexMatch(HollowPrefixIndex index, String prefix) {
+            this.index = index;
+            this.prefix = prefix;
+        }
+
+        @Override
+        int estimateCardinality(Context context) {
+            // a prefix index cannot count its matches without finding them, so assume the worst
+            return context.universeCardinality();
+        }
+
+        @Override
+        HollowOrdinalBitmap evaluate(Context context) {
+            return HollowOrdinalBitmap.from(index.findKeysWithPrefix(prefix));
+        }
+    }
+
+    private static class RangeIndexMatch extends HollowIndexQuery {
+        private final HollowRangeIndex index;
+        private final Object from;
+        private final boolean fromInclusive;
+        private final Object to;
+        private final boolean toInclusive;
+
+        private RangeIndexMatch(HollowRangeIndex index, Object from, boolean fromInclusive, Object to, boolean toInclusive) {
+            this.index = index;
+            this.from = from;
+            this.fromInclusive = fromInclusive;
+            this.to = to;
+            this.toInclusive = toInclusive;
+        }
+
+        @Override
+        int estimateCardinality(Context context) {
+            return Math.min(index.countEntriesInRange(from, fromInclusive, to, toInclusive), context.universeCardinality());
+        }
+
+        @Override
+        HollowOrdinalBitmap evaluate(Context context) {
+            return HollowOrdinalBitmap.from(index.findRange(from, fromInclusive, to, toInclusive));
+        }
+    }
+
+    private static class OrdinalsMatch extends HollowIndexQuery {
+        private final HollowOrdinalBitmap ordinals;
+
+        private OrdinalsMatch(HollowOrdinalBitmap ordinals) {
+            this.ordinals = ordinals;
+        }
+
+        @Override
+        int estimateCardinality(Context context) {
+            return ordinals.cardinality();
+        }
+
+        @Override
+        HollowOrdinalBitmap evaluate(Context context) {
+            return ordinals;
+        }
+
+        @Override
+        IntPredicate prober(Context context) {
+            return ordinals::contains;
+        }
+    }
+
+    private static class And extends HollowIndexQuery {
+        private final HollowIndexQuery[] operands;
+
+        private And(HollowIndexQuery[] operands) {
+            this.operands = operands.clone();
+        }
+
+        @Override
+        int estimateCardinality(Context context) {
+            int estimate = Integer.MAX_VALUE;
+            for (HollowIndexQuery operand : operands)
+                estimate = Math.min(estimate, operand.estimateCardinality(context));
+            return estimate;
+        }
+
+        @Override
+        HollowOrdinalBitmap evaluate(Context context) {
+            List<EstimatedOperand> included = new ArrayList<>();
+            List<EstimatedOperand> excluded = new ArrayList<>();
+            for (HollowIndexQuery operand : operands) {
+                if (operand instanceof Not) {
+                    HollowIndexQuery negated = ((Not) operand).operand;
+                    excluded.add(new EstimatedOperand(negated, negated.estimateCardinality(context)));
+                } else {
+                    included.add(new EstimatedOperand(operand, operand.estimateCardinality(context)));
+                }
+            }
+            Comparator<EstimatedOperand> byEstimate = Comparator.comparingInt(o -> o.estimate);
+            included.sort(byEstimate);
+            // subtract the largest exclusions first, they are the most likely to empty the candidates
+            excluded.sort(byEstimate.reversed());
+
+            HollowOrdinalBitmap candidates = null;
+            for (EstimatedOperand operand : included) {
+                if (candidates == null)
+                    candidates = operand.query.evaluate(context);
+                else
+                    candidates = intersect(candidates, operand, context, true);
+                if (candidates.isEmpty())
+                    return candidates;
+            }
+
+            if (candidates == null)
+                candidates = context.universe();
+            for (EstimatedOperand operand : excluded) {
+                candidates = intersect(candidates, operand, context, false);
+                if (candidates.isEmpty())
+                    return candidates;
+            }
+
+            return candidates;
+        }
+
+        /**
+         * Retains the candidates which are (or, if {@code matching} is false, are not) matched by the operand.
+         */
+        private HollowOrdinalBitmap intersect(HollowOrdinalBitmap candidates, EstimatedOperand operand, Context context,
+                boolean matching) {
+            if (candidates.cardinality() < operand.estimate) {
+                IntPredicate prober = operand.query.prober(context);
+                if (prober != null) {
+                    BitSet retained = new BitSet();
+                    HollowOrdinalIterator iter = candidates.iterator();
+                    int ordinal = iter.next();
+                    while (ordinal != HollowOrdinalIterator.NO_MORE_ORDINALS) {
+                        if (prober.test(ordinal) == matching)
+                            retained.set(ordinal);
+                        ordinal = iter.next();
+                    }
+                    return HollowOrdinalBitmap.from(retained);
+                }
+            }
+
+            HollowOrdinalBitmap operandOrdinals = operand.query.evaluate(context);
+            return matching ? candidates.and(operandOrdinals) : candidates.andNot(operandOrdinals);
+        }
+
+        private static class EstimatedOperand {
+            private final HollowIndexQuery query;
+            private final int estimate;
+
+            private EstimatedOperand(HollowIndexQuery query, int estimate) {
+                this.query = query;
+                this.estimate = estimate;
+            }
+        }
+    }
+
+    private static class Or extends HollowIndexQuery {
+        private final HollowIndexQuery[] operands;
+
+        private Or(HollowIndexQuery[] operands) {
+            this.operands = operands.clone();
+        }
+
+        @Override
+        int estimateCardinality(Context context) {
+            long estimate = 0;
+            for (HollowIndexQuery operand : operands)
+                estimate += operand.estimateCardinality(context);
+            return (int) Math.min(estimate, context.universeCardinality());
+        }
+
+        @Override
+        HollowOrdinalBitmap evaluate(Context context) {
+            HollowOrdinalBitmap result = HollowOrdinalBitmap.EMPTY;
+            for (HollowIndexQuery operand : operands)
+                result = result.or(operand.evaluate(context));
+            return result;
+        }
+
+        @Override
+        IntPredicate prober(Context context) {
+            IntPredicate prober = null;
+            for (HollowIndexQuery operand : operands) {
+                IntPredicate operandProber = operand.prober(context);
+                if (operandProber == null)
+                    return null;
+                prober = prober == null ? operandProber : prober.or(operandProber);
+            }
+            return prober;
+        }
+    }
+
+    private static class Not extends HollowIndexQuery {
+        private final HollowIndexQuery operand;
+
+        private Not(HollowIndexQuery operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        int estimateCardinality(Context context) {
+            return Math.max(0, context.universeCardinality() - operand.estimateCardinality(context));
+        }
+
+        @Override
+        HollowOrdinalBitmap evaluate(Context context) {
+            return context.universe().andNot(operand.evaluate(context));
+        }
+
+        @Override
+        IntPredicate prober(Context context) {
+            IntPredicate prober = operand.prober(context);
+            return prober == null ? null : prober.negate();
+        }
+    }
+}
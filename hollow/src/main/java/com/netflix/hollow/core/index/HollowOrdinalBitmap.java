@@ -0,0 +1,493 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.index;
+
+import com.netflix.hollow.core.read.iterator.HollowOrdinalIterator;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * An immutable, compressed set of ordinals.
+ * <p>
+ * Ordinals are partitioned by their high 16 bits into chunks of 65536 ordinals.  Each non-empty chunk is stored
+ * in a container which is either a sorted array of the low 16 bits of its ordinals, when it holds at most 4096 of
+ * them, or a 65536 bit wide bitmap otherwise.  Sparse sets therefore cost roughly two bytes per ordinal and dense
+ * sets roughly one bit per ordinal, and intersections, unions and differences operate a container at a time, using
+ * word-level operations between bitmaps and merges or bit probes otherwise.
+ */
+public class HollowOrdinalBitmap {
+
+    public static final HollowOrdinalBitmap EMPTY = new HollowOrdinalBitmap(new int[0], new Container[0], 0);
+
+    static final int ARRAY_CONTAINER_MAX_SIZE = 4096;
+    private static final int BITMAP_CONTAINER_WORDS = 1024;
+
+    private final int[] keys;
+    private final Container[] containers;
+    private final int cardinality;
+
+    private HollowOrdinalBitmap(int[] keys, Container[] containers, int cardinality) {
+        this.keys = keys;
+        this.containers = containers;
+        this.cardinality = cardinality;
+    }
+
+    /**
+     * @param ordinals the ordinals, in any order
+     * @return a bitmap containing the given ordinals
+     */
+    public static HollowOrdinalBitmap of(int... ordinals) {
+        BitSet bits = new BitSet();
+        for (int ordinal : ordinals)
+            bits.set(ordinal);
+        return from(bits);
+    }
+
+    /**
+     * @param iter an iterator over ordinals, in any order
+     * @return a bitmap containing the ordinals returned by the iterator
+     */
+    public static HollowOrdinalBitmap from(HollowOrdinalIterator iter) {
+        BitSet bits = new BitSet();
+        int ordinal = iter.next();
+        while (ordinal != HollowOrdinalIterator.NO_MORE_ORDINALS) {
+            bits.set(ordinal);
+            ordinal = iter.next();
+        }
+        return from(bits);
+    }
+
+    /**
+     * @param bits the set bits
+     * @return a bitmap containing the set bits of the given BitSet
+     */
+    public static HollowOrdinalBitmap from(BitSet bits) {
+        long[] words = bits.toLongArray();
+        int numChunks = (words.length + BITMAP_CONTAINER_WORDS - 1) / BITMAP_CONTAINER_WORDS;
+
+        Builder builder = new Builder(numChunks);
+        for (int chunk = 0; chunk < numChunks; chunk++) {
+            long[] chunkWords = new long[BITMAP_CONTAINER_WORDS];
+            int from = chunk * BITMAP_CONTAINER_WORDS;
+            System.arraycopy(words, from, chunkWords, 0, Math.min(BITMAP_CONTAINER_WORDS, words.length - from));
+            builder.add(chunk, Container.fromWords(chunkWords, Container.cardinality(chunkWords)));
+        }
+        return builder.build();
+    }
+
+    /**
+     * @param ordinals distinct ordinals in ascending order
+     * @param size the number of ordinals to read from the array
+     * @return a bitmap containing the first {@code size} ordinals of the array
+     */
+    static HollowOrdinalBitmap fromSorted(int[] ordinals, int size) {
+        Builder builder = new Builder(size == 0 ? 0 : (ordinals[size - 1] >>> 16) - (ordinals[0] >>> 16) + 1);
+        int from = 0;
+        while (from < size) {
+            int key = ordinals[from] >>> 16;
+            int to = from + 1;
+            while (to < size && (ordinals[to] >>> 16) == key)
+                to++;
+
+            char[] array = new char[to - from];
+            for (int i = from; i < to; i++)
+                array[i - from] = (char) ordinals[i];
+            builder.add(key, Container.fromArray(array, array.length));
+            from = to;
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return the number of ordinals in this bitmap
+     */
+    public int cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * @return {@code true} if this bitmap contains no ordinals
+     */
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    /**
+     * @param ordinal the ordinal
+     * @return {@code true} if this bitmap contains the ordinal
+     */
+    public boolean contains(int ordinal) {
+        if (ordinal < 0)
+            return false;
+        int index = Arrays.binarySearch(keys, ordinal >>> 16);
+        return index >= 0 && containers[index].contains((char) ordinal);
+    }
+
+    /**
+     * @param other another bitmap
+     * @return a bitmap containing the ordinals contained in both this bitmap and the other bitmap
+     */
+    public HollowOrdinalBitmap and(HollowOrdinalBitmap other) {
+        Builder builder = new Builder(Math.min(keys.length, other.keys.length));
+        int i = 0;
+        int j = 0;
+        while (i < keys.length && j < other.keys.length) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                builder.add(keys[i], Container.and(containers[i++], other.containers[j++]));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * @param other another bitmap
+     * @return a bitmap containing the ordinals contained in either this bitmap or the other bitmap
+     */
+    public HollowOrdinalBitmap or(HollowOrdinalBitmap other) {
+        Builder builder = new Builder(keys.length + other.keys.length);
+        int i = 0;
+        int j = 0;
+        while (i < keys.length || j < other.keys.length) {
+            if (j == other.keys.length || (i < keys.length && keys[i] < other.keys[j])) {
+                builder.add(keys[i], containers[i++]);
+            } else if (i == keys.length || keys[i] > other.keys[j]) {
+                builder.add(other.keys[j], other.containers[j++]);
+            } else {
+                builder.add(keys[i], Container.or(containers[i++], other.containers[j++]));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * @param other another bitmap
+     * @return a bitmap containing the ordinals contained in this bitmap but not in the other bitmap
+     */
+    public HollowOrdinalBitmap andNot(HollowOrdinalBitmap other) {
+        Builder builder = new Builder(keys.length);
+        int j = 0;
+        for (int i = 0; i < keys.length; i++) {
+            while (j < other.keys.length && other.keys[j] < keys[i])
+                j++;
+            if (j < other.keys.length && other.keys[j] == keys[i])
+                builder.add(keys[i], Container.andNot(containers[i], other.containers[j]));
+            else
+                builder.add(keys[i], containers[i]);
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return A {@link HollowOrdinalIterator} over the ordinals in this bitmap, in ascending order.
+     */
+    public HollowOrdinalIterator iterator() {
+        return new HollowOrdinalIterator() {
+            private int containerIndex = 0;
+            private int position = -1;
+
+            @Override
+            public int next() {
+                while (containerIndex < containers.length) {
+                    position = containers[containerIndex].nextValue(position + 1);
+                    if (position != -1)
+                        return (keys[containerIndex] << 16) | position;
+                    containerIndex++;
+                }
+                return NO_MORE_ORDINALS;
+            }
+        };
+    }
+
+    /**
+     * @return a BitSet with the bits for the ordinals in this bitmap set
+     */
+    public BitSet toBitSet() {
+        BitSet bits = new BitSet();
+        for (int i = 0; i < keys.length; i++)
+            containers[i].setBits(bits, keys[i] << 16);
+        return bits;
+    }
+
+    /**
+     * @return an estimate of the heap used by the containers of this bitmap, in bytes
+     */
+    public long approximateHeapFootprintInBytes() {
+        long bytes = keys.length * 4L + containers.length * 8L;
+        for (Container container : containers)
+            bytes += container.array != null ? container.array.length * 2L : container.words.length * 8L;
+        return bytes;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof HollowOrdinalBitmap))
+            return false;
+        HollowOrdinalBitmap other = (HollowOrdinalBitmap) obj;
+        if (cardinality != other.cardinality || !Arrays.equals(keys, other.keys))
+            return false;
+        for (int i = 0; i < containers.length; i++) {
+            if (!containers[i].equals(other.containers[i]))
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = cardinality;
+        for (int i = 0; i < keys.length; i++)
+            hashCode = 31 * hashCode + containers[i].hashCode();
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return "HollowOrdinalBitmap(cardinality=" + cardinality + ")";
+    }
+
+    /**
+     * Accumulates containers in ascending order of key, dropping empty ones.
+     */
+    private static class Builder {
+        private int[] keys;
+        private Container[] containers;
+        private int size;
+        private int cardinality;
+
+        private Builder(int capacity) {
+            this.keys = new int[capacity];
+            this.containers = new Container[capacity];
+        }
+
+        private void add(int key, Container container) {
+            if (container.cardinality == 0)
+                return;
+            keys[size] = key;
+            containers[size++] = container;
+            cardinality += container.cardinality;
+        }
+
+        private HollowOrdinalBitmap build() {
+            if (size == 0)
+                return EMPTY;
+            return new HollowOrdinalBitmap(Arrays.copyOf(keys, size), Arrays.copyOf(containers, size), cardinality);
+        }
+    }
+
+    /**
+     * The ordinals of a single 65536 ordinal chunk, held either as a sorted array or as a bitmap.
+     * Exactly one of {@code array} and {@code words} is non-null.
+     */
+    private static class Container {
+        private final char[] array;
+        private final long[] words;
+        private final int cardinality;
+
+        private Container(char[] array, long[] words, int cardinality) {
+            this.array = array;
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        private static Container fromWords(long[] words, int cardinality) {
+            if (cardinality > ARRAY_CONTAINER_MAX_SIZE)
+                return new Container(null, words, cardinality);
+
+            char[] array = new char[cardinality];
+            int size = 0;
+            for (int w = 0; w < words.length; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    array[size++] = (char) ((w << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new Container(array, null, cardinality);
+        }
+
+        private static Container fromArray(char[] array, int size) {
+            if (size > ARRAY_CONTAINER_MAX_SIZE) {
+                long[] words = new long[BITMAP_CONTAINER_WORDS];
+                for (int i = 0; i < size; i++)
+                    words[array[i] >>> 6] |= 1L << array[i];
+                return new Container(null, words, size);
+            }
+            return new Container(size == array.length ? array : Arrays.copyOf(array, size), null, size);
+        }
+
+        private static int cardinality(long[] words) {
+            int cardinality = 0;
+            for (long word : words)
+                cardinality += Long.bitCount(word);
+            return cardinality;
+        }
+
+        private boolean contains(char value) {
+            if (array != null)
+                return Arrays.binarySearch(array, value) >= 0;
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        /**
+         * @return the smallest value in this container greater than or equal to {@code from}, or -1 if there is none
+         */
+        private int nextValue(int from) {
+            if (from > Character.MAX_VALUE)
+                return -1;
+            if (array != null) {
+                int index = Arrays.binarySearch(array, (char) from);
+                if (index < 0)
+                    index = -index - 1;
+                return index < array.length ? array[index] : -1;
+            }
+
+            int w = from >>> 6;
+            long word = words[w] & (-1L << from);
+            while (true) {
+                if (word != 0)
+                    return (w << 6) + Long.numberOfTrailingZeros(word);
+                if (++w == words.length)
+                    return -1;
+                word = words[w];
+            }
+        }
+
+        private void setBits(BitSet bits, int base) {
+            if (array != null) {
+                for (char value : array)
+                    bits.set(base | value);
+            } else {
+                for (int w = 0; w < words.length; w++) {
+                    long word = words[w];
+                    while (word != 0) {
+                        bits.set(base | ((w << 6) + Long.numberOfTrailingZeros(word)));
+                        word &= word - 1;
+                    }
+                }
+            }
+        }
+
+        private static Container and(Container a, Container b) {
+            if (a.words != null && b.words != null) {
+                long[] words = new long[BITMAP_CONTAINER_WORDS];
+                for (int w = 0; w < words.length; w++)
+                    words[w] = a.words[w] & b.words[w];
+                return fromWords(words, cardinality(words));
+            }
+            if (a.array != null && b.array != null) {
+                char[] result = new char[Math.min(a.cardinality, b.cardinality)];
+                int size = 0;
+                int i = 0;
+                int j = 0;
+                while (i < a.array.length && j < b.array.length) {
+                    if (a.array[i] < b.array[j]) {
+                        i++;
+                    } else if (a.array[i] > b.array[j]) {
+                        j++;
+                    } else {
+                        result[size++] = a.array[i++];
+                        j++;
+                    }
+                }
+                return fromArray(result, size);
+            }
+
+            Container arrayContainer = a.array != null ? a : b;
+            Container bitmapContainer = a.array != null ? b : a;
+            char[] result = new char[arrayContainer.cardinality];
+            int size = 0;
+            for (char value : arrayContainer.array) {
+                if (bitmapContainer.contains(value))
+                    result[size++] = value;
+            }
+            return fromArray(result, size);
+        }
+
+        private static Container or(Container a, Container b) {
+            if (a.array != null && b.array != null) {
+                char[] result = new char[a.cardinality + b.cardinality];
+                int size = 0;
+                int i = 0;
+                int j = 0;
+                while (i < a.array.length || j < b.array.length) {
+                    if (j == b.array.length || (i < a.array.length && a.array[i] < b.array[j])) {
+                        result[size++] = a.array[i++];
+                    } else if (i == a.array.length || a.array[i] > b.array[j]) {
+                        result[size++] = b.array[j++];
+                    } else {
+                        result[size++] = a.array[i++];
+                        j++;
+                    }
+                }
+                return fromArray(result, size);
+            }
+
+            long[] words;
+            if (a.words != null && b.words != null) {
+                words = new long[BITMAP_CONTAINER_WORDS];
+                for (int w = 0; w < words.length; w++)
+                    words[w] = a.words[w] | b.words[w];
+            } else {
+                Container arrayContainer = a.array != null ? a : b;
+                Container bitmapContainer = a.array != null ? b : a;
+                words = bitmapContainer.words.clone();
+                for (char value : arrayContainer.array)
+                    words[value >>> 6] |= 1L << value;
+            }
+            return new Container(null, words, cardinality(words));
+        }
+
+        private static Container andNot(Container a, Container b) {
+            if (a.array != null) {
+                char[] result = new char[a.cardinality];
+                int size = 0;
+                for (char value : a.array) {
+                    if (!b.contains(value))
+                        result[size++] = value;
+                }
+                return fromArray(result, size);
+            }
+
+            long[] words = a.words.clone();
+            if (b.words != null) {
+                for (int w = 0; w < words.length; w++)
+                    words[w] &= ~b.words[w];
+            } else {
+                for (char value : b.array)
+                    words[value >>> 6] &= ~(1L << value);
+            }
+            return fromWords(words, cardinality(words));
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            Container other = (Container) obj;
+            if (array != null)
+                return Arrays.equals(array, other.array);
+            return Arrays.equals(words, other.words);
+        }
+
+        @Override
+        public int hashCode() {
+            return array != null ? Arrays.hashCode(array) : Arrays.hashCode(words);
+        }
+    }
+}
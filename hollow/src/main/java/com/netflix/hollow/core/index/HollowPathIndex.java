@@ -0,0 +1,323 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.index;
+
+import static java.util.Objects.requireNonNull;
+
+import com.netflix.hollow.core.index.FieldPaths.FieldSegment;
+import com.netflix.hollow.core.index.FieldPaths.ObjectFieldSegment;
+import com.netflix.hollow.core.index.traversal.HollowIndexerValueTraverser;
+import com.netflix.hollow.core.memory.encoding.FixedLengthElementArray;
+import com.netflix.hollow.core.memory.pool.WastefulRecycler;
+import com.netflix.hollow.core.read.HollowReadFieldUtils;
+import com.netflix.hollow.core.read.dataaccess.HollowObjectTypeDataAccess;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.read.engine.HollowTypeReadState;
+import com.netflix.hollow.core.read.engine.HollowTypeStateListener;
+import com.netflix.hollow.core.read.iterator.HollowOrdinalIterator;
+import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
+import com.netflix.hollow.core.util.IntList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A HollowPathIndex materializes the records reached from each record of a type by following one or more field
+ * paths, so that a multi-hop navigation such as {@code Movie.countries.element.rights.element} is a single array
+ * read rather than a chain of reference reads and collection iterations.
+ * <p>
+ * Field paths are specified in the same way as for the {@link HollowHashIndex}:  fields are separated by ".", and
+ * may traverse references, lists, sets and maps.  For each record and path the index stores the ordinals of the
+ * records at the end of the path in traversal order.  If the path ends at a REFERENCE field, or at a collection,
+ * these are the ordinals of the referenced records.  If the path ends at any other field, these are the ordinals
+ * of the records containing that field, and {@link #getMatchedValue(int, int, int)} reads the field's value.
+ * <p>
+ * The matches for all records are stored as a bit-packed array of ordinals with a bit-packed array of offsets into
+ * it for each record.  When listening for delta updates, the matches of unchanged records are copied and only the
+ * added records are traversed.  A record can only reach different records through a path if the record itself
+ * changed, because a changed record anywhere along the path is given a new ordinal, which changes every record
+ * referencing it, so listening to the type at the root of the paths is sufficient.
+ */
+public class HollowPathIndex implements HollowTypeStateListener {
+
+    private final HollowReadStateEngine readStateEngine;
+    private final String type;
+    private final String[] fieldPaths;
+    private final HollowObjectTypeDataAccess[] valueDataAccess;
+    private final int[] valueFieldPosition;
+
+    private final BitSet addedOrdinals;
+    private final BitSet removedOrdinals;
+
+    private volatile PathMatches[] matchesVolatile;
+
+    /**
+     * Initializes a new path index.
+     *
+     * @param readStateEngine state engine to read data from
+     * @param type type in the read state engine.  The paths are followed from the records of this type.
+     * @param fieldPaths the field paths to materialize.  The fields in each path could reference another Object,
+     *                   List, Set or a Map.  The fields should be separated by ".".
+     * @throws IllegalArgumentException if a field path is empty or cannot be bound to the type
+     */
+    public HollowPathIndex(HollowReadStateEngine readStateEngine, String type, String... fieldPaths) {
+        requireNonNull(type, "Hollow Path Index creation failed because type was null");
+        requireNonNull(readStateEngine, "Hollow Path Index creation for type [" + type
+                + "] failed because read state wasn't initialized");
+
+        if (fieldPaths == null || fieldPaths.length == 0)
+            throw new IllegalArgumentException("fieldPaths cannot be null or empty");
+
+        this.readStateEngine = readStateEngine;
+        this.type = type;
+        this.fieldPaths = fieldPaths.clone();
+        this.valueDataAccess = new HollowObjectTypeDataAccess[fieldPaths.length];
+        this.valueFieldPosition = new int[fieldPaths.length];
+
+        for (int i = 0; i < fieldPaths.length; i++) {
+            if (fieldPaths[i] == null || fieldPaths[i].isEmpty())
+                throw new IllegalArgumentException("fieldPath cannot be null or empty; i=" + i);
+
+            List<FieldSegment> segments = FieldPaths.createFieldPathForHashIndex(readStateEngine, type, fieldPaths[i])
+                    .getSegments();
+            FieldSegment lastSegment = segments.get(segments.size() - 1);
+            valueFieldPosition[i] = -1;
+            if (lastSegment instanceof ObjectFieldSegment
+                    && ((ObjectFieldSegment) lastSegment).getType() != FieldType.REFERENCE) {
+                valueDataAccess[i] = (HollowObjectTypeDataAccess) readStateEngine.getTypeDataAccess(
+                        lastSegment.getEnclosingSchema().getName());
+                valueFieldPosition[i] = ((ObjectFieldSegment) lastSegment).getIndex();
+            }
+        }
+
+        this.addedOrdinals = new BitSet();
+        this.removedOrdinals = new BitSet();
+        this.matchesVolatile = build(null, null);
+    }
+
+    /**
+     * @return the number of field paths in this index
+     */
+    public int getNumFieldPaths() {
+        return fieldPaths.length;
+    }
+
+    /**
+     * @param pathIdx the index of the field path
+     * @return the field path
+     */
+    public String getFieldPath(int pathIdx) {
+        return fieldPaths[pathIdx];
+    }
+
+    /**
+     * Find the records at the end of a field path from a record.  The iterator reflects the state of the index when
+     * this method was called, even if a delta update is applied while iterating.
+     *
+     * @param ordinal the ordinal of the record of this index's type
+     * @param pathIdx the index of the field path
+     * @return an iterator over the matched ordinals, in traversal order
+     */
+    public HollowOrdinalIterator findMatches(int ordinal, int pathIdx) {
+        PathMatches matches = matchesVolatile[pathIdx];
+        return new HollowOrdinalIterator() {
+            private long index = matches.start(ordinal);
+            private final long end = matches.end(ordinal);
+
+            @Override
+            public int next() {
+                if (index >= end)
+                    return NO_MORE_ORDINALS;
+                return matches.ordinal(index++);
+            }
+        };
+    }
+
+    /**
+     * @param ordinal the ordinal of the record of this index's type
+     * @param pathIdx the index of the field path
+     * @return the number of matches at the end of the field path from the record
+     */
+    public int getNumMatches(int ordinal, int pathIdx) {
+        PathMatches matches = matchesVolatile[pathIdx];
+        return (int) (matches.end(ordinal) - matches.start(ordinal));
+    }
+
+    /**
+     * Get a single match at the end of a field path from a record.  Use {@link #findMatches(int, int)} to read all of
+     * the matches from a consistent state if delta updates may be applied concurrently.
+     *
+     * @param ordinal the ordinal of the record of this index's type
+     * @param pathIdx the index of the field path
+     * @param matchIdx the index of the match, less than {@link #getNumMatches(int, int)}
+     * @return the matched ordinal
+     */
+    public int getMatchOrdinal(int ordinal, int pathIdx, int matchIdx) {
+        PathMatches matches = matchesVolatile[pathIdx];
+        long index = matches.start(ordinal) + matchIdx;
+        if (matchIdx < 0 || index >= matches.end(ordinal))
+            throw new IndexOutOfBoundsException("matchIdx " + matchIdx + " out of bounds for ordinal " + ordinal);
+        return matches.ordinal(index);
+    }
+
+    /**
+     * Read the value of the field at the end of a field path, for a single match from a record.
+     *
+     * @param ordinal the ordinal of the record of this index's type
+     * @param pathIdx the index of the field path, which must end at a field which is not a REFERENCE
+     * @param matchIdx the index of the match, less than {@link #getNumMatches(int, int)}
+     * @return the matched value
+     * @throws IllegalStateException if the field path ends at a REFERENCE field or a collection
+     */
+    public Object getMatchedValue(int ordinal, int pathIdx, int matchIdx) {
+        if (valueDataAccess[pathIdx] == null)
+            throw new IllegalStateException("Field path " + fieldPaths[pathIdx] + " does not end at a value field");
+        return HollowReadFieldUtils.fieldValueObject(valueDataAccess[pathIdx],
+                getMatchOrdinal(ordinal, pathIdx, matchIdx), valueFieldPosition[pathIdx]);
+    }
+
+    /**
+     * Use this method to keep the index updated with delta changes on the read state engine.
+     * Remember to call detachFromDeltaUpdates to stop the delta changes.
+     * NOTE: Each delta update traverses the added records, copies the matches of the unchanged records into new
+     * arrays, and swaps the new with current.
+     */
+    public void listenForDeltaUpdates() {
+        readStateEngine.getTypeState(type).addListener(this);
+    }
+
+    /**
+     * Stop delta updates for this index.
+     */
+    public void detachFromDeltaUpdates() {
+        readStateEngine.getTypeState(type).removeListener(this);
+    }
+
+    @Override
+    public void beginUpdate() {
+        addedOrdinals.clear();
+        removedOrdinals.clear();
+    }
+
+    @Override
+    public void addedOrdinal(int ordinal) {
+        addedOrdinals.set(ordinal);
+    }
+
+    @Override
+    public void removedOrdinal(int ordinal) {
+        removedOrdinals.set(ordinal);
+    }
+
+    @Override
+    public void endUpdate() {
+        if (addedOrdinals.isEmpty() && removedOrdinals.isEmpty())
+            return;
+
+        matchesVolatile = build(matchesVolatile, addedOrdinals);
+
+        addedOrdinals.clear();
+        removedOrdinals.clear();
+    }
+
+    /**
+     * Build the matches of every path.  If there are previous matches, those of the records which were not added
+     * are copied rather than traversed again; removed records are no longer populated, so they are dropped.
+     */
+    private PathMatches[] build(PathMatches[] previous, BitSet addedOrdinals) {
+        HollowTypeReadState typeState = readStateEngine.getTypeState(type);
+        BitSet populatedOrdinals = typeState.getPopulatedOrdinals();
+        int maxOrdinal = typeState.maxOrdinal();
+
+        PathMatches[] built = new PathMatches[fieldPaths.length];
+        for (int i = 0; i < fieldPaths.length; i++) {
+            HollowIndexerValueTraverser traverser = new HollowIndexerValueTraverser(readStateEngine, type, fieldPaths[i]);
+            long[] offsets = new long[maxOrdinal + 2];
+            IntList matchedOrdinals = new IntList();
+            int maxMatchedOrdinal = 0;
+
+            for (int ordinal = 0; ordinal <= maxOrdinal; ordinal++) {
+                offsets[ordinal] = matchedOrdinals.size();
+                if (!populatedOrdinals.get(ordinal))
+                    continue;
+
+                if (previous != null && !addedOrdinals.get(ordinal)) {
+                    PathMatches previousMatches = previous[i];
+                    for (long index = previousMatches.start(ordinal); index < previousMatches.end(ordinal); index++) {
+                        int matchedOrdinal = previousMatches.ordinal(index);
+                        matchedOrdinals.add(matchedOrdinal);
+                        maxMatchedOrdinal = Math.max(maxMatchedOrdinal, matchedOrdinal);
+                    }
+                } else {
+                    traverser.traverse(ordinal);
+                    for (int match = 0; match < traverser.getNumMatches(); match++) {
+                        int matchedOrdinal = traverser.getMatchOrdinal(match, 0);
+                        matchedOrdinals.add(matchedOrdinal);
+                        maxMatchedOrdinal = Math.max(maxMatchedOrdinal, matchedOrdinal);
+                    }
+                }
+            }
+            offsets[maxOrdinal + 1] = matchedOrdinals.size();
+
+            built[i] = new PathMatches(offsets, matchedOrdinals, maxMatchedOrdinal);
+        }
+        return built;
+    }
+
+    /**
+     * The matches of a single path for every record, as a bit-packed array of matched ordinals, and a bit-packed
+     * array of the offset of each record's first match, followed by the total number of matches.
+     */
+    private static class PathMatches {
+        private final int maxOrdinal;
+        private final int bitsPerOffset;
+        private final int bitsPerOrdinal;
+        private final FixedLengthElementArray offsets;
+        private final FixedLengthElementArray ordinals;
+
+        private PathMatches(long[] offsets, IntList matchedOrdinals, int maxMatchedOrdinal) {
+            this.maxOrdinal = offsets.length - 2;
+            this.bitsPerOffset = Math.max(1, 64 - Long.numberOfLeadingZeros(matchedOrdinals.size()));
+            this.bitsPerOrdinal = Math.max(1, 32 - Integer.numberOfLeadingZeros(maxMatchedOrdinal));
+
+            this.offsets = new FixedLengthElementArray(WastefulRecycler.DEFAULT_INSTANCE,
+                    (long) bitsPerOffset * offsets.length);
+            for (int i = 0; i < offsets.length; i++)
+                this.offsets.setElementValue((long) i * bitsPerOffset, bitsPerOffset, offsets[i]);
+
+            this.ordinals = new FixedLengthElementArray(WastefulRecycler.DEFAULT_INSTANCE,
+                    Math.max(1, (long) bitsPerOrdinal * matchedOrdinals.size()));
+            for (int i = 0; i < matchedOrdinals.size(); i++)
+                this.ordinals.setElementValue((long) i * bitsPerOrdinal, bitsPerOrdinal, matchedOrdinals.get(i));
+        }
+
+        private long start(int ordinal) {
+            if (ordinal < 0 || ordinal > maxOrdinal)
+                return 0;
+            return offsets.getElementValue((long) ordinal * bitsPerOffset, bitsPerOffset);
+        }
+
+        private long end(int ordinal) {
+            if (ordinal < 0 || ordinal > maxOrdinal)
+                return 0;
+            return offsets.getElementValue((long) (ordinal + 1) * bitsPerOffset, bitsPerOffset);
+        }
+
+        private int ordinal(long index) {
+            return (int) ordinals.getElementValue(index * bitsPerOrdinal, bitsPerOrdinal);
+        }
+    }
+}
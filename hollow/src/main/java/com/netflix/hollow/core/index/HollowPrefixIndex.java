@@ -18,6 +18,7 @@ package com.netflix.hollow.core.index;
 
 import static java.util.Objects.requireNonNull;
 
+import com.netflix.hollow.core.memory.HollowUnsafeHandle;
 import com.netflix.hollow.core.memory.encoding.FixedLengthElementArray;
 import com.netflix.hollow.core.memory.encoding.FixedLengthMultipleOccurrenceElementArray;
 import com.netflix.hollow.core.memory.pool.ArraySegmentRecycler;
@@ -27,32 +28,73 @@ import com.netflix.hollow.core.read.engine.HollowTypeStateListener;
 import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
 import com.netflix.hollow.core.read.iterator.HollowOrdinalIterator;
 import com.netflix.hollow.core.schema.HollowObjectSchema;
+import com.netflix.hollow.core.util.SimultaneousExecutor;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
  * This class builds a prefix index. A prefix index can be used to build applications like auto-complete, spell checker.
+ * <p>
+ * The index may be split into shards, each of which indexes the records whose ordinals are equal modulo the number of
+ * shards.  Shards are built in parallel, and queries consult every shard.  When listening for delta updates, the keys
+ * of added and removed records are inserted into and removed from the shards in place, rather than rebuilding the index.
  */
 public class HollowPrefixIndex implements HollowTypeStateListener {
 
+    /**
+     * Options for the keys indexed by the default implementation of {@link #getKeys(int)}.
+     */
+    public enum KeyOption {
+        /**
+         * Case fold keys and query prefixes, rather than lower casing them, so that for example "STRASSE" and
+         * "straße" are indexed under the same key.
+         */
+        CASE_FOLD,
+        /**
+         * Index each run of letters and digits in a value as a separate key, so that a prefix matches the start of
+         * any word in the value.
+         */
+        TOKENIZE
+    }
+
+    private static final Pattern TOKEN_DELIMITER = Pattern.compile("[^\\p{L}\\p{N}]+");
+
     private final FieldPath fieldPath;
     private final HollowReadStateEngine readStateEngine;
     private final String type;
     private final int estimatedMaxStringDuplicates;
+    private final int numShards;
+    private final boolean caseFold;
+    private final boolean tokenize;
 
-    private volatile TST prefixIndexVolatile;
+    private volatile TST[] shardsVolatile;
+    // odd while the shards are being modified in place; queries which overlap a modification are retried
+    private volatile int updateVersion;
     private ArraySegmentRecycler memoryRecycle;
 
     private int totalWords;
     private int averageWordLen;
     private int maxOrdinalOfType;
 
-    private boolean buildIndexOnUpdate;
+    private final BitSet addedOrdinals = new BitSet();
+    private final BitSet removedOrdinals = new BitSet();
 
     /**
      * This constructor defaults the estimatedMaxStringDuplicates to 4. If you expect a large
@@ -87,6 +129,27 @@ public class HollowPrefixIndex implements HollowTypeStateListener {
     @SuppressWarnings("WeakerAccess")
     public HollowPrefixIndex(HollowReadStateEngine readStateEngine, String type, String fieldPath,
             int estimatedMaxStringDuplicates) {
+        this(readStateEngine, type, fieldPath, estimatedMaxStringDuplicates, 1);
+    }
+
+    /**
+     * Initializes a new prefix index, split into shards which are built in parallel.
+     *
+     * @param readStateEngine              state engine to read data from
+     * @param type                         type in the read state engine. Ordinals for this type
+     *                                     will be returned when queried for a prefix.
+     * @param fieldPath                    fieldPath should ultimately lead to a string field.
+     * @param estimatedMaxStringDuplicates The estimated number of strings that are duplicated
+     *                                     across instances of your type.
+     * @param numShards                    the number of shards. Each shard is built on its own
+     *                                     thread, so {@link #getKeys(int)} must be thread-safe
+     *                                     if there is more than one shard.
+     * @param keyOptions                   options for the keys indexed by the default
+     *                                     implementation of {@link #getKeys(int)}
+     */
+    @SuppressWarnings("WeakerAccess")
+    public HollowPrefixIndex(HollowReadStateEngine readStateEngine, String type, String fieldPath,
+            int estimatedMaxStringDuplicates, int numShards, KeyOption... keyOptions) {
         requireNonNull(type, "Hollow Prefix Key Index creation failed because type was null");
         requireNonNull(readStateEngine, "Hollow Prefix Key Index creation for type [" + type
                 + "] failed because read state wasn't initialized");
@@ -96,17 +159,22 @@ public class HollowPrefixIndex implements HollowTypeStateListener {
         if (estimatedMaxStringDuplicates < 1) {
             throw new IllegalArgumentException("estimatedMaxStringDuplicates cannot be < 1");
         }
+        if (numShards < 1) {
+            throw new IllegalArgumentException("numShards cannot be < 1");
+        }
 
         this.readStateEngine = readStateEngine;
         this.type = type;
         this.estimatedMaxStringDuplicates = estimatedMaxStringDuplicates;
+        this.numShards = numShards;
+        this.caseFold = Arrays.asList(keyOptions).contains(KeyOption.CASE_FOLD);
+        this.tokenize = Arrays.asList(keyOptions).contains(KeyOption.TOKENIZE);
         this.fieldPath = new FieldPath(readStateEngine, type, fieldPath);
         if (!this.fieldPath.getLastFieldType().equals(HollowObjectSchema.FieldType.STRING))
             throw new IllegalArgumentException("Field path should lead to a string type");
 
         // create memory recycle for using shared memory pools.
         memoryRecycle = WastefulRecycler.DEFAULT_INSTANCE;
-        buildIndexOnUpdate = true;
         initialize();
     }
 
@@ -123,12 +191,12 @@ public class HollowPrefixIndex implements HollowTypeStateListener {
         BitSet keyBitSet = objectTypeReadState.getPopulatedOrdinals();
         int ordinal = keyBitSet.nextSetBit(0);
         while (ordinal != -1) {
-            avg += ((double) objectTypeReadState.readString(ordinal, 0).length()) / ((double) objectTypeReadState.maxOrdinal());
+            avg += ((double) objectTypeReadState.readString(ordinal, 0).length()) / ((double) totalWords);
             ordinal = keyBitSet.nextSetBit(ordinal + 1);
         }
         averageWordLen = (int) Math.ceil(avg);
 
-        HollowObjectTypeReadState valueState = (HollowObjectTypeReadState) readStateEngine.getTypeDataAccess(type);
+        HollowObjectTypeReadState valueState = (HollowObjectTypeReadState) readStateEngine.getTypeState(type);
         maxOrdinalOfType = valueState.maxOrdinal();
 
         // initialize the prefix index.
@@ -136,29 +204,66 @@ public class HollowPrefixIndex implements HollowTypeStateListener {
     }
 
     private void build() {
-
-        if (!buildIndexOnUpdate) return;
         // tell memory recycler to use current tst's long arrays next time when long array is requested.
         // note reuse only happens once swap is called and bits are reset
-        TST current = prefixIndexVolatile;
-        if (current != null) current.recycleMemory(memoryRecycle);
+        TST[] current = shardsVolatile;
+        if (current != null) {
+            for (TST tst : current)
+                tst.recycleMemory(memoryRecycle);
+        }
 
-        long estimatedNumberOfNodes = estimateNumNodes(totalWords, averageWordLen);
-        TST tst = new TST(estimatedNumberOfNodes, estimatedMaxStringDuplicates, maxOrdinalOfType,
-                memoryRecycle);
+        long estimatedNumberOfNodes = Math.max(estimateNumNodes(totalWords, averageWordLen) / numShards, 16);
         BitSet ordinals = readStateEngine.getTypeState(type).getPopulatedOrdinals();
-        int ordinal = ordinals.nextSetBit(0);
-        while (ordinal != -1) {
-            for (String key : getKeys(ordinal)) {
-                tst.insert(key, ordinal);
+        TST[] shards = new TST[numShards];
+
+        if (numShards == 1) {
+            shards[0] = buildShard(0, ordinals, estimatedNumberOfNodes);
+        } else {
+            SimultaneousExecutor executor = new SimultaneousExecutor(
+                    Math.min(numShards, Runtime.getRuntime().availableProcessors()), getClass(), "build");
+            for (int i = 0; i < numShards; i++) {
+                int shard = i;
+                executor.execute(() -> shards[shard] = buildShard(shard, ordinals, estimatedNumberOfNodes));
+            }
+            try {
+                executor.awaitSuccessfulCompletion();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
             }
-            ordinal = ordinals.nextSetBit(ordinal + 1);
         }
 
-        prefixIndexVolatile = tst;
+        shardsVolatile = shards;
         // safe to return previous long arrays on next request for long array.
         memoryRecycle.swap();
-        buildIndexOnUpdate = false;
+    }
+
+    /**
+     * Build the tree for the records in a shard, growing it until all of their keys fit.
+     */
+    private TST buildShard(int shard, BitSet ordinals, long estimatedNumberOfNodes) {
+        long maxNodes = estimatedNumberOfNodes;
+        while (true) {
+            TST tst = new TST(maxNodes, estimatedMaxStringDuplicates, maxOrdinalOfType, numShards,
+                    memoryRecycle);
+            if (insertShardKeys(tst, shard, ordinals))
+                return tst;
+            tst.recycleMemory(memoryRecycle);
+            maxNodes *= 2;
+        }
+    }
+
+    private boolean insertShardKeys(TST tst, int shard, BitSet ordinals) {
+        int ordinal = ordinals.nextSetBit(shard);
+        while (ordinal != -1) {
+            if (ordinal % numShards == shard) {
+                for (String key : getKeys(ordinal)) {
+                    if (!tst.insert(key, ordinal))
+                        return false;
+                }
+            }
+            ordinal = ordinals.nextSetBit(ordinal + 1);
+        }
+        return true;
     }
 
     /**
@@ -187,11 +292,35 @@ public class HollowPrefixIndex implements HollowTypeStateListener {
      */
     protected String[] getKeys(int ordinal) {
         Object[] values = fieldPath.findValues(ordinal);
-        String[] stringValues = new String[values.length];
-        for (int i = 0; i < values.length; i++) {
-            stringValues[i] = ((String) values[i]).toLowerCase();
+        if (!tokenize) {
+            String[] stringValues = new String[values.length];
+            for (int i = 0; i < values.length; i++) {
+                stringValues[i] = normalize((String) values[i]);
+            }
+            return stringValues;
+        }
+
+        List<String> tokens = new ArrayList<>();
+        for (Object value : values) {
+            for (String token : TOKEN_DELIMITER.split(normalize((String) value))) {
+                if (!token.isEmpty())
+                    tokens.add(token);
+            }
         }
-        return stringValues;
+        return tokens.toArray(new String[0]);
+    }
+
+    /**
+     * Normalize a value before its keys are indexed, and a prefix before it is queried. By default values are lower
+     * cased, or case folded if the index was created with {@link KeyOption#CASE_FOLD}.
+     *
+     * @param value the value or prefix
+     * @return the normalized value
+     */
+    protected String normalize(String value) {
+        if (caseFold)
+            return value.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+        return value.toLowerCase();
     }
 
     /**
@@ -211,13 +340,55 @@ public class HollowPrefixIndex implements HollowTypeStateListener {
      */
     @SuppressWarnings("WeakerAccess")
     public HollowOrdinalIterator findKeysWithPrefix(String prefix) {
-        TST current;
-        HollowOrdinalIterator it;
-        do {
-            current = prefixIndexVolatile;
-            it = current.findKeysWithPrefix(prefix);
-        } while (current != this.prefixIndexVolatile);
-        return it;
+        if (prefix == null) throw new IllegalArgumentException("Cannot findKeysWithPrefix null prefix");
+        String key = normalize(prefix);
+        Set<Integer> ordinals = query(shards -> {
+            Set<Integer> result = new HashSet<>();
+            for (TST tst : shards)
+                tst.findKeysWithPrefix(key, result);
+            return result;
+        });
+
+        return new HollowOrdinalIterator() {
+            private Iterator<Integer> it = ordinals.iterator();
+
+            @Override
+            public int next() {
+                if (it.hasNext()) return it.next();
+                return NO_MORE_ORDINALS;
+            }
+        };
+    }
+
+    /**
+     * Find the indexed keys which start with the given prefix, ranked by the number of records indexed under each key.
+     * Keys indexed under the same number of records are ranked alphabetically.
+     *
+     * @param prefix the prefix
+     * @param maxCompletions the maximum number of keys to return
+     * @return up to maxCompletions keys starting with the normalized prefix, most frequent first
+     */
+    public List<String> findCompletions(String prefix, int maxCompletions) {
+        if (prefix == null) throw new IllegalArgumentException("Cannot findCompletions for null prefix");
+        if (maxCompletions < 1) throw new IllegalArgumentException("maxCompletions cannot be < 1");
+        String key = normalize(prefix);
+        Map<String, Integer> counts = query(shards -> {
+            Map<String, Integer> result = new HashMap<>();
+            for (TST tst : shards)
+                tst.countKeysWithPrefix(key, result);
+            return result;
+        });
+
+        Comparator<Map.Entry<String, Integer>> ranking = Map.Entry.<String, Integer>comparingByValue()
+                .reversed().thenComparing(Map.Entry.comparingByKey());
+        PriorityQueue<Map.Entry<String, Integer>> top = new PriorityQueue<>(ranking.reversed());
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            top.add(entry);
+            if (top.size() > maxCompletions)
+                top.remove();
+        }
+
+        return top.stream().sorted(ranking).map(Map.Entry::getKey).collect(Collectors.toList());
     }
 
     /**
@@ -228,19 +399,44 @@ public class HollowPrefixIndex implements HollowTypeStateListener {
      */
     public boolean contains(String key) {
         if (key == null) throw new IllegalArgumentException("key cannot be null");
-        TST current;
-        boolean result;
-        do {
-            current = prefixIndexVolatile;
-            result = current.contains(key);
-        } while (current != this.prefixIndexVolatile);
-        return result;
+        return query(shards -> {
+            for (TST tst : shards) {
+                if (tst.contains(key))
+                    return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Run a query against the shards, retrying it if the shards were modified while it ran.
+     */
+    private <T> T query(Function<TST[], T> query) {
+        while (true) {
+            int version = updateVersion;
+            if ((version & 1) != 0) {
+                Thread.yield();
+                continue;
+            }
+            try {
+                T result = query.apply(shardsVolatile);
+                // the shards' reads must complete before the version is checked again
+                HollowUnsafeHandle.getUnsafe().loadFence();
+                if (version == updateVersion)
+                    return result;
+            } catch (RuntimeException e) {
+                HollowUnsafeHandle.getUnsafe().loadFence();
+                if (version == updateVersion)
+                    throw e;
+            }
+        }
     }
 
     /**
      * Use this method to keep the index updated with delta changes on the read state engine.
      * Remember to call detachFromDeltaUpdates to stop the delta changes.
-     * NOTE: Each delta updates creates a new prefix index and swaps the new with current.
+     * NOTE: The keys of added and removed records are applied to the index in place. A shard is rebuilt, and swapped
+     * with the current one, only if the keys no longer fit in it.
      */
     @SuppressWarnings("WeakerAccess")
     public void listenForDeltaUpdates() {
@@ -257,24 +453,93 @@ public class HollowPrefixIndex implements HollowTypeStateListener {
 
     @Override
     public void beginUpdate() {
-        // before delta is applied -> no action to be taken
+        addedOrdinals.clear();
+        removedOrdinals.clear();
     }
 
     @Override
     public void addedOrdinal(int ordinal) {
-        buildIndexOnUpdate = true;
+        addedOrdinals.set(ordinal);
     }
 
     @Override
     public void removedOrdinal(int ordinal) {
-        buildIndexOnUpdate = true;
+        removedOrdinals.set(ordinal);
     }
 
     @Override
     public void endUpdate() {
-        // pass 1 for delta support - rebuild the tree and swap the new tree with the one that is serving the queries.
-        // next pass -  improve the index build time or add support for remove method.
-        initialize();
+        if (addedOrdinals.isEmpty() && removedOrdinals.isEmpty())
+            return;
+
+        maxOrdinalOfType = ((HollowObjectTypeReadState) readStateEngine.getTypeState(type)).maxOrdinal();
+
+        // the keys of added records are read up front, so that shards they no longer fit in can be rebuilt before
+        // any shard is modified
+        TST[] shards = shardsVolatile;
+        List<Map<Integer, String[]>> addedKeysByShard = new ArrayList<>(numShards);
+        long[] addedKeyLengthByShard = new long[numShards];
+        for (int i = 0; i < numShards; i++)
+            addedKeysByShard.add(new HashMap<>());
+
+        int ordinal = addedOrdinals.nextSetBit(0);
+        while (ordinal != -1) {
+            String[] keys = getKeys(ordinal);
+            int shard = ordinal % numShards;
+            addedKeysByShard.get(shard).put(ordinal, keys);
+            for (String key : keys)
+                addedKeyLengthByShard[shard] += key.length();
+            ordinal = addedOrdinals.nextSetBit(ordinal + 1);
+        }
+
+        TST[] updatedShards = shards.clone();
+        boolean[] rebuilt = new boolean[numShards];
+        BitSet populatedOrdinals = readStateEngine.getTypeState(type).getPopulatedOrdinals();
+        for (int shard = 0; shard < numShards; shard++) {
+            if (!shards[shard].canApply(maxOrdinalOfType, addedKeyLengthByShard[shard])) {
+                long maxNodes = Math.max(shards[shard].maxNodes, shards[shard].usedNodes() + addedKeyLengthByShard[shard]) * 2;
+                updatedShards[shard] = buildShard(shard, populatedOrdinals, maxNodes);
+                rebuilt[shard] = true;
+            }
+        }
+
+        updateVersion++;
+        // the shards must not be modified before queries can see that an update is in progress
+        HollowUnsafeHandle.getUnsafe().storeFence();
+        try {
+            for (int shard = 0; shard < numShards; shard++) {
+                if (rebuilt[shard])
+                    continue;
+
+                TST tst = shards[shard];
+                ordinal = removedOrdinals.nextSetBit(0);
+                while (ordinal != -1) {
+                    if (ordinal % numShards == shard)
+                        tst.remove(ordinal);
+                    ordinal = removedOrdinals.nextSetBit(ordinal + 1);
+                }
+
+                for (Map.Entry<Integer, String[]> entry : addedKeysByShard.get(shard).entrySet()) {
+                    for (String key : entry.getValue()) {
+                        if (!tst.insert(key, entry.getKey()))
+                            throw new IllegalStateException("Prefix index shard " + shard + " ran out of nodes");
+                    }
+                }
+            }
+            shardsVolatile = updatedShards;
+        } finally {
+            updateVersion++;
+        }
+
+        // the trees replaced by rebuilt shards are returned to the recycler, as build() does with all of the shards
+        for (int shard = 0; shard < numShards; shard++) {
+            if (rebuilt[shard])
+                shards[shard].recycleMemory(memoryRecycle);
+        }
+        memoryRecycle.swap();
+
+        addedOrdinals.clear();
+        removedOrdinals.clear();
     }
 
     private static class TST {
@@ -294,11 +559,19 @@ public class HollowPrefixIndex implements HollowTypeStateListener {
         private long middleChildOffset;
         private long rightChildOffset;
         private long isLeafNodeFlagOffset;
+        private long parentOffset;
 
-        private long maxNodes;
+        private final long maxNodes;
+        private final int ordinalCapacity;
+        private final int numShards;
         private FixedLengthElementArray nodes;
         private FixedLengthMultipleOccurrenceElementArray ordinalSet;
+        // the nodes at which each of the shard's ordinals is indexed, so that its keys can be removed after its data is gone
+        private FixedLengthMultipleOccurrenceElementArray ordinalNodes;
         private long indexTracker;
+        // removed nodes are chained through their middle child pointers for reuse
+        private long freeListHead;
+        private long freeListSize;
 
         /**
          * Create new prefix index. Represents a ternary search tree.
@@ -306,38 +579,64 @@ public class HollowPrefixIndex implements HollowTypeStateListener {
          * @param estimatedNumNodes estimate number of max nodes that will created.
          * @param estimatedMaxStringDuplicates estimated number string duplicates across all nodes
          * @param maxOrdinalValue  max ordinal that can be referenced
+         * @param numShards        the number of shards the ordinals are split across
          * @param memoryRecycler   to reuse arrays from memory pool
          */
-        private TST(long estimatedNumNodes, int estimatedMaxStringDuplicates, int maxOrdinalValue,
+        private TST(long estimatedNumNodes, int estimatedMaxStringDuplicates, int maxOrdinalValue, int numShards,
                 ArraySegmentRecycler memoryRecycler) {
 
             // best guess
             maxNodes = estimatedNumNodes;
+            // leave room for records added by deltas
+            ordinalCapacity = (int) Math.min(Integer.MAX_VALUE, maxOrdinalValue + (maxOrdinalValue >> 3) + 64L);
+            this.numShards = numShards;
 
             // bits for pointers in a single node:
             bitsPerKey = 16;// key
             bitsForChildPointer = 64 - Long.numberOfLeadingZeros(maxNodes);// a child pointer
-            bitsPerOrdinal = maxOrdinalValue == 0 ? 1 : 32 - Integer.numberOfLeadingZeros(maxOrdinalValue);
+            bitsPerOrdinal = 32 - Integer.numberOfLeadingZeros(ordinalCapacity);
 
             // bits to represent one node
-            bitsPerNode = bitsPerKey + (3 * bitsForChildPointer) + 1;
+            bitsPerNode = bitsPerKey + (4 * bitsForChildPointer) + 1;
 
             nodes = new FixedLengthElementArray(memoryRecycler, bitsPerNode * maxNodes);
             ordinalSet = new FixedLengthMultipleOccurrenceElementArray(memoryRecycler,
                     maxNodes, bitsPerOrdinal, estimatedMaxStringDuplicates);
-            indexTracker = 0;
+            ordinalNodes = new FixedLengthMultipleOccurrenceElementArray(memoryRecycler,
+                    ordinalCapacity / numShards + 1, bitsForChildPointer, 2);
+            // the root is node 0
+            indexTracker = 1;
 
             // initialize offsets
             leftChildOffset = bitsPerKey;// after first 16 bits in node is first left child offset.
             middleChildOffset = leftChildOffset + bitsForChildPointer;
             rightChildOffset = middleChildOffset + bitsForChildPointer;
             isLeafNodeFlagOffset = rightChildOffset + bitsForChildPointer;
+            parentOffset = isLeafNodeFlagOffset + 1;
         }
 
         // tell memory recycler to use these long array on next long array request from memory ONLY AFTER swap is called on memory recycler
         private void recycleMemory(ArraySegmentRecycler memoryRecycler) {
             nodes.destroy(memoryRecycler);
             ordinalSet.destroy();
+            ordinalNodes.destroy();
+        }
+
+        private long usedNodes() {
+            return indexTracker - freeListSize;
+        }
+
+        /**
+         * @return whether keys with the given total length, for ordinals up to the given max ordinal, are certain to fit
+         */
+        private boolean canApply(int maxOrdinal, long totalKeyLength) {
+            return maxOrdinal < ordinalCapacity && maxNodes - usedNodes() >= totalKeyLength;
+        }
+
+        // nodes are modified in place once they are removed, so the previous value must be cleared
+        private void setNodeValue(long index, int bits, long value) {
+            nodes.clearElementValue(index, bits);
+            nodes.setElementValue(index, bits, value);
         }
 
         private long getChildOffset(NodeType nodeType) {
@@ -355,11 +654,15 @@ public class HollowPrefixIndex implements HollowTypeStateListener {
 
         private void setChildIndex(long currentNode, NodeType nodeType, long indexForNode) {
             long offset = getChildOffset(nodeType);
-            nodes.setElementValue((currentNode * bitsPerNode) + offset, bitsForChildPointer, indexForNode);
+            setNodeValue((currentNode * bitsPerNode) + offset, bitsForChildPointer, indexForNode);
+        }
+
+        private long getParentIndex(long nodeIndex) {
+            return nodes.getElementValue((nodeIndex * bitsPerNode) + parentOffset, bitsForChildPointer);
         }
 
         private void setKey(long index, char ch) {
-            nodes.setElementValue(index * bitsPerNode, bitsPerKey, ch);
+            setNodeValue(index * bitsPerNode, bitsPerKey, ch);
         }
 
         private long getKey(long nodeIndex) {
@@ -370,9 +673,10 @@ public class HollowPrefixIndex implements HollowTypeStateListener {
             return nodes.getElementValue((nodeIndex * bitsPerNode) + isLeafNodeFlagOffset, 1) == 1;
         }
 
-        private void addOrdinal(long nodeIndex, long ordinal) {
+        private void addOrdinal(long nodeIndex, int ordinal) {
             ordinalSet.addElement(nodeIndex, ordinal);
-            nodes.setElementValue((nodeIndex * bitsPerNode) + isLeafNodeFlagOffset, 1, 1);
+            ordinalNodes.addElement(ordinal / numShards, nodeIndex);
+            setNodeValue((nodeIndex * bitsPerNode) + isLeafNodeFlagOffset, 1, 1);
         }
 
         private Set<Integer> getOrdinals(long nodeIndex) {
@@ -380,46 +684,108 @@ public class HollowPrefixIndex implements HollowTypeStateListener {
                     .map(Long::intValue).collect(Collectors.toSet());
         }
 
+        /**
+         * @return the index of a new node with the given key and parent, or -1 if there is no room for another node.
+         */
+        private long allocateNode(long parentIndex, char ch) {
+            long nodeIndex;
+            if (freeListHead != 0) {
+                nodeIndex = freeListHead;
+                freeListHead = getChildIndex(nodeIndex, NodeType.Middle);
+                freeListSize--;
+                setChildIndex(nodeIndex, NodeType.Middle, 0);
+            } else {
+                if (indexTracker >= maxNodes)
+                    return -1;
+                nodeIndex = indexTracker++;
+            }
+            setKey(nodeIndex, ch);
+            setNodeValue((nodeIndex * bitsPerNode) + parentOffset, bitsForChildPointer, parentIndex);
+            return nodeIndex;
+        }
+
+        private void freeNode(long nodeIndex) {
+            setKey(nodeIndex, (char) 0);
+            setChildIndex(nodeIndex, NodeType.Left, 0);
+            setChildIndex(nodeIndex, NodeType.Right, 0);
+            setNodeValue((nodeIndex * bitsPerNode) + parentOffset, bitsForChildPointer, 0);
+            setChildIndex(nodeIndex, NodeType.Middle, freeListHead);
+            freeListHead = nodeIndex;
+            freeListSize++;
+        }
+
         /**
          * Insert into ternary search tree for the given key and ordinal.
+         *
+         * @return false if there was no room for the nodes required by the key
          */
-        private void insert(String key, int ordinal) {
+        private boolean insert(String key, int ordinal) {
             if (key == null) throw new IllegalArgumentException("Null key cannot be indexed");
+            if (ordinal >= ordinalCapacity) return false;
             long currentNodeIndex = 0;
             int keyIndex = 0;
 
             while (keyIndex < key.length()) {
 
                 char ch = key.charAt(keyIndex);
-                if (getKey(currentNodeIndex) == 0) {
+                // only the root of an empty tree has no key
+                if (getKey(currentNodeIndex) == 0)
                     setKey(currentNodeIndex, ch);
-                    indexTracker++;
-                    if (indexTracker >= maxNodes)
-                        throw new IllegalStateException("Index Tracker reached max capacity. Try with larger estimate of number of nodes");
-                }
 
                 long keyAtCurrentNode = getKey(currentNodeIndex);
+                NodeType next;
                 if (ch < keyAtCurrentNode) {
-                    long leftIndex = getChildIndex(currentNodeIndex, NodeType.Left);
-                    if (leftIndex == 0) leftIndex = indexTracker;
-                    setChildIndex(currentNodeIndex, NodeType.Left, leftIndex);
-                    currentNodeIndex = leftIndex;
+                    next = NodeType.Left;
                 } else if (ch > keyAtCurrentNode) {
-                    long rightIndex = getChildIndex(currentNodeIndex, NodeType.Right);
-                    if (rightIndex == 0) rightIndex = indexTracker;
-                    setChildIndex(currentNodeIndex, NodeType.Right, rightIndex);
-                    currentNodeIndex = rightIndex;
+                    next = NodeType.Right;
                 } else {
                     keyIndex++;
-                    if (keyIndex < key.length()) {
-                        long midIndex = getChildIndex(currentNodeIndex, NodeType.Middle);
-                        if (midIndex == 0) midIndex = indexTracker;
-                        setChildIndex(currentNodeIndex, NodeType.Middle, midIndex);
-                        currentNodeIndex = midIndex;
-                    }
+                    if (keyIndex == key.length())
+                        break;
+                    next = NodeType.Middle;
+                    ch = key.charAt(keyIndex);
+                }
+
+                long childIndex = getChildIndex(currentNodeIndex, next);
+                if (childIndex == 0) {
+                    childIndex = allocateNode(currentNodeIndex, ch);
+                    if (childIndex == -1)
+                        return false;
+                    setChildIndex(currentNodeIndex, next, childIndex);
                 }
+                currentNodeIndex = childIndex;
             }
             addOrdinal(currentNodeIndex, ordinal);
+            return true;
+        }
+
+        /**
+         * Remove the given ordinal from every node it is indexed at, recycling nodes which no longer lead to any key.
+         */
+        private void remove(int ordinal) {
+            int shardOrdinal = ordinal / numShards;
+            for (long nodeIndex : new HashSet<>(ordinalNodes.getElements(shardOrdinal))) {
+                ordinalSet.removeElement(nodeIndex, ordinal);
+                if (ordinalSet.hasElements(nodeIndex))
+                    continue;
+
+                setNodeValue((nodeIndex * bitsPerNode) + isLeafNodeFlagOffset, 1, 0);
+                while (nodeIndex != 0 && !isLeafNode(nodeIndex)
+                        && getChildIndex(nodeIndex, NodeType.Left) == 0
+                        && getChildIndex(nodeIndex, NodeType.Middle) == 0
+                        && getChildIndex(nodeIndex, NodeType.Right) == 0) {
+                    long parentIndex = getParentIndex(nodeIndex);
+                    if (getChildIndex(parentIndex, NodeType.Left) == nodeIndex)
+                        setChildIndex(parentIndex, NodeType.Left, 0);
+                    else if (getChildIndex(parentIndex, NodeType.Middle) == nodeIndex)
+                        setChildIndex(parentIndex, NodeType.Middle, 0);
+                    else
+                        setChildIndex(parentIndex, NodeType.Right, 0);
+                    freeNode(nodeIndex);
+                    nodeIndex = parentIndex;
+                }
+            }
+            ordinalNodes.clearElements(shardOrdinal);
         }
 
         /**
@@ -433,9 +799,11 @@ public class HollowPrefixIndex implements HollowTypeStateListener {
             boolean atRoot = true;
             long currentNodeIndex = 0;
             int keyIndex = 0;
+            long steps = 0;
 
             while (true) {
                 if (currentNodeIndex == 0 && !atRoot) break;
+                if (++steps > maxNodes) throw new ConcurrentModificationException();
                 long currentValue = getKey(currentNodeIndex);
                 char ch = key.charAt(keyIndex);
                 if (ch < currentValue) currentNodeIndex = getChildIndex(currentNodeIndex, NodeType.Left);
@@ -461,10 +829,8 @@ public class HollowPrefixIndex implements HollowTypeStateListener {
         /**
          * Find all the ordinals that match the given prefix.
          */
-        private HollowOrdinalIterator findKeysWithPrefix(String prefix) {
-            if (prefix == null) throw new IllegalArgumentException("Cannot findKeysWithPrefix null prefix");
-            final Set<Integer> ordinals = new HashSet<>();
-            long currentNodeIndex = findNodeWithKey(prefix.toLowerCase());
+        private void findKeysWithPrefix(String prefix, Set<Integer> ordinals) {
+            long currentNodeIndex = findNodeWithKey(prefix);
 
             if (currentNodeIndex >= 0) {
 
@@ -476,31 +842,66 @@ public class HollowPrefixIndex implements HollowTypeStateListener {
                 if (subTree != 0) {
                     Queue<Long> queue = new ArrayDeque<>();
                     queue.add(subTree);
+                    long steps = 0;
                     while (!queue.isEmpty()) {
+                        if (++steps > maxNodes) throw new ConcurrentModificationException();
                         long nodeIndex = queue.remove();
                         long left = getChildIndex(nodeIndex, NodeType.Left);
                         long mid = getChildIndex(nodeIndex, NodeType.Middle);
                         long right = getChildIndex(nodeIndex, NodeType.Right);
 
-                        if (left == 0 && mid == 0 && right == 0) {
-                            if (isLeafNode(nodeIndex)) ordinals.addAll(getOrdinals(nodeIndex));
-                        }
+                        // a key may end at a node which still has children, for keys which extend it or sort beside it
+                        if (isLeafNode(nodeIndex)) ordinals.addAll(getOrdinals(nodeIndex));
                         if (left != 0) queue.add(left);
                         if (mid != 0) queue.add(mid);
                         if (right != 0) queue.add(right);
                     }
                 }
             }
+        }
 
-            return new HollowOrdinalIterator() {
-                private Iterator<Integer> it = ordinals.iterator();
+        /**
+         * Count the distinct ordinals indexed under each key which starts with the given prefix.
+         */
+        private void countKeysWithPrefix(String prefix, Map<String, Integer> counts) {
+            // each entry is a node and the key leading up to, but excluding, that node
+            Deque<Object[]> stack = new ArrayDeque<>();
+
+            if (prefix.isEmpty()) {
+                // every key completes the empty prefix, so the whole tree is traversed from its root, which has no
+                // key only while the tree is empty
+                if (getKey(0) != 0)
+                    stack.push(new Object[] {0L, prefix});
+            } else {
+                long currentNodeIndex = findNodeWithKey(prefix);
+                if (currentNodeIndex < 0)
+                    return;
 
-                @Override
-                public int next() {
-                    if (it.hasNext()) return it.next();
-                    return NO_MORE_ORDINALS;
-                }
-            };
+                if (isLeafNode(currentNodeIndex))
+                    counts.merge(prefix, getOrdinals(currentNodeIndex).size(), Integer::sum);
+
+                long subTree = getChildIndex(currentNodeIndex, NodeType.Middle);
+                if (subTree != 0)
+                    stack.push(new Object[] {subTree, prefix});
+            }
+            long steps = 0;
+            while (!stack.isEmpty()) {
+                if (++steps > maxNodes) throw new ConcurrentModificationException();
+                Object[] entry = stack.pop();
+                long nodeIndex = (Long) entry[0];
+                String keyBeforeNode = (String) entry[1];
+                String key = keyBeforeNode + (char) getKey(nodeIndex);
+
+                if (isLeafNode(nodeIndex))
+                    counts.merge(key, getOrdinals(nodeIndex).size(), Integer::sum);
+
+                long left = getChildIndex(nodeIndex, NodeType.Left);
+                long mid = getChildIndex(nodeIndex, NodeType.Middle);
+                long right = getChildIndex(nodeIndex, NodeType.Right);
+                if (left != 0) stack.push(new Object[] {left, keyBeforeNode});
+                if (mid != 0) stack.push(new Object[] {mid, key});
+                if (right != 0) stack.push(new Object[] {right, keyBeforeNode});
+            }
         }
     }
 }
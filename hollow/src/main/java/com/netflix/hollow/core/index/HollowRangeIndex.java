@@ -0,0 +1,560 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.index;
+
+import static java.util.Objects.requireNonNull;
+
+import com.netflix.hollow.core.HollowConstants;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.read.engine.HollowTypeStateListener;
+import com.netflix.hollow.core.read.iterator.EmptyOrdinalIterator;
+import com.netflix.hollow.core.read.iterator.HollowOrdinalIterator;
+import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * A HollowRangeIndex orders the records of a type by the value of a single INT, LONG, FLOAT, DOUBLE or STRING
+ * field, and answers range, floor/ceiling and top-K queries over that order.
+ * <p>
+ * The field path is resolved in the same way as for the {@link HollowPrefixIndex}:  fields are separated by ".",
+ * and may traverse references, lists, sets and maps.  If the path traverses a collection, a record is indexed
+ * once for each value found and will be returned at most once by each query.  Null values are not indexed.
+ * <p>
+ * The index is a sorted array of (value, ordinal) entries.  Records with equal values are ordered by ordinal.
+ * Strings are ordered by {@link String#compareTo(String)}.  When listening for delta updates, the entries
+ * for added and removed ordinals are merged into a new sorted array which is then swapped with the one serving
+ * queries, so the cost of a delta is proportional to the number of changed records plus a linear merge.
+ */
+public class HollowRangeIndex implements HollowTypeStateListener {
+
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private final HollowReadStateEngine readStateEngine;
+    private final String type;
+    private final FieldPath fieldPath;
+    private final FieldType fieldType;
+
+    private final BitSet addedOrdinals;
+    private final BitSet removedOrdinals;
+
+    private volatile SortedEntries entries;
+
+    /**
+     * Initializes a new range index.
+     *
+     * @param readStateEngine state engine to read data from
+     * @param type type in the read state engine.  Ordinals for this type will be returned when queried.
+     * @param fieldPath fieldPath should ultimately lead to an INT, LONG, FLOAT, DOUBLE or STRING field.
+     *                  The fields in the path could reference another Object, List, Set or a Map.
+     *                  The fields should be separated by ".".
+     */
+    public HollowRangeIndex(HollowReadStateEngine readStateEngine, String type, String fieldPath) {
+        requireNonNull(type, "Hollow Range Index creation failed because type was null");
+        requireNonNull(readStateEngine, "Hollow Range Index creation for type [" + type
+                + "] failed because read state wasn't initialized");
+
+        if (fieldPath == null || fieldPath.isEmpty())
+            throw new IllegalArgumentException("fieldPath cannot be null or empty");
+
+        this.readStateEngine = readStateEngine;
+        this.type = type;
+        this.fieldPath = new FieldPath(readStateEngine, type, fieldPath);
+        this.fieldType = this.fieldPath.getLastFieldType();
+
+        switch (fieldType) {
+            case INT:
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+            case STRING:
+                break;
+            default:
+                throw new IllegalArgumentException("Field path should lead to an INT, LONG, FLOAT, DOUBLE or STRING field but "
+                        + fieldPath + " leads to a " + fieldType + " field");
+        }
+
+        this.addedOrdinals = new BitSet();
+        this.removedOrdinals = new BitSet();
+        this.entries = build(readStateEngine.getTypeState(type).getPopulatedOrdinals());
+    }
+
+    /**
+     * Find all records whose value lies between {@code from} and {@code to}, both inclusive.
+     *
+     * @param from the lower bound, or null if the range is unbounded below
+     * @param to the upper bound, or null if the range is unbounded above
+     * @return an iterator over the matching ordinals, in ascending order of value
+     * @see #findRange(Object, boolean, Object, boolean)
+     */
+    public HollowOrdinalIterator findRange(Object from, Object to) {
+        return findRange(from, true, to, true);
+    }
+
+    /**
+     * Find all records whose value lies between {@code from} and {@code to}.
+     * <p>
+     * Bounds for INT and LONG fields must be integral {@link Number}s, bounds for FLOAT and DOUBLE fields may be any
+     * {@code Number}, and bounds for STRING fields must be {@link String}s.
+     *
+     * @param from the lower bound, or null if the range is unbounded below
+     * @param fromInclusive whether records with a value equal to {@code from} match
+     * @param to the upper bound, or null if the range is unbounded above
+     * @param toInclusive whether records with a value equal to {@code to} match
+     * @return an iterator over the matching ordinals, in ascending order of value
+     */
+    public HollowOrdinalIterator findRange(Object from, boolean fromInclusive, Object to, boolean toInclusive) {
+        SortedEntries current = entries;
+        int start = rangeStart(current, from, fromInclusive);
+        int end = rangeEnd(current, to, toInclusive);
+
+        if (start >= end)
+            return EmptyOrdinalIterator.INSTANCE;
+        return new SortedOrdinalIterator(current, start, end, 1, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Count the index entries with values in the given range, without iterating them.  Unless the field path
+     * traverses a collection, this is the number of records {@link #findRange(Object, boolean, Object, boolean)}
+     * will return, otherwise it is an upper bound.
+     */
+    int countEntriesInRange(Object from, boolean fromInclusive, Object to, boolean toInclusive) {
+        SortedEntries current = entries;
+        return Math.max(0, rangeEnd(current, to, toInclusive) - rangeStart(current, from, fromInclusive));
+    }
+
+    /**
+     * Find the record with the greatest value less than or equal to the given value.  If several records share
+     * that value, the one with the lowest ordinal is returned.
+     *
+     * @param value the value
+     * @return the matching ordinal, or {@link HollowConstants#ORDINAL_NONE} if there is no such record
+     */
+    public int findFloor(Object value) {
+        requireNonNull(value, "value cannot be null");
+        SortedEntries current = entries;
+        int index = upperBound(current, value) - 1;
+        if (index < 0)
+            return HollowConstants.ORDINAL_NONE;
+        return current.ordinals[current.firstIndexWithKeyOf(index)];
+    }
+
+    /**
+     * Find the record with the smallest value greater than or equal to the given value.  If several records share
+     * that value, the one with the lowest ordinal is returned.
+     *
+     * @param value the value
+     * @return the matching ordinal, or {@link HollowConstants#ORDINAL_NONE} if there is no such record
+     */
+    public int findCeiling(Object value) {
+        requireNonNull(value, "value cannot be null");
+        SortedEntries current = entries;
+        int index = lowerBound(current, value);
+        if (index >= current.size)
+            return HollowConstants.ORDINAL_NONE;
+        return current.ordinals[index];
+    }
+
+    /**
+     * Find the {@code k} records with the smallest values.
+     *
+     * @param k the maximum number of records to return
+     * @return an iterator over at most {@code k} ordinals, in ascending order of value
+     */
+    public HollowOrdinalIterator findSmallest(int k) {
+        if (k < 0)
+            throw new IllegalArgumentException("k cannot be negative");
+        SortedEntries current = entries;
+        return new SortedOrdinalIterator(current, 0, current.size, 1, k);
+    }
+
+    /**
+     * Find the {@code k} records with the largest values.
+     *
+     * @param k the maximum number of records to return
+     * @return an iterator over at most {@code k} ordinals, in descending order of value
+     */
+    public HollowOrdinalIterator findLargest(int k) {
+        if (k < 0)
+            throw new IllegalArgumentException("k cannot be negative");
+        SortedEntries current = entries;
+        return new SortedOrdinalIterator(current, current.size - 1, -1, -1, k);
+    }
+
+    /**
+     * @return the type of the field which this index orders records by
+     */
+    public FieldType getFieldType() {
+        return fieldType;
+    }
+
+    /**
+     * Use this method to keep the index updated with delta changes on the read state engine.
+     * Remember to call detachFromDeltaUpdates to stop the delta changes.
+     * NOTE: Each delta update merges the changed records into a new sorted array and swaps the new with current.
+     */
+    public void listenForDeltaUpdates() {
+        readStateEngine.getTypeState(type).addListener(this);
+    }
+
+    /**
+     * Stop delta updates for this index.
+     */
+    public void detachFromDeltaUpdates() {
+        readStateEngine.getTypeState(type).removeListener(this);
+    }
+
+    @Override
+    public void beginUpdate() {
+        addedOrdinals.clear();
+        removedOrdinals.clear();
+    }
+
+    @Override
+    public void addedOrdinal(int ordinal) {
+        addedOrdinals.set(ordinal);
+    }
+
+    @Override
+    public void removedOrdinal(int ordinal) {
+        removedOrdinals.set(ordinal);
+    }
+
+    @Override
+    public void endUpdate() {
+        if (addedOrdinals.isEmpty() && removedOrdinals.isEmpty())
+            return;
+
+        // an ordinal which is both removed and added is re-read, so its previous entries are dropped as well
+        BitSet changedOrdinals = (BitSet) removedOrdinals.clone();
+        changedOrdinals.or(addedOrdinals);
+
+        entries = entries.merge(changedOrdinals, build(addedOrdinals));
+
+        addedOrdinals.clear();
+        removedOrdinals.clear();
+    }
+
+    private SortedEntries build(BitSet ordinals) {
+        SortedEntries built = new SortedEntries(fieldType == FieldType.STRING, ordinals.cardinality());
+
+        int ordinal = ordinals.nextSetBit(0);
+        while (ordinal != -1) {
+            int numIndexed = 0;
+            for (Object value : fieldPath.findValues(ordinal)) {
+                if (isNull(value))
+                    continue;
+                if (built.stringKeys != null)
+                    built.add((String) value, ordinal);
+                else
+                    built.add(toNumericKey(value), ordinal);
+                numIndexed++;
+            }
+            if (numIndexed > 1)
+                built.multiValued = true;
+            ordinal = ordinals.nextSetBit(ordinal + 1);
+        }
+
+        built.sort(0, built.size);
+        return built;
+    }
+
+    private int rangeStart(SortedEntries entries, Object from, boolean fromInclusive) {
+        if (from == null)
+            return 0;
+        return fromInclusive ? lowerBound(entries, from) : upperBound(entries, from);
+    }
+
+    private int rangeEnd(SortedEntries entries, Object to, boolean toInclusive) {
+        if (to == null)
+            return entries.size;
+        return toInclusive ? upperBound(entries, to) : lowerBound(entries, to);
+    }
+
+    private int lowerBound(SortedEntries entries, Object value) {
+        if (entries.stringKeys != null)
+            return entries.lowerBound(0, toStringKey(value));
+        return entries.lowerBound(toNumericKey(value), null);
+    }
+
+    private int upperBound(SortedEntries entries, Object value) {
+        if (entries.stringKeys != null)
+            return entries.upperBound(0, toStringKey(value));
+        return entries.upperBound(toNumericKey(value), null);
+    }
+
+    private boolean isNull(Object value) {
+        if (value == null)
+            return true;
+        switch (fieldType) {
+            case INT:
+                return ((Integer) value) == Integer.MIN_VALUE;
+            case LONG:
+                return ((Long) value) == Long.MIN_VALUE;
+            case FLOAT:
+                return ((Float) value).isNaN();
+            case DOUBLE:
+                return ((Double) value).isNaN();
+            default:
+                return false;
+        }
+    }
+
+    private String toStringKey(Object value) {
+        if (!(value instanceof String))
+            throw new IllegalArgumentException("Expected a String value for a STRING field but found " + value);
+        return (String) value;
+    }
+
+    /**
+     * Maps a numeric value onto a long such that the natural ordering of the longs matches the ordering of the values.
+     */
+    private long toNumericKey(Object value) {
+        if (!(value instanceof Number))
+            throw new IllegalArgumentException("Expected a Number value for a " + fieldType + " field but found " + value);
+
+        if (fieldType == FieldType.INT || fieldType == FieldType.LONG) {
+            if (value instanceof Float || value instanceof Double)
+                throw new IllegalArgumentException("Expected an integral value for a " + fieldType + " field but found " + value);
+            return ((Number) value).longValue();
+        }
+
+        // -0.0 is equal to 0.0 but has a distinct bit pattern, which would order it below 0.0
+        double doubleValue = ((Number) value).doubleValue();
+        if (doubleValue == 0.0d)
+            doubleValue = 0.0d;
+
+        // flipping all but the sign bit of negative values makes the two's complement ordering match the IEEE 754 ordering
+        long bits = Double.doubleToLongBits(doubleValue);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    private static class SortedEntries {
+        private long[] keys;
+        private String[] stringKeys;
+        private int[] ordinals;
+        private int size;
+        private boolean multiValued;
+
+        private SortedEntries(boolean isString, int capacity) {
+            capacity = Math.max(capacity, 1);
+            if (isString)
+                this.stringKeys = new String[capacity];
+            else
+                this.keys = new long[capacity];
+            this.ordinals = new int[capacity];
+        }
+
+        private void add(long key, int ordinal) {
+            ensureCapacity();
+            keys[size] = key;
+            ordinals[size++] = ordinal;
+        }
+
+        private void add(String key, int ordinal) {
+            ensureCapacity();
+            stringKeys[size] = key;
+            ordinals[size++] = ordinal;
+        }
+
+        private void ensureCapacity() {
+            if (size == ordinals.length) {
+                int newCapacity = ordinals.length * 2;
+                if (stringKeys != null)
+                    stringKeys = Arrays.copyOf(stringKeys, newCapacity);
+                else
+                    keys = Arrays.copyOf(keys, newCapacity);
+                ordinals = Arrays.copyOf(ordinals, newCapacity);
+            }
+        }
+
+        /**
+         * Merges the given sorted entries into a copy of these entries, excluding any existing entries for the given ordinals.
+         */
+        private SortedEntries merge(BitSet excludedOrdinals, SortedEntries additions) {
+            SortedEntries merged = new SortedEntries(stringKeys != null, size + additions.size);
+            merged.multiValued = multiValued || additions.multiValued;
+
+            int i = 0;
+            int j = 0;
+            while (i < size || j < additions.size) {
+                if (i < size && excludedOrdinals.get(ordinals[i])) {
+                    i++;
+                    continue;
+                }
+
+                if (j == additions.size || (i < size && compare(this, i, additions, j) <= 0))
+                    merged.copyFrom(this, i++);
+                else
+                    merged.copyFrom(additions, j++);
+            }
+
+            return merged;
+        }
+
+        private void copyFrom(SortedEntries source, int index) {
+            if (stringKeys != null)
+                stringKeys[size] = source.stringKeys[index];
+            else
+                keys[size] = source.keys[index];
+            ordinals[size++] = source.ordinals[index];
+        }
+
+        /**
+         * @return the index of the first entry with a key greater than or equal to the given key
+         */
+        private int lowerBound(long key, String stringKey) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compareKey(mid, key, stringKey) < 0)
+                    low = mid + 1;
+                else
+                    high = mid;
+            }
+            return low;
+        }
+
+        /**
+         * @return the index of the first entry with a key greater than the given key
+         */
+        private int upperBound(long key, String stringKey) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compareKey(mid, key, stringKey) <= 0)
+                    low = mid + 1;
+                else
+                    high = mid;
+            }
+            return low;
+        }
+
+        private int firstIndexWithKeyOf(int index) {
+            if (stringKeys != null)
+                return lowerBound(0, stringKeys[index]);
+            return lowerBound(keys[index], null);
+        }
+
+        private int compareKey(int index, long key, String stringKey) {
+            if (stringKeys != null)
+                return stringKeys[index].compareTo(stringKey);
+            return Long.compare(keys[index], key);
+        }
+
+        private static int compare(SortedEntries a, int i, SortedEntries b, int j) {
+            int result = a.stringKeys != null
+                    ? a.stringKeys[i].compareTo(b.stringKeys[j])
+                    : Long.compare(a.keys[i], b.keys[j]);
+            if (result != 0)
+                return result;
+            return Integer.compare(a.ordinals[i], b.ordinals[j]);
+        }
+
+        private void sort(int from, int to) {
+            while (to - from > INSERTION_SORT_THRESHOLD) {
+                int last = to - 1;
+                swap(medianOfThree(from, (from + to) >>> 1, last), last);
+
+                int store = from;
+                for (int i = from; i < last; i++) {
+                    if (compare(this, i, this, last) < 0)
+                        swap(i, store++);
+                }
+                swap(store, last);
+
+                // recurse into the smaller partition and loop on the larger to bound the stack depth
+                if (store - from < to - store) {
+                    sort(from, store);
+                    from = store + 1;
+                } else {
+                    sort(store + 1, to);
+                    to = store;
+                }
+            }
+
+            for (int i = from + 1; i < to; i++) {
+                for (int j = i; j > from && compare(this, j - 1, this, j) > 0; j--)
+                    swap(j - 1, j);
+            }
+        }
+
+        private int medianOfThree(int a, int b, int c) {
+            if (compare(this, a, this, b) < 0) {
+                if (compare(this, b, this, c) < 0)
+                    return b;
+                return compare(this, a, this, c) < 0 ? c : a;
+            }
+            if (compare(this, a, this, c) < 0)
+                return a;
+            return compare(this, b, this, c) < 0 ? c : b;
+        }
+
+        private void swap(int i, int j) {
+            if (stringKeys != null) {
+                String key = stringKeys[i];
+                stringKeys[i] = stringKeys[j];
+                stringKeys[j] = key;
+            } else {
+                long key = keys[i];
+                keys[i] = keys[j];
+                keys[j] = key;
+            }
+            int ordinal = ordinals[i];
+            ordinals[i] = ordinals[j];
+            ordinals[j] = ordinal;
+        }
+    }
+
+    private static class SortedOrdinalIterator implements HollowOrdinalIterator {
+        private final int[] ordinals;
+        private final int end;
+        private final int step;
+        private final BitSet returnedOrdinals;
+        private int position;
+        private int remaining;
+
+        private SortedOrdinalIterator(SortedEntries entries, int start, int end, int step, int limit) {
+            this.ordinals = entries.ordinals;
+            this.position = start;
+            this.end = end;
+            this.step = step;
+            this.remaining = limit;
+            this.returnedOrdinals = entries.multiValued ? new BitSet() : null;
+        }
+
+        @Override
+        public int next() {
+            while (remaining > 0 && position != end) {
+                int ordinal = ordinals[position];
+                position += step;
+
+                if (returnedOrdinals != null) {
+                    if (returnedOrdinals.get(ordinal))
+                        continue;
+                    returnedOrdinals.set(ordinal);
+                }
+
+                remaining--;
+                return ordinal;
+            }
+            return NO_MORE_ORDINALS;
+        }
+    }
+}
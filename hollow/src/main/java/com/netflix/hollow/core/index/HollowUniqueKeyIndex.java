@@ -34,6 +34,7 @@ import com.netflix.hollow.core.memory.pool.WastefulRecycler;
 import com.netflix.hollow.core.read.HollowReadFieldUtils;
 import com.netflix.hollow.core.read.dataaccess.HollowDataAccess;
 import com.netflix.hollow.core.read.dataaccess.HollowObjectTypeDataAccess;
+import com.netflix.hollow.core.read.engine.HollowDeferredTypeDataAccess;
 import com.netflix.hollow.core.read.engine.HollowTypeStateListener;
 import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
 import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
@@ -160,7 +161,7 @@ public class HollowUniqueKeyIndex implements HollowTypeStateListener, TestableUn
 
         this.primaryKey = primaryKey;
         //Obviously, the type we're indexing must be an object... no point in indexing primitives, etc.
-        this.objectTypeDataAccess = (HollowObjectTypeDataAccess) hollowDataAccess.getTypeDataAccess(primaryKey.getType());
+        this.objectTypeDataAccess = (HollowObjectTypeDataAccess) HollowDeferredTypeDataAccess.materialized(hollowDataAccess.getTypeDataAccess(primaryKey.getType()));
         this.fields = new HollowHashIndexField[primaryKey.numFields()];
 
         this.memoryRecycler = memoryRecycler;
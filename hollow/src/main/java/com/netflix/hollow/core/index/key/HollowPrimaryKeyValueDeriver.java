@@ -76,21 +76,78 @@ public class HollowPrimaryKeyValueDeriver {
         return true;
     }
 
+    /**
+     * Determine whether or not the specified ordinal contains the provided two field primary key value, without
+     * allocating an array for the key.
+     *
+     * @param ordinal the ordinal
+     * @param key0 the first primary key field
+     * @param key1 the second primary key field
+     * @return true if the ordinal contains the primary key
+     */
+    public boolean keyMatches(int ordinal, Object key0, Object key1) {
+        return fieldPathIndexes.length == 2 && keyMatches(key0, ordinal, 0) && keyMatches(key1, ordinal, 1);
+    }
+
+    /**
+     * Determine whether or not the specified ordinal contains the provided single field INT, LONG or REFERENCE
+     * primary key value, without boxing the key.
+     *
+     * @param ordinal the ordinal
+     * @param key the primary key
+     * @return true if the ordinal contains the primary key
+     */
+    public boolean keyMatches(int ordinal, long key) {
+        if(fieldPathIndexes.length != 1)
+            return false;
+
+        int lastFieldPath = fieldPathIndexes[0].length - 1;
+        return keyMatches(key, fieldTypes[0], fieldPathIndexes[0][lastFieldPath],
+                lastFieldOrdinal(ordinal, 0), lastFieldTypeState(0));
+    }
+
     public boolean keyMatches(Object key, int ordinal, int fieldIdx) {
+        int lastFieldPath = fieldPathIndexes[fieldIdx].length - 1;
+        int lastFieldIdx = fieldPathIndexes[fieldIdx][lastFieldPath];
+
+        return keyMatches(key, fieldTypes[fieldIdx], lastFieldIdx,
+                lastFieldOrdinal(ordinal, fieldIdx), lastFieldTypeState(fieldIdx));
+    }
+
+    private int lastFieldOrdinal(int ordinal, int fieldIdx) {
         HollowObjectTypeReadState typeState = this.typeState;
-        HollowObjectSchema schema = typeState.getSchema();
 
         int lastFieldPath = fieldPathIndexes[fieldIdx].length - 1;
         for(int i=0;i<lastFieldPath;i++) {
             int fieldPosition = fieldPathIndexes[fieldIdx][i];
             ordinal = typeState.readOrdinal(ordinal, fieldPosition);
-            typeState = (HollowObjectTypeReadState) schema.getReferencedTypeState(fieldPosition);
-            schema = typeState.getSchema();
+            typeState = (HollowObjectTypeReadState) typeState.getSchema().getReferencedTypeState(fieldPosition);
         }
 
-        int lastFieldIdx = fieldPathIndexes[fieldIdx][lastFieldPath];
+        return ordinal;
+    }
+
+    private HollowObjectTypeReadState lastFieldTypeState(int fieldIdx) {
+        HollowObjectTypeReadState typeState = this.typeState;
+
+        int lastFieldPath = fieldPathIndexes[fieldIdx].length - 1;
+        for(int i=0;i<lastFieldPath;i++)
+            typeState = (HollowObjectTypeReadState) typeState.getSchema().getReferencedTypeState(fieldPathIndexes[fieldIdx][i]);
 
-        return keyMatches(key, fieldTypes[fieldIdx], lastFieldIdx, ordinal, typeState);
+        return typeState;
+    }
+
+    public static boolean keyMatches(long key, FieldType fieldType, int lastFieldIdx, int ordinal, HollowObjectTypeDataAccess dataAccess) {
+        switch(fieldType) {
+            case INT:
+                return dataAccess.readInt(ordinal, lastFieldIdx) == key;
+            case LONG:
+                return dataAccess.readLong(ordinal, lastFieldIdx) == key;
+            case REFERENCE:
+                return dataAccess.readOrdinal(ordinal, lastFieldIdx) == key;
+            default:
+                return false;
+        }
     }
 
     @SuppressWarnings("UnnecessaryUnboxing")
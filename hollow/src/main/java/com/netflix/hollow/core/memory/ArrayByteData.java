@@ -40,4 +40,10 @@ public class ArrayByteData implements ByteData {
         return data.length;
     }
 
+    @Override
+    public int copy(long srcPos, byte[] data, int destPos, int length) {
+        System.arraycopy(this.data, (int)srcPos, data, destPos, length);
+        return length;
+    }
+
 }
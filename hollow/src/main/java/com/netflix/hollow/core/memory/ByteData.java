@@ -53,6 +53,21 @@ public interface ByteData {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * Copy a range of bytes into an array.
+     *
+     * @param srcPos the position of the first byte to copy
+     * @param data the destination array
+     * @param destPos the position in the destination array at which to begin writing
+     * @param length the number of bytes to copy
+     * @return the number of bytes copied
+     */
+    default int copy(long srcPos, byte[] data, int destPos, int length) {
+        for(int i=0;i<length;i++)
+            data[destPos + i] = get(srcPos + i);
+        return length;
+    }
+
     /**
      * Get the value of the byte at the specified position.
      * @param index the position (in byte units)
@@ -0,0 +1,223 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.memory;
+
+import com.netflix.hollow.core.memory.pool.DirectMemoryRecycler;
+import com.netflix.hollow.core.read.HollowBlobInput;
+import java.io.IOException;
+import java.util.Arrays;
+import sun.misc.Unsafe;
+
+/**
+ * The off-heap counterpart of a {@link SegmentedByteArray}, whose segments are allocated from a {@link DirectMemoryRecycler}
+ * rather than from the JVM heap.<p>
+ *
+ * Addresses of segments which have not yet been allocated point to the recycler's shared empty segment, so that a read
+ * at any index within the capacity of the segment table is safe.
+ *
+ * @see DirectMemoryRecycler
+ */
+@SuppressWarnings("restriction")
+public class DirectSegmentedByteArray implements VariableLengthData {
+
+    private static final Unsafe unsafe = HollowUnsafeHandle.getUnsafe();
+
+    private long[] segments;
+    private final int log2OfSegmentSize;
+    private final int bitmask;
+    private final DirectMemoryRecycler memoryRecycler;
+    private final DirectMemoryRecycler.SegmentOwner segmentOwner;
+
+    public DirectSegmentedByteArray(DirectMemoryRecycler memoryRecycler) {
+        this.log2OfSegmentSize = memoryRecycler.getLog2OfByteSegmentSize();
+        this.bitmask = (1 << log2OfSegmentSize) - 1;
+        this.memoryRecycler = memoryRecycler;
+        long[] segments = new long[2];
+        Arrays.fill(segments, memoryRecycler.getEmptyByteSegment());
+        this.segmentOwner = memoryRecycler.register(this, segments, false);
+        this.segments = segments;
+    }
+
+    /**
+     * Set the byte at the given index to the specified value
+     * @param index the index
+     * @param value the byte value
+     */
+    public void set(long index, byte value) {
+        int segmentIndex = (int)(index >> log2OfSegmentSize);
+        ensureCapacity(segmentIndex);
+        unsafe.putByte(segments[segmentIndex] + (index & bitmask), value);
+    }
+
+    /**
+     * Get the value of the byte at the specified index.
+     * @param index the index
+     * @return the byte value
+     */
+    @Override
+    public byte get(long index) {
+        return unsafe.getByte(segments[(int)(index >>> log2OfSegmentSize)] + (index & bitmask));
+    }
+
+    /**
+     * Copies data from another ByteData, one segment span at a time.  Spans are copied directly between segments when
+     * the source is also a DirectSegmentedByteArray, and otherwise through a scratch array filled by
+     * {@link ByteData#copy(long, byte[], int, int)}.
+     */
+    @Override
+    public void copy(ByteData src, long srcPos, long destPos, long length) {
+        if(src instanceof DirectSegmentedByteArray) {
+            copy((DirectSegmentedByteArray) src, srcPos, destPos, length);
+            return;
+        }
+
+        int segmentSize = 1 << log2OfSegmentSize;
+        byte[] scratch = new byte[(int) Math.min(length, segmentSize)];
+
+        while(length > 0) {
+            int bytesToCopy = (int) Math.min(length, segmentSize - (destPos & bitmask));
+
+            int destSegment = (int)(destPos >>> log2OfSegmentSize);
+            ensureCapacity(destSegment);
+
+            src.copy(srcPos, scratch, 0, bytesToCopy);
+            unsafe.copyMemory(scratch, Unsafe.ARRAY_BYTE_BASE_OFFSET, null, segments[destSegment] + (destPos & bitmask), bytesToCopy);
+
+            srcPos += bytesToCopy;
+            destPos += bytesToCopy;
+            length -= bytesToCopy;
+        }
+    }
+
+    private void copy(DirectSegmentedByteArray src, long srcPos, long destPos, long length) {
+        int srcSegmentSize = 1 << src.log2OfSegmentSize;
+        int destSegmentSize = 1 << log2OfSegmentSize;
+
+        while(length > 0) {
+            int srcRemaining = srcSegmentSize - (int)(srcPos & src.bitmask);
+            int destRemaining = destSegmentSize - (int)(destPos & bitmask);
+            int bytesToCopy = (int) Math.min(length, Math.min(srcRemaining, destRemaining));
+
+            int destSegment = (int)(destPos >>> log2OfSegmentSize);
+            ensureCapacity(destSegment);
+
+            unsafe.copyMemory(src.segments[(int)(srcPos >>> src.log2OfSegmentSize)] + (srcPos & src.bitmask),
+                    segments[destSegment] + (destPos & bitmask), bytesToCopy);
+
+            srcPos += bytesToCopy;
+            destPos += bytesToCopy;
+            length -= bytesToCopy;
+        }
+    }
+
+    @Override
+    public int copy(long srcPos, byte[] data, int destPos, int length) {
+        int segmentSize = 1 << log2OfSegmentSize;
+        int remainingBytesInSegment = (int)(segmentSize - (srcPos & bitmask));
+        int dataPosition = destPos;
+
+        while(length > 0) {
+            long segment = segments[(int)(srcPos >>> log2OfSegmentSize)];
+
+            int bytesToCopyFromSegment = Math.min(remainingBytesInSegment, length);
+
+            unsafe.copyMemory(null, segment + (srcPos & bitmask), data, (long) Unsafe.ARRAY_BYTE_BASE_OFFSET + dataPosition, bytesToCopyFromSegment);
+
+            dataPosition += bytesToCopyFromSegment;
+            srcPos += bytesToCopyFromSegment;
+            remainingBytesInSegment = segmentSize - (int)(srcPos & bitmask);
+            length -= bytesToCopyFromSegment;
+        }
+
+        return dataPosition - destPos;
+    }
+
+    /**
+     * Copies data from another VariableLengthData.  A store fence follows the copy, guaranteeing that if the update is
+     * seen by another thread, then all other writes prior to this call are also visible to that thread.
+     */
+    @Override
+    public void orderedCopy(VariableLengthData src, long srcPos, long destPos, long length) {
+        copy(src, srcPos, destPos, length);
+        unsafe.storeFence();
+    }
+
+    @Override
+    public void loadFrom(HollowBlobInput is, long length) throws IOException {
+        int segmentSize = 1 << log2OfSegmentSize;
+        int segment = 0;
+
+        byte scratch[] = new byte[segmentSize];
+
+        while(length > 0) {
+            ensureCapacity(segment);
+            long bytesToCopy = Math.min(segmentSize, length);
+            long bytesCopied = 0;
+            while(bytesCopied < bytesToCopy) {
+                bytesCopied += is.read(scratch, (int)bytesCopied, (int)(bytesToCopy - bytesCopied));
+            }
+            unsafe.copyMemory(scratch, Unsafe.ARRAY_BYTE_BASE_OFFSET, null, segments[segment++], bytesCopied);
+            length -= bytesCopied;
+        }
+
+        unsafe.storeFence();
+    }
+
+    /**
+     * Ensures that the segment at segmentIndex exists
+     *
+     * @param segmentIndex the segment index
+     */
+    private void ensureCapacity(int segmentIndex) {
+        long emptySegment = memoryRecycler.getEmptyByteSegment();
+
+        if(segmentIndex >= segments.length) {
+            int newLength = segments.length;
+            while(segmentIndex >= newLength)
+                newLength = newLength * 3 / 2;
+
+            long[] newSegments = Arrays.copyOf(segments, newLength);
+            Arrays.fill(newSegments, segments.length, newLength, emptySegment);
+            segmentOwner.setSegments(newSegments);
+            segments = newSegments;
+        }
+
+        if(segments[segmentIndex] == emptySegment) {
+            segments[segmentIndex] = memoryRecycler.getByteSegment();
+        }
+    }
+
+    /**
+     * Return the segments of this array to its recycler.  The array must not be written to after it is destroyed.
+     */
+    public void destroy() {
+        memoryRecycler.release(segmentOwner);
+    }
+
+    @Override
+    public long size() {
+        long emptySegment = memoryRecycler.getEmptyByteSegment();
+        long size = 0;
+        for(int i=0;i<segments.length;i++) {
+            if(segments[i] != emptySegment)
+                size += 1 << log2OfSegmentSize;
+        }
+
+        return size;
+    }
+
+}
@@ -0,0 +1,140 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.memory;
+
+import com.netflix.hollow.core.memory.pool.DirectMemoryRecycler;
+import com.netflix.hollow.core.read.HollowBlobInput;
+import java.io.IOException;
+import sun.misc.Unsafe;
+
+/**
+ * The off-heap counterpart of a {@link SegmentedLongArray}, whose segments are allocated from a {@link DirectMemoryRecycler}
+ * rather than from the JVM heap.<p>
+ *
+ * Each segment is one long longer than the segment size, and the last long of a segment duplicates the first long of the
+ * next segment, exactly as is the case for the {@code long[]} segments of a {@link SegmentedLongArray}.
+ *
+ * @see DirectMemoryRecycler
+ */
+@SuppressWarnings("restriction")
+public class DirectSegmentedLongArray {
+
+    private static final Unsafe unsafe = HollowUnsafeHandle.getUnsafe();
+
+    protected final long[] segments;
+    protected final int log2OfSegmentSize;
+    protected final int bitmask;
+
+    private final DirectMemoryRecycler memoryRecycler;
+    private final DirectMemoryRecycler.SegmentOwner segmentOwner;
+
+    public DirectSegmentedLongArray(DirectMemoryRecycler memoryRecycler, long numLongs) {
+        this.log2OfSegmentSize = memoryRecycler.getLog2OfLongSegmentSize();
+        int numSegments = (int)((numLongs - 1) >>> log2OfSegmentSize) + 1;
+        long[] segments = new long[numSegments];
+        this.bitmask = (1 << log2OfSegmentSize) - 1;
+
+        for(int i=0;i<segments.length;i++) {
+            segments[i] = memoryRecycler.getLongSegment();
+        }
+
+        this.memoryRecycler = memoryRecycler;
+        this.segmentOwner = memoryRecycler.register(this, segments, true);
+
+        /// As with SegmentedLongArray, the segments are only assigned once every address has been populated,
+        /// since reading through a zero address would crash the JVM.
+        this.segments = segments;
+    }
+
+    /**
+     * Set the long at the given index to the specified value
+     *
+     * @param index the index (eg. the long at index 0 occupies bytes 0-7, long at index 1 occupies bytes 8-15, etc.)
+     * @param value the long value
+     */
+    public void set(long index, long value) {
+        int segmentIndex = (int)(index >> log2OfSegmentSize);
+        int longInSegment = (int)(index & bitmask);
+        unsafe.putLong(segments[segmentIndex] + (8L * longInSegment), value);
+
+        /// duplicate the longs here so that we can read faster.
+        if(longInSegment == 0 && segmentIndex != 0) {
+            unsafe.putLong(segments[segmentIndex - 1] + (8L * (1 << log2OfSegmentSize)), value);
+        }
+    }
+
+    /**
+     * Get the value of the long at the specified index.
+     *
+     * @param index the index (eg. the long at index 0 occupies bytes 0-7, long at index 1 occupies bytes 8-15, etc.)
+     * @return the long value
+     */
+    public long get(long index) {
+        int segmentIndex = (int)(index >>> log2OfSegmentSize);
+        return unsafe.getLong(segments[segmentIndex] + (8L * (index & bitmask)));
+    }
+
+    public void fill(long value) {
+        long segmentLength = (1L << log2OfSegmentSize) + 1;
+        for(int i=0;i<segments.length;i++) {
+            long address = segments[i];
+            for(long j=0;j<segmentLength;j++) {
+                unsafe.putLong(address, value);
+                address += 8;
+            }
+        }
+    }
+
+    /**
+     * Return the segments of this array to its recycler.  The array must not be written to after it is destroyed.
+     */
+    public void destroy() {
+        memoryRecycler.release(segmentOwner);
+    }
+
+    protected void readFrom(HollowBlobInput in, long numLongs) throws IOException {
+        int segmentSize = 1 << log2OfSegmentSize;
+        int segment = 0;
+
+        if(numLongs == 0)
+            return;
+
+        long fencepostLong = in.readLong();
+
+        while(numLongs > 0) {
+            long longsToCopy = Math.min(segmentSize, numLongs);
+            long address = segments[segment];
+
+            unsafe.putLong(address, fencepostLong);
+
+            int longsCopied = 1;
+
+            while(longsCopied < longsToCopy) {
+                long l = in.readLong();
+                unsafe.putLong(address + (8L * longsCopied++), l);
+            }
+
+            if(numLongs > longsCopied) {
+                fencepostLong = in.readLong();
+                unsafe.putLong(address + (8L * longsCopied), fencepostLong);
+            }
+
+            segment++;
+            numLongs -= longsCopied;
+        }
+    }
+}
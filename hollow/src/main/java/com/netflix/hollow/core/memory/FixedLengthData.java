@@ -79,6 +79,33 @@ public interface FixedLengthData {
      */
     long getLargeElementValue(long index, int bitsPerElement, long mask);
 
+    /**
+     * Gets the masked values of {@code count} elements, comprising of {@code bitsPerElement} bits each, which start
+     * {@code bitsBetweenElements} bits apart from the bit {@code startIndex}, such as the values of one field of
+     * consecutive records.
+     *
+     * @param startIndex the bit index of the first element
+     * @param bitsPerElement bits per element, may be greater than 58
+     * @param bitsBetweenElements the number of bits from the start of one element to the start of the next
+     * @param mask the mask to apply to each element value, as for {@link #getLargeElementValue(long, int, long)}
+     * @param dest the array to write the element values to, starting at index 0
+     * @param count the number of elements
+     */
+    default void getElementValues(long startIndex, int bitsPerElement, long bitsBetweenElements, long mask, long[] dest, int count) {
+        long index = startIndex;
+        if(bitsPerElement <= 56) {
+            for(int i=0;i<count;i++) {
+                dest[i] = getElementValue(index, bitsPerElement, mask);
+                index += bitsBetweenElements;
+            }
+        } else {
+            for(int i=0;i<count;i++) {
+                dest[i] = getLargeElementValue(index, bitsPerElement, mask);
+                index += bitsBetweenElements;
+            }
+        }
+    }
+
     void setElementValue(long index, int bitsPerElement, long value);
 
     void copyBits(FixedLengthData copyFrom, long sourceStartBit, long destStartBit, long numBits);
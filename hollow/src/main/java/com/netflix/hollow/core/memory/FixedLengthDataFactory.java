@@ -1,8 +1,10 @@
 package com.netflix.hollow.core.memory;
 
+import com.netflix.hollow.core.memory.encoding.DirectFixedLengthElementArray;
 import com.netflix.hollow.core.memory.encoding.EncodedLongBuffer;
 import com.netflix.hollow.core.memory.encoding.FixedLengthElementArray;
 import com.netflix.hollow.core.memory.pool.ArraySegmentRecycler;
+import com.netflix.hollow.core.memory.pool.DirectMemoryRecycler;
 import com.netflix.hollow.core.read.HollowBlobInput;
 import java.io.IOException;
 import java.util.logging.Logger;
@@ -13,10 +15,28 @@ public class FixedLengthDataFactory {
 
     public static FixedLengthData get(HollowBlobInput in, MemoryMode memoryMode, ArraySegmentRecycler memoryRecycler) throws IOException {
 
+        /// data read from a random access input is mapped rather than copied, whatever the memory mode of the type state
+        if (in.getMemoryMode().equals(MemoryMode.SHARED_MEMORY_LAZY)) {
+            memoryMode = MemoryMode.SHARED_MEMORY_LAZY;
+        }
+
         if (memoryMode.equals(MemoryMode.ON_HEAP)) {
             return FixedLengthElementArray.newFrom(in, memoryRecycler);
         } else if (memoryMode.equals(MemoryMode.SHARED_MEMORY_LAZY)) {
             return EncodedLongBuffer.newFrom(in);
+        } else if (memoryMode.equals(MemoryMode.OFF_HEAP)) {
+            return DirectFixedLengthElementArray.newFrom(in, DirectMemoryRecycler.from(memoryRecycler));
+        } else {
+            throw new UnsupportedOperationException("Memory mode " + memoryMode.name() + " not supported");
+        }
+    }
+
+    public static FixedLengthData allocate(long numBits, MemoryMode memoryMode, ArraySegmentRecycler memoryRecycler) {
+
+        if (memoryMode.equals(MemoryMode.ON_HEAP)) {
+            return new FixedLengthElementArray(memoryRecycler, numBits);
+        } else if (memoryMode.equals(MemoryMode.OFF_HEAP)) {
+            return new DirectFixedLengthElementArray(DirectMemoryRecycler.from(memoryRecycler), numBits);
         } else {
             throw new UnsupportedOperationException("Memory mode " + memoryMode.name() + " not supported");
         }
@@ -25,8 +45,10 @@ public class FixedLengthDataFactory {
     public static void destroy(FixedLengthData fld, ArraySegmentRecycler memoryRecycler) {
         if (fld instanceof FixedLengthElementArray) {
             ((FixedLengthElementArray) fld).destroy(memoryRecycler);
+        } else if (fld instanceof DirectFixedLengthElementArray) {
+            ((DirectFixedLengthElementArray) fld).destroy();
         } else if (fld instanceof EncodedLongBuffer) {
-            LOG.warning("Destroy operation is a no-op in shared memory mode");
+            LOG.fine("Destroy operation is a no-op for mapped data");
         } else {
             throw new UnsupportedOperationException("Unknown type");
         }
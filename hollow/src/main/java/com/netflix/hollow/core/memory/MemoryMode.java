@@ -3,21 +3,36 @@ package com.netflix.hollow.core.memory;
 public enum MemoryMode {
 
     ON_HEAP,                // eager load into main memory, on JVM heap
-    SHARED_MEMORY_LAZY;     // map to virtual memory and lazy load into main memory, off heap
+    SHARED_MEMORY_LAZY,     // map to virtual memory and lazy load into main memory, off heap
+    OFF_HEAP;               // eager load into main memory, off heap in direct memory segments
     // SHARED_MEMORY_EAGER  // (in future) map to virtual memory and eager load into main memory, off heap
 
     /*
      * Returns whether a memory mode is supported by Hollow consumer
      */
     public boolean consumerSupported() {
-        return this.equals(ON_HEAP) || this.equals(SHARED_MEMORY_LAZY);
+        return this.equals(ON_HEAP) || this.equals(SHARED_MEMORY_LAZY) || this.equals(OFF_HEAP);
     }
 
     /*
      * Returns whether a memory mode supports type filtering
      */
     public boolean supportsFiltering() {
-        return this.equals(ON_HEAP);
+        return this.equals(ON_HEAP) || this.equals(OFF_HEAP);
+    }
+
+    /*
+     * Returns whether a memory mode supports applying delta transitions
+     */
+    public boolean supportsDeltas() {
+        return this.equals(ON_HEAP) || this.equals(OFF_HEAP);
+    }
+
+    /*
+     * Returns the memory mode of the HollowBlobInput from which blobs are read in this memory mode
+     */
+    public MemoryMode blobInputMode() {
+        return this.equals(SHARED_MEMORY_LAZY) ? SHARED_MEMORY_LAZY : ON_HEAP;
     }
 
 
@@ -120,6 +120,7 @@ public class SegmentedByteArray implements VariableLengthData {
      * @param length the length of the data to copy
      * @return the number of bytes copied
      */
+    @Override
     public int copy(long srcPos, byte[] data, int destPos, int length) {
         int segmentSize = 1 << log2OfSegmentSize;
         int remainingBytesInSegment = (int)(segmentSize - (srcPos & bitmask));
@@ -159,6 +160,23 @@ public class SegmentedByteArray implements VariableLengthData {
 
     @Override
     public void orderedCopy(VariableLengthData src, long srcPos, long destPos, long length) {
+        if(!(src instanceof SegmentedByteArray)) {
+            /// e.g. data mapped from a snapshot file, which is replaced by on-heap data as deltas are applied
+            int segmentSize = 1 << log2OfSegmentSize;
+            while(length > 0) {
+                int destSegment = (int)(destPos >>> log2OfSegmentSize);
+                int bytesToCopy = (int) Math.min(length, segmentSize - (destPos & bitmask));
+                ensureCapacity(destSegment);
+                src.copy(srcPos, segments[destSegment], (int)(destPos & bitmask), bytesToCopy);
+
+                srcPos += bytesToCopy;
+                destPos += bytesToCopy;
+                length -= bytesToCopy;
+            }
+            unsafe.storeFence();
+            return;
+        }
+
         int segmentLength = 1 << log2OfSegmentSize;
         int currentSegment = (int)(destPos >>> log2OfSegmentSize);
         int segmentStartPos = (int)(destPos & bitmask);
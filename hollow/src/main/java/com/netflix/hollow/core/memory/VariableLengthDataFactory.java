@@ -1,6 +1,8 @@
 package com.netflix.hollow.core.memory;
 
 import com.netflix.hollow.core.memory.pool.ArraySegmentRecycler;
+import com.netflix.hollow.core.memory.pool.DirectMemoryRecycler;
+import com.netflix.hollow.core.read.HollowBlobInput;
 import java.util.logging.Logger;
 
 public class VariableLengthDataFactory {
@@ -15,16 +17,28 @@ public class VariableLengthDataFactory {
         } else if (memoryMode.equals(MemoryMode.SHARED_MEMORY_LAZY)) {
             /// list pointer array
             return new EncodedByteBuffer();
+        } else if (memoryMode.equals(MemoryMode.OFF_HEAP)) {
+            return new DirectSegmentedByteArray(DirectMemoryRecycler.from(memoryRecycler));
         } else {
             throw new UnsupportedOperationException("Memory mode " + memoryMode.name() + " not supported");
         }
     }
 
+    public static VariableLengthData get(HollowBlobInput in, MemoryMode memoryMode, ArraySegmentRecycler memoryRecycler) {
+        /// data read from a random access input is mapped rather than copied, whatever the memory mode of the type state
+        if (in.getMemoryMode().equals(MemoryMode.SHARED_MEMORY_LAZY)) {
+            return get(MemoryMode.SHARED_MEMORY_LAZY, memoryRecycler);
+        }
+        return get(memoryMode, memoryRecycler);
+    }
+
     public static void destroy(VariableLengthData vld) {
         if (vld instanceof SegmentedByteArray) {
             ((SegmentedByteArray) vld).destroy();
+        } else if (vld instanceof DirectSegmentedByteArray) {
+            ((DirectSegmentedByteArray) vld).destroy();
         } else if (vld instanceof EncodedByteBuffer) {
-            LOG.warning("Destroy operation is a no-op in shared memory mode");
+            LOG.fine("Destroy operation is a no-op for mapped data");
         } else {
             throw new UnsupportedOperationException("Unknown type");
         }
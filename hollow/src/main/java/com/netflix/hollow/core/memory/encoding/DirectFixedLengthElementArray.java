@@ -0,0 +1,185 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.memory.encoding;
+
+import com.netflix.hollow.core.memory.DirectSegmentedLongArray;
+import com.netflix.hollow.core.memory.FixedLengthData;
+import com.netflix.hollow.core.memory.HollowUnsafeHandle;
+import com.netflix.hollow.core.memory.pool.DirectMemoryRecycler;
+import com.netflix.hollow.core.read.HollowBlobInput;
+import java.io.IOException;
+import sun.misc.Unsafe;
+
+/**
+ * The off-heap counterpart of a {@link FixedLengthElementArray}.  Element values are read with the same unaligned
+ * {@code long} reads, against the addresses of direct memory segments instead of offsets into {@code long[]} segments.
+ * <p>
+ * See {@link FixedLengthElementArray} for the constraints which apply to the unaligned reads.
+ */
+@SuppressWarnings("restriction")
+public class DirectFixedLengthElementArray extends DirectSegmentedLongArray implements FixedLengthData {
+
+    private static final Unsafe unsafe = HollowUnsafeHandle.getUnsafe();
+
+    private final int log2OfSegmentSizeInBytes;
+    private final int byteBitmask;
+
+    public DirectFixedLengthElementArray(DirectMemoryRecycler memoryRecycler, long numBits) {
+        super(memoryRecycler, ((numBits - 1) >>> 6) + 1);
+        this.log2OfSegmentSizeInBytes = log2OfSegmentSize + 3;
+        this.byteBitmask = (1 << log2OfSegmentSizeInBytes) - 1;
+    }
+
+    @Override
+    public void clearElementValue(long index, int bitsPerElement) {
+        long whichLong = index >>> 6;
+        int whichBit = (int) (index & 0x3F);
+
+        long mask = ((1L << bitsPerElement) - 1);
+
+        set(whichLong, get(whichLong) & ~(mask << whichBit));
+
+        int bitsRemaining = 64 - whichBit;
+
+        if (bitsRemaining < bitsPerElement)
+            set(whichLong + 1, get(whichLong + 1) & ~(mask >>> bitsRemaining));
+    }
+
+    @Override
+    public void setElementValue(long index, int bitsPerElement, long value) {
+        long whichLong = index >>> 6;
+        int whichBit = (int) (index & 0x3F);
+
+        set(whichLong, get(whichLong) | (value << whichBit));
+
+        int bitsRemaining = 64 - whichBit;
+
+        if (bitsRemaining < bitsPerElement)
+            set(whichLong + 1, get(whichLong + 1) | (value >>> bitsRemaining));
+    }
+
+    @Override
+    public long getElementValue(long index, int bitsPerElement) {
+        return getElementValue(index, bitsPerElement, ((1L << bitsPerElement) - 1));
+    }
+
+    @Override
+    public long getElementValue(long index, int bitsPerElement, long mask) {
+        long whichByte = index >>> 3;
+        int whichBit = (int) (index & 0x07);
+
+        int whichSegment = (int) (whichByte >>> log2OfSegmentSizeInBytes);
+
+        long longVal = unsafe.getLong(segments[whichSegment] + (whichByte & byteBitmask));
+        long l = longVal >>> whichBit;
+
+        return l & mask;
+    }
+
+    @Override
+    public long getLargeElementValue(long index, int bitsPerElement) {
+        long mask = bitsPerElement == 64 ? -1 : ((1L << bitsPerElement) - 1);
+        return getLargeElementValue(index, bitsPerElement, mask);
+    }
+
+    @Override
+    public long getLargeElementValue(long index, int bitsPerElement, long mask) {
+        long whichLong = index >>> 6;
+        int whichBit = (int) (index & 0x3F);
+
+        long l = get(whichLong) >>> whichBit;
+
+        int bitsRemaining = 64 - whichBit;
+
+        if (bitsRemaining < bitsPerElement) {
+            whichLong++;
+            l |= get(whichLong) << bitsRemaining;
+        }
+
+        return l & mask;
+    }
+
+    @Override
+    public void copyBits(FixedLengthData copyFrom, long sourceStartBit, long destStartBit, long numBits) {
+        if(numBits == 0)
+            return;
+
+        if ((destStartBit & 63) != 0) {
+            int fillBits = (int) Math.min(64 - (destStartBit & 63), numBits);
+            long fillValue = copyFrom.getLargeElementValue(sourceStartBit, fillBits);
+            setElementValue(destStartBit, fillBits, fillValue);
+
+            destStartBit += fillBits;
+            sourceStartBit += fillBits;
+            numBits -= fillBits;
+        }
+
+        long currentWriteLong = destStartBit >>> 6;
+
+        while (numBits >= 64) {
+            long l = copyFrom.getLargeElementValue(sourceStartBit, 64, -1);
+            set(currentWriteLong, l);
+            numBits -= 64;
+            sourceStartBit += 64;
+            currentWriteLong++;
+        }
+
+        if (numBits != 0) {
+            destStartBit = currentWriteLong << 6;
+
+            long fillValue = copyFrom.getLargeElementValue(sourceStartBit, (int) numBits);
+            setElementValue(destStartBit, (int) numBits, fillValue);
+        }
+    }
+
+    @Override
+    public void incrementMany(long startBit, long increment, long bitsBetweenIncrements, int numIncrements) {
+        long endBit = startBit + (bitsBetweenIncrements * numIncrements);
+        for(; startBit<endBit; startBit += bitsBetweenIncrements) {
+            increment(startBit, increment);
+        }
+    }
+
+    public void increment(long index, long increment) {
+        long whichByte = index >>> 3;
+        int whichBit = (int) (index & 0x07);
+
+        int whichSegment = (int) (whichByte >>> log2OfSegmentSizeInBytes);
+
+        long elementAddress = segments[whichSegment] + (whichByte & byteBitmask);
+        long l = unsafe.getLong(elementAddress);
+
+        unsafe.putLong(elementAddress, l + (increment << whichBit));
+
+        /// update the fencepost longs
+        if((whichByte & byteBitmask) > bitmask * 8 && (whichSegment + 1) < segments.length) {
+            unsafe.putLong(segments[whichSegment + 1], unsafe.getLong(segments[whichSegment] + (8L * (bitmask + 1))));
+        }
+        if((whichByte & byteBitmask) < 8 && whichSegment > 0) {
+            unsafe.putLong(segments[whichSegment - 1] + (8L * (bitmask + 1)), unsafe.getLong(segments[whichSegment]));
+        }
+    }
+
+    public static DirectFixedLengthElementArray newFrom(HollowBlobInput in, DirectMemoryRecycler memoryRecycler)
+            throws IOException {
+
+        long numLongs = VarInt.readVLong(in);
+        DirectFixedLengthElementArray arr = new DirectFixedLengthElementArray(memoryRecycler, numLongs * 64);
+        arr.readFrom(in, numLongs);
+        return arr;
+    }
+}
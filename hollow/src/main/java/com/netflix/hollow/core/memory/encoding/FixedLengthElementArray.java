@@ -117,6 +117,38 @@ public class FixedLengthElementArray extends SegmentedLongArray implements Fixed
         return l & mask;
     }
 
+    /**
+     * Each long word of the array is loaded once, and shared by all of the elements which it holds bits of.
+     */
+    @Override
+    public void getElementValues(long startIndex, int bitsPerElement, long bitsBetweenElements, long mask, long[] dest, int count) {
+        long index = startIndex;
+        long loadedLong = -1;
+        long word = 0;
+
+        for(int i=0;i<count;i++) {
+            long whichLong = index >>> 6;
+            int whichBit = (int) (index & 0x3F);
+
+            if(whichLong != loadedLong) {
+                word = get(whichLong);
+                loadedLong = whichLong;
+            }
+
+            long l = word >>> whichBit;
+
+            int bitsRemaining = 64 - whichBit;
+
+            if (bitsRemaining < bitsPerElement) {
+                word = get(++loadedLong);
+                l |= word << bitsRemaining;
+            }
+
+            dest[i] = l & mask;
+            index += bitsBetweenElements;
+        }
+    }
+
     @Override
     public long getLargeElementValue(long index, int bitsPerElement) {
         long mask = bitsPerElement == 64 ? -1 : ((1L << bitsPerElement) - 1);
@@ -131,6 +131,69 @@ public class FixedLengthMultipleOccurrenceElementArray {
         return ret;
     }
 
+    /**
+     * Remove all instances of an element at the specified node index. The remaining elements at the node index may be
+     * reordered.
+     * This method is not thread-safe - you cannot call this method concurrently with itself or with
+     * {@link #getElements}.
+     *
+     * @param nodeIndex the node index
+     * @param element the element to remove
+     */
+    public void removeElement(long nodeIndex, long element) {
+        if (element == NO_ELEMENT) {
+            nodesWithOrdinalZero.clearElementValue(nodeIndex, 1);
+            return;
+        }
+        long bucketStart = nodeIndex * maxElementsPerNode * bitsPerElement;
+        int size = 0;
+        while (size < maxElementsPerNode && storage.getElementValue(bucketStart + size * bitsPerElement,
+                bitsPerElement, elementMask) != NO_ELEMENT) {
+            size++;
+        }
+        for (int offset = size - 1; offset >= 0; offset--) {
+            long currentIndex = bucketStart + offset * bitsPerElement;
+            if (storage.getElementValue(currentIndex, bitsPerElement, elementMask) == element) {
+                // keep the elements contiguous by moving the last element into the vacated spot
+                size--;
+                long lastIndex = bucketStart + size * bitsPerElement;
+                long lastElement = storage.getElementValue(lastIndex, bitsPerElement, elementMask);
+                storage.clearElementValue(currentIndex, bitsPerElement);
+                storage.setElementValue(currentIndex, bitsPerElement, lastElement);
+                storage.clearElementValue(lastIndex, bitsPerElement);
+            }
+        }
+    }
+
+    /**
+     * Remove all elements at the specified node index.
+     * This method is not thread-safe - you cannot call this method concurrently with itself or with
+     * {@link #getElements}.
+     *
+     * @param nodeIndex the node index
+     */
+    public void clearElements(long nodeIndex) {
+        nodesWithOrdinalZero.clearElementValue(nodeIndex, 1);
+        long bucketStart = nodeIndex * maxElementsPerNode * bitsPerElement;
+        for (int offset = 0; offset < maxElementsPerNode; offset++) {
+            long currentIndex = bucketStart + offset * bitsPerElement;
+            if (storage.getElementValue(currentIndex, bitsPerElement, elementMask) == NO_ELEMENT) {
+                break;
+            }
+            storage.clearElementValue(currentIndex, bitsPerElement);
+        }
+    }
+
+    /**
+     * @param nodeIndex the node index
+     * @return {@code true} if there is at least one element at the node index
+     */
+    public boolean hasElements(long nodeIndex) {
+        return nodesWithOrdinalZero.getElementValue(nodeIndex, 1, 1) != NO_ELEMENT
+                || storage.getElementValue(nodeIndex * maxElementsPerNode * bitsPerElement,
+                bitsPerElement, elementMask) != NO_ELEMENT;
+    }
+
     /**
      * A destructor function - call to free up the underlying memory.
      */
@@ -151,6 +151,56 @@ public class HashCodes {
         return h1;
     }
 
+    /**
+     * Computes the same hash code as {@link #hashCode(ByteData, long, int)} over bytes which are supplied one at a time,
+     * for values which are not held in their hashed form.
+     */
+    static final class IncrementalHash {
+        private int h1 = MURMURHASH_SEED;
+        private int k1;
+        private int len;
+
+        void addVarIntChar(char c) {
+            if(c > 0x3FFF) addByte(0x80 | (c >>> 14));
+            if(c > 0x7F)   addByte(0x80 | ((c >>> 7) & 0x7F));
+            addByte(c & 0x7F);
+        }
+
+        void addByte(int b) {
+            k1 |= (b & 0xff) << ((len & 0x03) << 3);
+
+            if((++len & 0x03) == 0) {
+                h1 ^= mixK1(k1);
+                h1 = (h1 << 13) | (h1 >>> 19); // ROTL32(h1,13);
+                h1 = h1 * 5 + 0xe6546b64;
+                k1 = 0;
+            }
+        }
+
+        int value() {
+            int h = h1;
+            if((len & 0x03) != 0)
+                h ^= mixK1(k1);
+
+            h ^= len;
+
+            // fmix(h);
+            h ^= h >>> 16;
+            h *= 0x85ebca6b;
+            h ^= h >>> 13;
+            h *= 0xc2b2ae35;
+            h ^= h >>> 16;
+
+            return h;
+        }
+
+        private static int mixK1(int k1) {
+            k1 *= 0xcc9e2d51;
+            k1 = (k1 << 15) | (k1 >>> 17); // ROTL32(k1,15);
+            return k1 * 0x1b873593;
+        }
+    }
+
     public static int hashLong(long key) {
         key = (~key) + (key << 18);
         key ^= (key >>> 31);
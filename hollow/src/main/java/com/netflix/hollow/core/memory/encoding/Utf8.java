@@ -0,0 +1,243 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.memory.encoding;
+
+import com.netflix.hollow.core.HollowStringEncoding;
+import com.netflix.hollow.core.memory.ByteData;
+import com.netflix.hollow.core.memory.ByteDataArray;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encoding and decoding of STRING field values stored as {@link HollowStringEncoding#UTF_8}.
+ * <p>
+ * Producers hold STRING values as a series of VarInts, one per character, and transcode them to UTF-8 only as they are
+ * written to a blob.  Consumers decode them with the JDK's UTF-8 decoder, or compare them against a String without
+ * decoding.
+ * <p>
+ * Hash codes of UTF-8 values are defined to be the same as those of the VarInt encoded values, so that hash codes are
+ * independent of the encoding.  The two encodings are identical for ASCII values.
+ */
+public class Utf8 {
+
+    /// values longer than this are decoded from a buffer which is not retained by the thread
+    private static final int MAX_RETAINED_SCRATCH_LENGTH = 16384;
+
+    private static final ThreadLocal<byte[]> scratchBytes = ThreadLocal.withInitial(() -> new byte[256]);
+
+    /**
+     * @param data the data containing a String serialized as a series of VarInts, one per character
+     * @param position the position of the String
+     * @param length the length of the String in bytes
+     * @return the number of bytes required to encode the String as UTF-8
+     * @throws IllegalArgumentException if the String contains an unpaired surrogate, which cannot be encoded as UTF-8
+     */
+    public static int sizeOfVarIntChars(ByteData data, long position, int length) {
+        long endPosition = position + length;
+        int size = 0;
+
+        while(position < endPosition) {
+            int c = VarInt.readVInt(data, position);
+            position += VarInt.sizeOfVInt(c);
+
+            if(c < 0x80) {
+                size += 1;
+            } else if(c < 0x800) {
+                size += 2;
+            } else if(!Character.isSurrogate((char)c)) {
+                size += 3;
+            } else if(Character.isHighSurrogate((char)c) && position < endPosition
+                    && Character.isLowSurrogate((char)VarInt.readVInt(data, position))) {
+                position += VarInt.sizeOfVInt(VarInt.readVInt(data, position));
+                size += 4;
+            } else {
+                throw unpairedSurrogate(c);
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * Transcode a String serialized as a series of VarInts, one per character, to UTF-8.
+     *
+     * @param data the data containing the VarInt encoded String
+     * @param position the position of the String
+     * @param length the length of the String in bytes
+     * @param dest the array to write the UTF-8 encoded String to
+     * @throws IllegalArgumentException if the String contains an unpaired surrogate, which cannot be encoded as UTF-8
+     */
+    public static void writeVarIntChars(ByteData data, long position, int length, ByteDataArray dest) {
+        long endPosition = position + length;
+
+        while(position < endPosition) {
+            int c = VarInt.readVInt(data, position);
+            position += VarInt.sizeOfVInt(c);
+
+            if(c < 0x80) {
+                dest.write((byte)c);
+            } else if(c < 0x800) {
+                dest.write((byte)(0xC0 | (c >> 6)));
+                dest.write((byte)(0x80 | (c & 0x3F)));
+            } else if(!Character.isSurrogate((char)c)) {
+                dest.write((byte)(0xE0 | (c >> 12)));
+                dest.write((byte)(0x80 | ((c >> 6) & 0x3F)));
+                dest.write((byte)(0x80 | (c & 0x3F)));
+            } else if(Character.isHighSurrogate((char)c) && position < endPosition
+                    && Character.isLowSurrogate((char)VarInt.readVInt(data, position))) {
+                int low = VarInt.readVInt(data, position);
+                position += VarInt.sizeOfVInt(low);
+                int codePoint = Character.toCodePoint((char)c, (char)low);
+                dest.write((byte)(0xF0 | (codePoint >> 18)));
+                dest.write((byte)(0x80 | ((codePoint >> 12) & 0x3F)));
+                dest.write((byte)(0x80 | ((codePoint >> 6) & 0x3F)));
+                dest.write((byte)(0x80 | (codePoint & 0x3F)));
+            } else {
+                throw unpairedSurrogate(c);
+            }
+        }
+    }
+
+    public static String readString(ByteData data, long position, int length) {
+        byte bytes[] = scratchBytes.get();
+        if(length > bytes.length) {
+            if(length > MAX_RETAINED_SCRATCH_LENGTH) {
+                bytes = new byte[length];
+            } else {
+                bytes = new byte[Math.min(Math.max(length, bytes.length * 2), MAX_RETAINED_SCRATCH_LENGTH)];
+                scratchBytes.set(bytes);
+            }
+        }
+
+        data.copy(position, bytes, 0, length);
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    public static void appendString(ByteData data, long position, int length, StringBuilder dest) {
+        long endPosition = position + length;
+
+        while(position < endPosition) {
+            int codePoint = readCodePoint(data, position);
+            dest.appendCodePoint(codePoint);
+            position += sizeOfCodePoint(codePoint);
+        }
+    }
+
+    /**
+     * Compares the encoded string to testValue as by {@link String#compareTo(String)}, decoding only as many
+     * characters as are needed.  If prefixOnly is set, only the first testValue.length() characters are compared.
+     */
+    public static int compareString(ByteData data, long position, int length, String testValue, boolean prefixOnly) {
+        long endPosition = position + length;
+
+        int count = 0;
+
+        while(position < endPosition && count < testValue.length()) {
+            int codePoint = readCodePoint(data, position);
+            position += sizeOfCodePoint(codePoint);
+
+            if(codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                int diff = (char)codePoint - testValue.charAt(count++);
+                if(diff != 0)
+                    return diff;
+            } else {
+                int diff = Character.highSurrogate(codePoint) - testValue.charAt(count++);
+                if(diff != 0)
+                    return diff;
+                if(count == testValue.length())
+                    return prefixOnly ? 0 : 1;
+                diff = Character.lowSurrogate(codePoint) - testValue.charAt(count++);
+                if(diff != 0)
+                    return diff;
+            }
+        }
+
+        if(count < testValue.length())
+            return -1;
+        return position == endPosition || prefixOnly ? 0 : 1;
+    }
+
+    public static boolean testStringEquality(ByteData data, long position, int length, String testValue) {
+        // each character is encoded in between one and three bytes
+        if(length < testValue.length() || length > testValue.length() * 3)
+            return false;
+
+        return compareString(data, position, length, testValue, false) == 0;
+    }
+
+    /**
+     * @return the hash code of the value as though it were encoded as {@link HollowStringEncoding#VARINT_CHARS}
+     */
+    public static int hashCode(ByteData data, long position, int length) {
+        long endPosition = position + length;
+
+        long i = position;
+        while(i < endPosition && data.get(i) >= 0)
+            i++;
+
+        if(i == endPosition)
+            return HashCodes.hashCode(data, position, length);
+
+        /// each character is hashed as the VarInt it would be encoded as, without decoding the value to a String
+        HashCodes.IncrementalHash hash = new HashCodes.IncrementalHash();
+        for(long j = position; j < i; j++)
+            hash.addByte(data.get(j));
+
+        while(i < endPosition) {
+            int codePoint = readCodePoint(data, i);
+            i += sizeOfCodePoint(codePoint);
+
+            if(codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                hash.addVarIntChar((char)codePoint);
+            } else {
+                hash.addVarIntChar(Character.highSurrogate(codePoint));
+                hash.addVarIntChar(Character.lowSurrogate(codePoint));
+            }
+        }
+
+        return hash.value();
+    }
+
+    private static IllegalArgumentException unpairedSurrogate(int c) {
+        return new IllegalArgumentException(String.format(
+                "STRING values containing an unpaired surrogate (\\u%04X) cannot be encoded as %s",
+                c, HollowStringEncoding.UTF_8));
+    }
+
+    private static int readCodePoint(ByteData data, long position) {
+        int b = data.get(position) & 0xFF;
+
+        if(b < 0x80)
+            return b;
+        if(b < 0xE0)
+            return ((b & 0x1F) << 6) | (data.get(position + 1) & 0x3F);
+        if(b < 0xF0)
+            return ((b & 0x0F) << 12) | ((data.get(position + 1) & 0x3F) << 6) | (data.get(position + 2) & 0x3F);
+        return ((b & 0x07) << 18) | ((data.get(position + 1) & 0x3F) << 12)
+                | ((data.get(position + 2) & 0x3F) << 6) | (data.get(position + 3) & 0x3F);
+    }
+
+    private static int sizeOfCodePoint(int codePoint) {
+        if(codePoint < 0x80)
+            return 1;
+        if(codePoint < 0x800)
+            return 2;
+        if(codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT)
+            return 3;
+        return 4;
+    }
+
+}
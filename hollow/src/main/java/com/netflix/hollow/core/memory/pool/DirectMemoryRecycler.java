@@ -0,0 +1,304 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.memory.pool;
+
+import com.netflix.hollow.core.memory.DirectSegmentedByteArray;
+import com.netflix.hollow.core.memory.DirectSegmentedLongArray;
+import com.netflix.hollow.core.memory.HollowUnsafeHandle;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import sun.misc.Unsafe;
+
+/**
+ * A DirectMemoryRecycler pools fixed-length segments of memory allocated outside of the JVM heap.
+ * <p>
+ * It backs the {@link com.netflix.hollow.core.memory.MemoryMode#OFF_HEAP} memory mode, in which the data for each type is
+ * held in {@link DirectSegmentedLongArray} and {@link DirectSegmentedByteArray} segments rather than in {@code long[]} and
+ * {@code byte[]} segments.  The garbage collector never has to trace or copy the bulk of the dataset, which keeps
+ * old-generation collections short for very large datasets.
+ * <p>
+ * Segments follow the same recycling protocol as the {@link RecyclingRecycler}: a segment released while a delta is
+ * being applied only becomes available for reuse after the next {@link #swap()}.  Released segments are pooled rather
+ * than freed, so that a reader racing with a delta update may observe stale values (and retry) but will never read
+ * unmapped memory.  Segments owned by arrays which become unreachable without being destroyed (for example, the data of
+ * a state engine discarded by a double snapshot) are returned to the pool once the garbage collector has noticed the
+ * arrays are gone.
+ * <p>
+ * Memory is only returned to the operating system by {@link #destroy()}, which must not be called until no state engine
+ * using this recycler will be read again.
+ * <p>
+ * On-heap segments requested through the {@link ArraySegmentRecycler} interface (used for transient structures while
+ * applying deltas) are served by an internal {@link RecyclingRecycler} with the same segment sizes.
+ */
+@SuppressWarnings("restriction")
+public class DirectMemoryRecycler implements ArraySegmentRecycler {
+
+    private static final Unsafe unsafe = HollowUnsafeHandle.getUnsafe();
+
+    private final int log2OfByteSegmentSize;
+    private final int log2OfLongSegmentSize;
+    private final long byteSegmentSizeInBytes;
+    private final long longSegmentSizeInBytes;
+
+    private final RecyclingRecycler heapRecycler;
+
+    private final Pool byteSegmentPool = new Pool();
+    private final Pool longSegmentPool = new Pool();
+
+    private final ReferenceQueue<Object> unreachableOwners = new ReferenceQueue<>();
+    private final Set<SegmentOwner> owners = ConcurrentHashMap.newKeySet();
+
+    private final long emptyByteSegment;
+
+    private long allocatedBytes;
+    private boolean destroyed;
+
+    public DirectMemoryRecycler() {
+        this(16, 13);
+    }
+
+    public DirectMemoryRecycler(int log2ByteSegmentSize, int log2LongSegmentSize) {
+        this.log2OfByteSegmentSize = log2ByteSegmentSize;
+        this.log2OfLongSegmentSize = log2LongSegmentSize;
+        this.byteSegmentSizeInBytes = 1L << log2ByteSegmentSize;
+        // Allocated size is increased by 1 long, see JavaDoc of FixedLengthElementArray for details
+        this.longSegmentSizeInBytes = ((1L << log2LongSegmentSize) + 1) * 8;
+        this.heapRecycler = new RecyclingRecycler(log2ByteSegmentSize, log2LongSegmentSize);
+
+        this.emptyByteSegment = unsafe.allocateMemory(byteSegmentSizeInBytes);
+        unsafe.setMemory(emptyByteSegment, byteSegmentSizeInBytes, (byte) 0);
+        this.allocatedBytes = byteSegmentSizeInBytes;
+    }
+
+    /**
+     * @param memoryRecycler the recycler of a state engine in the {@link com.netflix.hollow.core.memory.MemoryMode#OFF_HEAP} memory mode
+     * @return the recycler as a DirectMemoryRecycler
+     * @throws IllegalStateException if the recycler is not a DirectMemoryRecycler
+     */
+    public static DirectMemoryRecycler from(ArraySegmentRecycler memoryRecycler) {
+        if(!(memoryRecycler instanceof DirectMemoryRecycler))
+            throw new IllegalStateException("Memory mode OFF_HEAP requires a DirectMemoryRecycler, but found "
+                    + (memoryRecycler == null ? null : memoryRecycler.getClass().getName()));
+        return (DirectMemoryRecycler) memoryRecycler;
+    }
+
+    @Override
+    public int getLog2OfByteSegmentSize() {
+        return log2OfByteSegmentSize;
+    }
+
+    @Override
+    public int getLog2OfLongSegmentSize() {
+        return log2OfLongSegmentSize;
+    }
+
+    @Override
+    public long[] getLongArray() {
+        return heapRecycler.getLongArray();
+    }
+
+    @Override
+    public void recycleLongArray(long[] arr) {
+        heapRecycler.recycleLongArray(arr);
+    }
+
+    @Override
+    public byte[] getByteArray() {
+        return heapRecycler.getByteArray();
+    }
+
+    @Override
+    public void recycleByteArray(byte[] arr) {
+        heapRecycler.recycleByteArray(arr);
+    }
+
+    /**
+     * @return the address of a zeroed long segment, which is {@code (1 << log2OfLongSegmentSize) + 1} longs in length
+     */
+    public synchronized long getLongSegment() {
+        long address = get(longSegmentPool, longSegmentSizeInBytes);
+        unsafe.setMemory(address, longSegmentSizeInBytes, (byte) 0);
+        return address;
+    }
+
+    /**
+     * @return the address of a byte segment, which is {@code 1 << log2OfByteSegmentSize} bytes in length
+     */
+    public synchronized long getByteSegment() {
+        return get(byteSegmentPool, byteSegmentSizeInBytes);
+    }
+
+    /**
+     * The returned segment is zeroed and shared; it must never be written to.  Byte arrays use it to fill the
+     * addresses of segments which have not yet been allocated, so that stale reads never touch unmapped memory.
+     *
+     * @return the address of the shared, empty byte segment
+     */
+    public long getEmptyByteSegment() {
+        return emptyByteSegment;
+    }
+
+    /**
+     * Start tracking the segments of an off-heap array, so that they may be returned to the pool if the array becomes
+     * unreachable before it is destroyed.
+     *
+     * @param owner the array which owns the segments
+     * @param segments the segment addresses, which the array may later replace via {@link SegmentOwner#setSegments(long[])}
+     * @param longSegments whether the segments are long segments (as opposed to byte segments)
+     * @return the handle with which the segments are later released
+     */
+    public SegmentOwner register(Object owner, long[] segments, boolean longSegments) {
+        SegmentOwner segmentOwner = new SegmentOwner(owner, unreachableOwners, segments, longSegments);
+        owners.add(segmentOwner);
+        return segmentOwner;
+    }
+
+    /**
+     * Return the segments of a destroyed array to the pool.  They become available for reuse after the next {@link #swap()}.
+     *
+     * @param segmentOwner the handle returned when the array was registered
+     */
+    public synchronized void release(SegmentOwner segmentOwner) {
+        if(owners.remove(segmentOwner)) {
+            segmentOwner.clear();
+            recycle(segmentOwner);
+        }
+    }
+
+    @Override
+    public synchronized void swap() {
+        reclaimUnreachable();
+        byteSegmentPool.swap();
+        longSegmentPool.swap();
+        heapRecycler.swap();
+    }
+
+    /**
+     * Free all memory allocated by this recycler, including segments still held by live arrays.  No state engine using
+     * this recycler may be read after this method is called.
+     */
+    public synchronized void destroy() {
+        if(destroyed)
+            return;
+        destroyed = true;
+
+        for(SegmentOwner segmentOwner : owners) {
+            segmentOwner.clear();
+            recycle(segmentOwner);
+        }
+        owners.clear();
+
+        byteSegmentPool.swap();
+        longSegmentPool.swap();
+        byteSegmentPool.freeAll();
+        longSegmentPool.freeAll();
+        unsafe.freeMemory(emptyByteSegment);
+        allocatedBytes = 0;
+    }
+
+    /**
+     * @return the number of bytes of off-heap memory currently allocated, whether in use or pooled
+     */
+    public synchronized long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    private long get(Pool pool, long segmentSizeInBytes) {
+        if(destroyed)
+            throw new IllegalStateException("DirectMemoryRecycler has been destroyed");
+
+        reclaimUnreachable();
+
+        long address = pool.get();
+        if(address == 0) {
+            address = unsafe.allocateMemory(segmentSizeInBytes);
+            allocatedBytes += segmentSizeInBytes;
+        }
+        return address;
+    }
+
+    private void reclaimUnreachable() {
+        Reference<?> ref;
+        while((ref = unreachableOwners.poll()) != null) {
+            SegmentOwner segmentOwner = (SegmentOwner) ref;
+            if(owners.remove(segmentOwner))
+                recycle(segmentOwner);
+        }
+    }
+
+    private void recycle(SegmentOwner segmentOwner) {
+        Pool pool = segmentOwner.longSegments ? longSegmentPool : byteSegmentPool;
+        for(long address : segmentOwner.segments) {
+            if(address != 0 && address != emptyByteSegment)
+                pool.recycle(address);
+        }
+    }
+
+    /**
+     * Tracks the segments owned by an off-heap array.
+     */
+    public static final class SegmentOwner extends PhantomReference<Object> {
+        private final boolean longSegments;
+        private volatile long[] segments;
+
+        private SegmentOwner(Object owner, ReferenceQueue<Object> queue, long[] segments, boolean longSegments) {
+            super(owner, queue);
+            this.segments = segments;
+            this.longSegments = longSegments;
+        }
+
+        public void setSegments(long[] segments) {
+            this.segments = segments;
+        }
+    }
+
+    private static final class Pool {
+        private Deque<Long> currentSegments = new ArrayDeque<>();
+        private Deque<Long> nextSegments = new ArrayDeque<>();
+
+        long get() {
+            Long address = currentSegments.pollFirst();
+            return address == null ? 0 : address;
+        }
+
+        void recycle(long address) {
+            nextSegments.addLast(address);
+        }
+
+        void swap() {
+            if (nextSegments.size() > currentSegments.size()) {
+                Deque<Long> tmp = nextSegments;
+                nextSegments = currentSegments;
+                currentSegments = tmp;
+            }
+
+            currentSegments.addAll(nextSegments);
+            nextSegments.clear();
+        }
+
+        void freeAll() {
+            for(Long address : currentSegments)
+                unsafe.freeMemory(address);
+            currentSegments.clear();
+        }
+    }
+}
@@ -25,6 +25,8 @@ public class HollowBlobInput implements Closeable {
 
     private Object input;
     private BlobByteBuffer buffer;
+    private File file;
+    private int singleBufferCapacity;
 
     private HollowBlobInput(MemoryMode memoryMode) {
         this.memoryMode = memoryMode;
@@ -44,7 +46,7 @@ public class HollowBlobInput implements Closeable {
      * @throws IOException if the Hollow Blob Input couldn't be initialized
      */
     public static HollowBlobInput modeBasedSelector(MemoryMode mode, HollowConsumer.Blob blob) throws IOException {
-        if (mode.equals(ON_HEAP)) {
+        if (mode.blobInputMode().equals(ON_HEAP)) {
             return serial(blob.getInputStream());
         } else if (mode.equals(SHARED_MEMORY_LAZY)) {
             return randomAccess(blob.getFile());
@@ -64,7 +66,7 @@ public class HollowBlobInput implements Closeable {
      * @throws IOException if the Hollow Blob Input couldn't be initialized
      */
     public static HollowBlobInput modeBasedSelector(MemoryMode mode, OptionalBlobPartInput input, String partName) throws IOException {
-        if (mode.equals(ON_HEAP)) {
+        if (mode.blobInputMode().equals(ON_HEAP)) {
             return serial(input.getInputStream(partName));
         } else if (mode.equals(SHARED_MEMORY_LAZY)) {
             return randomAccess(input.getFile(partName));
@@ -94,9 +96,26 @@ public class HollowBlobInput implements Closeable {
         hbi.input = raf;
         FileChannel channel = ((RandomAccessFile) hbi.input).getChannel();
         hbi.buffer = BlobByteBuffer.mmapBlob(channel, singleBufferCapacity);
+        hbi.file = f;
+        hbi.singleBufferCapacity = singleBufferCapacity;
         return hbi;
     }
 
+    /**
+     * Opens another random access input over the file backing this input, positioned at the start of the file.  The
+     * returned input is independent of this one, and must be closed separately.
+     *
+     * @return a new random access HollowBlobInput over the same file
+     * @throws IOException if the file could not be opened
+     * @throws UnsupportedOperationException if this input was not opened as random access from a file
+     */
+    public HollowBlobInput reopen() throws IOException {
+        if (file == null) {
+            throw new UnsupportedOperationException("Only a random access Hollow Blob Input can be reopened");
+        }
+        return randomAccess(file, singleBufferCapacity);
+    }
+
     /**
      * Shorthand for calling {@link HollowBlobInput#serial(InputStream)} on a byte[]
      */
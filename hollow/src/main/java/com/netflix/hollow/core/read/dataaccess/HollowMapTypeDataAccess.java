@@ -16,9 +16,12 @@
  */
 package com.netflix.hollow.core.read.dataaccess;
 
+import com.netflix.hollow.core.index.key.PrimaryKey;
+import com.netflix.hollow.core.read.engine.SetMapKeyHasher;
 import com.netflix.hollow.core.read.engine.map.HollowMapTypeReadState;
 import com.netflix.hollow.core.read.iterator.HollowMapEntryOrdinalIterator;
 import com.netflix.hollow.core.schema.HollowMapSchema;
+import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
 
 /**
  * A handle for all of the records of a specific MAP type in a Hollow dataset.  The most common type of {@link HollowMapTypeDataAccess}
@@ -42,6 +45,113 @@ public interface HollowMapTypeDataAccess extends HollowTypeDataAccess {
     
     public long findEntry(int ordinal, Object... hashKey);
 
+    /**
+     * Find the key ordinal of the entry matching a single field INT, LONG or REFERENCE hash key, without boxing the key.
+     *
+     * @param ordinal the ordinal
+     * @param hashKey the hash key
+     * @return the key ordinal, or {@link com.netflix.hollow.core.HollowConstants#ORDINAL_NONE} if no such entry exists.
+     */
+    default int findKey(int ordinal, long hashKey) {
+        return (int)(findEntry(ordinal, hashKey) >> 32);
+    }
+
+    /**
+     * Find the key ordinal of the entry matching a single field STRING hash key.
+     *
+     * @param ordinal the ordinal
+     * @param hashKey the hash key
+     * @return the key ordinal, or {@link com.netflix.hollow.core.HollowConstants#ORDINAL_NONE} if no such entry exists.
+     */
+    default int findKey(int ordinal, String hashKey) {
+        return (int)(findEntry(ordinal, hashKey) >> 32);
+    }
+
+    /**
+     * Find the key ordinal of the entry matching a two field hash key, without allocating an array for the key.
+     *
+     * @param ordinal the ordinal
+     * @param hashKey0 the first hash key field
+     * @param hashKey1 the second hash key field
+     * @return the key ordinal, or {@link com.netflix.hollow.core.HollowConstants#ORDINAL_NONE} if no such entry exists.
+     */
+    default int findKey(int ordinal, Object hashKey0, Object hashKey1) {
+        return (int)(findEntry(ordinal, hashKey0, hashKey1) >> 32);
+    }
+
+    /**
+     * @param ordinal the ordinal
+     * @param hashKey the hash key
+     * @return the value ordinal of the entry matching a single field INT, LONG or REFERENCE hash key, or
+     * {@link com.netflix.hollow.core.HollowConstants#ORDINAL_NONE} if no such entry exists.
+     * @see #findKey(int, long)
+     */
+    default int findValue(int ordinal, long hashKey) {
+        return (int)findEntry(ordinal, hashKey);
+    }
+
+    /**
+     * @param ordinal the ordinal
+     * @param hashKey the hash key
+     * @return the value ordinal of the entry matching a single field STRING hash key, or
+     * {@link com.netflix.hollow.core.HollowConstants#ORDINAL_NONE} if no such entry exists.
+     * @see #findKey(int, String)
+     */
+    default int findValue(int ordinal, String hashKey) {
+        return (int)findEntry(ordinal, hashKey);
+    }
+
+    /**
+     * @param ordinal the ordinal
+     * @param hashKey0 the first hash key field
+     * @param hashKey1 the second hash key field
+     * @return the value ordinal of the entry matching a two field hash key, or
+     * {@link com.netflix.hollow.core.HollowConstants#ORDINAL_NONE} if no such entry exists.
+     * @see #findKey(int, Object, Object)
+     */
+    default int findValue(int ordinal, Object hashKey0, Object hashKey1) {
+        return (int)findEntry(ordinal, hashKey0, hashKey1);
+    }
+
+    /**
+     * The default implementation boxes the key; {@link HollowMapTypeReadState} looks up the key without allocating.
+     *
+     * @param ordinal the ordinal
+     * @param hashKey the hash key
+     * @return the key ordinal in the upper 32 bits and the value ordinal in the lower 32 bits of the entry matching
+     * a single field INT, LONG or REFERENCE hash key, or -1 if no such entry exists.
+     */
+    default long findEntry(int ordinal, long hashKey) {
+        PrimaryKey primaryKey = getSchema().getHashKey();
+        if(primaryKey == null || primaryKey.numFields() != 1)
+            return -1L;
+        FieldType fieldType = primaryKey.getFieldType(getDataAccess(), 0);
+        if(!SetMapKeyHasher.isPrimitiveKey(fieldType))
+            return -1L;
+        return findEntry(ordinal, new Object[] { SetMapKeyHasher.box(hashKey, fieldType) });
+    }
+
+    /**
+     * @param ordinal the ordinal
+     * @param hashKey the hash key
+     * @return the key ordinal in the upper 32 bits and the value ordinal in the lower 32 bits of the entry matching
+     * a single field STRING hash key, or -1 if no such entry exists.
+     */
+    default long findEntry(int ordinal, String hashKey) {
+        return findEntry(ordinal, new Object[] { hashKey });
+    }
+
+    /**
+     * @param ordinal the ordinal
+     * @param hashKey0 the first hash key field
+     * @param hashKey1 the second hash key field
+     * @return the key ordinal in the upper 32 bits and the value ordinal in the lower 32 bits of the entry matching
+     * a two field hash key, or -1 if no such entry exists.
+     */
+    default long findEntry(int ordinal, Object hashKey0, Object hashKey1) {
+        return findEntry(ordinal, new Object[] { hashKey0, hashKey1 });
+    }
+
     public HollowMapEntryOrdinalIterator potentialMatchOrdinalIterator(int ordinal, int hashCode);
 
     public HollowMapEntryOrdinalIterator ordinalIterator(int ordinal);
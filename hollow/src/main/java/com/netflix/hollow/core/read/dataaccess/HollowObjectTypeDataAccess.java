@@ -108,4 +108,70 @@ public interface HollowObjectTypeDataAccess extends HollowTypeDataAccess {
      */
     int findVarLengthFieldHashCode(int ordinal, int fieldIndex);
 
+    /**
+     * Copies the {@link FieldType#BYTES} field's value into a caller-supplied buffer rather than allocating a new array.
+     * Nothing is copied if the value does not fit, in which case the caller may grow the buffer and try again.
+     *
+     * @param ordinal the ordinal
+     * @param fieldIndex the field index
+     * @param dest the buffer into which the value is copied
+     * @param destPos the position in the buffer at which to begin copying
+     * @return the length of the value, or -1 if the value is null.  The value was copied only if
+     * {@code destPos} plus the returned length is no greater than {@code dest.length}.
+     */
+    default int readBytes(int ordinal, int fieldIndex, byte[] dest, int destPos) {
+        byte[] value = readBytes(ordinal, fieldIndex);
+        if(value == null)
+            return -1;
+        if(destPos + value.length <= dest.length)
+            System.arraycopy(value, 0, dest, destPos, value.length);
+        return value.length;
+    }
+
+    /**
+     * Appends the {@link FieldType#STRING} field's value to a caller-supplied {@link StringBuilder} rather than
+     * allocating a new String.
+     *
+     * @param ordinal the ordinal
+     * @param fieldIndex the field index
+     * @param dest the builder to which the value is appended
+     * @return false if the value is null, in which case nothing is appended
+     */
+    default boolean readString(int ordinal, int fieldIndex, StringBuilder dest) {
+        String value = readString(ordinal, fieldIndex);
+        if(value == null)
+            return false;
+        dest.append(value);
+        return true;
+    }
+
+    /**
+     * @param ordinal the ordinal
+     * @param fieldIndex the field index
+     * @param prefix the prefix to test for
+     * @return whether or not the {@link FieldType#STRING} field's value at the specified fieldIndex for the specified ordinal is non-null and begins with the given prefix.
+     */
+    default boolean isStringFieldPrefixedBy(int ordinal, int fieldIndex, String prefix) {
+        String value = readString(ordinal, fieldIndex);
+        return value != null && value.startsWith(prefix);
+    }
+
+    /**
+     * Compares the {@link FieldType#STRING} field's value to the given value lexicographically, as by
+     * {@link String#compareTo(String)}.  A null value is ordered before any non-null value.
+     *
+     * @param ordinal the ordinal
+     * @param fieldIndex the field index
+     * @param testValue the value to compare against
+     * @return a negative integer, zero, or a positive integer as the field's value is less than, equal to, or greater than the given value.
+     */
+    default int compareStringField(int ordinal, int fieldIndex, String testValue) {
+        String value = readString(ordinal, fieldIndex);
+        if(value == null)
+            return testValue == null ? 0 : -1;
+        if(testValue == null)
+            return 1;
+        return value.compareTo(testValue);
+    }
+
 }
@@ -16,8 +16,13 @@
  */
 package com.netflix.hollow.core.read.dataaccess;
 
+import static com.netflix.hollow.core.HollowConstants.ORDINAL_NONE;
+
+import com.netflix.hollow.core.index.key.PrimaryKey;
+import com.netflix.hollow.core.read.engine.SetMapKeyHasher;
 import com.netflix.hollow.core.read.engine.set.HollowSetTypeReadState;
 import com.netflix.hollow.core.read.iterator.HollowOrdinalIterator;
+import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
 import com.netflix.hollow.core.schema.HollowSetSchema;
 
 /**
@@ -60,6 +65,49 @@ public interface HollowSetTypeDataAccess extends HollowCollectionTypeDataAccess
      */
     int findElement(int ordinal, Object... hashKey);
 
+    /**
+     * Returns the matching ordinal of the element which matches a single field INT, LONG or REFERENCE hash key,
+     * without boxing the key. The default implementation boxes the key; {@link HollowSetTypeReadState} looks up the
+     * key without allocating.
+     *
+     * @param ordinal the ordinal
+     * @param hashKey the hash key
+     * @return the matching element's ordinal, or {@link com.netflix.hollow.core.HollowConstants#ORDINAL_NONE} if no such element exists.
+     */
+    default int findElement(int ordinal, long hashKey) {
+        PrimaryKey primaryKey = getSchema().getHashKey();
+        if(primaryKey == null || primaryKey.numFields() != 1)
+            return ORDINAL_NONE;
+        FieldType fieldType = primaryKey.getFieldType(getDataAccess(), 0);
+        if(!SetMapKeyHasher.isPrimitiveKey(fieldType))
+            return ORDINAL_NONE;
+        return findElement(ordinal, new Object[] { SetMapKeyHasher.box(hashKey, fieldType) });
+    }
+
+    /**
+     * Returns the matching ordinal of the element which matches a single field STRING hash key.
+     *
+     * @param ordinal the ordinal
+     * @param hashKey the hash key
+     * @return the matching element's ordinal, or {@link com.netflix.hollow.core.HollowConstants#ORDINAL_NONE} if no such element exists.
+     */
+    default int findElement(int ordinal, String hashKey) {
+        return findElement(ordinal, new Object[] { hashKey });
+    }
+
+    /**
+     * Returns the matching ordinal of the element which matches a two field hash key, without allocating an array
+     * for the key.
+     *
+     * @param ordinal the ordinal
+     * @param hashKey0 the first hash key field
+     * @param hashKey1 the second hash key field
+     * @return the matching element's ordinal, or {@link com.netflix.hollow.core.HollowConstants#ORDINAL_NONE} if no such element exists.
+     */
+    default int findElement(int ordinal, Object hashKey0, Object hashKey1) {
+        return findElement(ordinal, new Object[] { hashKey0, hashKey1 });
+    }
+
     int relativeBucketValue(int ordinal, int bucketIndex);
 
     /**
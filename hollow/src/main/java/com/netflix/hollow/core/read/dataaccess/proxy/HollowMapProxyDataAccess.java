@@ -73,6 +73,21 @@ public class HollowMapProxyDataAccess extends HollowTypeProxyDataAccess implemen
         return currentDataAccess().findEntry(ordinal, hashKey);
     }
 
+    @Override
+    public long findEntry(int ordinal, long hashKey) {
+        return currentDataAccess().findEntry(ordinal, hashKey);
+    }
+
+    @Override
+    public long findEntry(int ordinal, String hashKey) {
+        return currentDataAccess().findEntry(ordinal, hashKey);
+    }
+
+    @Override
+    public long findEntry(int ordinal, Object hashKey0, Object hashKey1) {
+        return currentDataAccess().findEntry(ordinal, hashKey0, hashKey1);
+    }
+
     @Override
     public HollowMapEntryOrdinalIterator potentialMatchOrdinalIterator(int ordinal, int hashCode) {
         return new PotentialMatchHollowMapEntryOrdinalIteratorImpl(ordinal, this, hashCode);
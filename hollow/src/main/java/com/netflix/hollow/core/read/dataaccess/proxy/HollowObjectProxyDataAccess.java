@@ -95,4 +95,24 @@ public class HollowObjectProxyDataAccess extends HollowTypeProxyDataAccess imple
         return ((HollowObjectTypeDataAccess) currentDataAccess).findVarLengthFieldHashCode(ordinal, fieldIndex);
     }
 
+    @Override
+    public int readBytes(int ordinal, int fieldIndex, byte[] dest, int destPos) {
+        return ((HollowObjectTypeDataAccess) currentDataAccess).readBytes(ordinal, fieldIndex, dest, destPos);
+    }
+
+    @Override
+    public boolean readString(int ordinal, int fieldIndex, StringBuilder dest) {
+        return ((HollowObjectTypeDataAccess) currentDataAccess).readString(ordinal, fieldIndex, dest);
+    }
+
+    @Override
+    public boolean isStringFieldPrefixedBy(int ordinal, int fieldIndex, String prefix) {
+        return ((HollowObjectTypeDataAccess) currentDataAccess).isStringFieldPrefixedBy(ordinal, fieldIndex, prefix);
+    }
+
+    @Override
+    public int compareStringField(int ordinal, int fieldIndex, String testValue) {
+        return ((HollowObjectTypeDataAccess) currentDataAccess).compareStringField(ordinal, fieldIndex, testValue);
+    }
+
 }
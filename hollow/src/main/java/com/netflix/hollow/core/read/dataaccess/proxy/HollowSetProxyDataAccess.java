@@ -67,6 +67,21 @@ public class HollowSetProxyDataAccess extends HollowTypeProxyDataAccess implemen
     public int findElement(int ordinal, Object... hashKey) {
         return currentDataAccess().findElement(ordinal, hashKey);
     }
+
+    @Override
+    public int findElement(int ordinal, long hashKey) {
+        return currentDataAccess().findElement(ordinal, hashKey);
+    }
+
+    @Override
+    public int findElement(int ordinal, String hashKey) {
+        return currentDataAccess().findElement(ordinal, hashKey);
+    }
+
+    @Override
+    public int findElement(int ordinal, Object hashKey0, Object hashKey1) {
+        return currentDataAccess().findElement(ordinal, hashKey0, hashKey1);
+    }
     
     @Override
     public int relativeBucketValue(int ordinal, int bucketIndex) {
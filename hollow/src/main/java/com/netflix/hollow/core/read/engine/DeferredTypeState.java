@@ -0,0 +1,46 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.read.engine;
+
+import com.netflix.hollow.core.schema.HollowSchema;
+import java.io.IOException;
+
+/**
+ * A type in a snapshot whose data has not yet been read.  See {@link HollowReadStateEngine#setLazyTypeMaterialization(boolean)}.
+ */
+interface DeferredTypeState {
+
+    /**
+     * @return the (filtered) schema the type state will be materialized with
+     */
+    HollowSchema getSchema();
+
+    /**
+     * Reads the type's data from the snapshot.  The returned type state has been prepared by the state engine, but
+     * has not been added to it.
+     *
+     * @return the materialized type state
+     * @throws IOException if the type's data could not be read
+     */
+    HollowTypeReadState materialize() throws IOException;
+
+    /**
+     * Releases the snapshot input without materializing the type.
+     */
+    void discard();
+
+}
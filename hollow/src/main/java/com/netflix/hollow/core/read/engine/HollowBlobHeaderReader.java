@@ -18,6 +18,7 @@ package com.netflix.hollow.core.read.engine;
 
 import com.netflix.hollow.core.HollowBlobHeader;
 import com.netflix.hollow.core.HollowBlobOptionalPartHeader;
+import com.netflix.hollow.core.HollowStringEncoding;
 import com.netflix.hollow.core.memory.encoding.VarInt;
 import com.netflix.hollow.core.read.HollowBlobInput;
 import com.netflix.hollow.core.schema.HollowSchema;
@@ -44,9 +45,10 @@ public class HollowBlobHeaderReader {
     public HollowBlobHeader readHeader(HollowBlobInput in) throws IOException {
         HollowBlobHeader header = new HollowBlobHeader();
         int headerVersion = in.readInt();
-        if(headerVersion != HollowBlobHeader.HOLLOW_BLOB_VERSION_HEADER) {
+        if(HollowStringEncoding.forBlobFormatVersion(headerVersion) == null) {
             throw new IOException("The HollowBlob you are trying to read is incompatible. "
                     + "The expected Hollow blob version was " + HollowBlobHeader.HOLLOW_BLOB_VERSION_HEADER
+                    + " or " + HollowBlobHeader.HOLLOW_BLOB_VERSION_HEADER_UTF8_STRINGS
                     + " but the actual version was " + headerVersion);
         }
 
@@ -144,10 +144,10 @@ public class HollowBlobReader {
     }
 
     public void readSnapshot(HollowBlobInput in, OptionalBlobPartInput optionalParts, TypeFilter filter) throws IOException {
-        validateMemoryMode(in.getMemoryMode());
+        validateSnapshotMemoryMode(in.getMemoryMode());
         Map<String, HollowBlobInput> optionalPartInputs = null;
         if(optionalParts != null)
-            optionalPartInputs = optionalParts.getInputsByPartName(in.getMemoryMode());
+            optionalPartInputs = optionalParts.getInputsByPartName(memoryMode.blobInputMode());
 
         HollowBlobHeader header = readHeader(in, false);
         List<HollowBlobOptionalPartHeader> partHeaders = readPartHeaders(header, optionalPartInputs, in.getMemoryMode());
@@ -161,10 +161,19 @@ public class HollowBlobReader {
 
         int numStates = VarInt.readVInt(in);
 
+        DeferredSnapshotInput deferredInput = null;
+        if(stateEngine.isLazyTypeMaterialization() && in.getMemoryMode() == MemoryMode.SHARED_MEMORY_LAZY)
+            deferredInput = new DeferredSnapshotInput(in.reopen());
+
         Collection<String> typeNames = new TreeSet<>();
-        for(int i=0;i<numStates;i++) {
-            String typeName = readTypeStateSnapshot(in, filter);
-            typeNames.add(typeName);
+        try {
+            for(int i=0;i<numStates;i++) {
+                String typeName = readTypeStateSnapshot(in, filter, deferredInput);
+                typeNames.add(typeName);
+            }
+        } finally {
+            if(deferredInput != null)
+                deferredInput.release();
         }
 
         if(optionalPartInputs != null) {
@@ -172,7 +181,7 @@ public class HollowBlobReader {
                 numStates = VarInt.readVInt(optionalPartEntry.getValue());
 
                 for(int i=0;i<numStates;i++) {
-                    String typeName = readTypeStateSnapshot(optionalPartEntry.getValue(), filter);
+                    String typeName = readTypeStateSnapshot(optionalPartEntry.getValue(), filter, null);
                     typeNames.add(typeName);
                 }
             }
@@ -184,6 +193,8 @@ public class HollowBlobReader {
 
         log.info("SNAPSHOT COMPLETED IN " + (endTime - startTime) + "ms");
         log.info("TYPES: " + typeNames);
+        if(!stateEngine.getDeferredTypes().isEmpty())
+            log.info("DEFERRED TYPES: " + new TreeSet<>(stateEngine.getDeferredTypes()));
 
         notifyEndUpdate();
 
@@ -264,6 +275,12 @@ public class HollowBlobReader {
         if(isDelta && header.getOriginRandomizedTag() != stateEngine.getCurrentRandomizedTag())
             throw new IOException("Attempting to apply a delta to a state from which it was not originated!");
 
+        if(isDelta && header.getStringEncoding() != stateEngine.getStringEncoding())
+            throw new IOException("Attempting to apply a delta with " + header.getStringEncoding()
+                    + " strings to a state with " + stateEngine.getStringEncoding() + " strings!");
+        if(!isDelta)
+            stateEngine.setStringEncoding(header.getStringEncoding());
+
         stateEngine.setCurrentRandomizedTag(header.getDestinationRandomizedTag());
         stateEngine.setHeaderTags(header.getHeaderTags());
         return header;
@@ -302,26 +319,24 @@ public class HollowBlobReader {
     }
 
     private void notifyBeginUpdate() {
-        for(HollowTypeReadState typeFile: stateEngine.getTypeStates()) {
-            for(HollowTypeStateListener listener : typeFile.getListeners()) {
-                listener.beginUpdate();
-            }
-        }
+        stateEngine.notifyBeginUpdate();
     }
 
     private void notifyEndUpdate() {
-        for(HollowTypeReadState typeFile : stateEngine.getTypeStates()) {
-            for(HollowTypeStateListener listener : typeFile.getListeners()) {
-                listener.endUpdate();
-            }
-        }
+        stateEngine.notifyEndUpdate();
     }
 
-    private String readTypeStateSnapshot(HollowBlobInput in, TypeFilter filter) throws IOException {
+    private String readTypeStateSnapshot(HollowBlobInput in, TypeFilter filter, DeferredSnapshotInput deferredInput) throws IOException {
         HollowSchema schema = HollowSchema.readFrom(in);
         int numShards = readNumShards(in);
         String typeName = schema.getName();
 
+        if(deferredInput != null && filter.includes(typeName)) {
+            stateEngine.addDeferredTypeState(new DeferredSnapshotSection(deferredInput, in.getFilePointer(), schema, filter, numShards));
+            discardSnapshot(in, schema, numShards);
+            return typeName;
+        }
+
 
         if(schema instanceof HollowObjectSchema) {
             if(!filter.includes(typeName)) {
@@ -375,6 +390,99 @@ public class HollowBlobReader {
         return schema.getName();
     }
 
+    private HollowTypeReadState createTypeState(HollowSchema schema, HollowSchema filteredSchema, int numShards) {
+        if(schema instanceof HollowObjectSchema)
+            return new HollowObjectTypeReadState(stateEngine, memoryMode, (HollowObjectSchema)filteredSchema, (HollowObjectSchema)schema, numShards);
+        else if(schema instanceof HollowListSchema)
+            return new HollowListTypeReadState(stateEngine, memoryMode, (HollowListSchema)schema, numShards);
+        else if(schema instanceof HollowSetSchema)
+            return new HollowSetTypeReadState(stateEngine, memoryMode, (HollowSetSchema)schema, numShards);
+        else
+            return new HollowMapTypeReadState(stateEngine, memoryMode, (HollowMapSchema)schema, numShards);
+    }
+
+    private void discardSnapshot(HollowBlobInput in, HollowSchema schema, int numShards) throws IOException {
+        if(schema instanceof HollowObjectSchema)
+            HollowObjectTypeReadState.discardSnapshot(in, (HollowObjectSchema)schema, numShards);
+        else if(schema instanceof HollowListSchema)
+            HollowListTypeReadState.discardSnapshot(in, numShards);
+        else if(schema instanceof HollowSetSchema)
+            HollowSetTypeReadState.discardSnapshot(in, numShards);
+        else if(schema instanceof HollowMapSchema)
+            HollowMapTypeReadState.discardSnapshot(in, numShards);
+    }
+
+    /**
+     * A random access input over a snapshot, shared by the types deferred from it and closed once each of them has
+     * been materialized or discarded.
+     */
+    private static class DeferredSnapshotInput {
+        private final HollowBlobInput in;
+        private int references = 1;
+
+        DeferredSnapshotInput(HollowBlobInput in) {
+            this.in = in;
+        }
+
+        synchronized void retain() {
+            references++;
+        }
+
+        synchronized void release() {
+            if(--references == 0) {
+                try {
+                    in.close();
+                } catch(IOException e) {
+                    Logger.getLogger(HollowBlobReader.class.getName()).warning("Unable to close deferred snapshot input: " + e);
+                }
+            }
+        }
+    }
+
+    /**
+     * The section of a snapshot holding a deferred type.
+     */
+    private class DeferredSnapshotSection implements DeferredTypeState {
+        private final DeferredSnapshotInput deferredInput;
+        private final long offset;
+        private final HollowSchema schema;
+        private final HollowSchema filteredSchema;
+        private final int numShards;
+        private boolean released;
+
+        DeferredSnapshotSection(DeferredSnapshotInput deferredInput, long offset, HollowSchema schema, TypeFilter filter, int numShards) {
+            this.deferredInput = deferredInput;
+            this.offset = offset;
+            this.schema = schema;
+            this.filteredSchema = schema instanceof HollowObjectSchema ? ((HollowObjectSchema)schema).filterSchema(filter) : schema;
+            this.numShards = numShards;
+            deferredInput.retain();
+        }
+
+        @Override
+        public HollowSchema getSchema() {
+            return filteredSchema;
+        }
+
+        @Override
+        public HollowTypeReadState materialize() throws IOException {
+            HollowTypeReadState typeState = createTypeState(schema, filteredSchema, numShards);
+            stateEngine.prepareTypeState(typeState);
+            deferredInput.in.seek(offset);
+            typeState.readSnapshot(deferredInput.in, stateEngine.getMemoryRecycler());
+            discard();
+            return typeState;
+        }
+
+        @Override
+        public void discard() {
+            if(!released) {
+                released = true;
+                deferredInput.release();
+            }
+        }
+    }
+
     private int readNumShards(HollowBlobInput in) throws IOException {
         int backwardsCompatibilityBytes = VarInt.readVInt(in);
 
@@ -408,8 +516,17 @@ public class HollowBlobReader {
             HollowMapTypeReadState.discardDelta(in, numShards);
     }
 
+    private void validateSnapshotMemoryMode(MemoryMode inputMode) {
+        /// a snapshot may be mapped from a random access input in any memory mode which supports deltas;
+        /// each shard is then copied into the configured memory mode as deltas are applied to it
+        if (inputMode.equals(MemoryMode.SHARED_MEMORY_LAZY) && memoryMode.supportsDeltas()) {
+            return;
+        }
+        validateMemoryMode(inputMode);
+    }
+
     private void validateMemoryMode(MemoryMode inputMode) {
-        if (!memoryMode.equals(inputMode)) {
+        if (!memoryMode.blobInputMode().equals(inputMode)) {
             throw new IllegalStateException(String.format("HollowBlobReader is configured for memory mode %s but " +
                     "HollowBlobInput of mode %s was provided", memoryMode, inputMode));
         }
@@ -0,0 +1,540 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.read.engine;
+
+import com.netflix.hollow.api.sampling.DisabledSamplingDirector;
+import com.netflix.hollow.api.sampling.HollowListSampler;
+import com.netflix.hollow.api.sampling.HollowMapSampler;
+import com.netflix.hollow.api.sampling.HollowObjectSampler;
+import com.netflix.hollow.api.sampling.HollowSampler;
+import com.netflix.hollow.api.sampling.HollowSamplingDirector;
+import com.netflix.hollow.api.sampling.HollowSetSampler;
+import com.netflix.hollow.core.read.dataaccess.HollowDataAccess;
+import com.netflix.hollow.core.read.dataaccess.HollowListTypeDataAccess;
+import com.netflix.hollow.core.read.dataaccess.HollowMapTypeDataAccess;
+import com.netflix.hollow.core.read.dataaccess.HollowObjectTypeDataAccess;
+import com.netflix.hollow.core.read.dataaccess.HollowSetTypeDataAccess;
+import com.netflix.hollow.core.read.dataaccess.HollowTypeDataAccess;
+import com.netflix.hollow.core.read.filter.HollowFilterConfig;
+import com.netflix.hollow.core.read.iterator.HollowMapEntryOrdinalIterator;
+import com.netflix.hollow.core.read.iterator.HollowOrdinalIterator;
+import com.netflix.hollow.core.schema.HollowListSchema;
+import com.netflix.hollow.core.schema.HollowMapSchema;
+import com.netflix.hollow.core.schema.HollowObjectSchema;
+import com.netflix.hollow.core.schema.HollowSchema;
+import com.netflix.hollow.core.schema.HollowSetSchema;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * The {@link HollowTypeDataAccess} returned by {@link HollowReadStateEngine#getTypeDataAccess(String)} for a type
+ * whose materialization is still deferred.  See {@link HollowReadStateEngine#setLazyTypeMaterialization(boolean)}.
+ * <p>
+ * Looking up a type's data access, as a generated API does for every type in its data model when it is constructed,
+ * does not materialize the type.  The type is materialized on the first read of its data through this data access, or
+ * when {@link #getTypeState()} is called, and every subsequent call is delegated to the materialized type state.
+ * Sampling directors set before then are applied to the type state when it is materialized.
+ * <p>
+ * A holder of this data access, such as a {@link com.netflix.hollow.api.custom.HollowTypeAPI}, may register with
+ * {@link #addMaterializationListener(Consumer)} to replace it with the type state once the type is materialized, and
+ * so read the type's data without delegation.
+ */
+public abstract class HollowDeferredTypeDataAccess implements HollowTypeDataAccess {
+
+    private final HollowReadStateEngine stateEngine;
+    private final String type;
+    private volatile HollowTypeReadState typeState;
+
+    private HollowSamplingDirector samplingDirector;
+    @SuppressWarnings("deprecation")
+    private final Map<HollowFilterConfig, HollowSamplingDirector> fieldSpecificSamplingDirectors;
+    private Thread ignoredUpdateThread;
+    private HollowSampler deferredSampler;
+    private List<Consumer<HollowTypeReadState>> materializationListeners;
+
+    @SuppressWarnings("deprecation")
+    HollowDeferredTypeDataAccess(HollowReadStateEngine stateEngine, String type) {
+        this.stateEngine = stateEngine;
+        this.type = type;
+        this.fieldSpecificSamplingDirectors = new LinkedHashMap<HollowFilterConfig, HollowSamplingDirector>();
+    }
+
+    static HollowDeferredTypeDataAccess create(HollowReadStateEngine stateEngine, HollowSchema schema) {
+        switch(schema.getSchemaType()) {
+        case OBJECT:
+            return new ObjectDataAccess(stateEngine, (HollowObjectSchema)schema);
+        case LIST:
+            return new ListDataAccess(stateEngine, (HollowListSchema)schema);
+        case SET:
+            return new SetDataAccess(stateEngine, (HollowSetSchema)schema);
+        case MAP:
+            return new MapDataAccess(stateEngine, (HollowMapSchema)schema);
+        default:
+            throw new IllegalArgumentException("Unknown schema type " + schema.getSchemaType());
+        }
+    }
+
+    /**
+     * Resolves a data access which is about to be used to read every record of its type, such as by an index, so that
+     * the caller holds the type state itself.
+     *
+     * @param typeDataAccess a type data access, which may be null
+     * @return the materialized type state if the data access is deferred, otherwise the data access
+     */
+    public static HollowTypeDataAccess materialized(HollowTypeDataAccess typeDataAccess) {
+        if(typeDataAccess instanceof HollowDeferredTypeDataAccess)
+            return typeDataAccess.getTypeState();
+        return typeDataAccess;
+    }
+
+    /**
+     * @return whether the type has been materialized and is read through this data access
+     */
+    public boolean isMaterialized() {
+        return typeState != null;
+    }
+
+    /**
+     * Registers a listener which is called with the type state once the type is materialized, or immediately if it
+     * already has been.
+     *
+     * @param listener the listener
+     */
+    public synchronized void addMaterializationListener(Consumer<HollowTypeReadState> listener) {
+        if(typeState != null) {
+            listener.accept(typeState);
+        } else {
+            if(materializationListeners == null)
+                materializationListeners = new ArrayList<Consumer<HollowTypeReadState>>();
+            materializationListeners.add(listener);
+        }
+    }
+
+    @Override
+    public HollowDataAccess getDataAccess() {
+        return stateEngine;
+    }
+
+    @Override
+    public HollowTypeReadState getTypeState() {
+        HollowTypeReadState state = typeState;
+        if(state == null)
+            state = materialize();
+        return state;
+    }
+
+    @SuppressWarnings("deprecation")
+    private synchronized HollowTypeReadState materialize() {
+        if(typeState == null) {
+            HollowTypeReadState state = stateEngine.getTypeState(type);
+            if(state == null)
+                throw new IllegalStateException("Type " + type + " was not materialized before its state engine was invalidated");
+
+            if(samplingDirector != null)
+                state.setSamplingDirector(samplingDirector);
+            for(Map.Entry<HollowFilterConfig, HollowSamplingDirector> entry : fieldSpecificSamplingDirectors.entrySet())
+                state.setFieldSpecificSamplingDirector(entry.getKey(), entry.getValue());
+            if(ignoredUpdateThread != null)
+                state.ignoreUpdateThreadForSampling(ignoredUpdateThread);
+            fieldSpecificSamplingDirectors.clear();
+            deferredSampler = null;
+
+            typeState = state;
+
+            if(materializationListeners != null) {
+                for(Consumer<HollowTypeReadState> listener : materializationListeners)
+                    listener.accept(state);
+                materializationListeners = null;
+            }
+        }
+        return typeState;
+    }
+
+    @Override
+    public synchronized void setSamplingDirector(HollowSamplingDirector director) {
+        if(typeState != null) {
+            typeState.setSamplingDirector(director);
+        } else {
+            samplingDirector = director;
+            if(deferredSampler != null)
+                deferredSampler.setSamplingDirector(director);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public synchronized void setFieldSpecificSamplingDirector(HollowFilterConfig fieldSpec, HollowSamplingDirector director) {
+        if(typeState != null) {
+            typeState.setFieldSpecificSamplingDirector(fieldSpec, director);
+        } else {
+            fieldSpecificSamplingDirectors.put(fieldSpec, director);
+            if(deferredSampler != null)
+                deferredSampler.setFieldSpecificSamplingDirector(fieldSpec, director);
+        }
+    }
+
+    @Override
+    public synchronized void ignoreUpdateThreadForSampling(Thread t) {
+        if(typeState != null) {
+            typeState.ignoreUpdateThreadForSampling(t);
+        } else {
+            ignoredUpdateThread = t;
+            if(deferredSampler != null)
+                deferredSampler.setUpdateThread(t);
+        }
+    }
+
+    /**
+     * @return the sampler of the materialized type state, or while the type is deferred a sampler which records no
+     * accesses, since none have been made
+     */
+    @Override
+    public synchronized HollowSampler getSampler() {
+        if(typeState != null)
+            return typeState.getSampler();
+        if(deferredSampler == null)
+            deferredSampler = newSampler();
+        return deferredSampler;
+    }
+
+    abstract HollowSampler newSampler();
+
+    private static class ObjectDataAccess extends HollowDeferredTypeDataAccess implements HollowObjectTypeDataAccess {
+        private final HollowObjectSchema schema;
+
+        ObjectDataAccess(HollowReadStateEngine stateEngine, HollowObjectSchema schema) {
+            super(stateEngine, schema.getName());
+            this.schema = schema;
+        }
+
+        private HollowObjectTypeDataAccess state() {
+            return (HollowObjectTypeDataAccess)getTypeState();
+        }
+
+        @Override
+        HollowSampler newSampler() {
+            return new HollowObjectSampler(schema, DisabledSamplingDirector.INSTANCE);
+        }
+
+        @Override
+        public HollowObjectSchema getSchema() {
+            return schema;
+        }
+
+        @Override
+        public boolean isNull(int ordinal, int fieldIndex) {
+            return state().isNull(ordinal, fieldIndex);
+        }
+
+        @Override
+        public int readOrdinal(int ordinal, int fieldIndex) {
+            return state().readOrdinal(ordinal, fieldIndex);
+        }
+
+        @Override
+        public int readInt(int ordinal, int fieldIndex) {
+            return state().readInt(ordinal, fieldIndex);
+        }
+
+        @Override
+        public float readFloat(int ordinal, int fieldIndex) {
+            return state().readFloat(ordinal, fieldIndex);
+        }
+
+        @Override
+        public double readDouble(int ordinal, int fieldIndex) {
+            return state().readDouble(ordinal, fieldIndex);
+        }
+
+        @Override
+        public long readLong(int ordinal, int fieldIndex) {
+            return state().readLong(ordinal, fieldIndex);
+        }
+
+        @Override
+        public Boolean readBoolean(int ordinal, int fieldIndex) {
+            return state().readBoolean(ordinal, fieldIndex);
+        }
+
+        @Override
+        public byte[] readBytes(int ordinal, int fieldIndex) {
+            return state().readBytes(ordinal, fieldIndex);
+        }
+
+        @Override
+        public String readString(int ordinal, int fieldIndex) {
+            return state().readString(ordinal, fieldIndex);
+        }
+
+        @Override
+        public boolean isStringFieldEqual(int ordinal, int fieldIndex, String testValue) {
+            return state().isStringFieldEqual(ordinal, fieldIndex, testValue);
+        }
+
+        @Override
+        public int findVarLengthFieldHashCode(int ordinal, int fieldIndex) {
+            return state().findVarLengthFieldHashCode(ordinal, fieldIndex);
+        }
+
+        @Override
+        public int readBytes(int ordinal, int fieldIndex, byte[] dest, int destPos) {
+            return state().readBytes(ordinal, fieldIndex, dest, destPos);
+        }
+
+        @Override
+        public boolean readString(int ordinal, int fieldIndex, StringBuilder dest) {
+            return state().readString(ordinal, fieldIndex, dest);
+        }
+
+        @Override
+        public boolean isStringFieldPrefixedBy(int ordinal, int fieldIndex, String prefix) {
+            return state().isStringFieldPrefixedBy(ordinal, fieldIndex, prefix);
+        }
+
+        @Override
+        public int compareStringField(int ordinal, int fieldIndex, String testValue) {
+            return state().compareStringField(ordinal, fieldIndex, testValue);
+        }
+    }
+
+    private static class ListDataAccess extends HollowDeferredTypeDataAccess implements HollowListTypeDataAccess {
+        private final HollowListSchema schema;
+
+        ListDataAccess(HollowReadStateEngine stateEngine, HollowListSchema schema) {
+            super(stateEngine, schema.getName());
+            this.schema = schema;
+        }
+
+        private HollowListTypeDataAccess state() {
+            return (HollowListTypeDataAccess)getTypeState();
+        }
+
+        @Override
+        HollowSampler newSampler() {
+            return new HollowListSampler(schema.getName(), DisabledSamplingDirector.INSTANCE);
+        }
+
+        @Override
+        public HollowListSchema getSchema() {
+            return schema;
+        }
+
+        @Override
+        public int size(int ordinal) {
+            return state().size(ordinal);
+        }
+
+        @Override
+        public int getElementOrdinal(int ordinal, int listIndex) {
+            return state().getElementOrdinal(ordinal, listIndex);
+        }
+
+        @Override
+        public HollowOrdinalIterator ordinalIterator(int ordinal) {
+            return state().ordinalIterator(ordinal);
+        }
+    }
+
+    private static class SetDataAccess extends HollowDeferredTypeDataAccess implements HollowSetTypeDataAccess {
+        private final HollowSetSchema schema;
+
+        SetDataAccess(HollowReadStateEngine stateEngine, HollowSetSchema schema) {
+            super(stateEngine, schema.getName());
+            this.schema = schema;
+        }
+
+        private HollowSetTypeDataAccess state() {
+            return (HollowSetTypeDataAccess)getTypeState();
+        }
+
+        @Override
+        HollowSampler newSampler() {
+            return new HollowSetSampler(schema.getName(), DisabledSamplingDirector.INSTANCE);
+        }
+
+        @Override
+        public HollowSetSchema getSchema() {
+            return schema;
+        }
+
+        @Override
+        public int size(int ordinal) {
+            return state().size(ordinal);
+        }
+
+        @Override
+        public boolean contains(int ordinal, int value) {
+            return state().contains(ordinal, value);
+        }
+
+        @Override
+        public boolean contains(int ordinal, int value, int hashCode) {
+            return state().contains(ordinal, value, hashCode);
+        }
+
+        @Override
+        public int findElement(int ordinal, Object... hashKey) {
+            return state().findElement(ordinal, hashKey);
+        }
+
+        @Override
+        public int findElement(int ordinal, long hashKey) {
+            return state().findElement(ordinal, hashKey);
+        }
+
+        @Override
+        public int findElement(int ordinal, String hashKey) {
+            return state().findElement(ordinal, hashKey);
+        }
+
+        @Override
+        public int findElement(int ordinal, Object hashKey0, Object hashKey1) {
+            return state().findElement(ordinal, hashKey0, hashKey1);
+        }
+
+        @Override
+        public int relativeBucketValue(int ordinal, int bucketIndex) {
+            return state().relativeBucketValue(ordinal, bucketIndex);
+        }
+
+        @Override
+        public HollowOrdinalIterator potentialMatchOrdinalIterator(int ordinal, int hashCode) {
+            return state().potentialMatchOrdinalIterator(ordinal, hashCode);
+        }
+
+        @Override
+        public HollowOrdinalIterator ordinalIterator(int ordinal) {
+            return state().ordinalIterator(ordinal);
+        }
+    }
+
+    private static class MapDataAccess extends HollowDeferredTypeDataAccess implements HollowMapTypeDataAccess {
+        private final HollowMapSchema schema;
+
+        MapDataAccess(HollowReadStateEngine stateEngine, HollowMapSchema schema) {
+            super(stateEngine, schema.getName());
+            this.schema = schema;
+        }
+
+        private HollowMapTypeDataAccess state() {
+            return (HollowMapTypeDataAccess)getTypeState();
+        }
+
+        @Override
+        HollowSampler newSampler() {
+            return new HollowMapSampler(schema.getName(), DisabledSamplingDirector.INSTANCE);
+        }
+
+        @Override
+        public HollowMapSchema getSchema() {
+            return schema;
+        }
+
+        @Override
+        public int size(int ordinal) {
+            return state().size(ordinal);
+        }
+
+        @Override
+        public int get(int ordinal, int keyOrdinal) {
+            return state().get(ordinal, keyOrdinal);
+        }
+
+        @Override
+        public int get(int ordinal, int keyOrdinal, int hashCode) {
+            return state().get(ordinal, keyOrdinal, hashCode);
+        }
+
+        @Override
+        public int findKey(int ordinal, Object... hashKey) {
+            return state().findKey(ordinal, hashKey);
+        }
+
+        @Override
+        public int findValue(int ordinal, Object... hashKey) {
+            return state().findValue(ordinal, hashKey);
+        }
+
+        @Override
+        public long findEntry(int ordinal, Object... hashKey) {
+            return state().findEntry(ordinal, hashKey);
+        }
+
+        @Override
+        public int findKey(int ordinal, long hashKey) {
+            return state().findKey(ordinal, hashKey);
+        }
+
+        @Override
+        public int findKey(int ordinal, String hashKey) {
+            return state().findKey(ordinal, hashKey);
+        }
+
+        @Override
+        public int findKey(int ordinal, Object hashKey0, Object hashKey1) {
+            return state().findKey(ordinal, hashKey0, hashKey1);
+        }
+
+        @Override
+        public int findValue(int ordinal, long hashKey) {
+            return state().findValue(ordinal, hashKey);
+        }
+
+        @Override
+        public int findValue(int ordinal, String hashKey) {
+            return state().findValue(ordinal, hashKey);
+        }
+
+        @Override
+        public int findValue(int ordinal, Object hashKey0, Object hashKey1) {
+            return state().findValue(ordinal, hashKey0, hashKey1);
+        }
+
+        @Override
+        public long findEntry(int ordinal, long hashKey) {
+            return state().findEntry(ordinal, hashKey);
+        }
+
+        @Override
+        public long findEntry(int ordinal, String hashKey) {
+            return state().findEntry(ordinal, hashKey);
+        }
+
+        @Override
+        public long findEntry(int ordinal, Object hashKey0, Object hashKey1) {
+            return state().findEntry(ordinal, hashKey0, hashKey1);
+        }
+
+        @Override
+        public HollowMapEntryOrdinalIterator potentialMatchOrdinalIterator(int ordinal, int hashCode) {
+            return state().potentialMatchOrdinalIterator(ordinal, hashCode);
+        }
+
+        @Override
+        public HollowMapEntryOrdinalIterator ordinalIterator(int ordinal) {
+            return state().ordinalIterator(ordinal);
+        }
+
+        @Override
+        public long relativeBucket(int ordinal, int bucketIndex) {
+            return state().relativeBucket(ordinal, bucketIndex);
+        }
+    }
+}
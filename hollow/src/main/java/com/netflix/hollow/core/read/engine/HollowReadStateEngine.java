@@ -18,11 +18,15 @@ package com.netflix.hollow.core.read.engine;
 
 import com.netflix.hollow.api.error.SchemaNotFoundException;
 import com.netflix.hollow.core.HollowStateEngine;
+import com.netflix.hollow.core.HollowStringEncoding;
 import com.netflix.hollow.core.memory.pool.ArraySegmentRecycler;
 import com.netflix.hollow.core.memory.pool.RecyclingRecycler;
 import com.netflix.hollow.core.read.dataaccess.HollowDataAccess;
 import com.netflix.hollow.core.read.dataaccess.HollowTypeDataAccess;
 import com.netflix.hollow.core.read.engine.map.HollowMapTypeReadState;
+import com.netflix.hollow.core.read.engine.object.HollowObjectStringCache;
+import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
+import com.netflix.hollow.core.read.engine.object.HollowStringCacheConfig;
 import com.netflix.hollow.core.read.engine.set.HollowSetTypeReadState;
 import com.netflix.hollow.core.read.missing.DefaultMissingDataHandler;
 import com.netflix.hollow.core.read.missing.MissingDataHandler;
@@ -33,14 +37,18 @@ import com.netflix.hollow.core.schema.HollowSchema;
 import com.netflix.hollow.core.schema.HollowSetSchema;
 import com.netflix.hollow.core.util.DefaultHashCodeFinder;
 import com.netflix.hollow.core.util.HollowObjectHashCodeFinder;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A HollowReadStateEngine is our main handle to the current state of a Hollow dataset as a data consumer.
@@ -52,11 +60,18 @@ import java.util.Set;
 public class HollowReadStateEngine implements HollowStateEngine, HollowDataAccess {
 
     private final Map<String, HollowTypeReadState> typeStates;
+    private final Map<String, DeferredTypeState> deferredTypeStates;
+    private Map<String, HollowTypeReadState> materializingTypeStates;
+    private final Map<String, HollowDeferredTypeDataAccess> deferredTypeDataAccess;
     private final Map<String, List<HollowTypeStateListener>> listeners;
     private final HollowObjectHashCodeFinder hashCodeFinder;
     private final boolean listenToAllPopulatedOrdinals;
     private boolean skipTypeShardUpdateWithNoAdditions;
+    private boolean lazyTypeMaterialization;
+    private boolean updateInProgress;
     private ArraySegmentRecycler memoryRecycler;
+    private HollowStringCacheConfig stringCacheConfig;
+    private HollowStringEncoding stringEncoding = HollowStringEncoding.VARINT_CHARS;
     private Map<String,String> headerTags;
     private Set<String> typesWithDefinedHashCodes = new HashSet<String>();
 
@@ -87,7 +102,9 @@ public class HollowReadStateEngine implements HollowStateEngine, HollowDataAcces
 
     @Deprecated
     public HollowReadStateEngine(HollowObjectHashCodeFinder hashCodeFinder, boolean listenToAllPopulatedOrdinals, ArraySegmentRecycler recycler) {
-        this.typeStates = new HashMap<String, HollowTypeReadState>();
+        this.typeStates = new ConcurrentHashMap<String, HollowTypeReadState>();
+        this.deferredTypeStates = new ConcurrentHashMap<String, DeferredTypeState>();
+        this.deferredTypeDataAccess = new ConcurrentHashMap<String, HollowDeferredTypeDataAccess>();
         this.listeners = new HashMap<String, List<HollowTypeStateListener>>();
         this.hashCodeFinder = hashCodeFinder;
         this.memoryRecycler = recycler;
@@ -100,8 +117,14 @@ public class HollowReadStateEngine implements HollowStateEngine, HollowDataAcces
     }
 
     protected void addTypeState(HollowTypeReadState typeState) {
+        prepareTypeState(typeState);
         typeStates.put(typeState.getSchema().getName(), typeState);
+    }
 
+    /**
+     * Attaches the listeners and string cache configured for a type state, prior to its data being read.
+     */
+    void prepareTypeState(HollowTypeReadState typeState) {
         if(listenToAllPopulatedOrdinals) {
             typeState.addListener(new PopulatedOrdinalListener());
         }
@@ -111,6 +134,14 @@ public class HollowReadStateEngine implements HollowStateEngine, HollowDataAcces
             for(HollowTypeStateListener listener : list)
                 typeState.addListener(listener);
         }
+
+        if(stringCacheConfig != null && typeState instanceof HollowObjectTypeReadState) {
+            Map<String, Integer> cachedFields = stringCacheConfig.getCachedFields(typeState.getSchema().getName());
+            if(!cachedFields.isEmpty()) {
+                HollowObjectTypeReadState objectTypeState = (HollowObjectTypeReadState) typeState;
+                objectTypeState.setStringCache(new HollowObjectStringCache(objectTypeState.getSchema(), cachedFields));
+            }
+        }
     }
 
     /**
@@ -133,32 +164,197 @@ public class HollowReadStateEngine implements HollowStateEngine, HollowDataAcces
             typeState.addListener(listener);
     }
 
+    /**
+     * Remove a {@link HollowTypeStateListener} previously added with {@link #addTypeListener(String, HollowTypeStateListener)}.
+     *
+     * @param typeName the type name
+     * @param listener the listener to remove
+     */
+    public void removeTypeListener(String typeName, HollowTypeStateListener listener) {
+        List<HollowTypeStateListener> list = listeners.get(typeName);
+        if(list != null)
+            list.remove(listener);
+
+        HollowTypeReadState typeState = typeStates.get(typeName);
+        if(typeState != null)
+            typeState.removeListener(listener);
+    }
+
     void wireTypeStatesToSchemas() {
-        for(HollowTypeReadState state : typeStates.values()) {
-            switch(state.getSchema().getSchemaType()) {
-            case OBJECT:
-                HollowObjectSchema objSchema = (HollowObjectSchema)state.getSchema();
-                for(int i=0;i<objSchema.numFields();i++) {
-                    if(objSchema.getReferencedType(i) != null)
-                        objSchema.setReferencedTypeState(i, typeStates.get(objSchema.getReferencedType(i)));
+        for(HollowTypeReadState state : typeStates.values())
+            wireTypeStateToSchema(state, typeStates);
+    }
+
+    private static void wireTypeStateToSchema(HollowTypeReadState state, Map<String, HollowTypeReadState> typeStates) {
+        switch(state.getSchema().getSchemaType()) {
+        case OBJECT:
+            HollowObjectSchema objSchema = (HollowObjectSchema)state.getSchema();
+            for(int i=0;i<objSchema.numFields();i++) {
+                if(objSchema.getReferencedType(i) != null)
+                    objSchema.setReferencedTypeState(i, typeStates.get(objSchema.getReferencedType(i)));
+            }
+            break;
+        case LIST:
+            HollowListSchema listSchema = (HollowListSchema)state.getSchema();
+            listSchema.setElementTypeState(typeStates.get(listSchema.getElementType()));
+            break;
+        case SET:
+            HollowSetSchema setSchema = (HollowSetSchema)state.getSchema();
+            setSchema.setElementTypeState(typeStates.get(setSchema.getElementType()));
+            ((HollowSetTypeReadState)state).buildKeyDeriver();
+            break;
+        case MAP:
+            HollowMapSchema mapSchema = (HollowMapSchema)state.getSchema();
+            mapSchema.setKeyTypeState(typeStates.get(mapSchema.getKeyType()));
+            mapSchema.setValueTypeState(typeStates.get(mapSchema.getValueType()));
+            ((HollowMapTypeReadState)state).buildKeyDeriver();
+            break;
+        }
+    }
+
+    /**
+     * Sets whether the types in a snapshot read from a random access input are materialized on first access, rather
+     * than while the snapshot is read.  Must be set before a snapshot is read.
+     * <p>
+     * A deferred type is materialized, along with the types it references, the first time it is retrieved with
+     * {@link #getTypeState(String)}, the first time its data is read through the data access returned by
+     * {@link #getTypeDataAccess(String)}, or when a delta changes it.  Types which are never read and never change
+     * are never materialized.  While a type is deferred, {@link #getTypeDataAccess(String)} returns a
+     * {@link HollowDeferredTypeDataAccess} rather than its type state, so that constructing a generated API does not
+     * materialize every type in the data model.  The snapshot file must not be modified while any of its
+     * types remain deferred.
+     *
+     * @param lazyTypeMaterialization whether to defer materialization of types until first access
+     */
+    public void setLazyTypeMaterialization(boolean lazyTypeMaterialization) {
+        this.lazyTypeMaterialization = lazyTypeMaterialization;
+    }
+
+    public boolean isLazyTypeMaterialization() {
+        return lazyTypeMaterialization;
+    }
+
+    void addDeferredTypeState(DeferredTypeState deferredTypeState) {
+        deferredTypeStates.put(deferredTypeState.getSchema().getName(), deferredTypeState);
+    }
+
+    /**
+     * @return the names of the types which have been read from a snapshot but not yet materialized
+     */
+    public Set<String> getDeferredTypes() {
+        return Collections.unmodifiableSet(deferredTypeStates.keySet());
+    }
+
+    private HollowTypeReadState materialize(String type) {
+        synchronized(deferredTypeStates) {
+            /// a type state being wired, such as by a key deriver, is looked up before it is published
+            if(materializingTypeStates != null && materializingTypeStates.containsKey(type))
+                return materializingTypeStates.get(type);
+            if(!deferredTypeStates.containsKey(type))
+                return typeStates.get(type);
+
+            Map<String, HollowTypeReadState> materialized = new LinkedHashMap<String, HollowTypeReadState>();
+            try {
+                materialize(type, materialized);
+            } catch(IOException e) {
+                throw new UncheckedIOException("Unable to materialize type " + type, e);
+            }
+
+            /// wire the new type states before they are published, so that a concurrent reader never sees a
+            /// type state whose references are not yet resolved
+            Map<String, HollowTypeReadState> allTypeStates = new HashMap<String, HollowTypeReadState>(typeStates);
+            allTypeStates.putAll(materialized);
+            Map<String, HollowTypeReadState> enclosingTypeStates = materializingTypeStates;
+            materializingTypeStates = allTypeStates;
+            try {
+                for(HollowTypeReadState state : materialized.values()) {
+                    wireTypeStateToSchema(state, allTypeStates);
+                    for(HollowTypeStateListener listener : state.getListeners()) {
+                        if(updateInProgress)
+                            listener.beginUpdate();
+                        else
+                            listener.endUpdate();
+                    }
+                }
+
+                /// types which were never deferred, such as those read from an optional blob part, may reference the
+                /// new type states; they were wired to null references while those types were deferred
+                for(HollowTypeReadState state : typeStates.values()) {
+                    if(!Collections.disjoint(referencedTypes(state.getSchema()), materialized.keySet()))
+                        wireTypeStateToSchema(state, allTypeStates);
                 }
-                break;
-            case LIST:
-                HollowListSchema listSchema = (HollowListSchema)state.getSchema();
-                listSchema.setElementTypeState(typeStates.get(listSchema.getElementType()));
-                break;
-            case SET:
-                HollowSetSchema setSchema = (HollowSetSchema)state.getSchema();
-                setSchema.setElementTypeState(typeStates.get(setSchema.getElementType()));
-                ((HollowSetTypeReadState)state).buildKeyDeriver();
-                break;
-            case MAP:
-                HollowMapSchema mapSchema = (HollowMapSchema)state.getSchema();
-                mapSchema.setKeyTypeState(typeStates.get(mapSchema.getKeyType()));
-                mapSchema.setValueTypeState(typeStates.get(mapSchema.getValueType()));
-                ((HollowMapTypeReadState)state).buildKeyDeriver();
-                break;
+            } finally {
+                materializingTypeStates = enclosingTypeStates;
+            }
+
+            typeStates.putAll(materialized);
+            deferredTypeStates.keySet().removeAll(materialized.keySet());
+            deferredTypeDataAccess.keySet().removeAll(materialized.keySet());
+            return typeStates.get(type);
+        }
+    }
+
+    private void materialize(String type, Map<String, HollowTypeReadState> materialized) throws IOException {
+        DeferredTypeState deferred = deferredTypeStates.get(type);
+        if(deferred == null || materialized.containsKey(type))
+            return;
+
+        materialized.put(type, deferred.materialize());
+
+        for(String referencedType : referencedTypes(deferred.getSchema()))
+            materialize(referencedType, materialized);
+    }
+
+    private static List<String> referencedTypes(HollowSchema schema) {
+        switch(schema.getSchemaType()) {
+        case OBJECT:
+            HollowObjectSchema objSchema = (HollowObjectSchema)schema;
+            List<String> referencedTypes = new ArrayList<String>();
+            for(int i=0;i<objSchema.numFields();i++) {
+                if(objSchema.getReferencedType(i) != null)
+                    referencedTypes.add(objSchema.getReferencedType(i));
             }
+            return referencedTypes;
+        case LIST:
+            return Collections.singletonList(((HollowListSchema)schema).getElementType());
+        case SET:
+            return Collections.singletonList(((HollowSetSchema)schema).getElementType());
+        case MAP:
+            HollowMapSchema mapSchema = (HollowMapSchema)schema;
+            List<String> keyAndValue = new ArrayList<String>(2);
+            keyAndValue.add(mapSchema.getKeyType());
+            keyAndValue.add(mapSchema.getValueType());
+            return keyAndValue;
+        default:
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Materializes every type which is still deferred.
+     */
+    public void materializeAllTypes() {
+        for(String type : new ArrayList<String>(deferredTypeStates.keySet()))
+            materialize(type);
+    }
+
+    void notifyBeginUpdate() {
+        synchronized(deferredTypeStates) {
+            updateInProgress = true;
+            for(HollowTypeReadState typeState : typeStates.values()) {
+                for(HollowTypeStateListener listener : typeState.getListeners())
+                    listener.beginUpdate();
+            }
+        }
+    }
+
+    void notifyEndUpdate() {
+        synchronized(deferredTypeStates) {
+            for(HollowTypeReadState typeState : typeStates.values()) {
+                for(HollowTypeStateListener listener : typeState.getListeners())
+                    listener.endUpdate();
+            }
+            updateInProgress = false;
         }
     }
 
@@ -168,33 +364,63 @@ public class HollowReadStateEngine implements HollowStateEngine, HollowDataAcces
      * @return the heap footprint of the read state engine
      */
     public long calcApproxDataSize() {
-        return this.getAllTypes()
+        return this.getMaterializedTypeStates()
                 .stream()
-                .map(this::getTypeState)
                 .mapToLong(HollowTypeReadState::getApproximateHeapFootprintInBytes)
                 .sum();
     }
 
     @Override
     public HollowTypeDataAccess getTypeDataAccess(String type) {
-        return typeStates.get(type);
+        if(type == null)
+            return null;
+        HollowTypeReadState typeState = typeStates.get(type);
+        if(typeState != null || deferredTypeStates.isEmpty())
+            return typeState;
+
+        DeferredTypeState deferred = deferredTypeStates.get(type);
+        if(deferred == null)
+            return getTypeState(type);  /// materialized since the type state was looked up, or not in the data model
+        return deferredTypeDataAccess.computeIfAbsent(type, t -> HollowDeferredTypeDataAccess.create(this, deferred.getSchema()));
     }
 
     @Override
     public HollowTypeDataAccess getTypeDataAccess(String type, int ordinal) {
-        return typeStates.get(type);
+        return getTypeDataAccess(type);
     }
 
     @Override
     public Collection<String> getAllTypes() {
-        return typeStates.keySet();
+        if(deferredTypeStates.isEmpty())
+            return typeStates.keySet();
+
+        Set<String> allTypes = new HashSet<String>(typeStates.keySet());
+        allTypes.addAll(deferredTypeStates.keySet());
+        return allTypes;
     }
 
     public HollowTypeReadState getTypeState(String type) {
-        return typeStates.get(type);
+        if(type == null)
+            return null;
+        HollowTypeReadState typeState = typeStates.get(type);
+        if(typeState == null && !deferredTypeStates.isEmpty())
+            typeState = materialize(type);
+        return typeState;
     }
 
+    /**
+     * @return all type states, after materializing any types which are still deferred
+     */
     public Collection<HollowTypeReadState> getTypeStates() {
+        if(!deferredTypeStates.isEmpty())
+            materializeAllTypes();
+        return typeStates.values();
+    }
+
+    /**
+     * @return the type states which have been materialized, without materializing any types which are still deferred
+     */
+    public Collection<HollowTypeReadState> getMaterializedTypeStates() {
         return typeStates.values();
     }
 
@@ -217,6 +443,31 @@ public class HollowReadStateEngine implements HollowStateEngine, HollowDataAcces
         return skipTypeShardUpdateWithNoAdditions;
     }
 
+    /**
+     * Cache decoded values of the STRING fields specified by the config.  Must be set before a snapshot is read, and
+     * applies to the types which are read after it is set.
+     *
+     * @param stringCacheConfig the string cache config
+     */
+    public void setStringCacheConfig(HollowStringCacheConfig stringCacheConfig) {
+        this.stringCacheConfig = stringCacheConfig;
+    }
+
+    public HollowStringCacheConfig getStringCacheConfig() {
+        return stringCacheConfig;
+    }
+
+    /**
+     * @return the encoding of STRING field values, as signalled by the header of the snapshot this engine was read from
+     */
+    public HollowStringEncoding getStringEncoding() {
+        return stringEncoding;
+    }
+
+    void setStringEncoding(HollowStringEncoding stringEncoding) {
+        this.stringEncoding = stringEncoding;
+    }
+
     @Override
     public List<HollowSchema> getSchemas() {
         List<HollowSchema> schemas = new ArrayList<HollowSchema>();
@@ -224,14 +475,23 @@ public class HollowReadStateEngine implements HollowStateEngine, HollowDataAcces
         for(Map.Entry<String, HollowTypeReadState> entry : typeStates.entrySet()) {
             schemas.add(entry.getValue().getSchema());
         }
+        for(Map.Entry<String, DeferredTypeState> entry : deferredTypeStates.entrySet()) {
+            if(!typeStates.containsKey(entry.getKey()))
+                schemas.add(entry.getValue().getSchema());
+        }
 
         return schemas;
     }
     
     @Override
     public HollowSchema getSchema(String type) {
-        HollowTypeReadState typeState = getTypeState(type);
-        return typeState == null ? null : typeState.getSchema();
+        if(type == null)
+            return null;
+        HollowTypeReadState typeState = typeStates.get(type);
+        if(typeState != null)
+            return typeState.getSchema();
+        DeferredTypeState deferred = deferredTypeStates.get(type);
+        return deferred == null ? null : deferred.getSchema();
     }
 
     @Override
@@ -272,6 +532,13 @@ public class HollowReadStateEngine implements HollowStateEngine, HollowDataAcces
     public void invalidate() {
         listeners.clear();
 
+        synchronized(deferredTypeStates) {
+            for(DeferredTypeState deferred : deferredTypeStates.values())
+                deferred.discard();
+            deferredTypeStates.clear();
+            deferredTypeDataAccess.clear();
+        }
+
         for(Map.Entry<String, HollowTypeReadState> entry : typeStates.entrySet())
             entry.getValue().invalidate();
 
@@ -43,6 +43,64 @@ public class SetMapKeyHasher {
         return hash;
     }
     
+    /**
+     * Hash a key with two fields, without allocating an array for the key
+     *
+     * @param key0 the first key field
+     * @param key1 the second key field
+     * @param fieldType the respective FieldTypes of each key.
+     * @return the hash code
+     */
+    public static int hash(Object key0, Object key1, FieldType fieldType[]) {
+        return (hash(key0, fieldType[0]) * 31) ^ hash(key1, fieldType[1]);
+    }
+
+    /**
+     * Hash a single INT, LONG or REFERENCE key field, without boxing it
+     *
+     * @param key the key
+     * @param fieldType the FieldType of the key.
+     * @return the hash code
+     */
+    public static int hash(long key, FieldType fieldType) {
+        switch(fieldType) {
+        case INT:
+        case REFERENCE:
+            return HashCodes.hashInt((int)key);
+        case LONG:
+            return HashCodes.hashInt((int)(key ^ (key >>> 32)));
+        default:
+            throw new IllegalArgumentException("Cannot hash a primitive key for field type: " + fieldType);
+        }
+    }
+
+    /**
+     * Box a single INT, LONG or REFERENCE key field as the type expected by {@link #hash(Object, FieldType)}
+     *
+     * @param key the key
+     * @param fieldType the FieldType of the key.
+     * @return the boxed key
+     */
+    public static Object box(long key, FieldType fieldType) {
+        switch(fieldType) {
+        case INT:
+        case REFERENCE:
+            return Integer.valueOf((int)key);
+        case LONG:
+            return Long.valueOf(key);
+        default:
+            throw new IllegalArgumentException("Cannot box a primitive key for field type: " + fieldType);
+        }
+    }
+
+    /**
+     * @param fieldType the FieldType of a key field
+     * @return whether keys for the field may be hashed with {@link #hash(long, FieldType)}
+     */
+    public static boolean isPrimitiveKey(FieldType fieldType) {
+        return fieldType == FieldType.INT || fieldType == FieldType.LONG || fieldType == FieldType.REFERENCE;
+    }
+
     /**
      * Hash a single key field
      *
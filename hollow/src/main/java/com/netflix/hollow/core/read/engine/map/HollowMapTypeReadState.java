@@ -32,6 +32,7 @@ import com.netflix.hollow.core.read.dataaccess.HollowMapTypeDataAccess;
 import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
 import com.netflix.hollow.core.read.engine.HollowTypeReadState;
 import com.netflix.hollow.core.read.engine.PopulatedOrdinalListener;
+import com.netflix.hollow.core.read.engine.SetMapKeyHasher;
 import com.netflix.hollow.core.read.engine.SnapshotPopulatedOrdinalsReader;
 import com.netflix.hollow.core.read.filter.HollowFilterConfig;
 import com.netflix.hollow.core.read.iterator.EmptyMapOrdinalIterator;
@@ -213,6 +214,51 @@ public class HollowMapTypeReadState extends HollowTypeReadState implements Hollo
         return shards[ordinal & shardNumberMask].findEntry(ordinal >> shardOrdinalShift, hashKey);
     }
 
+    @Override
+    public long findEntry(int ordinal, long hashKey) {
+        sampler.recordGet();
+
+        if(keyDeriver == null)
+            return -1L;
+
+        FieldType fieldTypes[] = keyDeriver.getFieldTypes();
+
+        if(fieldTypes.length != 1 || !SetMapKeyHasher.isPrimitiveKey(fieldTypes[0]))
+            return -1L;
+
+        return shards[ordinal & shardNumberMask].findEntry(ordinal >> shardOrdinalShift, hashKey);
+    }
+
+    @Override
+    public long findEntry(int ordinal, String hashKey) {
+        sampler.recordGet();
+
+        if(keyDeriver == null)
+            return -1L;
+
+        FieldType fieldTypes[] = keyDeriver.getFieldTypes();
+
+        if(fieldTypes.length != 1 || fieldTypes[0] != FieldType.STRING)
+            return -1L;
+
+        return shards[ordinal & shardNumberMask].findEntry(ordinal >> shardOrdinalShift, hashKey);
+    }
+
+    @Override
+    public long findEntry(int ordinal, Object hashKey0, Object hashKey1) {
+        sampler.recordGet();
+
+        if(keyDeriver == null)
+            return -1L;
+
+        FieldType fieldTypes[] = keyDeriver.getFieldTypes();
+
+        if(fieldTypes.length != 2)
+            return -1L;
+
+        return shards[ordinal & shardNumberMask].findEntry(ordinal >> shardOrdinalShift, hashKey0, hashKey1);
+    }
+
     @Override
     public HollowMapEntryOrdinalIterator potentialMatchOrdinalIterator(int ordinal, int hashCode) {
         sampler.recordGet();
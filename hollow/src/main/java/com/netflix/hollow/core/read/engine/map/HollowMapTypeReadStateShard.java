@@ -80,46 +80,34 @@ class HollowMapTypeReadStateShard {
     }
 
     public int findKey(int ordinal, Object... hashKey) {
-        int hashCode = SetMapKeyHasher.hash(hashKey, keyDeriver.getFieldTypes());
-
-        HollowMapTypeDataElements currentData;
-
-        threadsafe:
-        do {
-            long startBucket;
-            long endBucket;
-            do {
-                currentData = this.currentDataVolatile;
-
-                startBucket = ordinal == 0 ? 0 : currentData.mapPointerAndSizeData.getElementValue((long)(ordinal - 1) * currentData.bitsPerFixedLengthMapPortion, currentData.bitsPerMapPointer);
-                endBucket = currentData.mapPointerAndSizeData.getElementValue((long)ordinal * currentData.bitsPerFixedLengthMapPortion, currentData.bitsPerMapPointer);
-            } while(readWasUnsafe(currentData));
-
-            long bucket = startBucket + (hashCode & (endBucket - startBucket - 1));
-            int bucketKeyOrdinal = getBucketKeyByAbsoluteIndex(currentData, bucket);
-
-            while(bucketKeyOrdinal != currentData.emptyBucketKeyValue) {
-                if(readWasUnsafe(currentData))
-                    continue threadsafe;
-
-                if(keyDeriver.keyMatches(bucketKeyOrdinal, hashKey)) {
-                    return bucketKeyOrdinal;
-                }
+        return (int)(findEntry(ordinal, hashKey) >> 32);
+    }
 
-                bucket++;
-                if(bucket == endBucket)
-                    bucket = startBucket;
-                bucketKeyOrdinal = getBucketKeyByAbsoluteIndex(currentData, bucket);
-            }
+    public long findEntry(int ordinal, Object... hashKey) {
+        int hashCode = SetMapKeyHasher.hash(hashKey, keyDeriver.getFieldTypes());
+        return findEntry(ordinal, hashCode, hashKey, null, null, 0L);
+    }
 
-        } while(readWasUnsafe(currentData));
+    public long findEntry(int ordinal, long hashKey) {
+        int hashCode = SetMapKeyHasher.hash(hashKey, keyDeriver.getFieldTypes()[0]);
+        return findEntry(ordinal, hashCode, null, null, null, hashKey);
+    }
 
-        return ORDINAL_NONE;
+    public long findEntry(int ordinal, String hashKey) {
+        int hashCode = SetMapKeyHasher.hash(hashKey, keyDeriver.getFieldTypes()[0]);
+        return findEntry(ordinal, hashCode, null, hashKey, null, 0L);
     }
 
-    public long findEntry(int ordinal, Object... hashKey) {
-        int hashCode = SetMapKeyHasher.hash(hashKey, keyDeriver.getFieldTypes());
+    public long findEntry(int ordinal, Object hashKey0, Object hashKey1) {
+        int hashCode = SetMapKeyHasher.hash(hashKey0, hashKey1, keyDeriver.getFieldTypes());
+        return findEntry(ordinal, hashCode, null, hashKey0, hashKey1, 0L);
+    }
 
+    /**
+     * The hash key is given either as an array, as one or two key fields, or as a single primitive key field, so that
+     * the specialized lookups share this probe without allocating.
+     */
+    private long findEntry(int ordinal, int hashCode, Object[] hashKey, Object hashKey0, Object hashKey1, long primitiveHashKey) {
         HollowMapTypeDataElements currentData;
 
         threadsafe:
@@ -140,7 +128,7 @@ class HollowMapTypeReadStateShard {
                 if(readWasUnsafe(currentData))
                     continue threadsafe;
 
-                if(keyDeriver.keyMatches(bucketKeyOrdinal, hashKey)) {
+                if(keyMatches(bucketKeyOrdinal, hashKey, hashKey0, hashKey1, primitiveHashKey)) {
                     long valueOrdinal = getBucketValueByAbsoluteIndex(currentData, bucket);
                     if(readWasUnsafe(currentData))
                         continue threadsafe;
@@ -159,6 +147,16 @@ class HollowMapTypeReadStateShard {
         return -1L;
     }
 
+    private boolean keyMatches(int keyOrdinal, Object[] hashKey, Object hashKey0, Object hashKey1, long primitiveHashKey) {
+        if(hashKey != null)
+            return keyDeriver.keyMatches(keyOrdinal, hashKey);
+        if(hashKey1 != null)
+            return keyDeriver.keyMatches(keyOrdinal, hashKey0, hashKey1);
+        if(hashKey0 != null)
+            return keyDeriver.keyMatches(hashKey0, keyOrdinal, 0);
+        return keyDeriver.keyMatches(keyOrdinal, primitiveHashKey);
+    }
+
     public long relativeBucket(int ordinal, int bucketIndex) {
         HollowMapTypeDataElements currentData;
         long bucketValue;
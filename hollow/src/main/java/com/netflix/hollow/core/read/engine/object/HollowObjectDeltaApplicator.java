@@ -16,8 +16,8 @@
  */
 package com.netflix.hollow.core.read.engine.object;
 
-import com.netflix.hollow.core.memory.SegmentedByteArray;
-import com.netflix.hollow.core.memory.encoding.FixedLengthElementArray;
+import com.netflix.hollow.core.memory.FixedLengthDataFactory;
+import com.netflix.hollow.core.memory.VariableLengthDataFactory;
 import com.netflix.hollow.core.memory.encoding.GapEncodedVariableLengthIntegerReader;
 import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
 
@@ -79,11 +79,11 @@ class HollowObjectDeltaApplicator {
                 numMergeFields = i+1;
         }
 
-        target.fixedLengthData = new FixedLengthElementArray(target.memoryRecycler, (long)target.bitsPerRecord * (target.maxOrdinal + 1));
+        target.fixedLengthData = FixedLengthDataFactory.allocate((long)target.bitsPerRecord * (target.maxOrdinal + 1), target.memoryMode, target.memoryRecycler);
 
         for(int i=0;i<target.schema.numFields();i++) {
             if(target.schema.getFieldType(i) == FieldType.STRING || target.schema.getFieldType(i) == FieldType.BYTES) {
-                target.varLengthData[i] = new SegmentedByteArray(target.memoryRecycler);
+                target.varLengthData[i] = VariableLengthDataFactory.get(target.memoryMode, target.memoryRecycler);
             }
         }
 
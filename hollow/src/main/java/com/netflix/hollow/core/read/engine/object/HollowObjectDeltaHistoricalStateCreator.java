@@ -18,6 +18,7 @@ package com.netflix.hollow.core.read.engine.object;
 
 import static com.netflix.hollow.core.HollowConstants.ORDINAL_NONE;
 
+import com.netflix.hollow.core.memory.MemoryMode;
 import com.netflix.hollow.core.memory.SegmentedByteArray;
 import com.netflix.hollow.core.memory.encoding.FixedLengthElementArray;
 import com.netflix.hollow.core.memory.pool.WastefulRecycler;
@@ -92,7 +93,8 @@ public class HollowObjectDeltaHistoricalStateCreator {
     }
 
     public HollowObjectTypeReadState createHistoricalTypeReadState() {
-        HollowObjectTypeReadState historicalTypeState = new HollowObjectTypeReadState(null, typeState.getSchema());
+        HollowObjectTypeReadState historicalTypeState = new HollowObjectTypeReadState(null, MemoryMode.ON_HEAP,
+                typeState.getSchema(), typeState.getSchema(), 1, typeState.getStateEngine().getStringEncoding());
         historicalTypeState.setCurrentData(historicalDataElements);
         return historicalTypeState;
     }
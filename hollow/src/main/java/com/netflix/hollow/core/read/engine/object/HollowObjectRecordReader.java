@@ -0,0 +1,279 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.read.engine.object;
+
+import static com.netflix.hollow.core.HollowConstants.ORDINAL_NONE;
+
+import com.netflix.hollow.api.sampling.HollowObjectSampler;
+import com.netflix.hollow.core.memory.VariableLengthData;
+import com.netflix.hollow.core.memory.encoding.ZigZag;
+import com.netflix.hollow.core.write.HollowObjectWriteRecord;
+import java.util.function.Function;
+
+/**
+ * A cursor which reads many fields of a single record of a {@link HollowObjectTypeReadState} with a single safety
+ * check.
+ * <p>
+ * Each read through {@link HollowObjectTypeReadState} resolves the current data of the record's shard and then checks,
+ * behind a load fence, that the data was not swapped by a concurrent delta while it was being read.  A record reader
+ * resolves the data once in {@link #begin(int)}, and performs that check once in {@link #end()}, for all of the fields
+ * read in between:
+ *
+ * <pre>{@code
+ * HollowObjectRecordReader reader = typeState.createRecordReader();
+ * do {
+ *     reader.begin(ordinal);
+ *     id = reader.readLong(idField);
+ *     title = reader.readString(titleField);
+ * } while(!reader.end());
+ * }</pre>
+ *
+ * If {@link #end()} returns false, the values read since {@link #begin(int)} may be inconsistent and must be discarded.
+ * {@link #read(int, Function)} performs this loop on behalf of the caller.
+ * <p>
+ * A record reader is not thread-safe, and is intended to be reused for many records by a single thread.
+ * <p>
+ * Generated cached delegates copy the fields of a record with a record reader obtained from
+ * {@link com.netflix.hollow.api.custom.HollowObjectTypeAPI#createRecordReader()}.
+ */
+public class HollowObjectRecordReader {
+
+    private final HollowObjectTypeReadStateShard shards[];
+    private final int shardNumberMask;
+    private final int shardOrdinalShift;
+    private final HollowObjectSampler sampler;
+    private final HollowObjectStringCache stringCache;
+
+    private HollowObjectTypeReadStateShard shard;
+    private HollowObjectTypeDataElements data;
+    private int ordinal;
+    private int shardOrdinal;
+    private boolean inconsistent;
+
+    private long varLengthStart;
+    private int varLengthLength;
+
+    HollowObjectRecordReader(HollowObjectTypeReadStateShard shards[], int shardNumberMask, int shardOrdinalShift,
+            HollowObjectSampler sampler, HollowObjectStringCache stringCache) {
+        this.shards = shards;
+        this.shardNumberMask = shardNumberMask;
+        this.shardOrdinalShift = shardOrdinalShift;
+        this.sampler = sampler;
+        this.stringCache = stringCache;
+    }
+
+    /**
+     * Position this reader at a record, and resolve the current data of the record's shard.
+     *
+     * @param ordinal the ordinal of the record
+     * @return this reader
+     */
+    public HollowObjectRecordReader begin(int ordinal) {
+        this.shard = shards[ordinal & shardNumberMask];
+        this.ordinal = ordinal;
+        this.shardOrdinal = ordinal >> shardOrdinalShift;
+        this.inconsistent = false;
+        this.data = shard.currentDataElements();
+        return this;
+    }
+
+    /**
+     * @return true if all values read since {@link #begin(int)} are consistent, or false if the record's data was
+     * replaced by a concurrent delta and the values must be read again
+     */
+    public boolean end() {
+        return !shard.readWasUnsafe(data) && !inconsistent;
+    }
+
+    /**
+     * Read values from a record, retrying until they are consistent.
+     * <p>
+     * The function may be called more than once, and should not have side effects.  Exceptions thrown by the function
+     * while the record's data is being replaced are treated as an inconsistent read.
+     *
+     * @param ordinal the ordinal of the record
+     * @param function a function which reads values from this reader
+     * @param <T> the type of the result
+     * @return the result of the first call of the function with consistent reads
+     */
+    public <T> T read(int ordinal, Function<HollowObjectRecordReader, T> function) {
+        while(true) {
+            begin(ordinal);
+            T result;
+            try {
+                result = function.apply(this);
+            } catch(RuntimeException e) {
+                if(end())
+                    throw e;
+                continue;
+            }
+            if(end())
+                return result;
+        }
+    }
+
+    public boolean isNull(int fieldIndex) {
+        sampler.recordFieldAccess(fieldIndex);
+        long value = readFixedLengthFieldValue(fieldIndex);
+
+        switch(data.schema.getFieldType(fieldIndex)) {
+        case BYTES:
+        case STRING:
+            return (value & (1L << (data.bitsPerField[fieldIndex] - 1))) != 0;
+        case FLOAT:
+            return (int)value == HollowObjectWriteRecord.NULL_FLOAT_BITS;
+        case DOUBLE:
+            return value == HollowObjectWriteRecord.NULL_DOUBLE_BITS;
+        default:
+            return value == data.nullValueForField[fieldIndex];
+        }
+    }
+
+    public int readOrdinal(int fieldIndex) {
+        sampler.recordFieldAccess(fieldIndex);
+        long value = readFixedLengthFieldValue(fieldIndex);
+        return value == data.nullValueForField[fieldIndex] ? ORDINAL_NONE : (int)value;
+    }
+
+    public int readInt(int fieldIndex) {
+        sampler.recordFieldAccess(fieldIndex);
+        long value = readFixedLengthFieldValue(fieldIndex);
+        return value == data.nullValueForField[fieldIndex] ? Integer.MIN_VALUE : ZigZag.decodeInt((int)value);
+    }
+
+    public long readLong(int fieldIndex) {
+        sampler.recordFieldAccess(fieldIndex);
+        long value = readFixedLengthFieldValue(fieldIndex);
+        return value == data.nullValueForField[fieldIndex] ? Long.MIN_VALUE : ZigZag.decodeLong(value);
+    }
+
+    public float readFloat(int fieldIndex) {
+        sampler.recordFieldAccess(fieldIndex);
+        int value = (int)readFixedLengthFieldValue(fieldIndex);
+        return value == HollowObjectWriteRecord.NULL_FLOAT_BITS ? Float.NaN : Float.intBitsToFloat(value);
+    }
+
+    public double readDouble(int fieldIndex) {
+        sampler.recordFieldAccess(fieldIndex);
+        long value = readFixedLengthFieldValue(fieldIndex);
+        return value == HollowObjectWriteRecord.NULL_DOUBLE_BITS ? Double.NaN : Double.longBitsToDouble(value);
+    }
+
+    public Integer readIntBoxed(int fieldIndex) {
+        int value = readInt(fieldIndex);
+        return value == Integer.MIN_VALUE ? null : Integer.valueOf(value);
+    }
+
+    public Long readLongBoxed(int fieldIndex) {
+        long value = readLong(fieldIndex);
+        return value == Long.MIN_VALUE ? null : Long.valueOf(value);
+    }
+
+    public Float readFloatBoxed(int fieldIndex) {
+        float value = readFloat(fieldIndex);
+        return Float.isNaN(value) ? null : Float.valueOf(value);
+    }
+
+    public Double readDoubleBoxed(int fieldIndex) {
+        double value = readDouble(fieldIndex);
+        return Double.isNaN(value) ? null : Double.valueOf(value);
+    }
+
+    public Boolean readBoolean(int fieldIndex) {
+        sampler.recordFieldAccess(fieldIndex);
+        long value = readFixedLengthFieldValue(fieldIndex);
+        if(value == data.nullValueForField[fieldIndex])
+            return null;
+        return value == 1 ? Boolean.TRUE : Boolean.FALSE;
+    }
+
+    public byte[] readBytes(int fieldIndex) {
+        sampler.recordFieldAccess(fieldIndex);
+        if(!locateVarLengthValue(fieldIndex))
+            return null;
+
+        byte result[] = new byte[varLengthLength];
+        data.varLengthData[fieldIndex].copy(varLengthStart, result, 0, varLengthLength);
+        return result;
+    }
+
+    public String readString(int fieldIndex) {
+        sampler.recordFieldAccess(fieldIndex);
+        /// cached values are read with the string cache's own safety check
+        if(stringCache != null && stringCache.isCached(fieldIndex))
+            return stringCache.readString(shard, ordinal, shardOrdinal, fieldIndex);
+        if(!locateVarLengthValue(fieldIndex))
+            return null;
+
+        return shard.decodeString(data.varLengthData[fieldIndex], varLengthStart, varLengthLength);
+    }
+
+    public boolean isStringFieldEqual(int fieldIndex, String testValue) {
+        sampler.recordFieldAccess(fieldIndex);
+        if(!locateVarLengthValue(fieldIndex))
+            return testValue == null;
+        if(testValue == null)
+            return false;
+
+        return shard.isDecodedStringEqual(data.varLengthData[fieldIndex], varLengthStart, varLengthLength, testValue);
+    }
+
+    private long readFixedLengthFieldValue(int fieldIndex) {
+        long bitOffset = fieldOffset(fieldIndex);
+        int numBitsForField = data.bitsPerField[fieldIndex];
+        long mask = numBitsForField == 64 ? -1L : (1L << numBitsForField) - 1;
+
+        return numBitsForField <= 56 ?
+                data.fixedLengthData.getElementValue(bitOffset, numBitsForField, mask)
+                : data.fixedLengthData.getLargeElementValue(bitOffset, numBitsForField, mask);
+    }
+
+    /**
+     * Locates the value of a BYTES or STRING field in the variable length data.
+     * <p>
+     * The offsets are read without a safety check, so if they are out of bounds then the data must have been replaced;
+     * the read is then marked inconsistent rather than allowed to fail.
+     *
+     * @return false if the value is null, or could not be located
+     */
+    private boolean locateVarLengthValue(int fieldIndex) {
+        int numBitsForField = data.bitsPerField[fieldIndex];
+        long currentBitOffset = fieldOffset(fieldIndex);
+        long endByte = data.fixedLengthData.getElementValue(currentBitOffset, numBitsForField);
+        long startByte = shardOrdinal != 0 ? data.fixedLengthData.getElementValue(currentBitOffset - data.bitsPerRecord, numBitsForField) : 0;
+
+        if((endByte & (1L << numBitsForField - 1)) != 0)
+            return false;
+
+        startByte &= (1L << numBitsForField - 1) - 1;
+
+        VariableLengthData varLengthData = data.varLengthData[fieldIndex];
+        if(startByte > endByte || varLengthData == null || endByte > varLengthData.size()) {
+            inconsistent = true;
+            return false;
+        }
+
+        varLengthStart = startByte;
+        varLengthLength = (int)(endByte - startByte);
+        return true;
+    }
+
+    private long fieldOffset(int fieldIndex) {
+        return ((long)data.bitsPerRecord * shardOrdinal) + data.bitOffsetPerField[fieldIndex];
+    }
+
+}
@@ -0,0 +1,222 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.read.engine.object;
+
+import com.netflix.hollow.core.memory.encoding.HashCodes;
+import com.netflix.hollow.core.read.engine.HollowTypeStateListener;
+import com.netflix.hollow.core.schema.HollowObjectSchema;
+import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of decoded STRING field values for a single {@link HollowObjectTypeReadState}, keyed by ordinal.
+ * <p>
+ * Each cached field is backed by a direct-mapped table with a fixed number of slots, so the cache never holds more
+ * than the configured number of values per field.  Ordinals which map to the same slot simply evict one another.
+ * <p>
+ * The cache is registered as a {@link HollowTypeStateListener} on its type state.  While a delta is being applied the
+ * cache is bypassed, and only the slots for ordinals which were added or removed by the delta are invalidated.  Added
+ * ordinals are invalidated as well as removed ones because an ordinal freed by one delta may be reused by a later delta.
+ *
+ * @see HollowStringCacheConfig
+ */
+public class HollowObjectStringCache implements HollowTypeStateListener {
+
+    // approximate heap cost of a cached entry excluding the characters: the entry, String and char[] headers and fields
+    private static final int ENTRY_OVERHEAD_BYTES = 64;
+
+    private final HollowObjectSchema schema;
+    private final FieldCache[] fieldCaches;
+
+    // odd while a delta is being applied
+    private volatile int updateSequence;
+
+    public HollowObjectStringCache(HollowObjectSchema schema, Map<String, Integer> maxCachedValuesPerField) {
+        this.schema = schema;
+        this.fieldCaches = new FieldCache[schema.numFields()];
+
+        for(Map.Entry<String, Integer> entry : maxCachedValuesPerField.entrySet()) {
+            int fieldIndex = schema.getPosition(entry.getKey());
+            if(fieldIndex == -1)
+                continue;
+            if(schema.getFieldType(fieldIndex) != FieldType.STRING)
+                throw new IllegalArgumentException("Field " + schema.getName() + "." + entry.getKey() + " is not a STRING field");
+            fieldCaches[fieldIndex] = new FieldCache(entry.getValue());
+        }
+    }
+
+    public boolean isCached(int fieldIndex) {
+        return fieldCaches[fieldIndex] != null;
+    }
+
+    String readString(HollowObjectTypeReadStateShard shard, int ordinal, int shardOrdinal, int fieldIndex) {
+        FieldCache cache = fieldCaches[fieldIndex];
+        int sequence = updateSequence;
+
+        if((sequence & 1) != 0)
+            return shard.readString(shardOrdinal, fieldIndex);
+
+        int slot = HashCodes.hashInt(ordinal) & cache.mask;
+        Entry entry = cache.entries.get(slot);
+        if(entry != null && entry.ordinal == ordinal) {
+            cache.hits.increment();
+            return entry.value;
+        }
+
+        cache.misses.increment();
+        String value = shard.readString(shardOrdinal, fieldIndex);
+
+        Entry newEntry = new Entry(ordinal, value);
+        cache.entries.set(slot, newEntry);
+        if(updateSequence != sequence) {
+            // an update began while the value was being read; it may have missed invalidating this entry
+            cache.entries.compareAndSet(slot, newEntry, null);
+        }
+
+        return value;
+    }
+
+    @Override
+    public void beginUpdate() {
+        if((updateSequence & 1) == 0)
+            updateSequence++;
+    }
+
+    @Override
+    public void addedOrdinal(int ordinal) {
+        if((updateSequence & 1) != 0)
+            invalidate(ordinal);
+    }
+
+    @Override
+    public void removedOrdinal(int ordinal) {
+        invalidate(ordinal);
+    }
+
+    @Override
+    public void endUpdate() {
+        // a snapshot notifies the end, but not the beginning, of the update in which this cache is created
+        if((updateSequence & 1) != 0)
+            updateSequence++;
+    }
+
+    private void invalidate(int ordinal) {
+        int hash = HashCodes.hashInt(ordinal);
+        for(FieldCache cache : fieldCaches) {
+            if(cache != null) {
+                int slot = hash & cache.mask;
+                Entry entry = cache.entries.get(slot);
+                if(entry != null && entry.ordinal == ordinal)
+                    cache.entries.compareAndSet(slot, entry, null);
+            }
+        }
+    }
+
+    /**
+     * @param fieldName the field name
+     * @return the number of reads of the field which were served from the cache
+     */
+    public long getHitCount(String fieldName) {
+        return fieldCache(fieldName).hits.sum();
+    }
+
+    /**
+     * @param fieldName the field name
+     * @return the number of reads of the field which decoded a value, excluding reads made while a delta was applied
+     */
+    public long getMissCount(String fieldName) {
+        return fieldCache(fieldName).misses.sum();
+    }
+
+    /**
+     * @param fieldName the field name
+     * @return the fraction of reads of the field which were served from the cache, or 0 if the field has not been read
+     */
+    public double getHitRate(String fieldName) {
+        FieldCache cache = fieldCache(fieldName);
+        long hits = cache.hits.sum();
+        long total = hits + cache.misses.sum();
+        return total == 0 ? 0d : (double) hits / total;
+    }
+
+    /**
+     * @param fieldName the field name
+     * @return the number of values currently held in the cache for the field
+     */
+    public int getNumCachedValues(String fieldName) {
+        FieldCache cache = fieldCache(fieldName);
+        int count = 0;
+        for(int i = 0; i < cache.entries.length(); i++) {
+            if(cache.entries.get(i) != null)
+                count++;
+        }
+        return count;
+    }
+
+    /**
+     * Scans the cached entries of the field, so should not be called on a hot path.
+     *
+     * @param fieldName the field name
+     * @return an estimate of the heap retained by the cache for the field, including its table
+     */
+    public long getApproximateHeapFootprintInBytes(String fieldName) {
+        FieldCache cache = fieldCache(fieldName);
+        long bytes = 4L * cache.entries.length();
+        for(int i = 0; i < cache.entries.length(); i++) {
+            Entry entry = cache.entries.get(i);
+            if(entry != null) {
+                bytes += ENTRY_OVERHEAD_BYTES;
+                if(entry.value != null)
+                    bytes += 2L * entry.value.length();
+            }
+        }
+        return bytes;
+    }
+
+    private FieldCache fieldCache(String fieldName) {
+        int fieldIndex = schema.getPosition(fieldName);
+        if(fieldIndex == -1 || fieldCaches[fieldIndex] == null)
+            throw new IllegalArgumentException("Field " + schema.getName() + "." + fieldName + " is not cached");
+        return fieldCaches[fieldIndex];
+    }
+
+    private static class FieldCache {
+        private final AtomicReferenceArray<Entry> entries;
+        private final int mask;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+
+        FieldCache(int maxCachedValues) {
+            int numSlots = maxCachedValues >= (1 << 30) ? (1 << 30) : Integer.highestOneBit(maxCachedValues);
+            this.entries = new AtomicReferenceArray<>(numSlots);
+            this.mask = numSlots - 1;
+        }
+    }
+
+    private static class Entry {
+        private final int ordinal;
+        private final String value;
+
+        Entry(int ordinal, String value) {
+            this.ordinal = ordinal;
+            this.value = value;
+        }
+    }
+
+}
@@ -21,7 +21,6 @@ import com.netflix.hollow.core.memory.FixedLengthDataFactory;
 import com.netflix.hollow.core.memory.MemoryMode;
 import com.netflix.hollow.core.memory.VariableLengthData;
 import com.netflix.hollow.core.memory.VariableLengthDataFactory;
-import com.netflix.hollow.core.memory.encoding.FixedLengthElementArray;
 import com.netflix.hollow.core.memory.encoding.GapEncodedVariableLengthIntegerReader;
 import com.netflix.hollow.core.memory.encoding.VarInt;
 import com.netflix.hollow.core.memory.pool.ArraySegmentRecycler;
@@ -99,7 +98,7 @@ public class HollowObjectTypeDataElements {
     private void removeExcludedFieldsFromFixedLengthData() {
         if(bitsPerField.length < bitsPerUnfilteredField.length) {
             long numBitsRequired = (long)bitsPerRecord * (maxOrdinal + 1);
-            FixedLengthElementArray filteredData = new FixedLengthElementArray(memoryRecycler, numBitsRequired);
+            FixedLengthData filteredData = FixedLengthDataFactory.allocate(numBitsRequired, memoryMode, memoryRecycler);
 
             long currentReadBit = 0;
             long currentWriteBit = 0;
@@ -156,7 +155,7 @@ public class HollowObjectTypeDataElements {
 
             if(schema.getPosition(unfilteredSchema.getFieldName(i)) != -1) {
                 if(numBytesInVarLengthData != 0) {
-                    varLengthData[filteredFieldIdx] = VariableLengthDataFactory.get(memoryMode, memoryRecycler);
+                    varLengthData[filteredFieldIdx] = VariableLengthDataFactory.get(in, memoryMode, memoryRecycler);
                     varLengthData[filteredFieldIdx].loadFrom(in, numBytesInVarLengthData);
                 }
                 filteredFieldIdx++;
@@ -20,9 +20,11 @@ import com.netflix.hollow.api.sampling.DisabledSamplingDirector;
 import com.netflix.hollow.api.sampling.HollowObjectSampler;
 import com.netflix.hollow.api.sampling.HollowSampler;
 import com.netflix.hollow.api.sampling.HollowSamplingDirector;
+import com.netflix.hollow.core.HollowStringEncoding;
 import com.netflix.hollow.core.memory.MemoryMode;
 import com.netflix.hollow.core.memory.encoding.GapEncodedVariableLengthIntegerReader;
 import com.netflix.hollow.core.memory.encoding.VarInt;
+import com.netflix.hollow.core.memory.encoding.ZigZag;
 import com.netflix.hollow.core.memory.pool.ArraySegmentRecycler;
 import com.netflix.hollow.core.read.HollowBlobInput;
 import com.netflix.hollow.core.read.dataaccess.HollowObjectTypeDataAccess;
@@ -32,15 +34,21 @@ import com.netflix.hollow.core.read.engine.SnapshotPopulatedOrdinalsReader;
 import com.netflix.hollow.core.read.filter.HollowFilterConfig;
 import com.netflix.hollow.core.schema.HollowObjectSchema;
 import com.netflix.hollow.core.schema.HollowSchema;
+import com.netflix.hollow.core.write.HollowObjectWriteRecord;
 import com.netflix.hollow.tools.checksum.HollowChecksum;
 import java.io.IOException;
 import java.util.BitSet;
+import java.util.function.DoublePredicate;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
 
 /**
  * A {@link HollowTypeReadState} for OBJECT type records. 
  */
 public class HollowObjectTypeReadState extends HollowTypeReadState implements HollowObjectTypeDataAccess {
 
+    private static final int SCAN_BATCH_SIZE = 1024;
+
     private final HollowObjectSchema unfilteredSchema;
     private final HollowObjectSampler sampler;
 
@@ -50,11 +58,21 @@ public class HollowObjectTypeReadState extends HollowTypeReadState implements Ho
 
     private int maxOrdinal;
 
+    private volatile HollowObjectStringCache stringCache;
+
     public HollowObjectTypeReadState(HollowReadStateEngine fileEngine, HollowObjectSchema schema) {
         this(fileEngine, MemoryMode.ON_HEAP, schema, schema, 1);
     }
 
     public HollowObjectTypeReadState(HollowReadStateEngine fileEngine, MemoryMode memoryMode, HollowObjectSchema schema, HollowObjectSchema unfilteredSchema, int numShards) {
+        this(fileEngine, memoryMode, schema, unfilteredSchema, numShards,
+                fileEngine == null ? HollowStringEncoding.VARINT_CHARS : fileEngine.getStringEncoding());
+    }
+
+    /**
+     * @param stringEncoding the encoding of STRING field values, which must be specified if there is no state engine
+     */
+    public HollowObjectTypeReadState(HollowReadStateEngine fileEngine, MemoryMode memoryMode, HollowObjectSchema schema, HollowObjectSchema unfilteredSchema, int numShards, HollowStringEncoding stringEncoding) {
         super(fileEngine, memoryMode, schema);
         this.sampler = new HollowObjectSampler(schema, DisabledSamplingDirector.INSTANCE);
         this.unfilteredSchema = unfilteredSchema;
@@ -66,7 +84,7 @@ public class HollowObjectTypeReadState extends HollowTypeReadState implements Ho
         
         HollowObjectTypeReadStateShard shards[] = new HollowObjectTypeReadStateShard[numShards];
         for(int i=0;i<shards.length;i++)
-            shards[i] = new HollowObjectTypeReadStateShard(schema);
+            shards[i] = new HollowObjectTypeReadStateShard(schema, stringEncoding);
         
         this.shards = shards;
     }
@@ -191,6 +209,208 @@ public class HollowObjectTypeReadState extends HollowTypeReadState implements Ho
         return shards[ordinal & shardNumberMask].readLong(ordinal >> shardOrdinalShift, fieldIndex);
     }
 
+    /**
+     * Reads the INT field at {@code fieldIndex} for the consecutive ordinals starting at {@code fromOrdinal} into
+     * {@code values}, in one pass over each shard.  This is considerably cheaper than calling
+     * {@link #readInt(int, int)} for each ordinal when scanning a whole type.
+     * <p>
+     * As with {@link #readInt(int, int)}, null values are read as {@code Integer.MIN_VALUE}.  If {@code nulls} is
+     * supplied, the bit at each index into {@code values} is set if that value is null and cleared otherwise.
+     *
+     * @param fromOrdinal the first ordinal to read
+     * @param fieldIndex the field index
+     * @param values the destination for the values of ordinals {@code fromOrdinal} onwards
+     * @param nulls the destination for null flags, or null
+     * @return the number of values read, which is fewer than {@code values.length} only once the max ordinal is reached
+     */
+    public int readInts(int fromOrdinal, int fieldIndex, int[] values, BitSet nulls) {
+        sampler.recordFieldAccess(fieldIndex);
+        int count = batchCount(fromOrdinal, values.length);
+        long[] encoded = new long[(count >> shardOrdinalShift) + 1];
+
+        for(int shard=0;shard<shards.length;shard++) {
+            int firstIdx = (shard - fromOrdinal) & shardNumberMask;
+            int shardCount = shardBatchCount(firstIdx, count);
+            if(shardCount == 0)
+                continue;
+
+            long nullValue = shards[shard].readFixedLengthFieldValues((fromOrdinal + firstIdx) >> shardOrdinalShift, shardCount, fieldIndex, encoded);
+            for(int i=0, idx=firstIdx;i<shardCount;i++, idx+=shards.length) {
+                boolean isNull = encoded[i] == nullValue;
+                values[idx] = isNull ? Integer.MIN_VALUE : ZigZag.decodeInt((int)encoded[i]);
+                if(nulls != null)
+                    nulls.set(idx, isNull);
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Reads the LONG field at {@code fieldIndex} for the consecutive ordinals starting at {@code fromOrdinal} into
+     * {@code values}.  Null values are read as {@code Long.MIN_VALUE}.
+     *
+     * @param fromOrdinal the first ordinal to read
+     * @param fieldIndex the field index
+     * @param values the destination for the values of ordinals {@code fromOrdinal} onwards
+     * @param nulls the destination for null flags, or null
+     * @return the number of values read, which is fewer than {@code values.length} only once the max ordinal is reached
+     * @see #readInts(int, int, int[], BitSet)
+     */
+    public int readLongs(int fromOrdinal, int fieldIndex, long[] values, BitSet nulls) {
+        sampler.recordFieldAccess(fieldIndex);
+        int count = batchCount(fromOrdinal, values.length);
+        long[] encoded = new long[(count >> shardOrdinalShift) + 1];
+
+        for(int shard=0;shard<shards.length;shard++) {
+            int firstIdx = (shard - fromOrdinal) & shardNumberMask;
+            int shardCount = shardBatchCount(firstIdx, count);
+            if(shardCount == 0)
+                continue;
+
+            long nullValue = shards[shard].readFixedLengthFieldValues((fromOrdinal + firstIdx) >> shardOrdinalShift, shardCount, fieldIndex, encoded);
+            for(int i=0, idx=firstIdx;i<shardCount;i++, idx+=shards.length) {
+                boolean isNull = encoded[i] == nullValue;
+                values[idx] = isNull ? Long.MIN_VALUE : ZigZag.decodeLong(encoded[i]);
+                if(nulls != null)
+                    nulls.set(idx, isNull);
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Reads the DOUBLE field at {@code fieldIndex} for the consecutive ordinals starting at {@code fromOrdinal} into
+     * {@code values}.  Null values are read as {@code Double.NaN}.
+     *
+     * @param fromOrdinal the first ordinal to read
+     * @param fieldIndex the field index
+     * @param values the destination for the values of ordinals {@code fromOrdinal} onwards
+     * @param nulls the destination for null flags, or null
+     * @return the number of values read, which is fewer than {@code values.length} only once the max ordinal is reached
+     * @see #readInts(int, int, int[], BitSet)
+     */
+    public int readDoubles(int fromOrdinal, int fieldIndex, double[] values, BitSet nulls) {
+        sampler.recordFieldAccess(fieldIndex);
+        int count = batchCount(fromOrdinal, values.length);
+        long[] encoded = new long[(count >> shardOrdinalShift) + 1];
+
+        for(int shard=0;shard<shards.length;shard++) {
+            int firstIdx = (shard - fromOrdinal) & shardNumberMask;
+            int shardCount = shardBatchCount(firstIdx, count);
+            if(shardCount == 0)
+                continue;
+
+            shards[shard].readFixedLengthFieldValues((fromOrdinal + firstIdx) >> shardOrdinalShift, shardCount, fieldIndex, encoded);
+            for(int i=0, idx=firstIdx;i<shardCount;i++, idx+=shards.length) {
+                boolean isNull = encoded[i] == HollowObjectWriteRecord.NULL_DOUBLE_BITS;
+                values[idx] = isNull ? Double.NaN : Double.longBitsToDouble(encoded[i]);
+                if(nulls != null)
+                    nulls.set(idx, isNull);
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Finds the populated ordinals whose INT field at {@code fieldIndex} is not null and satisfies {@code predicate}.
+     * Each shard is decoded in batches, so a query such as "count records where price &gt; X" does not pay the cost
+     * of a {@link #readInt(int, int)} call per record.
+     *
+     * @param fieldIndex the field index
+     * @param predicate the predicate to evaluate against each non-null value
+     * @return the matching ordinals
+     */
+    public BitSet scanInts(int fieldIndex, IntPredicate predicate) {
+        sampler.recordFieldAccess(fieldIndex);
+        BitSet matches = new BitSet(maxOrdinal + 1);
+        long[] encoded = new long[SCAN_BATCH_SIZE];
+        int maxShardOrdinal = maxOrdinal >> shardOrdinalShift;
+
+        for(int shard=0;shard<shards.length;shard++) {
+            for(int from=0;from<=maxShardOrdinal;from+=SCAN_BATCH_SIZE) {
+                int count = Math.min(SCAN_BATCH_SIZE, maxShardOrdinal - from + 1);
+                long nullValue = shards[shard].readFixedLengthFieldValues(from, count, fieldIndex, encoded);
+                for(int i=0;i<count;i++) {
+                    if(encoded[i] != nullValue && predicate.test(ZigZag.decodeInt((int)encoded[i])))
+                        matches.set(((from + i) << shardOrdinalShift) | shard);
+                }
+            }
+        }
+
+        matches.and(getPopulatedOrdinals());
+        return matches;
+    }
+
+    /**
+     * Finds the populated ordinals whose LONG field at {@code fieldIndex} is not null and satisfies {@code predicate}.
+     *
+     * @param fieldIndex the field index
+     * @param predicate the predicate to evaluate against each non-null value
+     * @return the matching ordinals
+     * @see #scanInts(int, IntPredicate)
+     */
+    public BitSet scanLongs(int fieldIndex, LongPredicate predicate) {
+        sampler.recordFieldAccess(fieldIndex);
+        BitSet matches = new BitSet(maxOrdinal + 1);
+        long[] encoded = new long[SCAN_BATCH_SIZE];
+        int maxShardOrdinal = maxOrdinal >> shardOrdinalShift;
+
+        for(int shard=0;shard<shards.length;shard++) {
+            for(int from=0;from<=maxShardOrdinal;from+=SCAN_BATCH_SIZE) {
+                int count = Math.min(SCAN_BATCH_SIZE, maxShardOrdinal - from + 1);
+                long nullValue = shards[shard].readFixedLengthFieldValues(from, count, fieldIndex, encoded);
+                for(int i=0;i<count;i++) {
+                    if(encoded[i] != nullValue && predicate.test(ZigZag.decodeLong(encoded[i])))
+                        matches.set(((from + i) << shardOrdinalShift) | shard);
+                }
+            }
+        }
+
+        matches.and(getPopulatedOrdinals());
+        return matches;
+    }
+
+    /**
+     * Finds the populated ordinals whose DOUBLE field at {@code fieldIndex} is not null and satisfies {@code predicate}.
+     *
+     * @param fieldIndex the field index
+     * @param predicate the predicate to evaluate against each non-null value
+     * @return the matching ordinals
+     * @see #scanInts(int, IntPredicate)
+     */
+    public BitSet scanDoubles(int fieldIndex, DoublePredicate predicate) {
+        sampler.recordFieldAccess(fieldIndex);
+        BitSet matches = new BitSet(maxOrdinal + 1);
+        long[] encoded = new long[SCAN_BATCH_SIZE];
+        int maxShardOrdinal = maxOrdinal >> shardOrdinalShift;
+
+        for(int shard=0;shard<shards.length;shard++) {
+            for(int from=0;from<=maxShardOrdinal;from+=SCAN_BATCH_SIZE) {
+                int count = Math.min(SCAN_BATCH_SIZE, maxShardOrdinal - from + 1);
+                shards[shard].readFixedLengthFieldValues(from, count, fieldIndex, encoded);
+                for(int i=0;i<count;i++) {
+                    if(encoded[i] != HollowObjectWriteRecord.NULL_DOUBLE_BITS && predicate.test(Double.longBitsToDouble(encoded[i])))
+                        matches.set(((from + i) << shardOrdinalShift) | shard);
+                }
+            }
+        }
+
+        matches.and(getPopulatedOrdinals());
+        return matches;
+    }
+
+    private int batchCount(int fromOrdinal, int maxCount) {
+        return Math.max(0, Math.min(maxCount, maxOrdinal - fromOrdinal + 1));
+    }
+
+    // the number of ordinals in a batch of count ordinals which belong to the shard whose first ordinal is at firstIdx
+    private int shardBatchCount(int firstIdx, int count) {
+        return firstIdx < count ? ((count - firstIdx - 1) >> shardOrdinalShift) + 1 : 0;
+    }
+
     @Override
     public Boolean readBoolean(int ordinal, int fieldIndex) {
         sampler.recordFieldAccess(fieldIndex);
@@ -206,6 +426,9 @@ public class HollowObjectTypeReadState extends HollowTypeReadState implements Ho
     @Override
     public String readString(int ordinal, int fieldIndex) {
         sampler.recordFieldAccess(fieldIndex);
+        HollowObjectStringCache stringCache = this.stringCache;
+        if(stringCache != null && stringCache.isCached(fieldIndex))
+            return stringCache.readString(shards[ordinal & shardNumberMask], ordinal, ordinal >> shardOrdinalShift, fieldIndex);
         return shards[ordinal & shardNumberMask].readString(ordinal >> shardOrdinalShift, fieldIndex);
     }
 
@@ -221,6 +444,30 @@ public class HollowObjectTypeReadState extends HollowTypeReadState implements Ho
         return shards[ordinal & shardNumberMask].findVarLengthFieldHashCode(ordinal >> shardOrdinalShift, fieldIndex);
     }
 
+    @Override
+    public int readBytes(int ordinal, int fieldIndex, byte[] dest, int destPos) {
+        sampler.recordFieldAccess(fieldIndex);
+        return shards[ordinal & shardNumberMask].readBytes(ordinal >> shardOrdinalShift, fieldIndex, dest, destPos);
+    }
+
+    @Override
+    public boolean readString(int ordinal, int fieldIndex, StringBuilder dest) {
+        sampler.recordFieldAccess(fieldIndex);
+        return shards[ordinal & shardNumberMask].readString(ordinal >> shardOrdinalShift, fieldIndex, dest);
+    }
+
+    @Override
+    public boolean isStringFieldPrefixedBy(int ordinal, int fieldIndex, String prefix) {
+        sampler.recordFieldAccess(fieldIndex);
+        return shards[ordinal & shardNumberMask].isStringFieldPrefixedBy(ordinal >> shardOrdinalShift, fieldIndex, prefix);
+    }
+
+    @Override
+    public int compareStringField(int ordinal, int fieldIndex, String testValue) {
+        sampler.recordFieldAccess(fieldIndex);
+        return shards[ordinal & shardNumberMask].compareStringField(ordinal >> shardOrdinalShift, fieldIndex, testValue);
+    }
+
     /**
      * Warning:  Not thread-safe.  Should only be called within the update thread.
      * @param fieldName the field name
@@ -243,6 +490,37 @@ public class HollowObjectTypeReadState extends HollowTypeReadState implements Ho
         return sampler;
     }
 
+    /**
+     * Create a cursor which reads many fields of a record with a single safety check.  The reader is not thread-safe,
+     * but may be reused for any number of records.
+     *
+     * @return a new record reader
+     * @see HollowObjectRecordReader
+     */
+    public HollowObjectRecordReader createRecordReader() {
+        return new HollowObjectRecordReader(shards, shardNumberMask, shardOrdinalShift, sampler, stringCache);
+    }
+
+    /**
+     * Cache decoded values of STRING fields of this type.  The cache is registered as a listener of this type state,
+     * so that it is invalidated as deltas are applied.
+     *
+     * @param stringCache the string cache
+     */
+    public void setStringCache(HollowObjectStringCache stringCache) {
+        if(this.stringCache != null)
+            removeListener(this.stringCache);
+        addListener(stringCache);
+        this.stringCache = stringCache;
+    }
+
+    /**
+     * @return the string cache for this type, or null if no fields of this type are cached
+     */
+    public HollowObjectStringCache getStringCache() {
+        return stringCache;
+    }
+
     @Override
     protected void invalidate() {
         stateListeners = EMPTY_LISTENERS;
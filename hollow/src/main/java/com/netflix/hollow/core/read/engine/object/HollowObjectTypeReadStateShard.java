@@ -18,12 +18,16 @@ package com.netflix.hollow.core.read.engine.object;
 
 import static com.netflix.hollow.core.HollowConstants.ORDINAL_NONE;
 
+import com.netflix.hollow.core.HollowStringEncoding;
 import com.netflix.hollow.core.memory.ByteData;
+import com.netflix.hollow.core.memory.FixedLengthData;
 import com.netflix.hollow.core.memory.HollowUnsafeHandle;
 import com.netflix.hollow.core.memory.encoding.HashCodes;
+import com.netflix.hollow.core.memory.encoding.Utf8;
 import com.netflix.hollow.core.memory.encoding.VarInt;
 import com.netflix.hollow.core.memory.encoding.ZigZag;
 import com.netflix.hollow.core.schema.HollowObjectSchema;
+import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
 import com.netflix.hollow.core.schema.HollowSchema;
 import com.netflix.hollow.core.write.HollowObjectWriteRecord;
 import com.netflix.hollow.tools.checksum.HollowChecksum;
@@ -37,9 +41,11 @@ class HollowObjectTypeReadStateShard {
     private volatile HollowObjectTypeDataElements currentDataVolatile;
 
     private final HollowObjectSchema schema;
-    
-    HollowObjectTypeReadStateShard(HollowObjectSchema schema) {
+    private final boolean utf8Strings;
+
+    HollowObjectTypeReadStateShard(HollowObjectSchema schema, HollowStringEncoding stringEncoding) {
         this.schema = schema;
+        this.utf8Strings = stringEncoding == HollowStringEncoding.UTF_8;
     }
 
     public boolean isNull(int ordinal, int fieldIndex) {
@@ -167,6 +173,38 @@ class HollowObjectTypeReadStateShard {
         return value;
     }
 
+    /**
+     * Decodes the fixed-length values of a field for {@code count} consecutive shard ordinals, starting at
+     * {@code fromOrdinal}, into {@code dest}.  The data elements are resolved and checked once for the whole range
+     * rather than once per value.  Ordinals beyond this shard's max ordinal are given the field's null value.
+     *
+     * @return the encoded null value of the field, against which the decoded values may be compared
+     */
+    long readFixedLengthFieldValues(int fromOrdinal, int count, int fieldIndex, long[] dest) {
+        HollowObjectTypeDataElements currentData;
+        long nullValue;
+
+        do {
+            currentData = this.currentDataVolatile;
+
+            FixedLengthData fixedLengthData = currentData.fixedLengthData;
+            int numBitsForField = currentData.bitsPerField[fieldIndex];
+            long bitsPerRecord = currentData.bitsPerRecord;
+            long mask = numBitsForField == 64 ? -1L : (1L << numBitsForField) - 1;
+            nullValue = currentData.nullValueForField[fieldIndex];
+
+            int numPopulated = Math.max(0, Math.min(count, currentData.maxOrdinal - fromOrdinal + 1));
+            long bitOffset = fieldOffset(currentData, fromOrdinal, fieldIndex);
+
+            fixedLengthData.getElementValues(bitOffset, numBitsForField, bitsPerRecord, mask, dest, numPopulated);
+
+            for(int i=numPopulated;i<count;i++)
+                dest[i] = nullValue;
+        } while(readWasUnsafe(currentData));
+
+        return nullValue;
+    }
+
     public byte[] readBytes(int ordinal, int fieldIndex) {
         HollowObjectTypeDataElements currentData;
         byte[] result;
@@ -192,14 +230,44 @@ class HollowObjectTypeReadStateShard {
 
             int length = (int)(endByte - startByte);
             result = new byte[length];
-            for(int i=0;i<length;i++)
-                result[i] = currentData.varLengthData[fieldIndex].get(startByte + i);
+            currentData.varLengthData[fieldIndex].copy(startByte, result, 0, length);
 
         } while(readWasUnsafe(currentData));
 
         return result;
     }
 
+    public int readBytes(int ordinal, int fieldIndex, byte[] dest, int destPos) {
+        HollowObjectTypeDataElements currentData;
+        int length;
+
+        do {
+            int numBitsForField;
+            long endByte;
+            long startByte;
+
+            do {
+                currentData = this.currentDataVolatile;
+
+                numBitsForField = currentData.bitsPerField[fieldIndex];
+                long currentBitOffset = fieldOffset(currentData, ordinal, fieldIndex);
+                endByte = currentData.fixedLengthData.getElementValue(currentBitOffset, numBitsForField);
+                startByte = ordinal != 0 ? currentData.fixedLengthData.getElementValue(currentBitOffset - currentData.bitsPerRecord, numBitsForField) : 0;
+            } while(readWasUnsafe(currentData));
+
+            if((endByte & (1L << numBitsForField - 1)) != 0)
+                return -1;
+
+            startByte &= (1L << numBitsForField - 1) - 1;
+
+            length = (int)(endByte - startByte);
+            if(destPos + length <= dest.length)
+                currentData.varLengthData[fieldIndex].copy(startByte, dest, destPos, length);
+        } while(readWasUnsafe(currentData));
+
+        return length;
+    }
+
     public String readString(int ordinal, int fieldIndex) {
         HollowObjectTypeDataElements currentData;
         String result;
@@ -225,7 +293,105 @@ class HollowObjectTypeReadStateShard {
 
             int length = (int)(endByte - startByte);
 
-            result = readString(currentData.varLengthData[fieldIndex], startByte, length);
+            result = decodeString(currentData.varLengthData[fieldIndex], startByte, length);
+        } while(readWasUnsafe(currentData));
+
+        return result;
+    }
+
+    public boolean readString(int ordinal, int fieldIndex, StringBuilder dest) {
+        HollowObjectTypeDataElements currentData;
+        int destLength = dest.length();
+
+        do {
+            int numBitsForField;
+            long endByte;
+            long startByte;
+
+            do {
+                currentData = this.currentDataVolatile;
+
+                numBitsForField = currentData.bitsPerField[fieldIndex];
+                long currentBitOffset = fieldOffset(currentData, ordinal, fieldIndex);
+                endByte = currentData.fixedLengthData.getElementValue(currentBitOffset, numBitsForField);
+                startByte = ordinal != 0 ? currentData.fixedLengthData.getElementValue(currentBitOffset - currentData.bitsPerRecord, numBitsForField) : 0;
+            } while(readWasUnsafe(currentData));
+
+            if((endByte & (1L << numBitsForField - 1)) != 0)
+                return false;
+
+            startByte &= (1L << numBitsForField - 1) - 1;
+
+            // discard anything appended by a previous, unsafe, attempt
+            dest.setLength(destLength);
+            if(utf8Strings)
+                Utf8.appendString(currentData.varLengthData[fieldIndex], startByte, (int)(endByte - startByte), dest);
+            else
+                appendString(currentData.varLengthData[fieldIndex], startByte, (int)(endByte - startByte), dest);
+        } while(readWasUnsafe(currentData));
+
+        return true;
+    }
+
+    public boolean isStringFieldPrefixedBy(int ordinal, int fieldIndex, String prefix) {
+        HollowObjectTypeDataElements currentData;
+        boolean result;
+
+        do {
+            int numBitsForField;
+            long endByte;
+            long startByte;
+
+            do {
+                currentData = this.currentDataVolatile;
+
+                numBitsForField = currentData.bitsPerField[fieldIndex];
+                long currentBitOffset = fieldOffset(currentData, ordinal, fieldIndex);
+                endByte = currentData.fixedLengthData.getElementValue(currentBitOffset, numBitsForField);
+                startByte = ordinal != 0 ? currentData.fixedLengthData.getElementValue(currentBitOffset - currentData.bitsPerRecord, numBitsForField) : 0;
+            } while(readWasUnsafe(currentData));
+
+            if((endByte & (1L << numBitsForField - 1)) != 0)
+                return false;
+
+            startByte &= (1L << numBitsForField - 1) - 1;
+
+            result = (utf8Strings ?
+                    Utf8.compareString(currentData.varLengthData[fieldIndex], startByte, (int)(endByte - startByte), prefix, true)
+                    : compareString(currentData.varLengthData[fieldIndex], startByte, (int)(endByte - startByte), prefix, true)) == 0;
+        } while(readWasUnsafe(currentData));
+
+        return result;
+    }
+
+    public int compareStringField(int ordinal, int fieldIndex, String testValue) {
+        HollowObjectTypeDataElements currentData;
+        int result;
+
+        do {
+            int numBitsForField;
+            long endByte;
+            long startByte;
+
+            do {
+                currentData = this.currentDataVolatile;
+
+                numBitsForField = currentData.bitsPerField[fieldIndex];
+                long currentBitOffset = fieldOffset(currentData, ordinal, fieldIndex);
+                endByte = currentData.fixedLengthData.getElementValue(currentBitOffset, numBitsForField);
+                startByte = ordinal != 0 ? currentData.fixedLengthData.getElementValue(currentBitOffset - currentData.bitsPerRecord, numBitsForField) : 0;
+            } while(readWasUnsafe(currentData));
+
+            if((endByte & (1L << numBitsForField - 1)) != 0)
+                return testValue == null ? 0 : -1;
+            if(testValue == null)
+                return 1;
+
+            startByte &= (1L << numBitsForField - 1) - 1;
+
+            result = utf8Strings ?
+                    Utf8.compareString(currentData.varLengthData[fieldIndex], startByte, (int)(endByte - startByte), testValue, false)
+                    : compareString(currentData.varLengthData[fieldIndex], startByte, (int)(endByte - startByte), testValue, false);
         } while(readWasUnsafe(currentData));
 
         return result;
@@ -259,7 +425,7 @@ class HollowObjectTypeReadStateShard {
 
             int length = (int)(endByte - startByte);
 
-            result = testStringEquality(currentData.varLengthData[fieldIndex], startByte, length, testValue);
+            result = isDecodedStringEqual(currentData.varLengthData[fieldIndex], startByte, length, testValue);
         } while(readWasUnsafe(currentData));
 
         return result;
@@ -289,7 +455,10 @@ class HollowObjectTypeReadStateShard {
 
             int length = (int)(endByte - startByte);
 
-            hashCode = HashCodes.hashCode(currentData.varLengthData[fieldIndex], startByte, length);
+            // hash codes of STRING values are independent of their encoding; BYTES are never transcoded
+            hashCode = utf8Strings && schema.getFieldType(fieldIndex) == FieldType.STRING ?
+                    Utf8.hashCode(currentData.varLengthData[fieldIndex], startByte, length)
+                    : HashCodes.hashCode(currentData.varLengthData[fieldIndex], startByte, length);
         } while(readWasUnsafe(currentData));
 
         return hashCode;
@@ -336,6 +505,38 @@ class HollowObjectTypeReadStateShard {
         return new String(chararr, 0, count);
     }
 
+    private void appendString(ByteData data, long position, int length, StringBuilder dest) {
+        long endPosition = position + length;
+
+        while(position < endPosition) {
+            int c = VarInt.readVInt(data, position);
+            dest.append((char)c);
+            position += VarInt.sizeOfVInt(c);
+        }
+    }
+
+    /**
+     * Compares the encoded string to testValue as by {@link String#compareTo(String)}, decoding only as many
+     * characters as are needed.  If prefixOnly is set, only the first testValue.length() characters are compared.
+     */
+    private int compareString(ByteData data, long position, int length, String testValue, boolean prefixOnly) {
+        long endPosition = position + length;
+
+        int count = 0;
+
+        while(position < endPosition && count < testValue.length()) {
+            int c = VarInt.readVInt(data, position);
+            int diff = (char)c - testValue.charAt(count++);
+            if(diff != 0)
+                return diff;
+            position += VarInt.sizeOfVInt(c);
+        }
+
+        if(count < testValue.length())
+            return -1;
+        return position == endPosition || prefixOnly ? 0 : 1;
+    }
+
     private boolean testStringEquality(ByteData data, long position, int length, String testValue) {
         if(length < testValue.length()) // can't check exact length here; the length argument is in bytes, which is equal to or greater than the number of characters.
             return false;
@@ -372,7 +573,17 @@ class HollowObjectTypeReadStateShard {
         return currentDataVolatile;
     }
 
-    private boolean readWasUnsafe(HollowObjectTypeDataElements data) {
+    String decodeString(ByteData data, long position, int length) {
+        return utf8Strings ? Utf8.readString(data, position, length) : readString(data, position, length);
+    }
+
+    boolean isDecodedStringEqual(ByteData data, long position, int length, String testValue) {
+        return utf8Strings ?
+                Utf8.testStringEquality(data, position, length, testValue)
+                : testStringEquality(data, position, length, testValue);
+    }
+
+    boolean readWasUnsafe(HollowObjectTypeDataElements data) {
         // Use a load (acquire) fence to constrain the compiler reordering prior plain loads so
         // that they cannot "float down" below the volatile load of currentDataVolatile.
         // This ensures data is checked against currentData *after* optimistic calculations
@@ -0,0 +1,62 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.read.engine.object;
+
+import com.netflix.hollow.api.consumer.HollowConsumer;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A HollowStringCacheConfig specifies the STRING fields whose decoded values should be cached, and the maximum number
+ * of values to cache for each of them.
+ * <p>
+ * Caching trades a bounded amount of heap for the CPU cost of decoding a new String on every read of a hot field.
+ * It can be specified with {@link HollowConsumer.Builder#withStringCacheConfig(HollowStringCacheConfig)} if using a
+ * {@link HollowConsumer}, or with {@link HollowReadStateEngine#setStringCacheConfig(HollowStringCacheConfig)} before
+ * reading a snapshot if using a {@link HollowReadStateEngine} directly.
+ *
+ * @see HollowObjectStringCache
+ */
+public class HollowStringCacheConfig {
+
+    private final Map<String, Map<String, Integer>> maxCachedValuesPerTypeField = new HashMap<>();
+
+    /**
+     * Cache the values of a STRING field.
+     *
+     * @param type the OBJECT type name
+     * @param field the STRING field name
+     * @param maxCachedValues the maximum number of values to cache for the field
+     */
+    public void addField(String type, String field, int maxCachedValues) {
+        if(maxCachedValues <= 0)
+            throw new IllegalArgumentException("Maximum number of cached values must be positive: " + maxCachedValues);
+        maxCachedValuesPerTypeField.computeIfAbsent(type, t -> new HashMap<>()).put(field, maxCachedValues);
+    }
+
+    /**
+     * @param type the OBJECT type name
+     * @return the maximum number of values to cache for each cached field of the type, keyed by field name
+     */
+    public Map<String, Integer> getCachedFields(String type) {
+        Map<String, Integer> fields = maxCachedValuesPerTypeField.get(type);
+        return fields == null ? Collections.<String, Integer>emptyMap() : Collections.unmodifiableMap(fields);
+    }
+
+}
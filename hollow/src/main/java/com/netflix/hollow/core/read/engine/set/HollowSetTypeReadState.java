@@ -33,6 +33,7 @@ import com.netflix.hollow.core.read.engine.HollowCollectionTypeReadState;
 import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
 import com.netflix.hollow.core.read.engine.HollowTypeReadState;
 import com.netflix.hollow.core.read.engine.PopulatedOrdinalListener;
+import com.netflix.hollow.core.read.engine.SetMapKeyHasher;
 import com.netflix.hollow.core.read.engine.SnapshotPopulatedOrdinalsReader;
 import com.netflix.hollow.core.read.filter.HollowFilterConfig;
 import com.netflix.hollow.core.read.iterator.EmptyOrdinalIterator;
@@ -193,6 +194,51 @@ public class HollowSetTypeReadState extends HollowCollectionTypeReadState implem
     }
     
 
+    @Override
+    public int findElement(int ordinal, long hashKey) {
+        sampler.recordGet();
+
+        if(keyDeriver == null)
+            return ORDINAL_NONE;
+
+        FieldType[] fieldTypes = keyDeriver.getFieldTypes();
+
+        if(fieldTypes.length != 1 || !SetMapKeyHasher.isPrimitiveKey(fieldTypes[0]))
+            return ORDINAL_NONE;
+
+        return shards[ordinal & shardNumberMask].findElement(ordinal >> shardOrdinalShift, hashKey);
+    }
+
+    @Override
+    public int findElement(int ordinal, String hashKey) {
+        sampler.recordGet();
+
+        if(keyDeriver == null)
+            return ORDINAL_NONE;
+
+        FieldType[] fieldTypes = keyDeriver.getFieldTypes();
+
+        if(fieldTypes.length != 1 || fieldTypes[0] != FieldType.STRING)
+            return ORDINAL_NONE;
+
+        return shards[ordinal & shardNumberMask].findElement(ordinal >> shardOrdinalShift, hashKey);
+    }
+
+    @Override
+    public int findElement(int ordinal, Object hashKey0, Object hashKey1) {
+        sampler.recordGet();
+
+        if(keyDeriver == null)
+            return ORDINAL_NONE;
+
+        FieldType[] fieldTypes = keyDeriver.getFieldTypes();
+
+        if(fieldTypes.length != 2)
+            return ORDINAL_NONE;
+
+        return shards[ordinal & shardNumberMask].findElement(ordinal >> shardOrdinalShift, hashKey0, hashKey1);
+    }
+
     @Override
     public int relativeBucketValue(int setOrdinal, int bucketIndex) {
         return shards[setOrdinal & shardNumberMask].relativeBucketValue(setOrdinal >> shardOrdinalShift, bucketIndex);
@@ -82,7 +82,29 @@ class HollowSetTypeReadStateShard {
     
     public int findElement(int ordinal, Object... hashKey) {
         int hashCode = SetMapKeyHasher.hash(hashKey, keyDeriver.getFieldTypes());
+        return findElement(ordinal, hashCode, hashKey, null, null, 0L);
+    }
+
+    public int findElement(int ordinal, long hashKey) {
+        int hashCode = SetMapKeyHasher.hash(hashKey, keyDeriver.getFieldTypes()[0]);
+        return findElement(ordinal, hashCode, null, null, null, hashKey);
+    }
+
+    public int findElement(int ordinal, String hashKey) {
+        int hashCode = SetMapKeyHasher.hash(hashKey, keyDeriver.getFieldTypes()[0]);
+        return findElement(ordinal, hashCode, null, hashKey, null, 0L);
+    }
 
+    public int findElement(int ordinal, Object hashKey0, Object hashKey1) {
+        int hashCode = SetMapKeyHasher.hash(hashKey0, hashKey1, keyDeriver.getFieldTypes());
+        return findElement(ordinal, hashCode, null, hashKey0, hashKey1, 0L);
+    }
+
+    /**
+     * The hash key is given either as an array, as one or two key fields, or as a single primitive key field, so that
+     * the specialized lookups share this probe without allocating.
+     */
+    private int findElement(int ordinal, int hashCode, Object[] hashKey, Object hashKey0, Object hashKey1, long primitiveHashKey) {
         HollowSetTypeDataElements currentData;
 
         threadsafe:
@@ -104,7 +126,7 @@ class HollowSetTypeReadStateShard {
                 if(readWasUnsafe(currentData))
                     continue threadsafe;
                 
-                if(keyDeriver.keyMatches(bucketOrdinal, hashKey))
+                if(keyMatches(bucketOrdinal, hashKey, hashKey0, hashKey1, primitiveHashKey))
                     return bucketOrdinal;
                 
                 bucket++;
@@ -118,6 +140,16 @@ class HollowSetTypeReadStateShard {
         return ORDINAL_NONE;
     }
 
+    private boolean keyMatches(int elementOrdinal, Object[] hashKey, Object hashKey0, Object hashKey1, long primitiveHashKey) {
+        if(hashKey != null)
+            return keyDeriver.keyMatches(elementOrdinal, hashKey);
+        if(hashKey1 != null)
+            return keyDeriver.keyMatches(elementOrdinal, hashKey0, hashKey1);
+        if(hashKey0 != null)
+            return keyDeriver.keyMatches(hashKey0, elementOrdinal, 0);
+        return keyDeriver.keyMatches(elementOrdinal, primitiveHashKey);
+    }
+
     public int relativeBucketValue(int setOrdinal, int bucketIndex) {
         HollowSetTypeDataElements currentData;
         int value;
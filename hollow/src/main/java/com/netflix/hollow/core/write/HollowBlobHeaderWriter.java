@@ -34,7 +34,7 @@ public class HollowBlobHeaderWriter {
      */
     public void writeHeader(HollowBlobHeader header, DataOutputStream dos) throws IOException {
         /// save 4 bytes to indicate FastBlob version header.  This will be changed to indicate backwards incompatibility.
-        dos.writeInt(HollowBlobHeader.HOLLOW_BLOB_VERSION_HEADER);
+        dos.writeInt(header.getBlobFormatVersion());
 
         /// Write randomized tag data -- every state gets a random 64-bit tag.
         /// When attempting to apply a delta, the originating state's random 64-bit tag is compared against the current 64-bit tag.
@@ -273,6 +273,7 @@ public class HollowBlobWriter {
 
     public HollowBlobHeaderWrapper buildHeader(ProducerOptionalBlobPartConfig.OptionalBlobPartOutputStreams partStreams, List<HollowSchema> schemasToInclude, boolean isReverseDelta) {
         HollowBlobHeader header = new HollowBlobHeader();
+        header.setBlobFormatVersion(stateEngine.getStringEncoding().getBlobFormatVersion());
         /// bucket schemas by part
         List<HollowSchema> mainSchemas = schemasToInclude;
         Map<String, List<HollowSchema>> schemasByPartName = Collections.emptyMap();
@@ -16,10 +16,12 @@
  */
 package com.netflix.hollow.core.write;
 
+import com.netflix.hollow.core.HollowStringEncoding;
 import com.netflix.hollow.core.memory.ByteData;
 import com.netflix.hollow.core.memory.ByteDataArray;
 import com.netflix.hollow.core.memory.ThreadSafeBitSet;
 import com.netflix.hollow.core.memory.encoding.FixedLengthElementArray;
+import com.netflix.hollow.core.memory.encoding.Utf8;
 import com.netflix.hollow.core.memory.encoding.VarInt;
 import com.netflix.hollow.core.memory.pool.WastefulRecycler;
 import com.netflix.hollow.core.schema.HollowObjectSchema;
@@ -138,7 +140,10 @@ public class HollowObjectTypeWriteState extends HollowTypeWriteState {
                 pointer += 1;
             } else {
                 int length = VarInt.readVInt(data, pointer);
-                addVarLengthFieldSizeInBytes(fieldStats, fieldIndex, length);
+                if(isTranscodedToUtf8(fieldIndex))
+                    addVarLengthFieldSizeInBytes(fieldStats, fieldIndex, Utf8.sizeOfVarIntChars(data, pointer + VarInt.sizeOfVInt(length), length));
+                else
+                    addVarLengthFieldSizeInBytes(fieldStats, fieldIndex, length);
                 pointer += length + VarInt.sizeOfVInt(length);
             }
             break;
@@ -423,7 +428,10 @@ public class HollowObjectTypeWriteState extends HollowTypeWriteState {
             } else {
                 int length = VarInt.readVInt(data, readPointer);
                 readPointer += VarInt.sizeOfVInt(length);
-                varLengthBuf.copyFrom(data, readPointer, length);
+                if(isTranscodedToUtf8(fieldIndex))
+                    Utf8.writeVarIntChars(data, readPointer, length, varLengthBuf);
+                else
+                    varLengthBuf.copyFrom(data, readPointer, length);
 
                 long offset = varLengthBuf.length();
 
@@ -435,6 +443,12 @@ public class HollowObjectTypeWriteState extends HollowTypeWriteState {
         return readPointer;
     }
 
+    /// STRING values are held as VarInt encoded characters, and transcoded only as they are written
+    private boolean isTranscodedToUtf8(int fieldIndex) {
+        return getSchema().getFieldType(fieldIndex) == FieldType.STRING
+                && stateEngine.getStringEncoding() == HollowStringEncoding.UTF_8;
+    }
+
     private ByteDataArray getByteArray(ByteDataArray buffers[], int index) {
         if(buffers[index] == null) {
             buffers[index] = new ByteDataArray(WastefulRecycler.DEFAULT_INSTANCE);
@@ -19,6 +19,7 @@ package com.netflix.hollow.core.write;
 import com.netflix.hollow.api.error.HollowWriteStateException;
 import com.netflix.hollow.api.error.SchemaNotFoundException;
 import com.netflix.hollow.core.HollowStateEngine;
+import com.netflix.hollow.core.HollowStringEncoding;
 import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
 import com.netflix.hollow.core.read.engine.HollowTypeReadState;
 import com.netflix.hollow.core.schema.HollowSchema;
@@ -72,6 +73,8 @@ public class HollowWriteStateEngine implements HollowStateEngine {
     private long targetMaxTypeShardSize = Long.MAX_VALUE;
     //// focus filling ordinal holes in as few shards as possible to make delta application more efficient for consumers
     private boolean focusHoleFillInFewestShards = false;
+    //// encoding of STRING field values in written blobs
+    private HollowStringEncoding stringEncoding = HollowStringEncoding.VARINT_CHARS;
 
     private List<String> restoredStates;
     private boolean preparedForNextCycle = true;
@@ -135,6 +138,9 @@ public class HollowWriteStateEngine implements HollowStateEngine {
     public void restoreFrom(HollowReadStateEngine readStateEngine) {
         if(!readStateEngine.isListenToAllPopulatedOrdinals())
             throw new IllegalStateException("The specified HollowReadStateEngine must be listening for all populated ordinals!");
+        if(readStateEngine.getStringEncoding() != stringEncoding)
+            throw new IllegalStateException("The specified HollowReadStateEngine has " + readStateEngine.getStringEncoding()
+                    + " strings but this HollowWriteStateEngine writes " + stringEncoding + " strings!");
 
         for(HollowTypeReadState readState : readStateEngine.getTypeStates()) {
             String typeName = readState.getSchema().getName();
@@ -435,6 +441,24 @@ public class HollowWriteStateEngine implements HollowStateEngine {
         return focusHoleFillInFewestShards;
     }
 
+    /**
+     * Sets the encoding of STRING field values in written blobs.  Blobs written with {@link HollowStringEncoding#UTF_8}
+     * can only be read by consumers which support that encoding, and cannot hold STRING values containing unpaired
+     * surrogates; {@link #prepareForWrite()} fails if such a value was added.
+     * <p>
+     * Consumers cannot apply a delta with a different encoding than their current state, so the encoding should only be
+     * changed before the first cycle of a new delta chain.
+     *
+     * @param stringEncoding the string encoding
+     */
+    public void setStringEncoding(HollowStringEncoding stringEncoding) {
+        this.stringEncoding = stringEncoding;
+    }
+
+    public HollowStringEncoding getStringEncoding() {
+        return stringEncoding;
+    }
+
     private long mintNewRandomizedStateTag() {
         Random rand = new Random();
         
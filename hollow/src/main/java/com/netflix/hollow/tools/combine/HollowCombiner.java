@@ -48,6 +48,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The HollowCombiner is used to copy data from one or more copies of hollow datasets (a {@link HollowReadStateEngine}) into a single hollow dataset (a {@link HollowWriteStateEngine}).
@@ -63,6 +64,8 @@ import java.util.Set;
  */
 public class HollowCombiner {
 
+    private static final int ORDINALS_PER_RANGE = 1024;
+
     private final HollowReadStateEngine[] inputs;
     private final OrdinalRemapper[] ordinalRemappers;
 
@@ -299,8 +302,12 @@ public class HollowCombiner {
             if(typesToProcessThisIteration.isEmpty())
                 break;
 
+            // workers claim contiguous ranges of ordinals, so even a single large type is spread across all of them
+            final AtomicInteger[] nextOrdinalRanges = new AtomicInteger[inputs.length];
+            for(int i=0;i<inputs.length;i++)
+                nextOrdinalRanges[i] = new AtomicInteger();
+
             for(int i=0;i<numThreads;i++) {
-                final int threadNumber = i;
                 executor.execute(() -> {
                     for(int i1 =0; i1 <inputs.length; i1++) {
                         HollowCombinerCopyDirector copyDirector = selectedPrimaryKeys.isEmpty()
@@ -336,12 +343,12 @@ public class HollowCombiner {
 
                         copiersPerType.set(copierMap);
 
-                        int currentOrdinal = threadNumber;
-
                         while(!copierList.isEmpty()) {
-                            copyOrdinalForAllStates(currentOrdinal, copierList, ordinalRemapper, copyDirector);
+                            int rangeStart = nextOrdinalRanges[i1].getAndAdd(ORDINALS_PER_RANGE);
+                            int rangeEnd = rangeStart + ORDINALS_PER_RANGE;
 
-                            currentOrdinal += numThreads;
+                            for(int currentOrdinal=rangeStart;currentOrdinal<rangeEnd && !copierList.isEmpty();currentOrdinal++)
+                                copyOrdinalForAllStates(currentOrdinal, copierList, ordinalRemapper, copyDirector);
                         }
 
                     }
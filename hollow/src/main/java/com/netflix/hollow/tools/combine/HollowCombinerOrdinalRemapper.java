@@ -24,6 +24,9 @@ import java.util.Map;
 
 /**
  * Used by the {@link HollowCombiner} to track the mapping between ordinals in the input state and ordinals in the output state.  Not intended for external consumption. 
+ * <p>
+ * The per-type mappings are primitive arrays shared by all of the combiner's threads.  Races on an unmapped ordinal
+ * are benign, since each racing thread copies an identical record and is assigned the same ordinal in the output.
  * 
  * @author dkoszewnik
  *
@@ -22,10 +22,12 @@ import com.netflix.hollow.core.read.engine.PopulatedOrdinalListener;
 import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
 import com.netflix.hollow.core.util.IntList;
 import com.netflix.hollow.core.util.LongList;
+import com.netflix.hollow.core.util.SimultaneousExecutor;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Intended for use in the context of a HollowDiff.
@@ -39,9 +41,9 @@ public class HollowDiffMatcher {
     private final HollowObjectTypeReadState fromTypeState;
     private final HollowObjectTypeReadState toTypeState;
 
-    private final LongList matchedOrdinals;
-    private final IntList extraInFrom;
-    private final IntList extraInTo;
+    private LongList matchedOrdinals;
+    private IntList extraInFrom;
+    private IntList extraInTo;
 
     private HollowPrimaryKeyIndex fromIdx;
     private HollowPrimaryKeyIndex toIdx;
@@ -65,33 +67,90 @@ public class HollowDiffMatcher {
 
     public void calculateMatches() {
         if (fromTypeState==null) {
-            toTypeState.getPopulatedOrdinals().stream().forEach(i -> extraInTo.add(i));
+            extraInTo = populatedOrdinals(toTypeState);
             return;
         }
 
         if (toTypeState==null) {
-            fromTypeState.getPopulatedOrdinals().stream().forEach(i -> extraInFrom.add(i));
+            extraInFrom = populatedOrdinals(fromTypeState);
             return;
         }
 
         // No Primary Key so no matching will be done
         if (matchPaths==null || matchPaths.isEmpty()) {
-            toTypeState.getPopulatedOrdinals().stream().forEach(i -> extraInTo.add(i));
-            fromTypeState.getPopulatedOrdinals().stream().forEach(i -> extraInFrom.add(i));
+            extraInTo = populatedOrdinals(toTypeState);
+            extraInFrom = populatedOrdinals(fromTypeState);
             return;
         }
 
-        fromIdx = new HollowPrimaryKeyIndex(fromTypeState.getStateEngine(), fromTypeState.getSchema().getName(), matchPaths.toArray(new String[matchPaths.size()]));
-        toIdx = new HollowPrimaryKeyIndex(toTypeState.getStateEngine(), toTypeState.getSchema().getName(), matchPaths.toArray(new String[matchPaths.size()]));
+        final String[] fieldPaths = matchPaths.toArray(new String[matchPaths.size()]);
+
+        SimultaneousExecutor executor = new SimultaneousExecutor(getClass(), "match");
+        executor.execute(() -> fromIdx = new HollowPrimaryKeyIndex(fromTypeState.getStateEngine(), fromTypeState.getSchema().getName(), fieldPaths));
+        executor.execute(() -> toIdx = new HollowPrimaryKeyIndex(toTypeState.getStateEngine(), toTypeState.getSchema().getName(), fieldPaths));
+        awaitCompletion(executor);
 
         BitSet fromPopulatedOrdinals = fromTypeState.getListener(PopulatedOrdinalListener.class).getPopulatedOrdinals();
+        BitSet toPopulatedOrdinals = toTypeState.getListener(PopulatedOrdinalListener.class).getPopulatedOrdinals();
+
+        // the to ordinal space is split into contiguous ranges, one per worker, so that concatenating
+        // the per-worker results in range order yields matches in ascending to ordinal order
+        final int numThreads = executor.getCorePoolSize();
+        final int ordinalsPerRange = (toPopulatedOrdinals.length() + numThreads - 1) / numThreads;
+        final LongList[] matchedOrdinalsByRange = new LongList[numThreads];
+        final IntList[] extraInToByRange = new IntList[numThreads];
+        final int[] numMatchesByRange = new int[numThreads];
+
+        executor = new SimultaneousExecutor(numThreads, getClass(), "match");
+        for(int i=0;i<numThreads;i++) {
+            final int range = i;
+            executor.execute(() -> {
+                int startOrdinal = Math.min(range * ordinalsPerRange, toPopulatedOrdinals.length());
+                int endOrdinal = Math.min(startOrdinal + ordinalsPerRange, toPopulatedOrdinals.length());
+                int numCandidates = cardinality(toPopulatedOrdinals, startOrdinal, endOrdinal);
+
+                // each candidate is either matched or extra, so both lists are sized to hold every candidate
+                LongList matched = new LongList(numCandidates);
+                IntList extra = new IntList(numCandidates);
+                matchRange(toPopulatedOrdinals, startOrdinal, endOrdinal, matched, extra);
+
+                matchedOrdinalsByRange[range] = matched;
+                extraInToByRange[range] = extra;
+                numMatchesByRange[range] = matched.size();
+            });
+        }
+        awaitCompletion(executor);
+
+        int numMatches = 0;
+        for(int i=0;i<numThreads;i++)
+            numMatches += numMatchesByRange[i];
+
+        matchedOrdinals = new LongList(numMatches);
+        extraInTo = new IntList(toPopulatedOrdinals.cardinality() - numMatches);
+
         BitSet fromUnmatchedOrdinals = new BitSet(fromPopulatedOrdinals.length());
         fromUnmatchedOrdinals.or(fromPopulatedOrdinals);
 
-        BitSet toPopulatedOrdinals = toTypeState.getListener(PopulatedOrdinalListener.class).getPopulatedOrdinals();
+        for(int i=0;i<numThreads;i++) {
+            LongList matched = matchedOrdinalsByRange[i];
+            for(int j=0;j<matched.size();j++) {
+                matchedOrdinals.add(matched.get(j));
+                fromUnmatchedOrdinals.clear((int)(matched.get(j) >> 32));
+            }
+            extraInTo.addAll(extraInToByRange[i]);
+        }
+
+        extraInFrom = new IntList(fromUnmatchedOrdinals.cardinality());
+        int unmatchedFromOrdinal = fromUnmatchedOrdinals.nextSetBit(0);
+        while(unmatchedFromOrdinal != -1) {
+            extraInFrom.add(unmatchedFromOrdinal);
+            unmatchedFromOrdinal = fromUnmatchedOrdinals.nextSetBit(unmatchedFromOrdinal + 1);
+        }
+    }
 
-        int candidateToMatchOrdinal = toPopulatedOrdinals.nextSetBit(0);
-        while(candidateToMatchOrdinal != -1) {
+    private void matchRange(BitSet toPopulatedOrdinals, int startOrdinal, int endOrdinal, LongList matched, IntList extra) {
+        int candidateToMatchOrdinal = toPopulatedOrdinals.nextSetBit(startOrdinal);
+        while(candidateToMatchOrdinal != -1 && candidateToMatchOrdinal < endOrdinal) {
             Object key[] = toIdx.getRecordKey(candidateToMatchOrdinal);
             int matchedOrdinal = HollowConstants.ORDINAL_NONE;
             try {
@@ -103,19 +162,41 @@ public class HollowDiffMatcher {
             }
 
             if(matchedOrdinal != -1) {
-                matchedOrdinals.add(((long)matchedOrdinal << 32) | candidateToMatchOrdinal);
-                fromUnmatchedOrdinals.clear(matchedOrdinal);
+                matched.add(((long)matchedOrdinal << 32) | candidateToMatchOrdinal);
             } else {
-                extraInTo.add(candidateToMatchOrdinal);
+                extra.add(candidateToMatchOrdinal);
             }
 
             candidateToMatchOrdinal = toPopulatedOrdinals.nextSetBit(candidateToMatchOrdinal + 1);
         }
+    }
 
-        int unmatchedFromOrdinal = fromUnmatchedOrdinals.nextSetBit(0);
-        while(unmatchedFromOrdinal != -1) {
-            extraInFrom.add(unmatchedFromOrdinal);
-            unmatchedFromOrdinal = fromUnmatchedOrdinals.nextSetBit(unmatchedFromOrdinal + 1);
+    private static IntList populatedOrdinals(HollowObjectTypeReadState typeState) {
+        BitSet populatedOrdinals = typeState.getPopulatedOrdinals();
+        IntList ordinals = new IntList(populatedOrdinals.cardinality());
+        int ordinal = populatedOrdinals.nextSetBit(0);
+        while(ordinal != -1) {
+            ordinals.add(ordinal);
+            ordinal = populatedOrdinals.nextSetBit(ordinal + 1);
+        }
+        return ordinals;
+    }
+
+    private static int cardinality(BitSet bits, int startIndex, int endIndex) {
+        int cardinality = 0;
+        int index = bits.nextSetBit(startIndex);
+        while(index != -1 && index < endIndex) {
+            cardinality++;
+            index = bits.nextSetBit(index + 1);
+        }
+        return cardinality;
+    }
+
+    private static void awaitCompletion(SimultaneousExecutor executor) {
+        try {
+            executor.awaitSuccessfulCompletion();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException(e);
         }
     }
 
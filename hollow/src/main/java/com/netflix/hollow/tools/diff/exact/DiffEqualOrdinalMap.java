@@ -18,34 +18,70 @@ package com.netflix.hollow.tools.diff.exact;
 
 import com.netflix.hollow.core.memory.encoding.HashCodes;
 import com.netflix.hollow.core.util.IntList;
+import com.netflix.hollow.core.util.SimultaneousExecutor;
 import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Not intended for external consumption.
+ * <p>
+ * The map may be split into a power-of-2 number of partitions, selected by the high bits of the ordinal hash.  Each
+ * partition is an independent open-addressed table sized exactly for its own entries, so partitions may be
+ * populated concurrently provided each partition is populated by a single thread.
  */
 public class DiffEqualOrdinalMap {
 
     public static final DiffEqualOrdinalMap EMPTY_MAP = new DiffEqualOrdinalMap(0);
 
-    private final long fromOrdinalsMap[];
-    private final IntList pivotedToOrdinalClusters;
+    private final long fromOrdinalsMaps[][];
+    private final IntList pivotedToOrdinalClusters[];
 
-    private final long toOrdinalsIdentityMap[];
+    private final long toOrdinalsIdentityMaps[][];
+
+    private final int partitionShift;
 
     public DiffEqualOrdinalMap(int numMatches) {
-        int hashTableSize = 1 << (32 - Integer.numberOfLeadingZeros(numMatches * 2 - 1));
+        this(new int[] { numMatches });
+    }
+
+    /**
+     * @param numMatchesPerPartition the number of from ordinals which will be added to each partition.  The length
+     *                               of this array must be a power of 2.
+     */
+    public DiffEqualOrdinalMap(int numMatchesPerPartition[]) {
+        int numPartitions = numMatchesPerPartition.length;
+        if(Integer.bitCount(numPartitions) != 1)
+            throw new IllegalArgumentException("Number of partitions must be a power of 2: " + numPartitions);
+
+        this.partitionShift = 32 - Integer.numberOfTrailingZeros(numPartitions);
+        this.fromOrdinalsMaps = new long[numPartitions][];
+        this.toOrdinalsIdentityMaps = new long[numPartitions][];
+        this.pivotedToOrdinalClusters = new IntList[numPartitions];
+
+        for(int i=0;i<numPartitions;i++) {
+            fromOrdinalsMaps[i] = newHashTable(numMatchesPerPartition[i]);
+            pivotedToOrdinalClusters[i] = new IntList();
+        }
+    }
 
-        fromOrdinalsMap = new long[hashTableSize];
-        toOrdinalsIdentityMap = new long[hashTableSize];
-        pivotedToOrdinalClusters = new IntList();
-        Arrays.fill(fromOrdinalsMap, -1L);
-        Arrays.fill(toOrdinalsIdentityMap, -1L);
+    /**
+     * @param ordinal an ordinal
+     * @param numPartitions the number of partitions, a power of 2
+     * @return the partition into which the ordinal will be hashed in a map with the specified number of partitions
+     */
+    public static int partition(int ordinal, int numPartitions) {
+        return (int)((HashCodes.hashInt(ordinal) & 0xFFFFFFFFL) >>> (32 - Integer.numberOfTrailingZeros(numPartitions)));
+    }
+
+    public int numPartitions() {
+        return fromOrdinalsMaps.length;
     }
 
     public void putEqualOrdinal(int fromOrdinal, int toOrdinal) {
         long fromOrdinalMapEntry = (long)toOrdinal << 32 | fromOrdinal;
 
         int hashCode = HashCodes.hashInt(fromOrdinal);
+        long fromOrdinalsMap[] = fromOrdinalsMaps[partition(hashCode)];
 
         int bucket = hashCode & (fromOrdinalsMap.length - 1);
 
@@ -56,6 +92,11 @@ public class DiffEqualOrdinalMap {
     }
 
     public void putEqualOrdinals(int fromOrdinal, IntList toOrdinals) {
+        int hashCode = HashCodes.hashInt(fromOrdinal);
+        int partition = partition(hashCode);
+        long fromOrdinalsMap[] = fromOrdinalsMaps[partition];
+        IntList pivotedToOrdinalClusters = this.pivotedToOrdinalClusters[partition];
+
         long fromOrdinalMapEntry = (long)toOrdinals.get(0) << 32 | fromOrdinal;
 
         if(toOrdinals.size() > 1) {
@@ -69,8 +110,6 @@ public class DiffEqualOrdinalMap {
             }
         }
 
-        int hashCode = HashCodes.hashInt(fromOrdinal);
-
         int bucket = hashCode & (fromOrdinalsMap.length - 1);
 
         while(fromOrdinalsMap[bucket] != -1)
@@ -80,26 +119,77 @@ public class DiffEqualOrdinalMap {
     }
 
     public void buildToOrdinalIdentityMapping() {
-        for(int i=0;i<fromOrdinalsMap.length;i++) {
-            if(fromOrdinalsMap[i] >= 0) {
-                int toOrdinal = (int)(fromOrdinalsMap[i] >> 32);
-                addToOrdinalIdentity(toOrdinal, toOrdinal);
+        int numPartitions = numPartitions();
+
+        if(numPartitions == 1) {
+            buildToOrdinalIdentityMapping(0);
+            return;
+        }
+
+        SimultaneousExecutor executor = new SimultaneousExecutor(numPartitions, getClass(), "build-to-identity");
+        for(int i=0;i<numPartitions;i++) {
+            final int toPartition = i;
+            executor.execute(() -> buildToOrdinalIdentityMapping(toPartition));
+        }
+
+        try {
+            executor.awaitSuccessfulCompletion();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Populate a single partition of the to ordinal identity mapping.  Each to partition may hold entries
+     * originating from any from partition, so all of them are scanned: once to size the table, and once to fill it.
+     */
+    private void buildToOrdinalIdentityMapping(int toPartition) {
+        int numEntries = 0;
+        for(int p=0;p<fromOrdinalsMaps.length;p++) {
+            long fromOrdinalsMap[] = fromOrdinalsMaps[p];
+            for(int i=0;i<fromOrdinalsMap.length;i++) {
+                if(fromOrdinalsMap[i] >= 0 && partition(HashCodes.hashInt((int)(fromOrdinalsMap[i] >> 32))) == toPartition)
+                    numEntries++;
+            }
+
+            IntList clusters = pivotedToOrdinalClusters[p];
+            for(int i=0;i<clusters.size();i++) {
+                if(partition(HashCodes.hashInt(clusters.get(i) & Integer.MAX_VALUE)) == toPartition)
+                    numEntries++;
             }
         }
 
-        boolean newCluster = true;
-        int currentIdentity = 0;
+        long toOrdinalsIdentityMap[] = newHashTable(numEntries);
 
-        for(int i=0;i<pivotedToOrdinalClusters.size();i++) {
-            if(newCluster)
-                currentIdentity = pivotedToOrdinalClusters.get(i);
-            addToOrdinalIdentity(pivotedToOrdinalClusters.get(i) & Integer.MAX_VALUE, currentIdentity);
-            newCluster = (pivotedToOrdinalClusters.get(i) & Integer.MIN_VALUE) != 0;
+        for(int p=0;p<fromOrdinalsMaps.length;p++) {
+            long fromOrdinalsMap[] = fromOrdinalsMaps[p];
+            for(int i=0;i<fromOrdinalsMap.length;i++) {
+                if(fromOrdinalsMap[i] >= 0) {
+                    int toOrdinal = (int)(fromOrdinalsMap[i] >> 32);
+                    addToOrdinalIdentity(toOrdinalsIdentityMap, toPartition, toOrdinal, toOrdinal);
+                }
+            }
+
+            IntList clusters = pivotedToOrdinalClusters[p];
+            boolean newCluster = true;
+            int currentIdentity = 0;
+
+            for(int i=0;i<clusters.size();i++) {
+                if(newCluster)
+                    currentIdentity = clusters.get(i);
+                addToOrdinalIdentity(toOrdinalsIdentityMap, toPartition, clusters.get(i) & Integer.MAX_VALUE, currentIdentity);
+                newCluster = (clusters.get(i) & Integer.MIN_VALUE) != 0;
+            }
         }
+
+        toOrdinalsIdentityMaps[toPartition] = toOrdinalsIdentityMap;
     }
 
-    private void addToOrdinalIdentity(int toOrdinal, int identity) {
+    private void addToOrdinalIdentity(long toOrdinalsIdentityMap[], int toPartition, int toOrdinal, int identity) {
         int hashCode = HashCodes.hashInt(toOrdinal);
+        if(partition(hashCode) != toPartition)
+            return;
+
         int bucket = hashCode & (toOrdinalsIdentityMap.length - 1);
 
         while(toOrdinalsIdentityMap[bucket] != -1) {
@@ -111,13 +201,15 @@ public class DiffEqualOrdinalMap {
 
     public MatchIterator getEqualOrdinals(int fromOrdinal) {
         int hashCode = HashCodes.hashInt(fromOrdinal);
+        int partition = partition(hashCode);
+        long fromOrdinalsMap[] = fromOrdinalsMaps[partition];
 
         int bucket = hashCode & (fromOrdinalsMap.length - 1);
 
         while(fromOrdinalsMap[bucket] != -1L) {
             if((int)fromOrdinalsMap[bucket] == fromOrdinal) {
                 if((fromOrdinalsMap[bucket] & Long.MIN_VALUE) != 0L)
-                    return new PivotedMatchIterator((int)((fromOrdinalsMap[bucket] & Long.MAX_VALUE) >> 32));
+                    return new PivotedMatchIterator(pivotedToOrdinalClusters[partition], (int)((fromOrdinalsMap[bucket] & Long.MAX_VALUE) >> 32));
                 return new SingleMatchIterator((int)(fromOrdinalsMap[bucket] >> 32));
             }
             bucket = (bucket + 1) & (fromOrdinalsMap.length - 1);
@@ -128,13 +220,15 @@ public class DiffEqualOrdinalMap {
 
     public int getIdentityFromOrdinal(int fromOrdinal) {
         int hashCode = HashCodes.hashInt(fromOrdinal);
+        int partition = partition(hashCode);
+        long fromOrdinalsMap[] = fromOrdinalsMaps[partition];
 
         int bucket = hashCode & (fromOrdinalsMap.length - 1);
 
         while(fromOrdinalsMap[bucket] != -1L) {
             if((int)fromOrdinalsMap[bucket] == fromOrdinal) {
                 if((fromOrdinalsMap[bucket] & Long.MIN_VALUE) != 0L)
-                    return pivotedToOrdinalClusters.get((int)((fromOrdinalsMap[bucket] & Long.MAX_VALUE) >> 32));
+                    return pivotedToOrdinalClusters[partition].get((int)((fromOrdinalsMap[bucket] & Long.MAX_VALUE) >> 32));
                 return (int)(fromOrdinalsMap[bucket] >> 32);
             }
             bucket = (bucket + 1) & (fromOrdinalsMap.length - 1);
@@ -145,6 +239,10 @@ public class DiffEqualOrdinalMap {
 
     public int getIdentityToOrdinal(int toOrdinal) {
         int hashCode = HashCodes.hashInt(toOrdinal);
+        long toOrdinalsIdentityMap[] = toOrdinalsIdentityMaps[partition(hashCode)];
+
+        if(toOrdinalsIdentityMap == null)
+            return -1;
 
         int bucket = hashCode & (toOrdinalsIdentityMap.length - 1);
 
@@ -157,6 +255,17 @@ public class DiffEqualOrdinalMap {
         return -1;
     }
 
+    private int partition(int hashCode) {
+        return (int)((hashCode & 0xFFFFFFFFL) >>> partitionShift);
+    }
+
+    private static long[] newHashTable(int numEntries) {
+        int hashTableSize = numEntries == 0 ? 1 : 1 << (32 - Integer.numberOfLeadingZeros(numEntries * 2 - 1));
+        long hashTable[] = new long[hashTableSize];
+        Arrays.fill(hashTable, -1L);
+        return hashTable;
+    }
+
     public static interface OrdinalIdentityTranslator {
         public int getIdentityOrdinal(int ordinal);
     }
@@ -213,10 +322,16 @@ public class DiffEqualOrdinalMap {
     }
 
     public class PivotedMatchIterator implements MatchIterator {
+        private final IntList pivotedToOrdinalClusters;
         private int currentMatchListPosition;
         private boolean exhausted;
 
         public PivotedMatchIterator(int matchListPosition) {
+            this(DiffEqualOrdinalMap.this.pivotedToOrdinalClusters[0], matchListPosition);
+        }
+
+        PivotedMatchIterator(IntList pivotedToOrdinalClusters, int matchListPosition) {
+            this.pivotedToOrdinalClusters = pivotedToOrdinalClusters;
             this.currentMatchListPosition = matchListPosition;
         }
 
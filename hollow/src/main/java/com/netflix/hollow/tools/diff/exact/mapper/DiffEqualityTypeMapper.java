@@ -99,11 +99,19 @@ public abstract class DiffEqualityTypeMapper {
 
         SimultaneousExecutor executor = new SimultaneousExecutor(1.5d, getClass(), "map-matching-from-ordinals");
         final int numThreads = executor.getCorePoolSize();
-        final LongList[] matchPairResults = new LongList[numThreads];
+        final int numPartitions = Integer.highestOneBit(numThreads * 2 - 1);
+
+        // match pairs are bucketed by the DiffEqualOrdinalMap partition of their from ordinal,
+        // so that each partition of the map can afterwards be populated independently
+        final LongList[][] matchPairResults = new LongList[numPartitions][numThreads];
+        // each list is sized for an even share of the from ordinals, each matching one to ordinal; a list only grows
+        // if its share of the ordinals is uneven or a from record is equal to several to records
+        final int expectedMatchesPerList = Math.max(fromPopulatedOrdinals.cardinality() / (numThreads * numPartitions), 12);
 
         for(int i=0;i<numThreads;i++) {
             final int threadNumber = i;
-            matchPairResults[threadNumber] = new LongList();
+            for(int p=0;p<numPartitions;p++)
+                matchPairResults[p][threadNumber] = new LongList(expectedMatchesPerList);
             executor.execute(() -> {
                 EqualityDeterminer equalityDeterminer = getEqualityDeterminer();
 
@@ -111,10 +119,11 @@ public abstract class DiffEqualityTypeMapper {
                     if(fromPopulatedOrdinals.get(t)) {
                         int hashCode = fromRecordHashCode(t);
                         if(hashCode != -1) {
+                            LongList results = matchPairResults[DiffEqualOrdinalMap.partition(t, numPartitions)][threadNumber];
                             int bucket = hashCode & (hashedToOrdinals.length - 1);
                             while(hashedToOrdinals[bucket] != -1) {
                                 if(equalityDeterminer.recordsAreEqual(t, hashedToOrdinals[bucket])) {
-                                    matchPairResults[threadNumber].add(((long) t << 32) | hashedToOrdinals[bucket]);
+                                    results.add(((long) t << 32) | hashedToOrdinals[bucket]);
                                 }
                                 bucket = (bucket + 1) & (hashedToOrdinals.length - 1);
                             }
@@ -124,43 +133,77 @@ public abstract class DiffEqualityTypeMapper {
             });
         }
 
-        try {
-            executor.awaitSuccessfulCompletion();
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException(e);
-        }
+        awaitCompletion(executor);
 
-        int numMatches = 0;
-        for(int i=0;i<matchPairResults.length;i++) {
-            numMatches += matchPairResults[i].size();
+        int numMatchesPerPartition[] = new int[numPartitions];
+        for(int p=0;p<numPartitions;p++) {
+            for(int i=0;i<numThreads;i++) {
+                numMatchesPerPartition[p] += matchPairResults[p][i].size();
+            }
         }
 
-        CombinedMatchPairResultsIterator resultsIterator = new CombinedMatchPairResultsIterator(matchPairResults);
-
-        DiffEqualOrdinalMap ordinalMap = new DiffEqualOrdinalMap(numMatches);
+        final DiffEqualOrdinalMap ordinalMap = new DiffEqualOrdinalMap(numMatchesPerPartition);
 
         if(oneToOne) {
+            // the greedy mapping depends on the order in which from ordinals are visited, so they are visited in the
+            // order they were matched: each thread's from ordinals in turn, in ascending order, across all partitions
             BitSet alreadyMappedToOrdinals = new BitSet(toState.maxOrdinal() + 1);
-            while(resultsIterator.next()) {
-                int fromOrdinal = resultsIterator.fromOrdinal();
-                IntList toOrdinals = resultsIterator.toOrdinals();
-                for(int i=0;i<toOrdinals.size();i++) {
-                    if(!alreadyMappedToOrdinals.get(toOrdinals.get(i))) {
-                        alreadyMappedToOrdinals.set(toOrdinals.get(i));
-                        ordinalMap.putEqualOrdinal(fromOrdinal, toOrdinals.get(i));
+            CombinedMatchPairResultsIterator partitionIterators[] = new CombinedMatchPairResultsIterator[numPartitions];
+            boolean partitionHasNext[] = new boolean[numPartitions];
+            for(int i=0;i<numThreads;i++) {
+                for(int p=0;p<numPartitions;p++) {
+                    partitionIterators[p] = new CombinedMatchPairResultsIterator(new LongList[] { matchPairResults[p][i] });
+                    partitionHasNext[p] = partitionIterators[p].next();
+                }
+
+                while(true) {
+                    int nextPartition = -1;
+                    for(int p=0;p<numPartitions;p++) {
+                        if(partitionHasNext[p] && (nextPartition == -1
+                                || partitionIterators[p].fromOrdinal() < partitionIterators[nextPartition].fromOrdinal()))
+                            nextPartition = p;
+                    }
+                    if(nextPartition == -1)
                         break;
+
+                    int fromOrdinal = partitionIterators[nextPartition].fromOrdinal();
+                    IntList toOrdinals = partitionIterators[nextPartition].toOrdinals();
+                    for(int j=0;j<toOrdinals.size();j++) {
+                        if(!alreadyMappedToOrdinals.get(toOrdinals.get(j))) {
+                            alreadyMappedToOrdinals.set(toOrdinals.get(j));
+                            ordinalMap.putEqualOrdinal(fromOrdinal, toOrdinals.get(j));
+                            break;
+                        }
                     }
+
+                    partitionHasNext[nextPartition] = partitionIterators[nextPartition].next();
                 }
             }
         } else {
-            while(resultsIterator.next()) {
-                ordinalMap.putEqualOrdinals(resultsIterator.fromOrdinal(), resultsIterator.toOrdinals());
+            executor = new SimultaneousExecutor(numPartitions, getClass(), "populate-equal-ordinal-map");
+            for(int p=0;p<numPartitions;p++) {
+                final CombinedMatchPairResultsIterator resultsIterator = new CombinedMatchPairResultsIterator(matchPairResults[p]);
+                executor.execute(() -> {
+                    while(resultsIterator.next()) {
+                        ordinalMap.putEqualOrdinals(resultsIterator.fromOrdinal(), resultsIterator.toOrdinals());
+                    }
+                });
             }
+
+            awaitCompletion(executor);
         }
 
         return ordinalMap;
     }
 
+    private static void awaitCompletion(SimultaneousExecutor executor) {
+        try {
+            executor.awaitSuccessfulCompletion();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     public abstract boolean requiresTraversalForMissingFields();
 
     protected abstract int fromRecordHashCode(int ordinal);
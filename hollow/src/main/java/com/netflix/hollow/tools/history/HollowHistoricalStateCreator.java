@@ -16,6 +16,7 @@
  */
 package com.netflix.hollow.tools.history;
 
+import com.netflix.hollow.core.memory.MemoryMode;
 import com.netflix.hollow.core.read.HollowBlobInput;
 import com.netflix.hollow.core.read.dataaccess.HollowDataAccess;
 import com.netflix.hollow.core.read.engine.HollowBlobReader;
@@ -47,7 +48,10 @@ import com.netflix.hollow.tools.diff.exact.DiffEqualOrdinalMap;
 import com.netflix.hollow.tools.diff.exact.DiffEqualityMapping;
 import java.io.BufferedOutputStream;
 import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
 import java.util.ArrayList;
@@ -89,43 +93,62 @@ public class HollowHistoricalStateCreator {
     public HollowHistoricalStateDataAccess createBasedOnNewDelta(long version, HollowReadStateEngine stateEngine, boolean reverse) {
         IntMapOrdinalRemapper typeRemovedOrdinalMapping = new IntMapOrdinalRemapper();
 
-        List<HollowTypeReadState> historicalTypeStates = new ArrayList<HollowTypeReadState>(stateEngine.getTypeStates().size());
+        // each type's historical state depends only upon that type's read state, so types are processed concurrently
+        final List<HollowTypeReadState> typeStates = new ArrayList<HollowTypeReadState>(stateEngine.getTypeStates());
+        final HollowTypeReadState[] historicalTypeStates = new HollowTypeReadState[typeStates.size()];
+        final IntMap[] ordinalMappings = new IntMap[typeStates.size()];
 
-        for(HollowTypeReadState typeState : stateEngine.getTypeStates()) {
-            createDeltaHistoricalTypeState(typeRemovedOrdinalMapping, historicalTypeStates, typeState, reverse);
+        SimultaneousExecutor executor = new SimultaneousExecutor(getClass(), "create-delta-historical-state");
+        for(int i=0;i<typeStates.size();i++) {
+            final int typeIdx = i;
+            executor.execute(() -> createDeltaHistoricalTypeState(typeStates.get(typeIdx), reverse, historicalTypeStates, ordinalMappings, typeIdx));
         }
 
-        HollowHistoricalStateDataAccess dataAccess = new HollowHistoricalStateDataAccess(totalHistory, version, stateEngine, historicalTypeStates, typeRemovedOrdinalMapping, Collections.<String, HollowHistoricalSchemaChange>emptyMap());
+        try {
+            executor.awaitSuccessfulCompletion();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException(e);
+        }
+
+        List<HollowTypeReadState> populatedHistoricalTypeStates = new ArrayList<HollowTypeReadState>(typeStates.size());
+        for(int i=0;i<typeStates.size();i++) {
+            if(historicalTypeStates[i] != null) {
+                typeRemovedOrdinalMapping.addOrdinalRemapping(typeStates.get(i).getSchema().getName(), ordinalMappings[i]);
+                populatedHistoricalTypeStates.add(historicalTypeStates[i]);
+            }
+        }
+
+        HollowHistoricalStateDataAccess dataAccess = new HollowHistoricalStateDataAccess(totalHistory, version, stateEngine, populatedHistoricalTypeStates, typeRemovedOrdinalMapping, Collections.<String, HollowHistoricalSchemaChange>emptyMap());
         dataAccess.setNextState(stateEngine);
 
         return dataAccess;
     }
 
-    private void createDeltaHistoricalTypeState(IntMapOrdinalRemapper typeRemovedOrdinalMapping, List<HollowTypeReadState> historicalTypeStates, HollowTypeReadState typeState, boolean reverse) {
+    private void createDeltaHistoricalTypeState(HollowTypeReadState typeState, boolean reverse, HollowTypeReadState[] historicalTypeStates, IntMap[] ordinalMappings, int typeIdx) {
         if(typeState instanceof HollowObjectTypeReadState) {
             HollowObjectDeltaHistoricalStateCreator deltaHistoryCreator = new HollowObjectDeltaHistoricalStateCreator((HollowObjectTypeReadState)typeState, reverse);
             deltaHistoryCreator.populateHistory();
-            typeRemovedOrdinalMapping.addOrdinalRemapping(typeState.getSchema().getName(), deltaHistoryCreator.getOrdinalMapping());
-            historicalTypeStates.add(deltaHistoryCreator.createHistoricalTypeReadState());
+            ordinalMappings[typeIdx] = deltaHistoryCreator.getOrdinalMapping();
+            historicalTypeStates[typeIdx] = deltaHistoryCreator.createHistoricalTypeReadState();
             // drop references into typeState to allow it to be GC'ed as soon as all historical states have been constructed
             deltaHistoryCreator.dereferenceTypeState();
         } else if(typeState instanceof HollowListTypeReadState) {
             HollowListDeltaHistoricalStateCreator deltaHistoryCreator = new HollowListDeltaHistoricalStateCreator((HollowListTypeReadState)typeState, reverse);
             deltaHistoryCreator.populateHistory();
-            typeRemovedOrdinalMapping.addOrdinalRemapping(typeState.getSchema().getName(), deltaHistoryCreator.getOrdinalMapping());
-            historicalTypeStates.add(deltaHistoryCreator.createHistoricalTypeReadState());
+            ordinalMappings[typeIdx] = deltaHistoryCreator.getOrdinalMapping();
+            historicalTypeStates[typeIdx] = deltaHistoryCreator.createHistoricalTypeReadState();
             deltaHistoryCreator.dereferenceTypeState();
         } else if(typeState instanceof HollowSetTypeReadState) {
             HollowSetDeltaHistoricalStateCreator deltaHistoryCreator = new HollowSetDeltaHistoricalStateCreator((HollowSetTypeReadState)typeState, reverse);
             deltaHistoryCreator.populateHistory();
-            typeRemovedOrdinalMapping.addOrdinalRemapping(typeState.getSchema().getName(), deltaHistoryCreator.getOrdinalMapping());
-            historicalTypeStates.add(deltaHistoryCreator.createHistoricalTypeReadState());
+            ordinalMappings[typeIdx] = deltaHistoryCreator.getOrdinalMapping();
+            historicalTypeStates[typeIdx] = deltaHistoryCreator.createHistoricalTypeReadState();
             deltaHistoryCreator.dereferenceTypeState();
         } else if(typeState instanceof HollowMapTypeReadState) {
             HollowMapDeltaHistoricalStateCreator deltaHistoryCreator = new HollowMapDeltaHistoricalStateCreator((HollowMapTypeReadState)typeState, reverse);
             deltaHistoryCreator.populateHistory();
-            typeRemovedOrdinalMapping.addOrdinalRemapping(typeState.getSchema().getName(), deltaHistoryCreator.getOrdinalMapping());
-            historicalTypeStates.add(deltaHistoryCreator.createHistoricalTypeReadState());
+            ordinalMappings[typeIdx] = deltaHistoryCreator.getOrdinalMapping();
+            historicalTypeStates[typeIdx] = deltaHistoryCreator.createHistoricalTypeReadState();
             deltaHistoryCreator.dereferenceTypeState();
         }
     }
@@ -298,7 +321,31 @@ public class HollowHistoricalStateCreator {
 
     public HollowHistoricalStateDataAccess copyButRemapOrdinals(HollowHistoricalStateDataAccess previous, OrdinalRemapper ordinalRemapper) {
         HollowWriteStateEngine writeEngine = HollowWriteStateCreator.createWithSchemas(schemasWithoutKeys(previous.getSchemas()));
+        IntMapOrdinalRemapper typeRemovedOrdinalRemapping = copyButRemapOrdinals(previous, ordinalRemapper, writeEngine);
+
+        return new HollowHistoricalStateDataAccess(totalHistory, previous.getVersion(), roundTripStateEngine(writeEngine), typeRemovedOrdinalRemapping, previous.getSchemaChanges());
+    }
+
+    /**
+     * Copy a historical state, remapping its ordinals, into a snapshot blob written to the specified file.
+     * <p>
+     * The returned {@link HollowDataAccess} maps the file with {@link MemoryMode#SHARED_MEMORY_LAZY}, so the removed
+     * records of the historical state are held off heap and paged in only when accessed.  The file must not be modified
+     * while the returned data access is in use.
+     *
+     * @param previous the historical state to copy
+     * @param ordinalRemapper the ordinal remapper
+     * @param spillFile the file to which the historical state will be written
+     * @return the data access for a history, backed by the file
+     */
+    public HollowHistoricalStateDataAccess copyButRemapOrdinals(HollowHistoricalStateDataAccess previous, OrdinalRemapper ordinalRemapper, File spillFile) {
+        HollowWriteStateEngine writeEngine = HollowWriteStateCreator.createWithSchemas(schemasWithoutKeys(previous.getSchemas()));
+        IntMapOrdinalRemapper typeRemovedOrdinalRemapping = copyButRemapOrdinals(previous, ordinalRemapper, writeEngine);
+
+        return new HollowHistoricalStateDataAccess(totalHistory, previous.getVersion(), spillStateEngine(writeEngine, spillFile), typeRemovedOrdinalRemapping, previous.getSchemaChanges());
+    }
 
+    private IntMapOrdinalRemapper copyButRemapOrdinals(HollowHistoricalStateDataAccess previous, OrdinalRemapper ordinalRemapper, HollowWriteStateEngine writeEngine) {
         IntMapOrdinalRemapper typeRemovedOrdinalRemapping = new IntMapOrdinalRemapper();
 
         for(String typeName : previous.getAllTypes()) {
@@ -309,7 +356,7 @@ public class HollowHistoricalStateCreator {
             typeRemovedOrdinalRemapping.addOrdinalRemapping(typeName, ordinalLookupMap);
         }
 
-        return new HollowHistoricalStateDataAccess(totalHistory, previous.getVersion(), roundTripStateEngine(writeEngine), typeRemovedOrdinalRemapping, previous.getSchemaChanges());
+        return typeRemovedOrdinalRemapping;
     }
 
     private void copyRemappedRecords(HollowTypeReadState readTypeState, OrdinalRemapper ordinalRemapper, HollowWriteStateEngine writeEngine) {
@@ -377,6 +424,27 @@ public class HollowHistoricalStateCreator {
         return removedRecordCopies;
     }
 
+    private static HollowReadStateEngine spillStateEngine(HollowWriteStateEngine writeEngine, File spillFile) {
+        HollowBlobWriter writer = new HollowBlobWriter(writeEngine);
+        HollowReadStateEngine removedRecordCopies = new HollowReadStateEngine();
+        HollowBlobReader reader = new HollowBlobReader(removedRecordCopies, MemoryMode.SHARED_MEMORY_LAZY);
+
+        try {
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(spillFile))) {
+                writer.writeSnapshot(out);
+            }
+
+            // the mapping of the file remains valid after the blob input is closed
+            try (HollowBlobInput in = HollowBlobInput.randomAccess(spillFile)) {
+                reader.readSnapshot(in);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to spill historical state to " + spillFile, e);
+        }
+
+        return removedRecordCopies;
+    }
+
     private List<HollowSchema> schemasWithoutKeys(List<HollowSchema> schemas) {
         List<HollowSchema> baldSchemas = new ArrayList<HollowSchema>();
         for(HollowSchema prevSchema : schemas)
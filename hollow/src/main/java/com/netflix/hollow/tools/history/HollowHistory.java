@@ -26,14 +26,17 @@ import com.netflix.hollow.core.read.engine.PopulatedOrdinalListener;
 import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
 import com.netflix.hollow.core.schema.HollowObjectSchema;
 import com.netflix.hollow.core.schema.HollowSchema;
+import com.netflix.hollow.core.util.IntList;
 import com.netflix.hollow.core.util.RemovedOrdinalIterator;
 import com.netflix.hollow.core.util.SimultaneousExecutor;
+import com.netflix.hollow.tools.combine.IdentityOrdinalRemapper;
 import com.netflix.hollow.tools.diff.exact.DiffEqualOrdinalMap;
-import com.netflix.hollow.tools.diff.exact.DiffEqualOrdinalMap.OrdinalIdentityTranslator;
 import com.netflix.hollow.tools.diff.exact.DiffEqualityMapping;
 import com.netflix.hollow.tools.history.keyindex.HollowHistoricalStateKeyOrdinalMapping;
 import com.netflix.hollow.tools.history.keyindex.HollowHistoricalStateTypeKeyOrdinalMapping;
 import com.netflix.hollow.tools.history.keyindex.HollowHistoryKeyIndex;
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.HashMap;
@@ -90,6 +93,12 @@ public class HollowHistory {
     private Map<String, String> latestHeaderEntries;
     private boolean ignoreListOrderingOnDoubleSnapshot = false;
 
+    // Historical states beyond the first maxHistoricalStatesInMemory are spilled to files in spillDirectory, if set.
+    // A map of version to spill file for each spilled historical state.
+    private File spillDirectory;
+    private int maxHistoricalStatesInMemory = Integer.MAX_VALUE;
+    private final Map<Long, File> spilledStateFiles;
+
     /**
      * @param initialHollowStateEngine The HollowReadStateEngine at an initial (earliest) state.
      * @param initialVersion The initial version of the HollowReadStateEngine
@@ -155,6 +164,7 @@ public class HollowHistory {
         this.creator = new HollowHistoricalStateCreator(this);
         this.historicalStates = new ArrayList<>();
         this.historicalStateLookupMap = new HashMap<>();
+        this.spilledStateFiles = new HashMap<>();
         this.maxHistoricalStatesToKeep = maxHistoricalStatesToKeep;
 
         // validate fwd moving state initialization
@@ -214,6 +224,43 @@ public class HollowHistory {
         this.ignoreListOrderingOnDoubleSnapshot = true;
     }
 
+    /**
+     * Call this method to bound the number of historical states held on the heap.
+     * <p>
+     * Only the {@code maxHistoricalStatesInMemory} most recent historical states are retained on the heap.  The
+     * records retained for each older state are written as a snapshot blob to a file in {@code spillDirectory},
+     * which is then memory mapped, so that the data is paged in only when the state is accessed.  The key ordinal
+     * mappings of all states remain on the heap.
+     * <p>
+     * Spill files are deleted when their historical state is removed from this history.
+     *
+     * @param spillDirectory the directory to which historical states are spilled
+     * @param maxHistoricalStatesInMemory the number of most recent historical states to retain on the heap
+     */
+    public void spillHistoricalStatesToDisk(File spillDirectory, int maxHistoricalStatesInMemory) {
+        requireNonNull(spillDirectory, "Non-null spillDirectory required");
+        if (maxHistoricalStatesInMemory < 0) {
+            throw new IllegalArgumentException(String.format(
+                    "Number of historical states in memory is negative: %d", maxHistoricalStatesInMemory));
+        }
+        if (!spillDirectory.isDirectory() && !spillDirectory.mkdirs()) {
+            throw new IllegalArgumentException("Unable to create spill directory " + spillDirectory);
+        }
+
+        this.spillDirectory = spillDirectory;
+        this.maxHistoricalStatesInMemory = maxHistoricalStatesInMemory;
+
+        spillHistoricalStatesOutsideMemoryWindow();
+    }
+
+    /**
+     * @param version A version in the past
+     * @return true if the {@link HollowHistoricalState} for the specified version has been spilled to disk.
+     */
+    public boolean isHistoricalStateSpilled(long version) {
+        return spilledStateFiles.containsKey(version);
+    }
+
     /**
      * @return The {@link HollowHistoryKeyIndex}, responsible for identifying keyOrdinals.
      */
@@ -386,8 +433,9 @@ public class HollowHistory {
 
         HollowHistoricalStateDataAccess[] remappedDataAccesses = new HollowHistoricalStateDataAccess[historicalStates.size()];
         HollowHistoricalStateKeyOrdinalMapping[] remappedKeyOrdinalMappings = new HollowHistoricalStateKeyOrdinalMapping[historicalStates.size()];
+        File[] remappedSpillFiles = new File[historicalStates.size()];
 
-        remapHistoricalStateOrdinals(remapper, remappedDataAccesses, remappedKeyOrdinalMappings);
+        remapHistoricalStateOrdinals(remapper, remappedDataAccesses, remappedKeyOrdinalMappings, remappedSpillFiles);
 
         for(int i=0;i<historicalStates.size();i++) {
             HollowHistoricalState historicalStateToRemap = historicalStates.get(i);
@@ -401,6 +449,7 @@ public class HollowHistory {
             nextRemappedState = remappedState;
             historicalStates.set(i, remappedState);
             historicalStateLookupMap.put(remappedState.getVersion(), remappedState);
+            replaceSpillFile(remappedState.getVersion(), remappedSpillFiles[i]);
         }
 
         historicalDataAccess.setNextState(newHollowStateEngine);
@@ -415,7 +464,7 @@ public class HollowHistory {
     }
 
     // only called when doing a double snapshot
-    private void remapHistoricalStateOrdinals(final DiffEqualityMappingOrdinalRemapper remapper, final HollowHistoricalStateDataAccess[] remappedDataAccesses, final HollowHistoricalStateKeyOrdinalMapping[] remappedKeyOrdinalMappings) {
+    private void remapHistoricalStateOrdinals(final DiffEqualityMappingOrdinalRemapper remapper, final HollowHistoricalStateDataAccess[] remappedDataAccesses, final HollowHistoricalStateKeyOrdinalMapping[] remappedKeyOrdinalMappings, final File[] remappedSpillFiles) {
         SimultaneousExecutor executor = new SimultaneousExecutor(getClass(), "remap");
         final int numThreads = executor.getCorePoolSize();
 
@@ -424,7 +473,13 @@ public class HollowHistory {
             executor.execute(() -> {
                 for(int t=threadNumber;t<historicalStates.size();t+=numThreads) {
                     HollowHistoricalState historicalStateToRemap = historicalStates.get(t);
-                    remappedDataAccesses[t] = creator.copyButRemapOrdinals(historicalStateToRemap.getDataAccess(), remapper);
+                    // the new state will be placed at the front, so each remapped state moves one position back
+                    if(spillDirectory != null && t + 1 >= maxHistoricalStatesInMemory) {
+                        remappedSpillFiles[t] = createSpillFile(historicalStateToRemap.getVersion());
+                        remappedDataAccesses[t] = creator.copyButRemapOrdinals(historicalStateToRemap.getDataAccess(), remapper, remappedSpillFiles[t]);
+                    } else {
+                        remappedDataAccesses[t] = creator.copyButRemapOrdinals(historicalStateToRemap.getDataAccess(), remapper);
+                    }
                     remappedKeyOrdinalMappings[t] = historicalStateToRemap.getKeyOrdinalMapping().remap(remapper);
                 }
             });
@@ -439,6 +494,7 @@ public class HollowHistory {
 
     private HollowHistoricalStateKeyOrdinalMapping createKeyOrdinalMappingFromDelta(HollowReadStateEngine readStateEngine, boolean reverse) {
         HollowHistoricalStateKeyOrdinalMapping keyOrdinalMapping = new HollowHistoricalStateKeyOrdinalMapping(keyIndex);
+        List<KeyOrdinalLookup> lookups = new ArrayList<>();
 
         for(String keyType : keyIndex.getTypeKeyIndexes().keySet()) {
             HollowHistoricalStateTypeKeyOrdinalMapping typeMapping = keyOrdinalMapping.getTypeMapping(keyType);
@@ -463,29 +519,33 @@ public class HollowHistory {
                 additionsIterator = new RemovedOrdinalIterator(listener.getPopulatedOrdinals(), listener.getPreviousOrdinals());
             }
 
-            typeMapping.prepare(additionsIterator.countTotal(), removalIterator.countTotal());
-
+            IntList removedOrdinals = new IntList();
             int removedOrdinal = removalIterator.next();
             while(removedOrdinal != -1) {
-                typeMapping.removed(typeState, removedOrdinal);
+                removedOrdinals.add(removedOrdinal);
                 removedOrdinal = removalIterator.next();
             }
 
+            IntList addedOrdinals = new IntList();
             int addedOrdinal = additionsIterator.next();
             while(addedOrdinal != -1) {
-                typeMapping.added(typeState, addedOrdinal);
+                addedOrdinals.add(addedOrdinal);
                 addedOrdinal = additionsIterator.next();
             }
 
-            typeMapping.finish();
+            typeMapping.prepare(addedOrdinals.size(), removedOrdinals.size());
+            lookups.add(new KeyOrdinalLookup(typeMapping, typeState, removedOrdinals, removedOrdinals, typeState, addedOrdinals));
         }
 
+        populateKeyOrdinalMappings(lookups);
+
         return keyOrdinalMapping;
     }
 
     private HollowHistoricalStateKeyOrdinalMapping createKeyOrdinalMappingFromDoubleSnapshot(HollowReadStateEngine newStateEngine, DiffEqualityMappingOrdinalRemapper ordinalRemapper) {
         HollowHistoricalStateKeyOrdinalMapping keyOrdinalMapping = new HollowHistoricalStateKeyOrdinalMapping(keyIndex);
         DiffEqualityMapping mapping = ordinalRemapper.getDiffEqualityMapping();
+        List<KeyOrdinalLookup> lookups = new ArrayList<>();
 
         for(String keyType : keyIndex.getTypeKeyIndexes().keySet()) {
             HollowHistoricalStateTypeKeyOrdinalMapping typeMapping = keyOrdinalMapping.getTypeMapping(keyType);
@@ -496,42 +556,58 @@ public class HollowHistory {
             BitSet fromOrdinals = fromTypeState == null ? new BitSet() : fromTypeState.getListener(PopulatedOrdinalListener.class).getPopulatedOrdinals();
             BitSet toOrdinals = toTypeState == null ? new BitSet() : toTypeState.getListener(PopulatedOrdinalListener.class).getPopulatedOrdinals();
 
-            int removedOrdinalsCount = countUnmatchedOrdinals(fromOrdinals, equalOrdinalMap.getFromOrdinalIdentityTranslator());
-            int addedOrdinalsCount = countUnmatchedOrdinals(toOrdinals, equalOrdinalMap.getToOrdinalIdentityTranslator());
-
-            typeMapping.prepare(addedOrdinalsCount, removedOrdinalsCount);
-
+            IntList removedOrdinals = new IntList();
+            IntList mappedRemovedOrdinals = new IntList();
             int fromOrdinal = fromOrdinals.nextSetBit(0);
             while(fromOrdinal != -1) {
-                if(equalOrdinalMap.getIdentityFromOrdinal(fromOrdinal) == -1)
-                    typeMapping.removed(fromTypeState, fromOrdinal, ordinalRemapper.getMappedOrdinal(keyType, fromOrdinal));
+                if(equalOrdinalMap.getIdentityFromOrdinal(fromOrdinal) == -1) {
+                    removedOrdinals.add(fromOrdinal);
+                    mappedRemovedOrdinals.add(ordinalRemapper.getMappedOrdinal(keyType, fromOrdinal));
+                }
 
                 fromOrdinal = fromOrdinals.nextSetBit(fromOrdinal + 1);
             }
 
+            IntList addedOrdinals = new IntList();
             int toOrdinal = toOrdinals.nextSetBit(0);
             while(toOrdinal != -1) {
                 if(equalOrdinalMap.getIdentityToOrdinal(toOrdinal) == -1)
-                    typeMapping.added(toTypeState, toOrdinal);
+                    addedOrdinals.add(toOrdinal);
 
                 toOrdinal = toOrdinals.nextSetBit(toOrdinal + 1);
             }
 
-            typeMapping.finish();
+            typeMapping.prepare(addedOrdinals.size(), removedOrdinals.size());
+            lookups.add(new KeyOrdinalLookup(typeMapping, fromTypeState, removedOrdinals, mappedRemovedOrdinals, toTypeState, addedOrdinals));
         }
 
+        populateKeyOrdinalMappings(lookups);
+
         return keyOrdinalMapping;
     }
 
-    private int countUnmatchedOrdinals(BitSet ordinals, OrdinalIdentityTranslator translator) {
-        int count = 0;
-        int ordinal = ordinals.nextSetBit(0);
-        while(ordinal != -1) {
-            if(translator.getIdentityOrdinal(ordinal) == -1)
-                count++;
-            ordinal = ordinals.nextSetBit(ordinal + 1);
+    /**
+     * Resolves the record key ordinal of every added and removed record.  The key index lookups dominate the cost of
+     * building a key ordinal mapping, so they are split across all types and into ordinal ranges within each type, and
+     * only the (cheap) population of each type's mapping remains single-threaded.
+     */
+    private void populateKeyOrdinalMappings(List<KeyOrdinalLookup> lookups) {
+        SimultaneousExecutor executor = new SimultaneousExecutor(getClass(), "key-ordinal-mapping");
+        final int numThreads = executor.getCorePoolSize();
+
+        for(KeyOrdinalLookup lookup : lookups) {
+            lookup.submit(executor, numThreads);
+        }
+
+        try {
+            executor.awaitSuccessfulCompletion();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException(e);
+        }
+
+        for(KeyOrdinalLookup lookup : lookups) {
+            lookup.populate();
         }
-        return count;
     }
 
     // place historicalState at the beginning of historicalStates
@@ -550,6 +626,8 @@ public class HollowHistory {
         if(historicalStates.size() > maxHistoricalStatesToKeep) {
             removeHistoricalStates(1);
         }
+
+        spillHistoricalStatesOutsideMemoryWindow();
     }
 
     // place historicalState at the end of historicalStates
@@ -571,6 +649,55 @@ public class HollowHistory {
             // drop old read state because we won't be building history in reverse after we get here
             oldestHollowReadStateEngine = null;
         }
+
+        spillHistoricalStatesOutsideMemoryWindow();
+    }
+
+    // spill each historical state which is outside of the in-memory window and has not already been spilled
+    //
+    // the spilled state replaces the in-memory state in historicalStates, so the links from the adjacent older state
+    // are updated to refer to the replacement
+    private void spillHistoricalStatesOutsideMemoryWindow() {
+        if(spillDirectory == null)
+            return;
+
+        for(int i=maxHistoricalStatesInMemory;i<historicalStates.size();i++) {
+            HollowHistoricalState state = historicalStates.get(i);
+            if(spilledStateFiles.containsKey(state.getVersion()))
+                continue;
+
+            File spillFile = createSpillFile(state.getVersion());
+            HollowHistoricalStateDataAccess spilledDataAccess = creator.copyButRemapOrdinals(state.getDataAccess(), IdentityOrdinalRemapper.INSTANCE, spillFile);
+            spilledDataAccess.setNextState(state.getDataAccess().getNextState());
+
+            HollowHistoricalState spilledState = new HollowHistoricalState(state.getVersion(), state.getKeyOrdinalMapping(), spilledDataAccess, state.getHeaderEntries());
+            spilledState.setNextState(state.getNextState());
+
+            if(i + 1 < historicalStates.size()) {
+                HollowHistoricalState olderState = historicalStates.get(i + 1);
+                olderState.getDataAccess().setNextState(spilledDataAccess);
+                olderState.setNextState(spilledState);
+            }
+
+            historicalStates.set(i, spilledState);
+            historicalStateLookupMap.put(spilledState.getVersion(), spilledState);
+            replaceSpillFile(spilledState.getVersion(), spillFile);
+        }
+    }
+
+    private File createSpillFile(long version) {
+        try {
+            return File.createTempFile("hollow-history-" + version + "-", ".blob", spillDirectory);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to create spill file in " + spillDirectory, e);
+        }
+    }
+
+    // record the spill file (or lack thereof) for a version, deleting any file previously spilled for that version
+    private void replaceSpillFile(long version, File spillFile) {
+        File previousSpillFile = spillFile == null ? spilledStateFiles.remove(version) : spilledStateFiles.put(version, spillFile);
+        if(previousSpillFile != null)
+            previousSpillFile.delete();
     }
 
     /**
@@ -599,6 +726,59 @@ public class HollowHistory {
             HollowHistoricalState removedState;
             removedState = historicalStates.remove(historicalStates.size() - 1);
             historicalStateLookupMap.remove(removedState.getVersion());
+            replaceSpillFile(removedState.getVersion(), null);
+        }
+    }
+
+    private static final class KeyOrdinalLookup {
+        // below this many records a type's lookups are not worth splitting into ranges
+        private static final int MIN_ORDINALS_PER_TASK = 1024;
+
+        private final HollowHistoricalStateTypeKeyOrdinalMapping typeMapping;
+        private final HollowObjectTypeReadState removedTypeState;
+        private final IntList removedOrdinals;
+        private final IntList mappedRemovedOrdinals;
+        private final HollowObjectTypeReadState addedTypeState;
+        private final IntList addedOrdinals;
+        private final int[] removedKeyOrdinals;
+        private final int[] addedKeyOrdinals;
+
+        KeyOrdinalLookup(HollowHistoricalStateTypeKeyOrdinalMapping typeMapping,
+                HollowObjectTypeReadState removedTypeState, IntList removedOrdinals, IntList mappedRemovedOrdinals,
+                HollowObjectTypeReadState addedTypeState, IntList addedOrdinals) {
+            this.typeMapping = typeMapping;
+            this.removedTypeState = removedTypeState;
+            this.removedOrdinals = removedOrdinals;
+            this.mappedRemovedOrdinals = mappedRemovedOrdinals;
+            this.addedTypeState = addedTypeState;
+            this.addedOrdinals = addedOrdinals;
+            this.removedKeyOrdinals = new int[removedOrdinals.size()];
+            this.addedKeyOrdinals = new int[addedOrdinals.size()];
+        }
+
+        void submit(SimultaneousExecutor executor, int numThreads) {
+            submit(executor, numThreads, removedTypeState, removedOrdinals, removedKeyOrdinals);
+            submit(executor, numThreads, addedTypeState, addedOrdinals, addedKeyOrdinals);
+        }
+
+        private void submit(SimultaneousExecutor executor, int numThreads, HollowObjectTypeReadState typeState, IntList ordinals, int[] keyOrdinals) {
+            int rangeSize = Math.max(MIN_ORDINALS_PER_TASK, (ordinals.size() + numThreads - 1) / numThreads);
+            for(int from=0;from<ordinals.size();from+=rangeSize) {
+                final int fromIdx = from;
+                final int toIdx = Math.min(ordinals.size(), from + rangeSize);
+                executor.execute(() -> {
+                    for(int i=fromIdx;i<toIdx;i++)
+                        keyOrdinals[i] = typeMapping.getKeyIndex().findKeyIndexOrdinal(typeState, ordinals.get(i));
+                });
+            }
+        }
+
+        void populate() {
+            for(int i=0;i<removedKeyOrdinals.length;i++)
+                typeMapping.removedKeyOrdinal(removedKeyOrdinals[i], mappedRemovedOrdinals.get(i));
+            for(int i=0;i<addedKeyOrdinals.length;i++)
+                typeMapping.addedKeyOrdinal(addedKeyOrdinals[i], addedOrdinals.get(i));
+            typeMapping.finish();
         }
     }
 }
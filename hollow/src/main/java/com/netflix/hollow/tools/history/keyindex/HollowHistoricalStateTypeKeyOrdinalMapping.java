@@ -66,6 +66,15 @@ public class HollowHistoricalStateTypeKeyOrdinalMapping {
         removedOrdinalMap.put(recordKeyOrdinal, mappedOrdinal);
     }
 
+    // used when the record key ordinals have already been resolved, e.g. concurrently by the caller
+    public void addedKeyOrdinal(int recordKeyOrdinal, int ordinal) {
+        addedOrdinalMap.put(recordKeyOrdinal, ordinal);
+    }
+
+    public void removedKeyOrdinal(int recordKeyOrdinal, int mappedOrdinal) {
+        removedOrdinalMap.put(recordKeyOrdinal, mappedOrdinal);
+    }
+
     // this is only invoked for double snapshots
     public HollowHistoricalStateTypeKeyOrdinalMapping remap(OrdinalRemapper remapper) {
         IntMap newAddedOrdinalMap = new IntMap(addedOrdinalMap.size());
@@ -33,12 +33,14 @@ import com.netflix.hollow.core.schema.HollowObjectSchema;
 import com.netflix.hollow.core.util.IntList;
 import com.netflix.hollow.core.util.LongList;
 import com.netflix.hollow.core.util.RemovedOrdinalIterator;
+import com.netflix.hollow.core.util.SimultaneousExecutor;
 import com.netflix.hollow.core.write.HollowObjectTypeWriteState;
 import com.netflix.hollow.core.write.HollowObjectWriteRecord;
 import com.netflix.hollow.core.write.HollowTypeWriteState;
 import com.netflix.hollow.core.write.HollowWriteStateEngine;
 import java.util.Arrays;
 import java.util.BitSet;
+import java.util.concurrent.ExecutionException;
 
 public class HollowHistoryTypeKeyIndex {
 
@@ -122,7 +124,7 @@ public class HollowHistoryTypeKeyIndex {
 
     private void hashNewRecordKeys(HollowObjectTypeReadState keyTypeState) {
         for(int i=maxIndexedKeyOrdinal+1;i<=keyTypeState.maxOrdinal();i++)
-            indexOrdinal(keyTypeState, i, hashedRecordKeys, hashedFieldKeys, hashedFieldKeyChains);
+            indexOrdinal(keyTypeState, i, hashKeyRecord(keyTypeState, i), null, hashedRecordKeys, hashedFieldKeys, hashedFieldKeyChains);
         maxIndexedKeyOrdinal = keyTypeState.maxOrdinal();
     }
 
@@ -135,8 +137,19 @@ public class HollowHistoryTypeKeyIndex {
             if(keyFieldIsIndexed[i])
                 hashedFieldKeys[i] = initializeHashedKeyArray(hashTableSize);
 
-        for(int i=0;i<=keyTypeState.maxOrdinal();i++)
-            indexOrdinal(keyTypeState, i, hashedRecordKeys, hashedFieldKeys, hashedFieldKeyChains);
+        int numKeys = keyTypeState.maxOrdinal() + 1;
+        int[] recordKeyHashes = new int[numKeys];
+        int[][] fieldKeyHashes = new int[primaryKey.numFields()][];
+        for(int i=0;i<primaryKey.numFields();i++)
+            if(keyFieldIsIndexed[i])
+                fieldKeyHashes[i] = new int[numKeys];
+
+        // hashing the key fields dominates a full rehash, so hashes are calculated concurrently over ordinal ranges
+        // and only the insertion into the open-addressed tables, which must observe a deterministic order, is serial
+        calculateKeyHashes(keyTypeState, recordKeyHashes, fieldKeyHashes);
+
+        for(int i=0;i<numKeys;i++)
+            indexOrdinal(keyTypeState, i, recordKeyHashes[i], fieldKeyHashes, hashedRecordKeys, hashedFieldKeys, hashedFieldKeyChains);
 
         this.hashedRecordKeys = hashedRecordKeys;
         this.hashedFieldKeys = hashedFieldKeys;
@@ -144,17 +157,44 @@ public class HollowHistoryTypeKeyIndex {
         this.maxIndexedKeyOrdinal = keyTypeState.maxOrdinal();
     }
 
-    private void indexOrdinal(HollowObjectTypeReadState keyTypeState, int ordinal, int[] hashedRecordKeys, int[][] hashedFieldKeys, LongList hashedFieldKeyChains) {
+    private void calculateKeyHashes(HollowObjectTypeReadState keyTypeState, int[] recordKeyHashes, int[][] fieldKeyHashes) {
+        SimultaneousExecutor executor = new SimultaneousExecutor(getClass(), "calculate-key-hashes");
+        int numThreads = executor.getCorePoolSize();
+        int numKeys = recordKeyHashes.length;
+        int rangeSize = (numKeys + numThreads - 1) / numThreads;
+
+        for(int t=0;t<numThreads;t++) {
+            final int fromOrdinal = t * rangeSize;
+            final int toOrdinal = Math.min(numKeys, fromOrdinal + rangeSize);
+            executor.execute(() -> {
+                for(int i=fromOrdinal;i<toOrdinal;i++) {
+                    recordKeyHashes[i] = hashKeyRecord(keyTypeState, i);
+                    for(int j=0;j<fieldKeyHashes.length;j++)
+                        if(fieldKeyHashes[j] != null)
+                            fieldKeyHashes[j][i] = hashKeyField(keyTypeState, i, j);
+                }
+            });
+        }
+
+        try {
+            executor.awaitSuccessfulCompletion();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void indexOrdinal(HollowObjectTypeReadState keyTypeState, int ordinal, int recordKeyHash, int[][] fieldKeyHashes, int[] hashedRecordKeys, int[][] hashedFieldKeys, LongList hashedFieldKeyChains) {
         int bucketMask = hashedRecordKeys.length - 1;
 
-        int bucket = hashKeyRecord(keyTypeState, ordinal) & bucketMask;
+        int bucket = recordKeyHash & bucketMask;
         while(hashedRecordKeys[bucket] != ORDINAL_NONE)
             bucket = (bucket + 1) & bucketMask;
         hashedRecordKeys[bucket] = ordinal;
 
         for(int j=0;j<primaryKey.numFields();j++) {
             if(keyFieldIsIndexed[j]) {
-                int fieldBucket = HashCodes.hashInt(HollowReadFieldUtils.fieldHashCode(keyTypeState, ordinal, j)) & bucketMask;
+                int fieldKeyHash = fieldKeyHashes == null ? hashKeyField(keyTypeState, ordinal, j) : fieldKeyHashes[j][ordinal];
+                int fieldBucket = fieldKeyHash & bucketMask;
                 int chainStartIndex = hashedFieldKeys[j][fieldBucket];
                 while(chainStartIndex != ORDINAL_NONE) {
                     int representativeOrdinal = (int)hashedFieldKeyChains.get(chainStartIndex);
@@ -189,6 +229,10 @@ public class HollowHistoryTypeKeyIndex {
         return HashCodes.hashInt(hashCode);
     }
 
+    private int hashKeyField(HollowObjectTypeReadState typeState, int ordinal, int fieldIdx) {
+        return HashCodes.hashInt(HollowReadFieldUtils.fieldHashCode(typeState, ordinal, fieldIdx));
+    }
+
     public int findKeyIndexOrdinal(HollowObjectTypeReadState typeState, int ordinal) {
         HollowObjectTypeReadState keyTypeState = (HollowObjectTypeReadState) readStateEngine.getTypeState(primaryKey.getType());
 
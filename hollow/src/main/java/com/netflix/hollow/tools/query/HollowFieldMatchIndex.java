@@ -0,0 +1,593 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.tools.query;
+
+import static com.netflix.hollow.core.util.Threads.daemonThread;
+
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.read.engine.HollowTypeReadState;
+import com.netflix.hollow.core.read.engine.HollowTypeStateListener;
+import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
+import com.netflix.hollow.core.schema.HollowObjectSchema;
+import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
+import com.netflix.hollow.core.schema.HollowSchema;
+import com.netflix.hollow.core.schema.HollowSchema.SchemaType;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A HollowFieldMatchIndex is an opt-in inverted index from field value to matching ordinals, for each field of each
+ * OBJECT type in a state engine.  When supplied to a {@link HollowFieldMatchQuery}, queries against indexed fields are
+ * answered with a lookup rather than a scan of every record.
+ * <p>
+ * The index is kept up to date as deltas are applied, via a {@link HollowTypeStateListener} registered for each type.
+ * Types whose state is replaced (for example, when a type is materialized or reloaded from a snapshot) are dropped from the
+ * index and, if the index was built in the background, rebuilt the next time they are queried.
+ * <p>
+ * The index is bounded by an approximate heap budget.  Fields which do not fit in the budget, either when built or after
+ * a delta, are not indexed, and queries against them fall back to scanning.
+ */
+public class HollowFieldMatchIndex {
+
+    private final HollowReadStateEngine readEngine;
+    private final long maxSizeInBytes;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, TypeIndex> typeIndexes = new HashMap<String, TypeIndex>();
+    private long sizeInBytes;
+
+    private final Object buildLock = new Object();
+    private final Map<String, TypeListener> listeners = new ConcurrentHashMap<String, TypeListener>();
+    private final Set<String> scheduledTypes = ConcurrentHashMap.newKeySet();
+    private volatile ExecutorService executor;
+    private volatile boolean detached;
+
+    /**
+     * @param readEngine the state engine to index
+     * @param maxSizeInBytes the approximate maximum heap footprint of the index
+     */
+    public HollowFieldMatchIndex(HollowReadStateEngine readEngine, long maxSizeInBytes) {
+        if(maxSizeInBytes < 0)
+            throw new IllegalArgumentException("maxSizeInBytes must not be negative: " + maxSizeInBytes);
+        this.readEngine = readEngine;
+        this.maxSizeInBytes = maxSizeInBytes;
+    }
+
+    public HollowReadStateEngine getStateEngine() {
+        return readEngine;
+    }
+
+    /**
+     * Index all currently materialized OBJECT types on the calling thread.
+     */
+    public void build() {
+        for(HollowSchema schema : readEngine.getSchemas()) {
+            if(schema.getSchemaType() == SchemaType.OBJECT && !readEngine.getDeferredTypes().contains(schema.getName()))
+                buildType(schema.getName());
+        }
+    }
+
+    /**
+     * Index all currently materialized OBJECT types on a background daemon thread.  Types which are not yet indexed
+     * when queried, or whose state has since been replaced, are scheduled to be (re)built on the same thread.
+     */
+    public void buildInBackground() {
+        synchronized(buildLock) {
+            if(detached)
+                throw new IllegalStateException("This index has been detached");
+            if(executor == null)
+                executor = Executors.newSingleThreadExecutor(r -> daemonThread(r, HollowFieldMatchIndex.class, "build"));
+        }
+
+        for(HollowSchema schema : readEngine.getSchemas()) {
+            if(schema.getSchemaType() == SchemaType.OBJECT && !readEngine.getDeferredTypes().contains(schema.getName()))
+                scheduleBuild(schema.getName());
+        }
+    }
+
+    /**
+     * Stop maintaining this index, and release the memory it holds.
+     */
+    public void detach() {
+        synchronized(buildLock) {
+            detached = true;
+            if(executor != null)
+                executor.shutdownNow();
+            for(Map.Entry<String, TypeListener> entry : listeners.entrySet())
+                readEngine.removeTypeListener(entry.getKey(), entry.getValue());
+            listeners.clear();
+        }
+
+        lock.writeLock().lock();
+        try {
+            typeIndexes.clear();
+            sizeInBytes = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param type the type name
+     * @param fieldName the field name
+     * @return whether queries against the specified field are currently answered by this index
+     */
+    public boolean isIndexed(String type, String fieldName) {
+        lock.readLock().lock();
+        try {
+            TypeIndex typeIndex = typeIndexes.get(type);
+            if(typeIndex == null)
+                return false;
+            int fieldIdx = typeIndex.typeState.getSchema().getPosition(fieldName);
+            return fieldIdx != -1 && typeIndex.fields[fieldIdx] != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the approximate heap footprint of this index
+     */
+    public long getApproximateHeapFootprintInBytes() {
+        lock.readLock().lock();
+        try {
+            return sizeInBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the ordinals of the records whose field equals the value, or null if the field is not currently indexed.
+     */
+    BitSet findMatchingOrdinals(HollowObjectTypeReadState typeState, int fieldIdx, Object value) {
+        lock.readLock().lock();
+        try {
+            FieldIndex field = fieldIndex(typeState, fieldIdx);
+            if(field == null)
+                return null;
+
+            Postings postings = field.postings.get(value);
+            return postings == null ? new BitSet() : postings.toBitSet();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the ordinals of the records whose REFERENCE field points at any of the referenced ordinals, or null if the
+     * field is not currently indexed.
+     */
+    BitSet findReferencingOrdinals(HollowObjectTypeReadState typeState, int fieldIdx, BitSet referencedOrdinals) {
+        lock.readLock().lock();
+        try {
+            FieldIndex field = fieldIndex(typeState, fieldIdx);
+            if(field == null)
+                return null;
+
+            BitSet matches = new BitSet();
+            int refOrdinal = referencedOrdinals.nextSetBit(0);
+            while(refOrdinal != -1) {
+                Postings postings = field.postings.get(refOrdinal);
+                if(postings != null)
+                    postings.orInto(matches);
+                refOrdinal = referencedOrdinals.nextSetBit(refOrdinal + 1);
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private FieldIndex fieldIndex(HollowObjectTypeReadState typeState, int fieldIdx) {
+        String type = typeState.getSchema().getName();
+        TypeIndex typeIndex = typeIndexes.get(type);
+        if(typeIndex == null || typeIndex.typeState != typeState) {
+            scheduleBuild(type);
+            return null;
+        }
+
+        TypeListener listener = listeners.get(type);
+        if(listener == null || listener.updating)
+            return null;
+
+        return typeIndex.fields[fieldIdx];
+    }
+
+    private void scheduleBuild(String type) {
+        ExecutorService executor = this.executor;
+        if(executor == null || detached || !scheduledTypes.add(type))
+            return;
+
+        executor.execute(() -> {
+            scheduledTypes.remove(type);
+            buildType(type);
+        });
+    }
+
+    private boolean buildType(String type) {
+        synchronized(buildLock) {
+            if(detached)
+                return false;
+
+            TypeListener listener = listeners.get(type);
+            if(listener == null) {
+                listener = new TypeListener(type);
+                listeners.put(type, listener);
+                readEngine.addTypeListener(type, listener);
+            }
+
+            HollowTypeReadState state = readEngine.getTypeState(type);
+            if(!(state instanceof HollowObjectTypeReadState))
+                return false;
+            HollowObjectTypeReadState typeState = (HollowObjectTypeReadState)state;
+
+            long generation = listener.generation;
+            if(listener.updating)
+                return false;
+
+            long budget;
+            lock.readLock().lock();
+            try {
+                TypeIndex existing = typeIndexes.get(type);
+                if(existing != null && existing.typeState == typeState)
+                    return true;
+                budget = maxSizeInBytes - sizeInBytes + (existing == null ? 0 : existing.sizeInBytes());
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            HollowObjectSchema schema = typeState.getSchema();
+            FieldIndex[] fields = new FieldIndex[schema.numFields()];
+
+            try {
+                BitSet populatedOrdinals = typeState.getPopulatedOrdinals();
+                for(int i=0;i<fields.length;i++) {
+                    if(schema.getFieldType(i) != FieldType.BYTES) {
+                        fields[i] = FieldIndex.build(typeState, i, populatedOrdinals, budget);
+                        if(fields[i] != null)
+                            budget -= fields[i].sizeInBytes;
+                    }
+                }
+            } catch(RuntimeException e) {
+                /// a delta applied concurrently may leave the data inconsistent for the duration of the build
+                if(listener.generation == generation)
+                    throw e;
+                return false;
+            }
+
+            lock.writeLock().lock();
+            try {
+                if(listener.generation != generation || detached)
+                    return false;
+
+                TypeIndex typeIndex = new TypeIndex(typeState, fields);
+                TypeIndex previous = typeIndexes.put(type, typeIndex);
+                sizeInBytes += typeIndex.sizeInBytes() - (previous == null ? 0 : previous.sizeInBytes());
+                return true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private class TypeListener implements HollowTypeStateListener {
+
+        private final String type;
+        private final BitSet addedOrdinals = new BitSet();
+        private final BitSet removedOrdinals = new BitSet();
+        private volatile long generation;
+        private volatile boolean updating;
+
+        TypeListener(String type) {
+            this.type = type;
+        }
+
+        @Override
+        public void beginUpdate() {
+            updating = true;
+            generation++;
+            addedOrdinals.clear();
+            removedOrdinals.clear();
+        }
+
+        @Override
+        public void addedOrdinal(int ordinal) {
+            addedOrdinals.set(ordinal);
+        }
+
+        @Override
+        public void removedOrdinal(int ordinal) {
+            removedOrdinals.set(ordinal);
+        }
+
+        @Override
+        public void endUpdate() {
+            lock.writeLock().lock();
+            try {
+                generation++;
+                TypeIndex typeIndex = typeIndexes.get(type);
+                if(typeIndex != null) {
+                    long sizeBefore = typeIndex.sizeInBytes();
+
+                    if(readEngine.getDeferredTypes().contains(type) || readEngine.getTypeState(type) != typeIndex.typeState) {
+                        typeIndexes.remove(type);
+                        sizeInBytes -= sizeBefore;
+                    } else {
+                        typeIndex.applyDelta(removedOrdinals, addedOrdinals);
+                        sizeInBytes += typeIndex.sizeInBytes() - sizeBefore;
+                        if(sizeInBytes > maxSizeInBytes)
+                            sizeInBytes -= typeIndex.dropFields(sizeInBytes - maxSizeInBytes);
+                    }
+                }
+            } finally {
+                updating = false;
+                addedOrdinals.clear();
+                removedOrdinals.clear();
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private static class TypeIndex {
+        private final HollowObjectTypeReadState typeState;
+        private final FieldIndex[] fields;
+
+        TypeIndex(HollowObjectTypeReadState typeState, FieldIndex[] fields) {
+            this.typeState = typeState;
+            this.fields = fields;
+        }
+
+        void applyDelta(BitSet removedOrdinals, BitSet addedOrdinals) {
+            for(FieldIndex field : fields) {
+                if(field == null)
+                    continue;
+
+                int ordinal = removedOrdinals.nextSetBit(0);
+                while(ordinal != -1) {
+                    field.remove(ordinal);
+                    ordinal = removedOrdinals.nextSetBit(ordinal + 1);
+                }
+
+                ordinal = addedOrdinals.nextSetBit(0);
+                while(ordinal != -1) {
+                    field.add(ordinal, field.readValue(typeState, ordinal));
+                    ordinal = addedOrdinals.nextSetBit(ordinal + 1);
+                }
+            }
+        }
+
+        /**
+         * Drop the largest fields until at least the specified number of bytes is released.
+         *
+         * @return the number of bytes released
+         */
+        long dropFields(long bytesToRelease) {
+            long released = 0;
+            while(released < bytesToRelease) {
+                int largest = -1;
+                for(int i=0;i<fields.length;i++) {
+                    if(fields[i] != null && (largest == -1 || fields[i].sizeInBytes > fields[largest].sizeInBytes))
+                        largest = i;
+                }
+                if(largest == -1)
+                    break;
+                released += fields[largest].sizeInBytes;
+                fields[largest] = null;
+            }
+            return released;
+        }
+
+        long sizeInBytes() {
+            long size = 0;
+            for(FieldIndex field : fields) {
+                if(field != null)
+                    size += field.sizeInBytes;
+            }
+            return size;
+        }
+    }
+
+    private static class FieldIndex {
+        private final int fieldIdx;
+        private final FieldType fieldType;
+        private final Map<Object, Postings> postings = new HashMap<Object, Postings>();
+        private Postings[] postingsByOrdinal;
+        private long sizeInBytes;
+
+        FieldIndex(int fieldIdx, FieldType fieldType, int numOrdinals) {
+            this.fieldIdx = fieldIdx;
+            this.fieldType = fieldType;
+            this.postingsByOrdinal = new Postings[Math.max(numOrdinals, 16)];
+            this.sizeInBytes = 8L * postingsByOrdinal.length;
+        }
+
+        /**
+         * @return the index for the field, or null if it would exceed the budget
+         */
+        static FieldIndex build(HollowObjectTypeReadState typeState, int fieldIdx, BitSet populatedOrdinals, long budget) {
+            FieldIndex field = new FieldIndex(fieldIdx, typeState.getSchema().getFieldType(fieldIdx), populatedOrdinals.length());
+
+            int ordinal = populatedOrdinals.nextSetBit(0);
+            while(ordinal != -1) {
+                field.add(ordinal, field.readValue(typeState, ordinal));
+                if(field.sizeInBytes > budget)
+                    return null;
+                ordinal = populatedOrdinals.nextSetBit(ordinal + 1);
+            }
+            return field;
+        }
+
+        /**
+         * @return the value of the field boxed as it would be by {@link HollowFieldMatchQuery}, or null if it can never be matched.
+         */
+        Object readValue(HollowObjectTypeReadState typeState, int ordinal) {
+            switch(fieldType) {
+            case BOOLEAN:
+                return typeState.readBoolean(ordinal, fieldIdx);
+            case DOUBLE:
+                return typeState.readDouble(ordinal, fieldIdx);
+            case FLOAT:
+                return typeState.readFloat(ordinal, fieldIdx);
+            case INT:
+                return typeState.readInt(ordinal, fieldIdx);
+            case LONG:
+                return typeState.readLong(ordinal, fieldIdx);
+            case STRING:
+                return typeState.readString(ordinal, fieldIdx);
+            case REFERENCE:
+                int refOrdinal = typeState.readOrdinal(ordinal, fieldIdx);
+                return refOrdinal == -1 ? null : refOrdinal;
+            default:
+                return null;
+            }
+        }
+
+        void add(int ordinal, Object value) {
+            if(value == null)
+                return;
+
+            if(ordinal >= postingsByOrdinal.length) {
+                int newLength = Math.max(ordinal + 1, postingsByOrdinal.length + (postingsByOrdinal.length >> 1));
+                sizeInBytes += 8L * (newLength - postingsByOrdinal.length);
+                postingsByOrdinal = Arrays.copyOf(postingsByOrdinal, newLength);
+            }
+
+            Postings valuePostings = postings.get(value);
+            if(valuePostings == null) {
+                valuePostings = new Postings(value);
+                postings.put(value, valuePostings);
+                sizeInBytes += valuePostings.sizeInBytes();
+            }
+
+            long sizeBefore = valuePostings.sizeInBytes();
+            valuePostings.add(ordinal, postingsByOrdinal.length);
+            sizeInBytes += valuePostings.sizeInBytes() - sizeBefore;
+            postingsByOrdinal[ordinal] = valuePostings;
+        }
+
+        void remove(int ordinal) {
+            if(ordinal >= postingsByOrdinal.length || postingsByOrdinal[ordinal] == null)
+                return;
+
+            Postings valuePostings = postingsByOrdinal[ordinal];
+            postingsByOrdinal[ordinal] = null;
+
+            long sizeBefore = valuePostings.sizeInBytes();
+            valuePostings.remove(ordinal);
+            if(valuePostings.size == 0) {
+                postings.remove(valuePostings.value);
+                sizeInBytes -= sizeBefore;
+            } else {
+                sizeInBytes += valuePostings.sizeInBytes() - sizeBefore;
+            }
+        }
+    }
+
+    /**
+     * The ordinals matching a single value.  Held as a sorted array while sparse, and as a BitSet once that is smaller.
+     */
+    private static class Postings {
+        private static final int[] EMPTY = new int[0];
+
+        private final Object value;
+        private int[] ordinals = EMPTY;
+        private BitSet bits;
+        private int size;
+
+        Postings(Object value) {
+            this.value = value;
+        }
+
+        void add(int ordinal, int maxOrdinals) {
+            if(bits != null) {
+                if(!bits.get(ordinal)) {
+                    bits.set(ordinal);
+                    size++;
+                }
+                return;
+            }
+
+            int idx = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if(idx >= 0)
+                return;
+            idx = -(idx + 1);
+
+            if((size + 1) * 32L > maxOrdinals && size >= 16) {
+                bits = new BitSet(maxOrdinals);
+                for(int i=0;i<size;i++)
+                    bits.set(ordinals[i]);
+                bits.set(ordinal);
+                ordinals = null;
+                size++;
+                return;
+            }
+
+            if(size == ordinals.length)
+                ordinals = Arrays.copyOf(ordinals, Math.max(4, size + (size >> 1)));
+            System.arraycopy(ordinals, idx, ordinals, idx + 1, size - idx);
+            ordinals[idx] = ordinal;
+            size++;
+        }
+
+        void remove(int ordinal) {
+            if(bits != null) {
+                if(bits.get(ordinal)) {
+                    bits.clear(ordinal);
+                    size--;
+                }
+                return;
+            }
+
+            int idx = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if(idx < 0)
+                return;
+            System.arraycopy(ordinals, idx + 1, ordinals, idx, size - idx - 1);
+            size--;
+        }
+
+        BitSet toBitSet() {
+            if(bits != null)
+                return (BitSet)bits.clone();
+            BitSet bitSet = new BitSet(size == 0 ? 0 : ordinals[size - 1] + 1);
+            orInto(bitSet);
+            return bitSet;
+        }
+
+        void orInto(BitSet target) {
+            if(bits != null) {
+                target.or(bits);
+            } else {
+                for(int i=0;i<size;i++)
+                    target.set(ordinals[i]);
+            }
+        }
+
+        long sizeInBytes() {
+            long valueSize = value instanceof String ? 40 + 2L * ((String)value).length() : 16;
+            long ordinalsSize = bits != null ? bits.size() / 8 : 4L * ordinals.length;
+            return 64 + valueSize + ordinalsSize;
+        }
+    }
+}
@@ -46,13 +46,28 @@ import java.util.Map;
  * TransitiveSetTraverser.addReferencingOutsideClosure(myStateEngine, selection);
  * }
  * </pre>
+ * <p>
+ * If constructed with a {@link HollowFieldMatchIndex}, fields which are indexed are matched with an index lookup rather
+ * than a scan.
  */
 public class HollowFieldMatchQuery {
     
     private final HollowReadStateEngine readEngine;
+    private final HollowFieldMatchIndex index;
     
     public HollowFieldMatchQuery(HollowReadStateEngine readEngine) {
+        this(readEngine, null);
+    }
+
+    /**
+     * @param readEngine the state engine to query
+     * @param index an index of the state engine, or null to always scan
+     */
+    public HollowFieldMatchQuery(HollowReadStateEngine readEngine, HollowFieldMatchIndex index) {
+        if(index != null && index.getStateEngine() != readEngine)
+            throw new IllegalArgumentException("The index was built for a different state engine");
         this.readEngine = readEngine;
+        this.index = index;
     }
     
     /**
@@ -145,6 +160,12 @@ public class HollowFieldMatchQuery {
     }
     
     private BitSet queryBasedOnMatchedReferences(HollowObjectTypeReadState typeState, int referenceFieldPosition, BitSet matchedReferences) {
+        if(index != null) {
+            BitSet indexedMatches = index.findReferencingOrdinals(typeState, referenceFieldPosition, matchedReferences);
+            if(indexedMatches != null)
+                return indexedMatches;
+        }
+
         BitSet populatedOrdinals = typeState.getPopulatedOrdinals();
         BitSet typeQueryMatches = new BitSet(populatedOrdinals.length());
       
@@ -159,6 +180,12 @@ public class HollowFieldMatchQuery {
     }
     
     private BitSet queryBasedOnValueMatches(HollowObjectTypeReadState typeState, int fieldPosition, Object queryValue) {
+        if(index != null) {
+            BitSet indexedMatches = index.findMatchingOrdinals(typeState, fieldPosition, queryValue);
+            if(indexedMatches != null)
+                return indexedMatches;
+        }
+
         BitSet populatedOrdinals = typeState.getPopulatedOrdinals();
         BitSet typeQueryMatches = new BitSet(populatedOrdinals.length());
       
@@ -46,17 +46,17 @@ public class HollowSplitter {
     public void split() {
         prepareForNextCycle();
 
-        SimultaneousExecutor executor = new SimultaneousExecutor(getNumberOfShards(), getClass(), "split");
+        // each shard is copied by several workers, which share that shard's copier and ordinal remapping
+        int numThreads = Math.max(getNumberOfShards(), Runtime.getRuntime().availableProcessors());
+        int workersPerShard = (numThreads + getNumberOfShards() - 1) / getNumberOfShards();
+        SimultaneousExecutor executor = new SimultaneousExecutor(numThreads, getClass(), "split");
 
         for(int i=0;i<getNumberOfShards();i++) {
-            final int shardNumber = i;
-
-            executor.execute(new Runnable() {
-                public void run() {
-                    HollowSplitterShardCopier copier = new HollowSplitterShardCopier(inputStateEngine, outputStateEngines[shardNumber], director, shardNumber);
-                    copier.copy();
-                }
-            });
+            final HollowSplitterShardCopier copier = new HollowSplitterShardCopier(inputStateEngine, outputStateEngines[i], director, i);
+
+            for(int j=0;j<workersPerShard;j++) {
+                executor.execute(copier::copy);
+            }
         }
 
         try {
@@ -23,6 +23,13 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Tracks the mapping between ordinals in the input state and ordinals in a single output shard.
+ * <p>
+ * The per-type mappings are primitive arrays which are shared by every thread copying into the shard.  Races on an
+ * unmapped ordinal are benign: each racing thread copies an identical record, so the output state assigns each of
+ * them the same ordinal.
+ */
 public class HollowSplitterOrdinalRemapper implements OrdinalRemapper {
 
     private final HollowSplitterShardCopier shardCopier;
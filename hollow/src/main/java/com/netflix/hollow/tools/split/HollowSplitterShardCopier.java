@@ -30,10 +30,13 @@ import com.netflix.hollow.tools.combine.OrdinalRemapper;
 import java.util.BitSet;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 
 public class HollowSplitterShardCopier {
 
+    private static final int ORDINALS_PER_RANGE = 1024;
+
     private final Logger log = Logger.getLogger(HollowSplitterShardCopier.class.getName());
     private final HollowReadStateEngine input;
     private final HollowWriteStateEngine output;
@@ -41,7 +44,8 @@ public class HollowSplitterShardCopier {
     private final HollowSplitterCopyDirector director;
     private final int shardNumber;
 
-    private final Map<String, HollowRecordCopier> copiersPerType;
+    private final ThreadLocal<Map<String, HollowRecordCopier>> copiersPerType;
+    private final Map<String, AtomicInteger> nextOrdinalRangePerTopLevelType;
 
     public HollowSplitterShardCopier(HollowReadStateEngine input, HollowWriteStateEngine shardOutput, HollowSplitterCopyDirector director, int shardNumber) {
         this.input = input;
@@ -49,39 +53,59 @@ public class HollowSplitterShardCopier {
         this.director = director;
         this.shardNumber = shardNumber;
         this.ordinalRemapper = new HollowSplitterOrdinalRemapper(input, this);
-        this.copiersPerType = new HashMap<String, HollowRecordCopier>();
+        this.copiersPerType = ThreadLocal.withInitial(HashMap::new);
+        this.nextOrdinalRangePerTopLevelType = new HashMap<String, AtomicInteger>();
+
+        for(String topLevelType : director.getTopLevelTypes()) {
+            if(input.getTypeState(topLevelType) == null)
+                log.warning("Could not find input type state for " + topLevelType);
+            else
+                nextOrdinalRangePerTopLevelType.put(topLevelType, new AtomicInteger());
+        }
     }
 
+    /**
+     * Copy the records directed to this shard.
+     * <p>
+     * This may be invoked concurrently from any number of threads.  Each invocation claims ranges of ordinals of
+     * each top-level type until none remain, so the records of a single large type are spread across all of them.
+     */
     public void copy() {
         for(String topLevelType : director.getTopLevelTypes()) {
-            HollowTypeReadState inputTypeState = input.getTypeState(topLevelType);
-
-            if(inputTypeState == null) {
-                log.warning("Could not find input type state for " + topLevelType);
+            AtomicInteger nextOrdinalRange = nextOrdinalRangePerTopLevelType.get(topLevelType);
+            if(nextOrdinalRange == null)
                 continue;
-            }
 
+            HollowTypeReadState inputTypeState = input.getTypeState(topLevelType);
             PopulatedOrdinalListener listener = inputTypeState.getListener(PopulatedOrdinalListener.class);
             BitSet ordinals = listener.getPopulatedOrdinals();
 
-            int ordinal = ordinals.nextSetBit(0);
-            while(ordinal != -1) {
-                int directedShard = director.getShard(inputTypeState, ordinal);
-                if(directedShard == shardNumber || directedShard < 0) {
-                    copyRecord(topLevelType, ordinal);
+            int rangeStart = nextOrdinalRange.getAndAdd(ORDINALS_PER_RANGE);
+            while(rangeStart <= inputTypeState.maxOrdinal()) {
+                int rangeEnd = rangeStart + ORDINALS_PER_RANGE;
+
+                int ordinal = ordinals.nextSetBit(rangeStart);
+                while(ordinal != -1 && ordinal < rangeEnd) {
+                    int directedShard = director.getShard(inputTypeState, ordinal);
+                    if(directedShard == shardNumber || directedShard < 0) {
+                        copyRecord(topLevelType, ordinal);
+                    }
+
+                    ordinal = ordinals.nextSetBit(ordinal + 1);
                 }
 
-                ordinal = ordinals.nextSetBit(ordinal + 1);
+                rangeStart = nextOrdinalRange.getAndAdd(ORDINALS_PER_RANGE);
             }
         }
     }
 
     int copyRecord(String typeName, int ordinal) {
         HollowTypeReadState typeState = input.getTypeState(typeName);
-        HollowRecordCopier copier = copiersPerType.get(typeName);
+        Map<String, HollowRecordCopier> copiers = copiersPerType.get();
+        HollowRecordCopier copier = copiers.get(typeName);
         if(copier == null) {
             copier = HollowRecordCopier.createCopier(typeState, ordinalRemapper, isDefinedHashCode(typeState));
-            copiersPerType.put(typeName, copier);
+            copiers.put(typeName, copier);
         }
 
         HollowWriteRecord rec = copier.copy(ordinal);
@@ -69,6 +69,11 @@ public class AbstractHollowAPIGeneratorTest {
         assertEquals(typeName, ((HollowTypeName) annotation).name());
     }
 
+    Class<?> loadGeneratedClass(String clazz) throws IOException, ClassNotFoundException {
+        ClassLoader cl = new URLClassLoader(new URL[]{new File(clazzFolder).toURI().toURL()}, getClass().getClassLoader());
+        return cl.loadClass(clazz);
+    }
+
     void assertFileDoesNotExist(String relativePath) {
         if (relativePath.startsWith("/")) {
             throw new IllegalArgumentException("Relative paths should not start with /");
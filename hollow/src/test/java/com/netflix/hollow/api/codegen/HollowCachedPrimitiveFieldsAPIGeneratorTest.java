@@ -0,0 +1,86 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ */
+package com.netflix.hollow.api.codegen;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.netflix.hollow.api.client.HollowAPIFactory;
+import com.netflix.hollow.api.custom.HollowAPI;
+import com.netflix.hollow.api.objects.HollowObject;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.util.StateEngineRoundTripper;
+import com.netflix.hollow.core.write.HollowWriteStateEngine;
+import com.netflix.hollow.core.write.objectmapper.HollowInline;
+import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
+import java.lang.reflect.Field;
+import java.util.Collections;
+import org.junit.Test;
+
+public class HollowCachedPrimitiveFieldsAPIGeneratorTest extends AbstractHollowAPIGeneratorTest {
+
+    @Test
+    public void test() throws Exception {
+        String apiClassName = "CachedPrimitiveFieldsTestAPI";
+        String packageName = "codegen.cached.primitive";
+        runGenerator(apiClassName, packageName, Movie.class,
+                builder -> builder.withErgonomicShortcuts().withCachedPrimitiveFieldsOnly(true));
+
+        HollowWriteStateEngine writeEngine = new HollowWriteStateEngine();
+        HollowObjectMapper mapper = new HollowObjectMapper(writeEngine);
+        mapper.add(new Movie(1, "The Matrix", "A hacker learns the truth", new byte[] { 1, 2, 3 }));
+        HollowReadStateEngine readEngine = new HollowReadStateEngine();
+        StateEngineRoundTripper.roundTripSnapshot(writeEngine, readEngine);
+
+        Class<? extends HollowAPI> apiClass = loadGeneratedClass(packageName + "." + apiClassName).asSubclass(HollowAPI.class);
+        HollowAPI api = new HollowAPIFactory.ForGeneratedAPI<>(apiClass, Collections.singletonMap("Movie", 16))
+                .createAPI(readEngine);
+
+        Object movie = apiClass.getMethod("getMovie", int.class).invoke(api, 0);
+        assertSame(movie, apiClass.getMethod("getMovie", int.class).invoke(api, 0));
+        assertEquals(1, movie.getClass().getMethod("getId").invoke(movie));
+        // an ergonomic shortcut to a STRING in a referenced type
+        assertEquals("The Matrix", movie.getClass().getMethod("getTitle").invoke(movie));
+        assertEquals(Boolean.TRUE, movie.getClass().getMethod("isTitleEqual", String.class).invoke(movie, "The Matrix"));
+        assertEquals("A hacker learns the truth", movie.getClass().getMethod("getSynopsis").invoke(movie));
+        assertArrayEquals(new byte[] { 1, 2, 3 }, (byte[]) movie.getClass().getMethod("getPoster").invoke(movie));
+
+        Object delegate = ((HollowObject) movie).getDelegate();
+        assertTrue(delegate.getClass().getSimpleName().endsWith("DelegateCachedImpl"));
+        for (Field field : delegate.getClass().getDeclaredFields()) {
+            assertNotEquals(field.getName(), String.class, field.getType());
+            assertNotEquals(field.getName(), byte[].class, field.getType());
+        }
+    }
+
+    @SuppressWarnings("unused")
+    static class Movie {
+        int id;
+        String title;
+        @HollowInline String synopsis;
+        byte[] poster;
+
+        Movie(int id, String title, String synopsis, byte[] poster) {
+            this.id = id;
+            this.title = title;
+            this.synopsis = synopsis;
+            this.poster = poster;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.consumer;
+
+import com.netflix.hollow.api.consumer.metrics.RefreshLatencyHistogram;
+import com.netflix.hollow.api.producer.HollowProducer;
+import com.netflix.hollow.api.producer.fs.HollowInMemoryBlobStager;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CoalescingAnnouncementWatcherTest {
+
+    @Test
+    public void rapidAnnouncementsAreCoalesced() throws Exception {
+        InMemoryBlobStore blobStore = new InMemoryBlobStore();
+        HollowProducer producer = HollowProducer.withPublisher(blobStore)
+                .withBlobStager(new HollowInMemoryBlobStager())
+                .build();
+        long[] versions = new long[6];
+        for(int i = 0; i < versions.length; i++) {
+            final int cycle = i;
+            versions[i] = producer.runCycle(state -> state.add(new Value(cycle)));
+        }
+
+        TestWatcher watcher = new TestWatcher(0);
+        HollowConsumer consumer = HollowConsumer.withBlobRetriever(blobStore)
+                .withAnnouncementWatcher(watcher)
+                .build();
+        AtomicInteger refreshes = new AtomicInteger();
+        consumer.addRefreshListener(new HollowConsumer.AbstractRefreshListener() {
+            @Override
+            public void refreshStarted(long currentVersion, long requestedVersion) {
+                refreshes.incrementAndGet();
+            }
+        });
+
+        watcher.announce(versions[0]);
+        awaitVersion(consumer::getCurrentVersionId, versions[0]);
+        Assert.assertEquals(1, refreshes.get());
+
+        for(int i = 1; i < versions.length; i++)
+            watcher.announce(versions[i]);
+        awaitVersion(consumer::getCurrentVersionId, versions[versions.length - 1]);
+
+        /// one refresh for the first of the rapid announcements, and at most one follow-up for the rest
+        Assert.assertTrue("refreshes: " + refreshes.get(), refreshes.get() <= 3);
+
+        RefreshLatencyHistogram latency = watcher.getAnnouncementToAppliedLatency();
+        Assert.assertEquals(refreshes.get(), latency.getCount());
+        Assert.assertTrue(latency.getPercentileMillis(99) <= latency.getMaxMillis());
+    }
+
+    @Test
+    public void stagingDelaysRefreshesButNotInitialLoad() throws Exception {
+        InMemoryBlobStore blobStore = new InMemoryBlobStore();
+        HollowProducer producer = HollowProducer.withPublisher(blobStore)
+                .withBlobStager(new HollowInMemoryBlobStager())
+                .build();
+        long v1 = producer.runCycle(state -> state.add(new Value(1)));
+
+        TestWatcher watcher = new TestWatcher(Long.MAX_VALUE / 2);
+        Assert.assertTrue(watcher.getStagingOffsetMillis() >= 0);
+        Assert.assertTrue(watcher.getStagingOffsetMillis() < Long.MAX_VALUE / 2);
+
+        HollowConsumer consumer = HollowConsumer.withBlobRetriever(blobStore)
+                .withAnnouncementWatcher(watcher)
+                .build();
+
+        watcher.announce(v1);
+        awaitVersion(consumer::getCurrentVersionId, v1);
+    }
+
+    @Test
+    public void announcementResolvingToCurrentVersionDoesNotStopRefreshes() throws Exception {
+        InMemoryBlobStore blobStore = new InMemoryBlobStore();
+        AtomicLong nextVersion = new AtomicLong();
+        HollowProducer producer = HollowProducer.withPublisher(blobStore)
+                .withBlobStager(new HollowInMemoryBlobStager())
+                .withVersionMinter(() -> nextVersion.addAndGet(10))
+                .build();
+        long v1 = producer.runCycle(state -> state.add(new Value(1)));
+
+        TestWatcher watcher = new TestWatcher(0);
+        HollowConsumer consumer = HollowConsumer.withBlobRetriever(blobStore)
+                .withAnnouncementWatcher(watcher)
+                .build();
+        AtomicInteger completedRefreshes = new AtomicInteger();
+        consumer.addRefreshListener(new HollowConsumer.AbstractRefreshListener() {
+            @Override
+            public void refreshSuccessful(long beforeVersion, long afterVersion, long requestedVersion) {
+                completedRefreshes.incrementAndGet();
+            }
+        });
+
+        watcher.announce(v1);
+        awaitVersion(consumer::getCurrentVersionId, v1);
+
+        /// no state exists for this version, so the refresh plan resolves to the current version and the
+        /// refresh returns without notifying any refresh listener
+        watcher.announce(v1 + 1);
+        Thread.sleep(200);
+        Assert.assertEquals(v1, consumer.getCurrentVersionId());
+        Assert.assertEquals(1, completedRefreshes.get());
+
+        long v2 = producer.runCycle(state -> state.add(new Value(2)));
+        watcher.announce(v2);
+        awaitVersion(consumer::getCurrentVersionId, v2);
+    }
+
+    @Test
+    public void histogramPercentiles() {
+        RefreshLatencyHistogram histogram = new RefreshLatencyHistogram();
+        Assert.assertEquals(0, histogram.getPercentileMillis(50));
+
+        for(int i = 1; i <= 100; i++)
+            histogram.record(i);
+
+        Assert.assertEquals(100, histogram.getCount());
+        Assert.assertEquals(100, histogram.getMaxMillis());
+        Assert.assertEquals(50.5d, histogram.getMeanMillis(), 0.0001d);
+        Assert.assertEquals(64, histogram.getPercentileMillis(50));
+        Assert.assertEquals(100, histogram.getPercentileMillis(99));
+        Assert.assertEquals(2, histogram.getPercentileMillis(1));
+    }
+
+    private static void awaitVersion(LongSupplier currentVersion, long version) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while(currentVersion.getAsLong() != version && System.currentTimeMillis() < deadline)
+            Thread.sleep(5);
+        Assert.assertEquals(version, currentVersion.getAsLong());
+    }
+
+    private static class TestWatcher extends CoalescingAnnouncementWatcher {
+        TestWatcher(long stagingWindowMillis) {
+            super(stagingWindowMillis);
+        }
+
+        @Override
+        public void announce(long version) {
+            super.announce(version);
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class Value {
+        private final int value;
+
+        Value(int value) {
+            this.value = value;
+        }
+    }
+}
@@ -27,11 +27,15 @@ import com.netflix.hollow.api.producer.validation.ValidationStatusException;
 import com.netflix.hollow.api.producer.validation.ValidationStatusListener;
 import com.netflix.hollow.api.producer.validation.ValidatorListener;
 import com.netflix.hollow.core.memory.MemoryMode;
+import com.netflix.hollow.core.memory.pool.DirectMemoryRecycler;
 import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
 import com.netflix.hollow.core.read.filter.TypeFilter;
+import com.netflix.hollow.tools.checksum.HollowChecksum;
 import com.netflix.hollow.tools.compact.HollowCompactor.CompactionConfig;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.BitSet;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Assert;
 import org.junit.Before;
@@ -487,6 +491,91 @@ public class HollowProducerConsumerTests {
         Assert.fail();  // fail if UnsupportedOperationException was not thrown
     }
 
+    @Test
+    public void consumerAppliesDeltasInOffHeapMemoryMode() {
+        HollowProducer producer = HollowProducer.withPublisher(blobStore)
+                .withBlobStager(new HollowInMemoryBlobStager())
+                .withNumStatesBetweenSnapshots(10)
+                .build();
+
+        long v1 = producer.runCycle(state -> addMovies(state, 0, 5000));
+
+        HollowConsumer offHeapConsumer = HollowConsumer.withBlobRetriever(blobStore)
+                .withMemoryMode(MemoryMode.OFF_HEAP)
+                .build();
+        offHeapConsumer.triggerRefreshTo(v1);
+
+        DirectMemoryRecycler recycler = (DirectMemoryRecycler) offHeapConsumer.getStateEngine().getMemoryRecycler();
+        Assert.assertTrue(recycler.getAllocatedBytes() > 0);
+
+        long v2 = producer.runCycle(state -> addMovies(state, 1000, 6000));
+        long v3 = producer.runCycle(state -> addMovies(state, 3000, 7000));
+        offHeapConsumer.triggerRefreshTo(v3);
+        Assert.assertEquals(v3, offHeapConsumer.getCurrentVersionId());
+
+        HollowConsumer onHeapConsumer = HollowConsumer.withBlobRetriever(blobStore).build();
+        onHeapConsumer.triggerRefreshTo(v3);
+
+        Assert.assertEquals(HollowChecksum.forStateEngine(onHeapConsumer.getStateEngine()),
+                HollowChecksum.forStateEngine(offHeapConsumer.getStateEngine()));
+
+        offHeapConsumer.triggerRefreshTo(v2);
+        onHeapConsumer.triggerRefreshTo(v2);
+        Assert.assertEquals(HollowChecksum.forStateEngine(onHeapConsumer.getStateEngine()),
+                HollowChecksum.forStateEngine(offHeapConsumer.getStateEngine()));
+
+        offHeapConsumer.destroy();
+        Assert.assertEquals(0, recycler.getAllocatedBytes());
+        try {
+            offHeapConsumer.triggerRefreshTo(v3);
+            Assert.fail("expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    @Test
+    public void consumerFilteringSupportInOffHeapMemoryMode() {
+        HollowProducer producer = HollowProducer.withPublisher(blobStore)
+                .withBlobStager(new HollowInMemoryBlobStager())
+                .build();
+
+        long version = producer.runCycle(state -> addMovies(state, 0, 100));
+
+        TypeFilter filterConfig = TypeFilter.newTypeFilter()
+                .excludeRecursive("Movie", "actors")
+                .build();
+
+        HollowConsumer consumer = HollowConsumer.withBlobRetriever(blobStore)
+                .withMemoryMode(MemoryMode.OFF_HEAP)
+                .withTypeFilter(filterConfig)
+                .build();
+        consumer.triggerRefreshTo(version);
+
+        HollowObjectTypeReadState movieState = (HollowObjectTypeReadState) consumer.getStateEngine().getTypeState("Movie");
+        Assert.assertEquals(100, movieState.getPopulatedOrdinals().cardinality());
+        Assert.assertNull(consumer.getStateEngine().getTypeState("ListOfString"));
+        Assert.assertEquals(42, movieState.readInt(42, movieState.getSchema().getPosition("id")));
+    }
+
+    private static void addMovies(HollowProducer.WriteState state, int from, int to) {
+        for (int i = from; i < to; i++) {
+            state.add(new Movie(i, "Movie " + i, i % 7 == 0 ? null : Arrays.asList("Actor " + (i % 100), "Actor " + (i % 31))));
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class Movie {
+        int id;
+        String title;
+        List<String> actors;
+
+        Movie(int id, String title, List<String> actors) {
+            this.id = id;
+            this.title = title;
+            this.actors = actors;
+        }
+    }
+
     private long runCycle(HollowProducer producer, final int cycleNumber) {
         return producer.runCycle(state -> state.add(cycleNumber));
     }
@@ -0,0 +1,199 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.consumer;
+
+import com.netflix.hollow.api.producer.HollowProducer;
+import com.netflix.hollow.api.producer.fs.HollowInMemoryBlobStager;
+import com.netflix.hollow.core.memory.MemoryMode;
+import com.netflix.hollow.tools.checksum.HollowChecksum;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HollowSharedBlobRetrieverTest {
+
+    @Test
+    public void concurrentRetrievalsShareOneDownload() throws IOException {
+        InMemoryBlobStore blobStore = new InMemoryBlobStore();
+        long v1 = producer(blobStore).runCycle(state -> addMovies(state, 0, 10000));
+
+        CountingBlobRetriever counting = new CountingBlobRetriever(blobStore);
+        HollowSharedBlobRetriever shared = new HollowSharedBlobRetriever(counting);
+
+        HollowConsumer.Blob first = shared.retrieveSnapshotBlob(v1);
+        HollowConsumer.Blob second = shared.retrieveSnapshotBlob(v1);
+        Assert.assertEquals(1, shared.getNumSharedBlobs());
+
+        byte[] firstBytes;
+        byte[] secondBytes;
+        try(InputStream firstIn = first.getInputStream(); InputStream secondIn = second.getInputStream()) {
+            firstBytes = readFully(firstIn);
+            secondBytes = readFully(secondIn);
+        }
+
+        Assert.assertArrayEquals(readFully(blobStore.retrieveSnapshotBlob(v1).getInputStream()), firstBytes);
+        Assert.assertArrayEquals(firstBytes, secondBytes);
+        Assert.assertEquals(1, counting.inputStreamsOpened.get());
+
+        /// once every retrieved blob has been read, the content is released and a later retrieval fetches it again
+        Assert.assertEquals(0, shared.getNumSharedBlobs());
+        try(InputStream in = shared.retrieveSnapshotBlob(v1).getInputStream()) {
+            Assert.assertArrayEquals(firstBytes, readFully(in));
+        }
+        Assert.assertEquals(2, counting.inputStreamsOpened.get());
+    }
+
+    @Test
+    public void consumersRefreshThroughSharedRetriever() throws Exception {
+        InMemoryBlobStore blobStore = new InMemoryBlobStore();
+        HollowProducer producer = producer(blobStore);
+        long v1 = producer.runCycle(state -> addMovies(state, 0, 10000));
+        long v2 = producer.runCycle(state -> addMovies(state, 5000, 15000));
+
+        HollowSharedBlobRetriever shared = new HollowSharedBlobRetriever(blobStore);
+        HollowConsumer first = HollowConsumer.withBlobRetriever(shared).build();
+        HollowConsumer second = HollowConsumer.withBlobRetriever(shared).build();
+        HollowConsumer direct = HollowConsumer.withBlobRetriever(blobStore).build();
+
+        for(long version : new long[] {v1, v2}) {
+            CompletableFuture<Void> firstRefresh = CompletableFuture.runAsync(() -> first.triggerRefreshTo(version));
+            CompletableFuture<Void> secondRefresh = CompletableFuture.runAsync(() -> second.triggerRefreshTo(version));
+            firstRefresh.get();
+            secondRefresh.get();
+            direct.triggerRefreshTo(version);
+
+            Assert.assertEquals(version, first.getCurrentVersionId());
+            Assert.assertEquals(version, second.getCurrentVersionId());
+            Assert.assertEquals(HollowChecksum.forStateEngine(direct.getStateEngine()),
+                    HollowChecksum.forStateEngine(first.getStateEngine()));
+            Assert.assertEquals(HollowChecksum.forStateEngine(direct.getStateEngine()),
+                    HollowChecksum.forStateEngine(second.getStateEngine()));
+        }
+
+        Assert.assertEquals(0, shared.getNumSharedBlobs());
+    }
+
+    @Test
+    public void sharedContentIsSpilledToTemporaryFile() throws Exception {
+        InMemoryBlobStore blobStore = new InMemoryBlobStore();
+        long v1 = producer(blobStore).runCycle(state -> addMovies(state, 0, 10000));
+
+        File tempDir = Files.createTempDirectory("hollow-shared-blob-retriever-test").toFile();
+        try {
+            HollowSharedBlobRetriever shared = new HollowSharedBlobRetriever(blobStore, tempDir);
+
+            HollowConsumer.Blob blob = shared.retrieveSnapshotBlob(v1);
+            File file = blob.getFile();
+            Assert.assertEquals(tempDir, file.getParentFile());
+            byte[] expected = readFully(blobStore.retrieveSnapshotBlob(v1).getInputStream());
+            Assert.assertArrayEquals(expected, Files.readAllBytes(file.toPath()));
+
+            /// the file is deleted once the last blob referencing its content is released
+            try(InputStream in = blob.getInputStream()) {
+                Assert.assertArrayEquals(expected, readFully(in));
+            }
+            Assert.assertEquals(0, shared.getNumSharedBlobs());
+            Assert.assertFalse(file.exists());
+
+            HollowConsumer lazy = HollowConsumer.withBlobRetriever(shared)
+                    .withMemoryMode(MemoryMode.SHARED_MEMORY_LAZY)
+                    .build();
+            HollowConsumer onHeap = HollowConsumer.withBlobRetriever(shared).build();
+            lazy.triggerRefreshTo(v1);
+            onHeap.triggerRefreshTo(v1);
+            Assert.assertEquals(HollowChecksum.forStateEngine(onHeap.getStateEngine()),
+                    HollowChecksum.forStateEngine(lazy.getStateEngine()));
+        } finally {
+            for(File file : tempDir.listFiles())
+                file.delete();
+            tempDir.delete();
+        }
+    }
+
+    private static HollowProducer producer(InMemoryBlobStore blobStore) {
+        return HollowProducer.withPublisher(blobStore)
+                .withBlobStager(new HollowInMemoryBlobStager())
+                .build();
+    }
+
+    private static void addMovies(HollowProducer.WriteState state, int from, int to) {
+        for(int i = from; i < to; i++)
+            state.add(new Movie(i, "Movie " + i));
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buf = new byte[4096];
+        int bytesRead;
+        while((bytesRead = in.read(buf)) != -1)
+            out.write(buf, 0, bytesRead);
+        return out.toByteArray();
+    }
+
+    private static class CountingBlobRetriever implements HollowConsumer.BlobRetriever {
+        private final HollowConsumer.BlobRetriever delegate;
+        private final AtomicInteger inputStreamsOpened = new AtomicInteger();
+
+        CountingBlobRetriever(HollowConsumer.BlobRetriever delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public HollowConsumer.Blob retrieveSnapshotBlob(long desiredVersion) {
+            return counting(delegate.retrieveSnapshotBlob(desiredVersion));
+        }
+
+        @Override
+        public HollowConsumer.Blob retrieveDeltaBlob(long currentVersion) {
+            return counting(delegate.retrieveDeltaBlob(currentVersion));
+        }
+
+        @Override
+        public HollowConsumer.Blob retrieveReverseDeltaBlob(long currentVersion) {
+            return counting(delegate.retrieveReverseDeltaBlob(currentVersion));
+        }
+
+        private HollowConsumer.Blob counting(HollowConsumer.Blob blob) {
+            if(blob == null)
+                return null;
+            return new HollowConsumer.Blob(blob.getFromVersion(), blob.getToVersion()) {
+                @Override
+                public InputStream getInputStream() throws IOException {
+                    inputStreamsOpened.incrementAndGet();
+                    return blob.getInputStream();
+                }
+            };
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class Movie {
+        private final int id;
+        private final String title;
+
+        Movie(int id, String title) {
+            this.id = id;
+            this.title = title;
+        }
+    }
+}
@@ -1,13 +1,36 @@
 package com.netflix.hollow.api.consumer.fs;
 
 import com.netflix.hollow.api.consumer.HollowConsumer;
+import com.netflix.hollow.api.custom.HollowAPI;
+import com.netflix.hollow.api.custom.HollowObjectTypeAPI;
 import com.netflix.hollow.api.objects.generic.GenericHollowObject;
 import com.netflix.hollow.api.producer.HollowProducer;
+import com.netflix.hollow.api.producer.fs.HollowFilesystemAnnouncer;
 import com.netflix.hollow.api.producer.fs.HollowFilesystemPublisher;
+import com.netflix.hollow.api.sampling.EnabledSamplingDirector;
+import com.netflix.hollow.core.memory.MemoryMode;
+import com.netflix.hollow.core.read.dataaccess.HollowDataAccess;
+import com.netflix.hollow.core.read.dataaccess.HollowObjectTypeDataAccess;
+import com.netflix.hollow.core.read.dataaccess.HollowTypeDataAccess;
+import com.netflix.hollow.core.read.engine.HollowDeferredTypeDataAccess;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.schema.HollowObjectSchema;
+import com.netflix.hollow.core.schema.HollowSchema;
 import com.netflix.hollow.core.write.objectmapper.HollowPrimaryKey;
+import com.netflix.hollow.tools.checksum.HollowChecksum;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -46,6 +69,279 @@ public class HollowFilesystemConsumerTest {
         Assert.assertEquals(4, obj4.getInt("id"));
     }
 
+    @Test
+    public void testMappedSnapshotThenDeltas() throws IOException {
+        assertMappedSnapshotThenDeltas(MemoryMode.ON_HEAP);
+    }
+
+    @Test
+    public void testMappedSnapshotThenDeltasOffHeap() throws IOException {
+        assertMappedSnapshotThenDeltas(MemoryMode.OFF_HEAP);
+    }
+
+    private void assertMappedSnapshotThenDeltas(MemoryMode memoryMode) throws IOException {
+        File localDir = createLocalDir();
+        HollowFilesystemPublisher pub = new HollowFilesystemPublisher(localDir.toPath());
+
+        HollowProducer producer = HollowProducer.withPublisher(pub)
+                .withNumStatesBetweenSnapshots(5)
+                .build();
+
+        long v1 = producer.runCycle(state -> addTitles(state, 0, 2000));
+        long v2 = producer.runCycle(state -> addTitles(state, 500, 2500));
+        long v3 = producer.runCycle(state -> addTitles(state, 1000, 3000));
+
+        HollowConsumer mappedConsumer = HollowConsumer.newHollowConsumer()
+                .withBlobRetriever(new HollowFilesystemBlobRetriever(localDir.toPath()))
+                .withMemoryMode(memoryMode)
+                .withMappedSnapshots()
+                .build();
+        mappedConsumer.triggerRefreshTo(v1);
+
+        HollowConsumer decodedConsumer = HollowConsumer.newHollowConsumer()
+                .withBlobRetriever(new HollowFilesystemBlobRetriever(localDir.toPath()))
+                .build();
+        decodedConsumer.triggerRefreshTo(v1);
+
+        Assert.assertEquals(HollowChecksum.forStateEngine(decodedConsumer.getStateEngine()),
+                HollowChecksum.forStateEngine(mappedConsumer.getStateEngine()));
+
+        for (long version : new long[] {v2, v3, v2}) {
+            mappedConsumer.triggerRefreshTo(version);
+            decodedConsumer.triggerRefreshTo(version);
+            Assert.assertEquals(version, mappedConsumer.getCurrentVersionId());
+            Assert.assertEquals(HollowChecksum.forStateEngine(decodedConsumer.getStateEngine()),
+                    HollowChecksum.forStateEngine(mappedConsumer.getStateEngine()));
+        }
+
+        int ordinal = mappedConsumer.getStateEngine().getTypeState("Title").getPopulatedOrdinals().nextSetBit(0);
+        GenericHollowObject title = new GenericHollowObject(mappedConsumer.getStateEngine(), "Title", ordinal);
+        Assert.assertEquals("Title " + title.getInt("id"), title.getObject("name").getString("value"));
+    }
+
+    @Test
+    public void testMappedSnapshotsSkipFilesWhichAreNotRawBlobs() throws IOException {
+        File localDir = createLocalDir();
+        HollowFilesystemPublisher pub = new HollowFilesystemPublisher(localDir.toPath());
+        HollowProducer producer = HollowProducer.withPublisher(pub).build();
+        long v1 = producer.runCycle(state -> addTitles(state, 0, 2000));
+
+        HollowFilesystemBlobRetriever rawRetriever = new HollowFilesystemBlobRetriever(localDir.toPath());
+        File compressed = new File(localDir, "compressed-snapshot-" + v1);
+        try (InputStream is = rawRetriever.retrieveSnapshotBlob(v1).getInputStream();
+             OutputStream os = new GZIPOutputStream(new FileOutputStream(compressed))) {
+            byte[] buf = new byte[4096];
+            int n;
+            while ((n = is.read(buf)) != -1)
+                os.write(buf, 0, n);
+        }
+
+        /// the blob's file is stored compressed, and only its input stream provides the blob itself
+        HollowConsumer.BlobRetriever compressedRetriever = new HollowConsumer.BlobRetriever() {
+            @Override
+            public HollowConsumer.Blob retrieveSnapshotBlob(long desiredVersion) {
+                return new HollowConsumer.Blob(v1) {
+                    @Override
+                    public InputStream getInputStream() throws IOException {
+                        return new GZIPInputStream(new FileInputStream(compressed));
+                    }
+
+                    @Override
+                    public File getFile() {
+                        return compressed;
+                    }
+                };
+            }
+
+            @Override
+            public HollowConsumer.Blob retrieveDeltaBlob(long currentVersion) {
+                return null;
+            }
+
+            @Override
+            public HollowConsumer.Blob retrieveReverseDeltaBlob(long currentVersion) {
+                return null;
+            }
+        };
+
+        HollowConsumer mappedConsumer = HollowConsumer.newHollowConsumer()
+                .withBlobRetriever(compressedRetriever)
+                .withMappedSnapshots()
+                .build();
+        mappedConsumer.triggerRefreshTo(v1);
+
+        HollowConsumer decodedConsumer = HollowConsumer.newHollowConsumer()
+                .withBlobRetriever(rawRetriever)
+                .build();
+        decodedConsumer.triggerRefreshTo(v1);
+
+        Assert.assertEquals(v1, mappedConsumer.getCurrentVersionId());
+        Assert.assertEquals(HollowChecksum.forStateEngine(decodedConsumer.getStateEngine()),
+                HollowChecksum.forStateEngine(mappedConsumer.getStateEngine()));
+    }
+
+    @Test
+    public void testLazyTypeMaterialization() throws IOException {
+        File localDir = createLocalDir();
+        HollowFilesystemPublisher pub = new HollowFilesystemPublisher(localDir.toPath());
+
+        HollowProducer producer = HollowProducer.withPublisher(pub)
+                .withNumStatesBetweenSnapshots(5)
+                .build();
+
+        long v1 = producer.runCycle(state -> { addTitles(state, 0, 2000); addEntities(state, 0, 100); });
+        long v2 = producer.runCycle(state -> { addTitles(state, 500, 2500); addEntities(state, 0, 100); });
+        long v3 = producer.runCycle(state -> { addTitles(state, 500, 2500); addEntities(state, 50, 150); });
+
+        HollowConsumer lazyConsumer = HollowConsumer.newHollowConsumer()
+                .withBlobRetriever(new HollowFilesystemBlobRetriever(localDir.toPath()))
+                .withLazyTypeMaterialization()
+                .build();
+        lazyConsumer.triggerRefreshTo(v1);
+
+        HollowReadStateEngine lazyEngine = lazyConsumer.getStateEngine();
+        Assert.assertEquals(new HashSet<>(Arrays.asList("Title", "String", "ListOfString", "Entity")), lazyEngine.getDeferredTypes());
+        Assert.assertEquals(lazyEngine.getDeferredTypes(), new HashSet<>(lazyEngine.getAllTypes()));
+        Assert.assertNotNull(lazyEngine.getSchema("Title"));
+        Assert.assertTrue(lazyEngine.getMaterializedTypeStates().isEmpty());
+
+        Assert.assertEquals(100, lazyEngine.getTypeState("Entity").getPopulatedOrdinals().cardinality());
+        Assert.assertEquals(new HashSet<>(Arrays.asList("Title", "String", "ListOfString")), lazyEngine.getDeferredTypes());
+
+        /// a delta which changes Title materializes it and the types it references before it is applied
+        lazyConsumer.triggerRefreshTo(v2);
+        Assert.assertTrue(lazyEngine.getDeferredTypes().isEmpty());
+        int ordinal = lazyEngine.getTypeState("Title").getPopulatedOrdinals().nextSetBit(0);
+        GenericHollowObject title = new GenericHollowObject(lazyEngine, "Title", ordinal);
+        Assert.assertEquals("Title " + title.getInt("id"), title.getObject("name").getString("value"));
+
+        HollowConsumer lazyFromV2 = HollowConsumer.newHollowConsumer()
+                .withBlobRetriever(new HollowFilesystemBlobRetriever(localDir.toPath()))
+                .withLazyTypeMaterialization()
+                .build();
+        lazyFromV2.triggerRefreshTo(v1);
+        lazyFromV2.triggerRefreshTo(v2);
+        /// the delta to v2 did not change Entity, which remains deferred
+        Assert.assertEquals(Collections.singleton("Entity"), lazyFromV2.getStateEngine().getDeferredTypes());
+        lazyFromV2.triggerRefreshTo(v3);
+        Assert.assertTrue(lazyFromV2.getStateEngine().getDeferredTypes().isEmpty());
+
+        HollowConsumer decodedConsumer = HollowConsumer.newHollowConsumer()
+                .withBlobRetriever(new HollowFilesystemBlobRetriever(localDir.toPath()))
+                .build();
+        decodedConsumer.triggerRefreshTo(v3);
+        lazyConsumer.triggerRefreshTo(v3);
+
+        Assert.assertEquals(HollowChecksum.forStateEngine(decodedConsumer.getStateEngine()),
+                HollowChecksum.forStateEngine(lazyConsumer.getStateEngine()));
+        Assert.assertEquals(HollowChecksum.forStateEngine(decodedConsumer.getStateEngine()),
+                HollowChecksum.forStateEngine(lazyFromV2.getStateEngine()));
+    }
+
+    @Test
+    public void testLazyTypeMaterializationWithGeneratedStyleAPI() throws IOException {
+        File localDir = createLocalDir();
+        HollowProducer producer = HollowProducer.withPublisher(new HollowFilesystemPublisher(localDir.toPath())).build();
+        long v1 = producer.runCycle(state -> { addTitles(state, 0, 2000); addEntities(state, 0, 100); });
+
+        HollowConsumer consumer = HollowConsumer.newHollowConsumer()
+                .withBlobRetriever(new HollowFilesystemBlobRetriever(localDir.toPath()))
+                .withGeneratedAPIClass(GeneratedStyleAPI.class)
+                .withLazyTypeMaterialization()
+                .build();
+        consumer.triggerRefreshTo(v1);
+
+        /// constructing the API looks up the data access of every type, without materializing any of them
+        HollowReadStateEngine lazyEngine = consumer.getStateEngine();
+        GeneratedStyleAPI api = (GeneratedStyleAPI)consumer.getAPI();
+        Assert.assertEquals(new HashSet<>(Arrays.asList("Title", "String", "ListOfString", "Entity")), lazyEngine.getDeferredTypes());
+        api.setSamplingDirector(new EnabledSamplingDirector());
+        Assert.assertFalse(api.getAccessSampleResults().isEmpty());
+        Assert.assertEquals(4, lazyEngine.getDeferredTypes().size());
+
+        /// the first read through a type API materializes only that type and the types it references
+        Assert.assertTrue(api.entityTypeAPI.getTypeDataAccess() instanceof HollowDeferredTypeDataAccess);
+        int id = api.entityTypeAPI.getTypeDataAccess().readInt(0, 0);
+        Assert.assertTrue(id >= 0 && id < 100);
+        Assert.assertEquals(new HashSet<>(Arrays.asList("Title", "String", "ListOfString")), lazyEngine.getDeferredTypes());
+
+        /// the type API then reads from the materialized type state without delegating through the deferred data access
+        Assert.assertSame(lazyEngine.getTypeState("Entity"), api.entityTypeAPI.getTypeDataAccess());
+        Assert.assertEquals(id, api.entityTypeAPI.getTypeDataAccess().readInt(0, 0));
+    }
+
+    public static class GeneratedStyleAPI extends HollowAPI {
+        private final HollowObjectTypeAPI entityTypeAPI;
+
+        public GeneratedStyleAPI(HollowDataAccess dataAccess) {
+            super(dataAccess);
+            HollowObjectTypeAPI entity = null;
+            for (HollowSchema schema : dataAccess.getSchemas()) {
+                HollowTypeDataAccess typeDataAccess = dataAccess.getTypeDataAccess(schema.getName());
+                if (typeDataAccess instanceof HollowObjectTypeDataAccess) {
+                    HollowObjectTypeAPI typeAPI = new HollowObjectTypeAPI(this, (HollowObjectTypeDataAccess) typeDataAccess,
+                            new String[] { ((HollowObjectSchema) schema).getFieldName(0) }) { };
+                    addTypeAPI(typeAPI);
+                    if (schema.getName().equals("Entity"))
+                        entity = typeAPI;
+                }
+            }
+            this.entityTypeAPI = entity;
+        }
+    }
+
+    @Test
+    public void testAnnouncementWatcherRefreshesOnAnnouncement() throws Exception {
+        File localDir = createLocalDir();
+
+        HollowProducer producer = HollowProducer.withPublisher(new HollowFilesystemPublisher(localDir.toPath()))
+                .withAnnouncer(new HollowFilesystemAnnouncer(localDir.toPath()))
+                .build();
+        long v1 = producer.runCycle(state -> addEntities(state, 0, 10));
+
+        HollowFilesystemAnnouncementWatcher watcher = new HollowFilesystemAnnouncementWatcher(localDir.toPath());
+        HollowConsumer consumer = HollowConsumer.newHollowConsumer()
+                .withBlobRetriever(new HollowFilesystemBlobRetriever(localDir.toPath()))
+                .withAnnouncementWatcher(watcher)
+                .build();
+        consumer.triggerRefresh();
+        Assert.assertEquals(v1, consumer.getCurrentVersionId());
+
+        long v2 = producer.runCycle(state -> addEntities(state, 0, 20));
+        long deadline = System.currentTimeMillis() + 10000;
+        while (consumer.getCurrentVersionId() != v2 && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+
+        Assert.assertEquals(v2, consumer.getCurrentVersionId());
+        Assert.assertEquals(v2, watcher.getLatestVersion());
+        Assert.assertEquals(1, watcher.getAnnouncementToAppliedLatency().getCount());
+    }
+
+    private static void addEntities(HollowProducer.WriteState state, int from, int to) {
+        for (int i = from; i < to; i++) {
+            state.add(new Entity(i));
+        }
+    }
+
+    private static void addTitles(HollowProducer.WriteState state, int from, int to) {
+        for (int i = from; i < to; i++) {
+            state.add(new Title(i, "Title " + i, Arrays.asList("Tag " + (i % 10), "Tag " + (i % 17))));
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class Title {
+        private final int id;
+        private final String name;
+        private final List<String> tags;
+
+        Title(int id, String name, List<String> tags) {
+            this.id = id;
+            this.name = name;
+            this.tags = tags;
+        }
+    }
+
     static File createLocalDir() throws IOException {
         File localDir = Files.createTempDirectory("hollow_fs").toFile();
         localDir.deleteOnExit();
@@ -0,0 +1,108 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.consumer.index;
+
+import static java.util.stream.Collectors.toList;
+
+import com.netflix.hollow.api.consumer.HollowConsumer;
+import com.netflix.hollow.api.consumer.InMemoryBlobStore;
+import com.netflix.hollow.api.producer.HollowProducer;
+import com.netflix.hollow.api.producer.fs.HollowInMemoryBlobStager;
+import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RangeIndexTest {
+    InMemoryBlobStore blobStore;
+    HollowProducer producer;
+    HollowConsumer consumer;
+
+    @Before
+    public void setUp() {
+        blobStore = new InMemoryBlobStore();
+        producer = HollowProducer.withPublisher(blobStore)
+                .withBlobStager(new HollowInMemoryBlobStager())
+                .build();
+
+        long v1 = producer.runCycle(ws -> {
+            for (int i : new int[] {5, 1, 9, 3, 7})
+                ws.add(new DataModel.Producer.TypeWithPrimaryKey2(i));
+        });
+
+        consumer = HollowConsumer.withBlobRetriever(blobStore)
+                .withGeneratedAPIClass(DataModel.Consumer.Api.class)
+                .build();
+        consumer.triggerRefreshTo(v1);
+    }
+
+    @Test
+    public void testQueries() {
+        RangeIndex<DataModel.Consumer.TypeWithPrimaryKeySuffixed, Integer> ri = RangeIndex
+                .from(consumer, DataModel.Consumer.TypeWithPrimaryKeySuffixed.class)
+                .usingPath("i", Integer.class);
+
+        Assert.assertEquals(Arrays.asList(3, 5, 7), values(ri.findRange(3, 7)));
+        Assert.assertEquals(Arrays.asList(5), values(ri.findRange(3, false, 7, false)));
+        Assert.assertEquals(Arrays.asList(1, 3), values(ri.findRange(null, 4)));
+        Assert.assertEquals(Arrays.asList(1, 3), values(ri.findSmallest(2)));
+        Assert.assertEquals(Arrays.asList(9, 7, 5), values(ri.findLargest(3)));
+
+        Assert.assertEquals(3, value(ri.findFloor(4)));
+        Assert.assertEquals(5, value(ri.findCeiling(4)));
+        Assert.assertNull(ri.findFloor(0));
+        Assert.assertNull(ri.findCeiling(10));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIncompatibleValueType() {
+        RangeIndex.from(consumer, DataModel.Consumer.TypeWithPrimaryKeySuffixed.class)
+                .usingPath("i", Long.class);
+    }
+
+    @Test
+    public void testUpdates() {
+        RangeIndex<DataModel.Consumer.TypeWithPrimaryKeySuffixed, Integer> ri = RangeIndex
+                .from(consumer, DataModel.Consumer.TypeWithPrimaryKeySuffixed.class)
+                .usingPath("i", Integer.class);
+        consumer.addRefreshListener(ri);
+
+        long v2 = producer.runCycle(ws -> {
+            for (int i : new int[] {5, 1, 4, 8})
+                ws.add(new DataModel.Producer.TypeWithPrimaryKey2(i));
+        });
+        consumer.triggerRefreshTo(v2);
+
+        Assert.assertEquals(Arrays.asList(1, 4, 5, 8), values(ri.findRange(null, null)));
+        Assert.assertEquals(4, value(ri.findFloor(4)));
+
+        consumer.removeRefreshListener(ri);
+    }
+
+    private int value(DataModel.Consumer.TypeWithPrimaryKeySuffixed record) {
+        HollowObjectTypeReadState typeState =
+                (HollowObjectTypeReadState) consumer.getStateEngine().getTypeState("TypeWithPrimaryKey2");
+        return typeState.readInt(record.getOrdinal(), 0);
+    }
+
+    private List<Integer> values(Stream<DataModel.Consumer.TypeWithPrimaryKeySuffixed> records) {
+        return records.map(this::value).collect(toList());
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.objects.provider;
+
+import com.netflix.hollow.api.client.HollowAPIFactory;
+import com.netflix.hollow.api.custom.HollowAPI;
+import com.netflix.hollow.api.custom.HollowTypeAPI;
+import com.netflix.hollow.core.AbstractStateEngineTest;
+import com.netflix.hollow.core.read.dataaccess.HollowDataAccess;
+import com.netflix.hollow.core.read.dataaccess.HollowObjectTypeDataAccess;
+import com.netflix.hollow.core.read.dataaccess.HollowTypeDataAccess;
+import com.netflix.hollow.core.read.engine.HollowTypeReadState;
+import com.netflix.hollow.core.schema.HollowObjectSchema;
+import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
+import com.netflix.hollow.core.write.HollowObjectTypeWriteState;
+import com.netflix.hollow.core.write.HollowObjectWriteRecord;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HollowObjectBoundedCacheProviderTest extends AbstractStateEngineTest {
+
+    private HollowObjectSchema schema;
+    private CountingFactory factory;
+
+    @Test
+    public void cachesUpToCapacity() throws Exception {
+        for(int i=0;i<100;i++)
+            addRecord(i);
+
+        roundTripSnapshot();
+
+        HollowTypeReadState typeState = readStateEngine.getTypeState("TestObject");
+        HollowObjectBoundedCacheProvider<TestRecord> provider = new HollowObjectBoundedCacheProvider<TestRecord>(typeState, null, factory, 10);
+
+        Assert.assertEquals(16, provider.getCapacity());
+
+        TestRecord rec = provider.getHollowObject(5);
+        Assert.assertEquals(5, rec.id);
+        Assert.assertSame(rec, provider.getHollowObject(5));
+        Assert.assertEquals(1, factory.instantiations);
+
+        for(int i=0;i<100;i++)
+            Assert.assertEquals(i, provider.getHollowObject(i).id);
+
+        Assert.assertTrue(provider.size() <= 16);
+        Assert.assertTrue(provider.size() > 0);
+    }
+
+    @Test
+    public void deltaInvalidatesOnlyChangedOrdinals() throws Exception {
+        for(int i=0;i<10;i++)
+            addRecord(i);
+
+        roundTripSnapshot();
+
+        HollowTypeReadState typeState = readStateEngine.getTypeState("TestObject");
+        HollowObjectBoundedCacheProvider<TestRecord> provider = new HollowObjectBoundedCacheProvider<TestRecord>(typeState, null, factory, 1024);
+
+        TestRecord[] cached = new TestRecord[10];
+        for(int i=0;i<10;i++)
+            cached[i] = provider.getHollowObject(i);
+        Assert.assertEquals(10, provider.size());
+
+        for(int i=0;i<9;i++)
+            addRecord(i);
+        addRecord(10);
+
+        roundTripDelta();
+
+        Assert.assertEquals(9, provider.size());
+        for(int i=0;i<9;i++)
+            Assert.assertSame(cached[i], provider.getHollowObject(i));
+        Assert.assertEquals(10, factory.instantiations);
+        Assert.assertEquals(10, provider.getHollowObject(10).id);
+
+        HollowObjectBoundedCacheProvider<TestRecord> next = new HollowObjectBoundedCacheProvider<TestRecord>(typeState, null, factory, 1024, provider);
+        provider.detach();
+
+        Assert.assertEquals(0, provider.size());
+        Assert.assertEquals(9, next.size());
+        for(int i=0;i<9;i++)
+            Assert.assertSame(cached[i], next.getHollowObject(i));
+        Assert.assertEquals(11, factory.instantiations);
+    }
+
+    @Test
+    public void factoryRejectsBoundedCachedTypesForOlderGeneratedAPIs() {
+        try {
+            new HollowAPIFactory.ForGeneratedAPI<>(OlderGeneratedAPI.class, Collections.singletonMap("TestObject", 16));
+            Assert.fail("expected IllegalArgumentException");
+        } catch(IllegalArgumentException expected) {
+            Assert.assertTrue(expected.getMessage(), expected.getMessage().contains("regenerate"));
+        }
+    }
+
+    private void addRecord(int id) {
+        HollowObjectWriteRecord rec = new HollowObjectWriteRecord(schema);
+        rec.setInt("id", id);
+        writeStateEngine.add("TestObject", rec);
+    }
+
+    @Override
+    protected void initializeTypeStates() {
+        schema = new HollowObjectSchema("TestObject", 1);
+        schema.addField("id", FieldType.INT);
+        writeStateEngine.addTypeState(new HollowObjectTypeWriteState(schema));
+        factory = new CountingFactory();
+    }
+
+    /// has the constructors of an API generated before bounded cached types were supported
+    public static class OlderGeneratedAPI extends HollowAPI {
+        public OlderGeneratedAPI(HollowDataAccess dataAccess) {
+            super(dataAccess);
+        }
+
+        public OlderGeneratedAPI(HollowDataAccess dataAccess, Set<String> cachedTypes) {
+            super(dataAccess);
+        }
+
+        public OlderGeneratedAPI(HollowDataAccess dataAccess, Set<String> cachedTypes, Map<String, Object> factoryOverrides, OlderGeneratedAPI previousCycleAPI) {
+            super(dataAccess);
+        }
+    }
+
+    private static class TestRecord {
+        private final int id;
+
+        TestRecord(int id) {
+            this.id = id;
+        }
+    }
+
+    private static class CountingFactory extends HollowFactory<TestRecord> {
+        private int instantiations;
+
+        @Override
+        public TestRecord newHollowObject(HollowTypeDataAccess dataAccess, HollowTypeAPI typeAPI, int ordinal) {
+            instantiations++;
+            return new TestRecord(((HollowObjectTypeDataAccess)dataAccess).readInt(ordinal, 0));
+        }
+    }
+}
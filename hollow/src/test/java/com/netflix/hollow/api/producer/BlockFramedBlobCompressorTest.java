@@ -0,0 +1,276 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.producer;
+
+import com.netflix.hollow.api.consumer.HollowConsumer;
+import com.netflix.hollow.core.HollowConstants;
+import com.netflix.hollow.core.read.engine.HollowBlobReader;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.write.HollowBlobWriter;
+import com.netflix.hollow.core.write.HollowWriteStateEngine;
+import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
+import com.netflix.hollow.tools.checksum.HollowChecksum;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.Deflater;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BlockFramedBlobCompressorTest {
+
+    private final BlockFramedBlobCompressor compressor =
+            new BlockFramedBlobCompressor(BlockFramedBlobCompressor.BlockCodec.DEFLATE, 1000, 4);
+
+    @After
+    public void tearDown() {
+        compressor.shutdown();
+    }
+
+    @Test
+    public void roundTripsAcrossManyBlocks() throws IOException {
+        byte[] data = compressibleBytes(123_457);
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream os = compressor.compress(compressed)) {
+            int pos = 0;
+            Random rand = new Random(1);
+            while (pos < data.length) {
+                if (rand.nextBoolean()) {
+                    os.write(data[pos++]);
+                } else {
+                    int len = Math.min(rand.nextInt(3000), data.length - pos);
+                    os.write(data, pos, len);
+                    pos += len;
+                }
+            }
+        }
+
+        Assert.assertTrue(compressed.size() < data.length);
+        Assert.assertArrayEquals(data, readFully(compressor.decompress(new ByteArrayInputStream(compressed.toByteArray()))));
+    }
+
+    @Test
+    public void roundTripsEmptyBlob() throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        compressor.compress(compressed).close();
+
+        InputStream is = compressor.decompress(new ByteArrayInputStream(compressed.toByteArray()));
+        Assert.assertEquals(-1, is.read());
+    }
+
+    @Test
+    public void detectsCodecMismatch() throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream os = compressor.compress(compressed)) {
+            os.write(compressibleBytes(5000));
+        }
+
+        BlockFramedBlobCompressor.BlockCodec otherCodec = new BlockFramedBlobCompressor.DeflateBlockCodec(Deflater.BEST_SPEED) {
+            @Override
+            public int getId() {
+                return 99;
+            }
+        };
+        BlockFramedBlobCompressor other = new BlockFramedBlobCompressor(otherCodec, 1000, 1);
+        try {
+            other.decompress(new ByteArrayInputStream(compressed.toByteArray())).read();
+            Assert.fail("expected IOException");
+        } catch (IOException expected) {
+        } finally {
+            other.shutdown();
+        }
+    }
+
+    @Test
+    public void snapshotRoundTrip() throws IOException {
+        HollowWriteStateEngine writeEngine = new HollowWriteStateEngine();
+        HollowObjectMapper mapper = new HollowObjectMapper(writeEngine);
+        for (int i = 0; i < 10000; i++)
+            mapper.add(new TypeA(i, "value" + (i % 1000)));
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream os = compressor.compress(compressed)) {
+            new HollowBlobWriter(writeEngine).writeSnapshot(os);
+        }
+
+        HollowReadStateEngine readEngine = new HollowReadStateEngine();
+        new HollowBlobReader(readEngine).readSnapshot(compressor.decompress(new ByteArrayInputStream(compressed.toByteArray())));
+
+        HollowReadStateEngine expected = new HollowReadStateEngine();
+        ByteArrayOutputStream uncompressed = new ByteArrayOutputStream();
+        new HollowBlobWriter(writeEngine).writeSnapshot(uncompressed);
+        new HollowBlobReader(expected).readSnapshot(new ByteArrayInputStream(uncompressed.toByteArray()));
+
+        Assert.assertEquals(HollowChecksum.forStateEngine(expected), HollowChecksum.forStateEngine(readEngine));
+    }
+
+    @Test
+    public void rejectsCorruptFrameLengths() throws IOException {
+        assertCorrupt(1001, 10);
+        assertCorrupt(-1, 10);
+        assertCorrupt(1000, 0);
+        assertCorrupt(1000, Integer.MAX_VALUE);
+        assertCorrupt(0, 10);
+    }
+
+    @Test
+    public void producerToConsumerRoundTrip() throws IOException {
+        CompressedBlobStore blobStore = new CompressedBlobStore();
+        HollowProducer producer = HollowProducer.withPublisher(blobStore)
+                .withBlobCompressor(compressor)
+                .build();
+
+        long v1 = producer.runCycle(ws -> {
+            for (int i = 0; i < 10000; i++)
+                ws.add(new TypeA(i, "value" + (i % 1000)));
+        });
+
+        HollowConsumer consumer = HollowConsumer.withBlobRetriever(blobStore)
+                .withBlobDecompressor(compressor)
+                .build();
+        consumer.triggerRefreshTo(v1);
+        Assert.assertEquals(v1, consumer.getCurrentVersionId());
+        Assert.assertEquals(10000, consumer.getStateEngine().getTypeState("TypeA").getPopulatedOrdinals().cardinality());
+
+        long v2 = producer.runCycle(ws -> {
+            for (int i = 0; i < 10001; i++)
+                ws.add(new TypeA(i, "value" + (i % 1000)));
+        });
+        consumer.triggerRefreshTo(v2);
+        Assert.assertEquals(v2, consumer.getCurrentVersionId());
+        Assert.assertEquals(10001, consumer.getStateEngine().getTypeState("TypeA").getPopulatedOrdinals().cardinality());
+
+        Assert.assertEquals(BlockFramedBlobCompressor.MAGIC, new DataInputStream(new ByteArrayInputStream(blobStore.snapshots.get(v1))).readInt());
+        Assert.assertEquals(BlockFramedBlobCompressor.MAGIC, new DataInputStream(new ByteArrayInputStream(blobStore.deltas.get(v1))).readInt());
+    }
+
+    private void assertCorrupt(int uncompressedLength, int compressedLength) throws IOException {
+        ByteArrayOutputStream blob = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(blob);
+        out.writeInt(BlockFramedBlobCompressor.MAGIC);
+        out.writeInt(BlockFramedBlobCompressor.FORMAT_VERSION);
+        out.writeInt(BlockFramedBlobCompressor.BlockCodec.DEFLATE.getId());
+        out.writeInt(1000);
+        out.writeInt(uncompressedLength);
+        out.writeInt(compressedLength);
+        out.write(new byte[10]);
+
+        try {
+            compressor.decompress(new ByteArrayInputStream(blob.toByteArray())).read();
+            Assert.fail("expected IOException");
+        } catch (IOException expected) {
+            Assert.assertTrue(expected.getMessage(), expected.getMessage().startsWith("Corrupt block framed blob"));
+        }
+    }
+
+    private static byte[] compressibleBytes(int length) {
+        Random rand = new Random(42);
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++)
+            data[i] = (byte) ('a' + rand.nextInt(4));
+        return data;
+    }
+
+    private static byte[] readFully(InputStream is) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buf = new byte[777];
+        int n;
+        while ((n = is.read(buf)) != -1)
+            out.write(buf, 0, n);
+        return out.toByteArray();
+    }
+
+    /// Publishes the staged, compressed blob files as they are, and retrieves them without decompressing
+    private static class CompressedBlobStore implements HollowProducer.Publisher, HollowConsumer.BlobRetriever {
+        private final Map<Long, byte[]> snapshots = new HashMap<>();
+        private final Map<Long, byte[]> deltas = new HashMap<>();
+        private final Map<Long, Long> deltaDestinations = new HashMap<>();
+
+        @Override
+        public void publish(HollowProducer.PublishArtifact publishArtifact) {
+            if (!(publishArtifact instanceof HollowProducer.Blob))
+                return;
+            HollowProducer.Blob blob = (HollowProducer.Blob) publishArtifact;
+            byte[] compressed;
+            try {
+                compressed = Files.readAllBytes(blob.getPath());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            switch (blob.getType()) {
+                case SNAPSHOT:
+                    snapshots.put(blob.getToVersion(), compressed);
+                    break;
+                case DELTA:
+                    deltas.put(blob.getFromVersion(), compressed);
+                    deltaDestinations.put(blob.getFromVersion(), blob.getToVersion());
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public HollowConsumer.Blob retrieveSnapshotBlob(long desiredVersion) {
+            byte[] compressed = snapshots.get(desiredVersion);
+            return compressed == null ? null : blob(HollowConstants.VERSION_NONE, desiredVersion, compressed);
+        }
+
+        @Override
+        public HollowConsumer.Blob retrieveDeltaBlob(long currentVersion) {
+            byte[] compressed = deltas.get(currentVersion);
+            return compressed == null ? null : blob(currentVersion, deltaDestinations.get(currentVersion), compressed);
+        }
+
+        @Override
+        public HollowConsumer.Blob retrieveReverseDeltaBlob(long currentVersion) {
+            return null;
+        }
+
+        private static HollowConsumer.Blob blob(long fromVersion, long toVersion, byte[] compressed) {
+            return new HollowConsumer.Blob(fromVersion, toVersion) {
+                @Override
+                public InputStream getInputStream() {
+                    return new ByteArrayInputStream(compressed);
+                }
+            };
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class TypeA {
+        int id;
+        String value;
+
+        TypeA(int id, String value) {
+            this.id = id;
+            this.value = value;
+        }
+    }
+}
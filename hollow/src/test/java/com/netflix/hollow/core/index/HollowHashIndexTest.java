@@ -321,6 +321,37 @@ public class HollowHashIndexTest extends AbstractStateEngineTest {
         Assert.assertEquals(index.getSelectField(), "");
     }
 
+    @Test
+    public void testHighFrequencyKeysAreSelectedWithBitmaps() throws Exception {
+        for(int i=0;i<10000;i++)
+            mapper.add(new TypeStatus(i, i % 4));
+        for(int i=0;i<10;i++)
+            mapper.add(new TypeStatus(10000 + i, 100));
+
+        roundTripSnapshot();
+        HollowHashIndex index = new HollowHashIndex(readStateEngine, "TypeStatus", "", "status");
+
+        HollowHashIndexResult frequent = index.findMatches(1);
+        Assert.assertTrue(frequent.isBitmap());
+        Assert.assertEquals(2500, frequent.numResults());
+        Assert.assertTrue(frequent.contains(4997));
+        Assert.assertFalse(frequent.contains(4998));
+        Assert.assertEquals(2500, frequent.stream().count());
+        Assert.assertArrayEquals(IntStream.range(0, 2500).map(i -> i * 4 + 1).toArray(), frequent.stream().toArray());
+
+        HollowHashIndexResult infrequent = index.findMatches(100);
+        Assert.assertFalse(infrequent.isBitmap());
+        Assert.assertEquals(10, infrequent.numResults());
+        assertIteratorContainsAll(infrequent.iterator(), IntStream.range(10000, 10010).toArray());
+        Assert.assertEquals(HollowOrdinalBitmap.of(IntStream.range(10000, 10010).toArray()), infrequent.toBitmap());
+
+        HollowHashIndexResult other = index.findMatches(2);
+        Assert.assertTrue(frequent.and(other).isEmpty());
+        Assert.assertEquals(5000, frequent.or(other).cardinality());
+        Assert.assertEquals(frequent.toBitmap(), frequent.andNot(infrequent));
+        Assert.assertEquals(2510, frequent.or(infrequent).cardinality());
+    }
+
     private void assertIteratorContainsAll(HollowOrdinalIterator iter, int... expectedOrdinals) {
         Set<Integer> ordinalSet = new HashSet<>();
         int ordinal = iter.next();
@@ -427,6 +458,17 @@ public class HollowHashIndexTest extends AbstractStateEngineTest {
         }
     }
 
+    @SuppressWarnings({"unused", "FieldCanBeLocal"})
+    private static class TypeStatus {
+        private final int id;
+        private final int status;
+
+        public TypeStatus(int id, int status) {
+            this.id = id;
+            this.status = status;
+        }
+    }
+
     @SuppressWarnings({"unused", "FieldCanBeLocal"})
     private static class TypeInteger {
         private final Integer data;
@@ -0,0 +1,167 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.index;
+
+import static com.netflix.hollow.core.index.HollowIndexQuery.and;
+import static com.netflix.hollow.core.index.HollowIndexQuery.inRange;
+import static com.netflix.hollow.core.index.HollowIndexQuery.matches;
+import static com.netflix.hollow.core.index.HollowIndexQuery.not;
+import static com.netflix.hollow.core.index.HollowIndexQuery.or;
+import static com.netflix.hollow.core.index.HollowIndexQuery.withPrefix;
+
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
+import com.netflix.hollow.core.read.iterator.HollowOrdinalIterator;
+import com.netflix.hollow.core.util.StateEngineRoundTripper;
+import com.netflix.hollow.core.write.HollowWriteStateEngine;
+import com.netflix.hollow.core.write.objectmapper.HollowInline;
+import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HollowIndexQueryTest {
+
+    private static final String[] COUNTRIES = {"US", "CA", "GB", "FR", "JP"};
+    private static final String[] TITLE_WORDS = {"the", "a", "matrix", "thunder", "alpha"};
+
+    private HollowReadStateEngine readStateEngine;
+    private List<Movie> movies;
+    private HollowHashIndex countryIndex;
+    private HollowHashIndex typeIndex;
+    private HollowPrefixIndex titleIndex;
+    private HollowRangeIndex yearIndex;
+
+    @Before
+    public void setUp() throws Exception {
+        HollowWriteStateEngine writeStateEngine = new HollowWriteStateEngine();
+        HollowObjectMapper objectMapper = new HollowObjectMapper(writeStateEngine);
+        Random random = new Random(99);
+        movies = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            Movie movie = new Movie(i, COUNTRIES[random.nextInt(COUNTRIES.length)], random.nextInt(10) == 0 ? "SHOW" : "MOVIE",
+                    TITLE_WORDS[random.nextInt(TITLE_WORDS.length)] + " " + i, 1950 + random.nextInt(70));
+            movies.add(movie);
+            objectMapper.add(movie);
+        }
+        readStateEngine = new HollowReadStateEngine();
+        StateEngineRoundTripper.roundTripSnapshot(writeStateEngine, readStateEngine);
+
+        countryIndex = new HollowHashIndex(readStateEngine, "Movie", "", "country");
+        typeIndex = new HollowHashIndex(readStateEngine, "Movie", "", "type");
+        titleIndex = new HollowPrefixIndex(readStateEngine, "Movie", "title");
+        yearIndex = new HollowRangeIndex(readStateEngine, "Movie", "year");
+    }
+
+    @Test
+    public void testSinglePredicates() {
+        assertQuery(matches(countryIndex, "US"), m -> m.country.equals("US"));
+        assertQuery(matches(countryIndex, "XX"), m -> false);
+        assertQuery(withPrefix(titleIndex, "th"), m -> m.title.startsWith("th"));
+        assertQuery(inRange(yearIndex, 1990, 1999), m -> m.year >= 1990 && m.year <= 1999);
+        assertQuery(not(matches(typeIndex, "MOVIE")), m -> !m.type.equals("MOVIE"));
+    }
+
+    @Test
+    public void testConjunctions() {
+        assertQuery(and(matches(countryIndex, "US"), matches(typeIndex, "SHOW"), inRange(yearIndex, 1990, 1999)),
+                m -> m.country.equals("US") && m.type.equals("SHOW") && m.year >= 1990 && m.year <= 1999);
+
+        // the narrow range is evaluated first, and the hash index matches are then probed for each candidate
+        assertQuery(and(matches(typeIndex, "MOVIE"), not(matches(countryIndex, "JP")), inRange(yearIndex, 2000, false, 2002, false)),
+                m -> m.type.equals("MOVIE") && !m.country.equals("JP") && m.year == 2001);
+
+        assertQuery(and(not(withPrefix(titleIndex, "the")), not(matches(countryIndex, "US"))),
+                m -> !m.title.startsWith("the") && !m.country.equals("US"));
+
+        assertQuery(and(matches(countryIndex, "US"), matches(countryIndex, "CA")), m -> false);
+    }
+
+    @Test
+    public void testDisjunctionsAndNesting() {
+        assertQuery(or(matches(countryIndex, "US"), matches(countryIndex, "CA")),
+                m -> m.country.equals("US") || m.country.equals("CA"));
+
+        assertQuery(and(or(withPrefix(titleIndex, "matrix"), inRange(yearIndex, null, 1955)),
+                        not(or(matches(countryIndex, "GB"), matches(typeIndex, "SHOW")))),
+                m -> (m.title.startsWith("matrix") || m.year <= 1955) && !(m.country.equals("GB") || m.type.equals("SHOW")));
+
+        HollowOrdinalBitmap shows = matches(typeIndex, "SHOW").evaluate(readStateEngine, "Movie");
+        assertQuery(and(HollowIndexQuery.ordinals(shows), matches(countryIndex, "FR")),
+                m -> m.type.equals("SHOW") && m.country.equals("FR"));
+    }
+
+    @Test
+    public void testHashIndexMatchesAreFoundOncePerEvaluation() {
+        AtomicInteger lookups = new AtomicInteger();
+        HollowHashIndex countingIndex = new HollowHashIndex(readStateEngine, "Movie", "", "type") {
+            @Override
+            public HollowHashIndexResult findMatches(Object... query) {
+                lookups.incrementAndGet();
+                return super.findMatches(query);
+            }
+        };
+
+        // the operand is estimated, then probed for each candidate of the narrow range
+        assertQuery(and(matches(countingIndex, "SHOW"), inRange(yearIndex, 2000, 2000)),
+                m -> m.type.equals("SHOW") && m.year == 2000);
+        Assert.assertEquals(1, lookups.get());
+
+        assertQuery(and(matches(countingIndex, "MOVIE"), matches(countingIndex, "SHOW")), m -> false);
+        Assert.assertEquals(3, lookups.get());
+    }
+
+    private void assertQuery(HollowIndexQuery query, Predicate<Movie> predicate) {
+        BitSet expected = new BitSet();
+        for (Movie movie : movies) {
+            if (predicate.test(movie))
+                expected.set(movie.id);
+        }
+
+        BitSet actual = new BitSet();
+        HollowObjectTypeReadState typeState = (HollowObjectTypeReadState) readStateEngine.getTypeState("Movie");
+        HollowOrdinalIterator iter = query.evaluate(readStateEngine, "Movie").iterator();
+        for (int ordinal = iter.next(); ordinal != HollowOrdinalIterator.NO_MORE_ORDINALS; ordinal = iter.next())
+            actual.set(typeState.readInt(ordinal, typeState.getSchema().getPosition("id")));
+        Assert.assertEquals(expected, actual);
+    }
+
+    @SuppressWarnings("unused")
+    private static class Movie {
+        int id;
+        @HollowInline
+        String country;
+        @HollowInline
+        String type;
+        String title;
+        int year;
+
+        Movie(int id, String country, String type, String title, int year) {
+            this.id = id;
+            this.country = country;
+            this.type = type;
+            this.title = title;
+            this.year = year;
+        }
+    }
+}
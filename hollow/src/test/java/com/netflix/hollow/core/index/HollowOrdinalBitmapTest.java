@@ -0,0 +1,112 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.index;
+
+import com.netflix.hollow.core.read.iterator.HollowOrdinalIterator;
+import java.util.BitSet;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HollowOrdinalBitmapTest {
+
+    private final Random random = new Random(1234);
+
+    @Test
+    public void testSetOperationsMatchBitSet() {
+        // mixes sparse and dense chunks so that array and bitmap containers meet in every combination
+        for (int i = 0; i < 20; i++) {
+            BitSet a = randomBits();
+            BitSet b = randomBits();
+            HollowOrdinalBitmap bitmapA = HollowOrdinalBitmap.from(a);
+            HollowOrdinalBitmap bitmapB = HollowOrdinalBitmap.from(b);
+
+            assertSameOrdinals(a, bitmapA);
+
+            BitSet and = (BitSet) a.clone();
+            and.and(b);
+            assertSameOrdinals(and, bitmapA.and(bitmapB));
+
+            BitSet or = (BitSet) a.clone();
+            or.or(b);
+            assertSameOrdinals(or, bitmapA.or(bitmapB));
+
+            BitSet andNot = (BitSet) a.clone();
+            andNot.andNot(b);
+            assertSameOrdinals(andNot, bitmapA.andNot(bitmapB));
+            assertSameOrdinals(new BitSet(), bitmapA.andNot(bitmapA));
+        }
+    }
+
+    @Test
+    public void testEqualityIsIndependentOfConstruction() {
+        BitSet bits = randomBits();
+        HollowOrdinalBitmap fromBits = HollowOrdinalBitmap.from(bits);
+        HollowOrdinalBitmap fromIterator = HollowOrdinalBitmap.from(fromBits.iterator());
+        Assert.assertEquals(fromBits, fromIterator);
+        Assert.assertEquals(fromBits.hashCode(), fromIterator.hashCode());
+        Assert.assertEquals(fromBits, fromBits.or(HollowOrdinalBitmap.EMPTY));
+        Assert.assertEquals(fromBits, fromBits.and(fromBits));
+    }
+
+    @Test
+    public void testSparseBitmapIsCompact() {
+        int[] ordinals = new int[1000];
+        for (int i = 0; i < ordinals.length; i++)
+            ordinals[i] = i * 1000;
+        HollowOrdinalBitmap bitmap = HollowOrdinalBitmap.of(ordinals);
+
+        Assert.assertEquals(1000, bitmap.cardinality());
+        Assert.assertTrue(bitmap.contains(5000));
+        Assert.assertFalse(bitmap.contains(5001));
+        Assert.assertFalse(bitmap.contains(-1));
+        // a BitSet over the same range would need 125000 bytes
+        Assert.assertTrue(bitmap.approximateHeapFootprintInBytes() < 4000);
+        Assert.assertTrue(HollowOrdinalBitmap.EMPTY.isEmpty());
+        Assert.assertEquals(HollowOrdinalIterator.NO_MORE_ORDINALS, HollowOrdinalBitmap.EMPTY.iterator().next());
+    }
+
+    private BitSet randomBits() {
+        BitSet bits = new BitSet();
+        int numChunks = 1 + random.nextInt(4);
+        for (int chunk = 0; chunk < numChunks; chunk++) {
+            int density = random.nextInt(3);
+            int count = density == 0 ? 0 : density == 1 ? random.nextInt(200) : 5000 + random.nextInt(30000);
+            for (int i = 0; i < count; i++)
+                bits.set((chunk << 16) | random.nextInt(1 << 16));
+        }
+        return bits;
+    }
+
+    private void assertSameOrdinals(BitSet expected, HollowOrdinalBitmap actual) {
+        Assert.assertEquals(expected.cardinality(), actual.cardinality());
+        Assert.assertEquals(expected, actual.toBitSet());
+
+        HollowOrdinalIterator iter = actual.iterator();
+        int expectedOrdinal = expected.nextSetBit(0);
+        while (expectedOrdinal != -1) {
+            Assert.assertEquals(expectedOrdinal, iter.next());
+            expectedOrdinal = expected.nextSetBit(expectedOrdinal + 1);
+        }
+        Assert.assertEquals(HollowOrdinalIterator.NO_MORE_ORDINALS, iter.next());
+
+        for (int i = 0; i < 100; i++) {
+            int ordinal = random.nextInt(4 << 16);
+            Assert.assertEquals(expected.get(ordinal), actual.contains(ordinal));
+        }
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.index;
+
+import com.netflix.hollow.api.objects.generic.GenericHollowObject;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.read.iterator.HollowOrdinalIterator;
+import com.netflix.hollow.core.util.StateEngineRoundTripper;
+import com.netflix.hollow.core.write.HollowWriteStateEngine;
+import com.netflix.hollow.core.write.objectmapper.HollowInline;
+import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HollowPathIndexTest {
+
+    private HollowWriteStateEngine writeStateEngine;
+    private HollowReadStateEngine readStateEngine;
+    private HollowObjectMapper objectMapper;
+
+    @Before
+    public void beforeTestSetup() {
+        writeStateEngine = new HollowWriteStateEngine();
+        readStateEngine = new HollowReadStateEngine();
+        objectMapper = new HollowObjectMapper(writeStateEngine);
+    }
+
+    @Test
+    public void testMaterializedPaths() throws Exception {
+        objectMapper.add(new Movie(1, new Country("US", "svod", "avod"), new Country("CA", "svod")));
+        objectMapper.add(new Movie(2));
+        StateEngineRoundTripper.roundTripSnapshot(writeStateEngine, readStateEngine);
+
+        HollowPathIndex index = new HollowPathIndex(readStateEngine, "Movie",
+                "countries.element", "countries.element.code", "countries.element.rights.element.name");
+        Assert.assertEquals(3, index.getNumFieldPaths());
+
+        int movie = ordinalOf(1);
+        Assert.assertEquals(Arrays.asList("US", "CA"), countryCodes(index.findMatches(movie, 0)));
+        Assert.assertEquals(Arrays.asList("US", "CA"), values(index, movie, 1));
+        Assert.assertEquals(3, index.getNumMatches(movie, 2));
+        Assert.assertEquals(new HashSet<>(Arrays.asList("svod", "avod")), new HashSet<>(values(index, movie, 2)));
+
+        int emptyMovie = ordinalOf(2);
+        Assert.assertEquals(0, index.getNumMatches(emptyMovie, 0));
+        Assert.assertEquals(HollowOrdinalIterator.NO_MORE_ORDINALS, index.findMatches(emptyMovie, 0).next());
+        Assert.assertEquals(0, index.getNumMatches(1000, 0));
+    }
+
+    @Test
+    public void testDeltaUpdates() throws Exception {
+        objectMapper.add(new Movie(1, new Country("US", "svod"), new Country("CA", "svod")));
+        objectMapper.add(new Movie(2, new Country("GB", "tvod")));
+        objectMapper.add(new Movie(3, new Country("IT", "avod")));
+        StateEngineRoundTripper.roundTripSnapshot(writeStateEngine, readStateEngine);
+
+        HollowPathIndex index = new HollowPathIndex(readStateEngine, "Movie",
+                "countries.element", "countries.element.rights.element.name");
+        index.listenForDeltaUpdates();
+
+        // change a record at the end of movie 1's path, remove movie 2 and add movie 4
+        objectMapper.add(new Movie(1, new Country("US", "svod"), new Country("CA", "avod")));
+        objectMapper.add(new Movie(3, new Country("IT", "avod")));
+        objectMapper.add(new Movie(4, new Country("FR", "svod"), new Country("GB", "tvod")));
+        StateEngineRoundTripper.roundTripDelta(writeStateEngine, readStateEngine);
+
+        Assert.assertEquals(new HashSet<>(Arrays.asList("svod", "avod")), new HashSet<>(values(index, ordinalOf(1), 1)));
+        Assert.assertEquals(Arrays.asList("IT"), countryCodes(index.findMatches(ordinalOf(3), 0)));
+        Assert.assertEquals(Arrays.asList("FR", "GB"), countryCodes(index.findMatches(ordinalOf(4), 0)));
+        Assert.assertEquals(new HashSet<>(Arrays.asList("svod", "tvod")), new HashSet<>(values(index, ordinalOf(4), 1)));
+
+        // every populated record's matches agree with a freshly built index
+        HollowPathIndex rebuilt = new HollowPathIndex(readStateEngine, "Movie",
+                "countries.element", "countries.element.rights.element.name");
+        BitSet populated = readStateEngine.getTypeState("Movie").getPopulatedOrdinals();
+        for (int ordinal = populated.nextSetBit(0); ordinal != -1; ordinal = populated.nextSetBit(ordinal + 1)) {
+            for (int path = 0; path < 2; path++)
+                Assert.assertEquals(toList(rebuilt.findMatches(ordinal, path)), toList(index.findMatches(ordinal, path)));
+        }
+
+        // a delta which only removes records
+        objectMapper.add(new Movie(1, new Country("US", "svod"), new Country("CA", "avod")));
+        StateEngineRoundTripper.roundTripDelta(writeStateEngine, readStateEngine);
+        Assert.assertEquals(Arrays.asList("US", "CA"), countryCodes(index.findMatches(ordinalOf(1), 0)));
+        for (int ordinal = 0; ordinal <= readStateEngine.getTypeState("Movie").maxOrdinal(); ordinal++) {
+            if (ordinal != ordinalOf(1))
+                Assert.assertEquals(0, index.getNumMatches(ordinal, 0));
+        }
+
+        index.detachFromDeltaUpdates();
+    }
+
+    @Test
+    public void testInvalidPaths() throws Exception {
+        objectMapper.add(new Movie(1, new Country("US", "svod")));
+        StateEngineRoundTripper.roundTripSnapshot(writeStateEngine, readStateEngine);
+
+        try {
+            new HollowPathIndex(readStateEngine, "Movie", "countries.element.missing");
+            Assert.fail();
+        } catch (IllegalArgumentException expected) {
+        }
+
+        try {
+            new HollowPathIndex(readStateEngine, "Movie", "");
+            Assert.fail();
+        } catch (IllegalArgumentException expected) {
+        }
+
+        HollowPathIndex index = new HollowPathIndex(readStateEngine, "Movie", "countries.element");
+        try {
+            index.getMatchedValue(ordinalOf(1), 0, 0);
+            Assert.fail();
+        } catch (IllegalStateException expected) {
+        }
+
+        try {
+            index.getMatchOrdinal(ordinalOf(1), 0, 1);
+            Assert.fail();
+        } catch (IndexOutOfBoundsException expected) {
+        }
+    }
+
+    private int ordinalOf(int id) {
+        BitSet populated = readStateEngine.getTypeState("Movie").getPopulatedOrdinals();
+        for (int ordinal = populated.nextSetBit(0); ordinal != -1; ordinal = populated.nextSetBit(ordinal + 1)) {
+            if (new GenericHollowObject(readStateEngine, "Movie", ordinal).getInt("id") == id)
+                return ordinal;
+        }
+        throw new AssertionError("No movie with id " + id);
+    }
+
+    private List<String> countryCodes(HollowOrdinalIterator iterator) {
+        List<String> codes = new ArrayList<>();
+        for (int ordinal : toList(iterator))
+            codes.add(new GenericHollowObject(readStateEngine, "Country", ordinal).getString("code"));
+        return codes;
+    }
+
+    private static List<Object> values(HollowPathIndex index, int ordinal, int pathIdx) {
+        List<Object> values = new ArrayList<>();
+        for (int i = 0; i < index.getNumMatches(ordinal, pathIdx); i++)
+            values.add(index.getMatchedValue(ordinal, pathIdx, i));
+        return values;
+    }
+
+    private static List<Integer> toList(HollowOrdinalIterator iterator) {
+        List<Integer> ordinals = new ArrayList<>();
+        for (int ordinal = iterator.next(); ordinal != HollowOrdinalIterator.NO_MORE_ORDINALS; ordinal = iterator.next())
+            ordinals.add(ordinal);
+        return ordinals;
+    }
+
+    @SuppressWarnings("unused")
+    private static class Movie {
+        int id;
+        List<Country> countries;
+
+        Movie(int id, Country... countries) {
+            this.id = id;
+            this.countries = Arrays.asList(countries);
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class Country {
+        @HollowInline
+        String code;
+        Set<Right> rights;
+
+        Country(String code, String... rights) {
+            this.code = code;
+            this.rights = new LinkedHashSet<>();
+            for (String right : rights)
+                this.rights.add(new Right(right));
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class Right {
+        @HollowInline
+        String name;
+
+        Right(String name) {
+            this.name = name;
+        }
+    }
+}
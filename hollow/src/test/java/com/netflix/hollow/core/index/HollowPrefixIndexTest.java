@@ -154,6 +154,114 @@ public class HollowPrefixIndexTest {
 
     }
 
+    @Test
+    public void testKeysEndingAtInnerNodes() throws Exception {
+        // "rock" ends at a node which is also on the path to "rocky", and "rocka" sorts beside "rocky"
+        objectMapper.add(new SimpleMovie(1, "Rocky", 1976));
+        objectMapper.add(new SimpleMovie(2, "Rock", 1996));
+        objectMapper.add(new SimpleMovie(3, "Rocka", 2001));
+        objectMapper.add(new SimpleMovie(4, "Rocky II", 1979));
+        StateEngineRoundTripper.roundTripSnapshot(writeStateEngine, readStateEngine);
+
+        HollowPrefixIndex prefixIndex = new HollowPrefixIndex(readStateEngine, "SimpleMovie", "name");
+        Assert.assertEquals(4, toSet(prefixIndex.findKeysWithPrefix("ro")).size());
+        Assert.assertEquals(2, toSet(prefixIndex.findKeysWithPrefix("rocky")).size());
+        Assert.assertEquals(4, toSet(prefixIndex.findKeysWithPrefix("rock")).size());
+    }
+
+    @Test
+    public void testShardedIndex() throws Exception {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            String name = "Movie " + (i % 37) + " part " + i;
+            names.add(name);
+            objectMapper.add(new SimpleMovie(i, name, 2000));
+        }
+        StateEngineRoundTripper.roundTripSnapshot(writeStateEngine, readStateEngine);
+
+        HollowPrefixIndex single = new HollowPrefixIndex(readStateEngine, "SimpleMovie", "name");
+        HollowPrefixIndex sharded = new HollowPrefixIndex(readStateEngine, "SimpleMovie", "name", 4, 8);
+        for (String prefix : Arrays.asList("m", "movie 1", "movie 12 part", "movie 36 part 99", "x")) {
+            Assert.assertEquals(toSet(single.findKeysWithPrefix(prefix)), toSet(sharded.findKeysWithPrefix(prefix)));
+        }
+        Assert.assertEquals(1000, toSet(sharded.findKeysWithPrefix("movie")).size());
+        Assert.assertTrue(sharded.contains(names.get(0).toLowerCase()));
+    }
+
+    @Test
+    public void testDeltaRemovalInPlace() throws Exception {
+        for (Movie movie : getSimpleList())
+            objectMapper.add(movie);
+        StateEngineRoundTripper.roundTripSnapshot(writeStateEngine, readStateEngine);
+        HollowPrefixIndex prefixIndex = new HollowPrefixIndex(readStateEngine, "SimpleMovie", "name", 4, 2);
+        prefixIndex.listenForDeltaUpdates();
+
+        // remove "Rocky" and "Blood Diamond", and add keys which extend and sit beside the removed ones
+        objectMapper.add(new SimpleMovie(1, "The Matrix", 1999));
+        objectMapper.add(new SimpleMovie(3, "Rush", 2013));
+        objectMapper.add(new SimpleMovie(5, "Rock", 1996));
+        objectMapper.add(new SimpleMovie(6, "Blood Simple", 1984));
+        StateEngineRoundTripper.roundTripDelta(writeStateEngine, readStateEngine);
+
+        Assert.assertFalse(prefixIndex.contains("rocky"));
+        Assert.assertFalse(prefixIndex.contains("blood diamond"));
+        Assert.assertTrue(prefixIndex.contains("rock"));
+        Assert.assertEquals(Collections.singleton("Rock"),
+                getMovieNames(toSet(prefixIndex.findKeysWithPrefix("ro")), "SimpleMovie", "name"));
+        Assert.assertEquals(Collections.singleton("Blood Simple"),
+                getMovieNames(toSet(prefixIndex.findKeysWithPrefix("blood")), "SimpleMovie", "name"));
+
+        // remove everything, then add enough records that the shards must be rebuilt
+        for (int i = 0; i < 500; i++)
+            objectMapper.add(new SimpleMovie(i, "Sequel " + i, 2020));
+        StateEngineRoundTripper.roundTripDelta(writeStateEngine, readStateEngine);
+
+        Assert.assertEquals(0, toSet(prefixIndex.findKeysWithPrefix("r")).size());
+        Assert.assertEquals(500, toSet(prefixIndex.findKeysWithPrefix("sequel")).size());
+        Assert.assertEquals(111, toSet(prefixIndex.findKeysWithPrefix("sequel 4")).size());
+        prefixIndex.detachFromDeltaUpdates();
+    }
+
+    @Test
+    public void testFindCompletions() throws Exception {
+        objectMapper.add(new SimpleMovie(1, "Rocky", 1976));
+        objectMapper.add(new SimpleMovie(2, "Rocky", 1976));
+        objectMapper.add(new SimpleMovie(3, "Rocky", 1976));
+        objectMapper.add(new SimpleMovie(4, "Rush", 2013));
+        objectMapper.add(new SimpleMovie(5, "Rush", 2013));
+        objectMapper.add(new SimpleMovie(6, "Rock", 1996));
+        objectMapper.add(new SimpleMovie(7, "Ran", 1985));
+        StateEngineRoundTripper.roundTripSnapshot(writeStateEngine, readStateEngine);
+
+        HollowPrefixIndex prefixIndex = new HollowPrefixIndex(readStateEngine, "SimpleMovie", "name", 4, 3);
+        Assert.assertEquals(Arrays.asList("rocky", "rush", "ran"), prefixIndex.findCompletions("R", 3));
+        Assert.assertEquals(Arrays.asList("rocky", "rock"), prefixIndex.findCompletions("roc", 5));
+        Assert.assertEquals(Collections.emptyList(), prefixIndex.findCompletions("z", 5));
+        // the empty prefix is completed by every key
+        Assert.assertEquals(Arrays.asList("rocky", "rush"), prefixIndex.findCompletions("", 2));
+        Assert.assertEquals(Arrays.asList("rocky", "rush", "ran", "rock"), prefixIndex.findCompletions("", 10));
+    }
+
+    @Test
+    public void testKeyOptions() throws Exception {
+        objectMapper.add(new SimpleMovie(1, "Die Straße", 2001));
+        objectMapper.add(new SimpleMovie(2, "The Lord of the Rings: The Two Towers", 2002));
+        StateEngineRoundTripper.roundTripSnapshot(writeStateEngine, readStateEngine);
+
+        HollowPrefixIndex caseFolded = new HollowPrefixIndex(readStateEngine, "SimpleMovie", "name", 4, 1,
+                HollowPrefixIndex.KeyOption.CASE_FOLD);
+        Assert.assertEquals(1, toSet(caseFolded.findKeysWithPrefix("DIE STRASSE")).size());
+        Assert.assertEquals(1, toSet(caseFolded.findKeysWithPrefix("die straße")).size());
+
+        HollowPrefixIndex tokenized = new HollowPrefixIndex(readStateEngine, "SimpleMovie", "name", 4, 1,
+                HollowPrefixIndex.KeyOption.TOKENIZE);
+        Assert.assertEquals(1, toSet(tokenized.findKeysWithPrefix("tow")).size());
+        Assert.assertEquals(1, toSet(tokenized.findKeysWithPrefix("rings")).size());
+        Assert.assertEquals(0, toSet(tokenized.findKeysWithPrefix("the lord")).size());
+        Assert.assertTrue(tokenized.contains("lord"));
+        Assert.assertFalse(tokenized.contains("rings:"));
+    }
+
     @Test
     public void testListReference() throws Exception {
         MovieListReference movieListReference = new MovieListReference(1, 1999, "The Matrix", Arrays.asList("Keanu Reeves", "Laurence Fishburne", "Carrie-Anne Moss"));
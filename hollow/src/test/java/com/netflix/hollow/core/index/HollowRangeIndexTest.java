@@ -0,0 +1,272 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.index;
+
+import com.netflix.hollow.core.HollowConstants;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
+import com.netflix.hollow.core.read.iterator.HollowOrdinalIterator;
+import com.netflix.hollow.core.util.StateEngineRoundTripper;
+import com.netflix.hollow.core.write.HollowWriteStateEngine;
+import com.netflix.hollow.core.write.objectmapper.HollowInline;
+import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HollowRangeIndexTest {
+
+    private HollowWriteStateEngine writeStateEngine;
+    private HollowReadStateEngine readStateEngine;
+    private HollowObjectMapper objectMapper;
+
+    @Before
+    public void beforeTestSetup() {
+        writeStateEngine = new HollowWriteStateEngine();
+        readStateEngine = new HollowReadStateEngine();
+        objectMapper = new HollowObjectMapper(writeStateEngine);
+    }
+
+    @Test
+    public void testIntRange() throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 100; i++)
+            ids.add(i * 2);
+        Collections.shuffle(ids, new Random(42));
+        for (int id : ids)
+            objectMapper.add(new Movie(id, id * 1000L, 0.0, "m" + id));
+        StateEngineRoundTripper.roundTripSnapshot(writeStateEngine, readStateEngine);
+
+        HollowRangeIndex index = new HollowRangeIndex(readStateEngine, "Movie", "id");
+
+        Assert.assertEquals(Arrays.asList(10, 12, 14, 16, 18, 20), ids(index.findRange(10, 20)));
+        Assert.assertEquals(Arrays.asList(12, 14, 16, 18), ids(index.findRange(10, false, 20, false)));
+        Assert.assertEquals(Arrays.asList(0, 2, 4), ids(index.findRange(null, 5)));
+        Assert.assertEquals(Arrays.asList(196, 198), ids(index.findRange(195L, null)));
+        Assert.assertEquals(Collections.emptyList(), ids(index.findRange(20, 10)));
+        Assert.assertEquals(Collections.emptyList(), ids(index.findRange(11, false, 12, false)));
+        Assert.assertEquals(100, ids(index.findRange(null, null)).size());
+
+        Assert.assertEquals(10, id(index.findFloor(11)));
+        Assert.assertEquals(10, id(index.findFloor(10)));
+        Assert.assertEquals(HollowConstants.ORDINAL_NONE, index.findFloor(-1));
+        Assert.assertEquals(12, id(index.findCeiling(11)));
+        Assert.assertEquals(HollowConstants.ORDINAL_NONE, index.findCeiling(199));
+
+        Assert.assertEquals(Arrays.asList(0, 2, 4), ids(index.findSmallest(3)));
+        Assert.assertEquals(Arrays.asList(198, 196, 194), ids(index.findLargest(3)));
+        Assert.assertEquals(Collections.emptyList(), ids(index.findLargest(0)));
+        Assert.assertEquals(100, ids(index.findSmallest(1000)).size());
+
+        HollowRangeIndex longIndex = new HollowRangeIndex(readStateEngine, "Movie", "releaseDate");
+        Assert.assertEquals(Arrays.asList(2, 4), ids(longIndex.findRange(2000, 4000)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIntegralFieldRejectsFractionalBound() throws Exception {
+        objectMapper.add(new Movie(1, 1L, 0.0, "m"));
+        StateEngineRoundTripper.roundTripSnapshot(writeStateEngine, readStateEngine);
+
+        new HollowRangeIndex(readStateEngine, "Movie", "id").findRange(1.5, 2);
+    }
+
+    @Test
+    public void testFloatingPointOrdering() throws Exception {
+        double[] ratings = {3.0, -2.5, 0.0, 1.5, -1.0, -0.5, 10.25};
+        for (int i = 0; i < ratings.length; i++)
+            objectMapper.add(new Movie(i, 0L, ratings[i], "m" + i));
+        StateEngineRoundTripper.roundTripSnapshot(writeStateEngine, readStateEngine);
+
+        HollowRangeIndex index = new HollowRangeIndex(readStateEngine, "Movie", "rating");
+
+        // ids in ascending order of rating
+        Assert.assertEquals(Arrays.asList(1, 4, 5, 2, 3, 0, 6), ids(index.findRange(null, null)));
+        Assert.assertEquals(Arrays.asList(4, 5, 2), ids(index.findRange(-1, 0)));
+        Assert.assertEquals(Arrays.asList(5, 2, 3), ids(index.findRange(-1.0, false, 1.5f, true)));
+        Assert.assertEquals(2, id(index.findFloor(0.5)));
+        Assert.assertEquals(4, id(index.findCeiling(-1.5)));
+        Assert.assertEquals(Arrays.asList(6, 0), ids(index.findLargest(2)));
+    }
+
+    @Test
+    public void testNegativeZeroEqualsZero() throws Exception {
+        double[] ratings = {0.0, -0.0, -0.5, 0.5};
+        for (int i = 0; i < ratings.length; i++)
+            objectMapper.add(new Movie(i, 0L, ratings[i], "m" + i));
+        StateEngineRoundTripper.roundTripSnapshot(writeStateEngine, readStateEngine);
+
+        HollowRangeIndex index = new HollowRangeIndex(readStateEngine, "Movie", "rating");
+
+        Assert.assertEquals(Arrays.asList(0, 1), ids(index.findRange(-0.0, 0.0)));
+        Assert.assertEquals(Arrays.asList(0, 1), ids(index.findRange(0.0, -0.0)));
+        Assert.assertEquals(Arrays.asList(3), ids(index.findRange(-0.0, false, null, true)));
+        Assert.assertEquals(Arrays.asList(2), ids(index.findRange(null, true, 0.0, false)));
+        Assert.assertEquals(0, id(index.findFloor(-0.0)));
+        Assert.assertEquals(0, id(index.findCeiling(-0.0)));
+    }
+
+    @Test
+    public void testStringRange() throws Exception {
+        String[] titles = {"delta", "alpha", "charlie", "echo", "bravo", "charlie"};
+        for (int i = 0; i < titles.length; i++)
+            objectMapper.add(new Movie(i, 0L, 0.0, titles[i]));
+        StateEngineRoundTripper.roundTripSnapshot(writeStateEngine, readStateEngine);
+
+        HollowRangeIndex index = new HollowRangeIndex(readStateEngine, "Movie", "title");
+
+        Assert.assertEquals(Arrays.asList(4, 2, 5), ids(index.findRange("b", "charlie")));
+        Assert.assertEquals(Arrays.asList(2, 5, 0), ids(index.findRange("bravo", false, "delta", true)));
+        Assert.assertEquals(4, id(index.findFloor("c")));
+        // equal values resolve to the lowest ordinal
+        Assert.assertEquals(2, id(index.findCeiling("charlie")));
+        Assert.assertEquals(2, id(index.findFloor("czar")));
+        Assert.assertEquals(Arrays.asList(3, 0), ids(index.findLargest(2)));
+    }
+
+    @Test
+    public void testMultiValuedAndNullFields() throws Exception {
+        objectMapper.add(new Movie(0, 0L, 0.0, "a", 5, 1, 2, 3));
+        objectMapper.add(new Movie(1, 0L, 0.0, "b", null, 3, 7));
+        objectMapper.add(new Movie(2, 0L, 0.0, "c", 1));
+        StateEngineRoundTripper.roundTripSnapshot(writeStateEngine, readStateEngine);
+
+        HollowRangeIndex tagIndex = new HollowRangeIndex(readStateEngine, "Movie", "tags.element");
+        // each record is returned once, at the position of its first value in the range
+        Assert.assertEquals(Arrays.asList(0, 1), ids(tagIndex.findRange(2, 10)));
+        Assert.assertEquals(Arrays.asList(0, 1), ids(tagIndex.findSmallest(2)));
+        Assert.assertEquals(Arrays.asList(1, 0), ids(tagIndex.findLargest(5)));
+
+        HollowRangeIndex budgetIndex = new HollowRangeIndex(readStateEngine, "Movie", "budget");
+        Assert.assertEquals(Arrays.asList(2, 0), ids(budgetIndex.findRange(null, null)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedFieldType() throws Exception {
+        objectMapper.add(new Movie(1, 1L, 0.0, "m"));
+        StateEngineRoundTripper.roundTripSnapshot(writeStateEngine, readStateEngine);
+
+        new HollowRangeIndex(readStateEngine, "Movie", "released");
+    }
+
+    @Test
+    public void testDeltaUpdates() throws Exception {
+        Random random = new Random(7);
+        List<Movie> movies = new ArrayList<>();
+        for (int i = 0; i < 500; i++)
+            movies.add(new Movie(i, random.nextInt(100), 0.0, "m" + i, null, random.nextInt(50), random.nextInt(50)));
+        for (Movie movie : movies)
+            objectMapper.add(movie);
+        StateEngineRoundTripper.roundTripSnapshot(writeStateEngine, readStateEngine);
+
+        HollowRangeIndex dateIndex = new HollowRangeIndex(readStateEngine, "Movie", "releaseDate");
+        HollowRangeIndex tagIndex = new HollowRangeIndex(readStateEngine, "Movie", "tags.element");
+        dateIndex.listenForDeltaUpdates();
+        tagIndex.listenForDeltaUpdates();
+
+        for (int cycle = 0; cycle < 5; cycle++) {
+            for (int i = 0; i < 50; i++)
+                movies.set(random.nextInt(movies.size()), new Movie(random.nextInt(100000), random.nextInt(100), 0.0, "n" + i, null, random.nextInt(50)));
+            for (int i = 0; i < 20; i++)
+                movies.remove(random.nextInt(movies.size()));
+
+            writeStateEngine.prepareForNextCycle();
+            for (Movie movie : movies)
+                objectMapper.add(movie);
+            StateEngineRoundTripper.roundTripDelta(writeStateEngine, readStateEngine);
+
+            for (int i = 0; i < 20; i++) {
+                int from = random.nextInt(100);
+                int to = from + random.nextInt(20);
+                assertMatchesScan(dateIndex.findRange(from, to), "releaseDate", from, to);
+                assertMatchesScan(tagIndex.findRange(from / 2, to / 2), "tags.element", from / 2, to / 2);
+            }
+        }
+
+        dateIndex.detachFromDeltaUpdates();
+        tagIndex.detachFromDeltaUpdates();
+    }
+
+    private void assertMatchesScan(HollowOrdinalIterator iter, String fieldPath, long from, long to) {
+        FieldPath path = new FieldPath(readStateEngine, "Movie", fieldPath);
+        BitSet expected = new BitSet();
+        BitSet populated = readStateEngine.getTypeState("Movie").getPopulatedOrdinals();
+        for (int ordinal = populated.nextSetBit(0); ordinal != -1; ordinal = populated.nextSetBit(ordinal + 1)) {
+            for (Object value : path.findValues(ordinal)) {
+                long v = ((Number) value).longValue();
+                if (v >= from && v <= to)
+                    expected.set(ordinal);
+            }
+        }
+
+        BitSet actual = new BitSet();
+        long previous = Long.MIN_VALUE;
+        for (int ordinal = iter.next(); ordinal != HollowOrdinalIterator.NO_MORE_ORDINALS; ordinal = iter.next()) {
+            Assert.assertFalse("ordinal returned twice", actual.get(ordinal));
+            actual.set(ordinal);
+            if (fieldPath.equals("releaseDate")) {
+                long value = ((Number) path.findValues(ordinal)[0]).longValue();
+                Assert.assertTrue(value >= previous);
+                previous = value;
+            }
+        }
+        Assert.assertEquals(expected, actual);
+    }
+
+    private int id(int ordinal) {
+        HollowObjectTypeReadState typeState = (HollowObjectTypeReadState) readStateEngine.getTypeState("Movie");
+        return typeState.readInt(ordinal, typeState.getSchema().getPosition("id"));
+    }
+
+    private List<Integer> ids(HollowOrdinalIterator iter) {
+        List<Integer> ids = new ArrayList<>();
+        for (int ordinal = iter.next(); ordinal != HollowOrdinalIterator.NO_MORE_ORDINALS; ordinal = iter.next())
+            ids.add(id(ordinal));
+        return ids;
+    }
+
+    @SuppressWarnings("unused")
+    private static class Movie {
+        int id;
+        long releaseDate;
+        double rating;
+        @HollowInline
+        String title;
+        @HollowInline
+        Integer budget;
+        boolean released;
+        List<Integer> tags;
+
+        Movie(int id, long releaseDate, double rating, String title, Integer budget, Integer... tags) {
+            this.id = id;
+            this.releaseDate = releaseDate;
+            this.rating = rating;
+            this.title = title;
+            this.budget = budget;
+            this.tags = Arrays.asList(tags);
+        }
+
+        Movie(int id, long releaseDate, double rating, String title) {
+            this(id, releaseDate, rating, title, null);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.memory.encoding;
+
+import com.netflix.hollow.core.memory.ArrayByteData;
+import com.netflix.hollow.core.memory.DirectSegmentedByteArray;
+import com.netflix.hollow.core.memory.SegmentedByteArray;
+import com.netflix.hollow.core.memory.pool.DirectMemoryRecycler;
+import com.netflix.hollow.core.memory.pool.WastefulRecycler;
+import java.util.Random;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DirectFixedLengthElementArrayTest {
+
+    private DirectMemoryRecycler recycler;
+
+    @Before
+    public void setUp() {
+        // small segments, so that many values straddle segment boundaries
+        recycler = new DirectMemoryRecycler(5, 3);
+    }
+
+    @After
+    public void tearDown() {
+        recycler.destroy();
+    }
+
+    @Test
+    public void matchesOnHeapArray() {
+        Random rand = new Random(42);
+
+        for(int bitsPerElement = 1; bitsPerElement <= 64; bitsPerElement++) {
+            int numElements = 1000;
+            long numBits = (long) numElements * bitsPerElement;
+            long mask = bitsPerElement == 64 ? -1 : (1L << bitsPerElement) - 1;
+
+            FixedLengthElementArray heap = new FixedLengthElementArray(WastefulRecycler.SMALL_ARRAY_RECYCLER, numBits);
+            DirectFixedLengthElementArray direct = new DirectFixedLengthElementArray(recycler, numBits);
+
+            for(int i = 0; i < numElements; i++) {
+                long value = rand.nextLong() & mask;
+                heap.setElementValue((long) i * bitsPerElement, bitsPerElement, value);
+                direct.setElementValue((long) i * bitsPerElement, bitsPerElement, value);
+            }
+
+            for(int i = 0; i < numElements; i++) {
+                long index = (long) i * bitsPerElement;
+                Assert.assertEquals(heap.getLargeElementValue(index, bitsPerElement), direct.getLargeElementValue(index, bitsPerElement));
+                if(bitsPerElement <= 56)
+                    Assert.assertEquals(heap.getElementValue(index, bitsPerElement), direct.getElementValue(index, bitsPerElement));
+            }
+
+            direct.destroy();
+        }
+    }
+
+    @Test
+    public void copyBitsAndIncrementAcrossSegments() {
+        int bitsPerElement = 13;
+        int numElements = 500;
+        long numBits = (long) numElements * bitsPerElement;
+
+        FixedLengthElementArray source = new FixedLengthElementArray(WastefulRecycler.SMALL_ARRAY_RECYCLER, numBits);
+        for(int i = 0; i < numElements; i++)
+            source.setElementValue((long) i * bitsPerElement, bitsPerElement, i);
+
+        DirectFixedLengthElementArray direct = new DirectFixedLengthElementArray(recycler, numBits + 64);
+        direct.copyBits(source, 0, 7, numBits);
+        direct.incrementMany(7, 3, bitsPerElement, numElements);
+
+        for(int i = 0; i < numElements; i++)
+            Assert.assertEquals(i + 3, direct.getElementValue(7 + (long) i * bitsPerElement, bitsPerElement));
+    }
+
+    @Test
+    public void byteArrayCopiesAcrossSegments() {
+        DirectSegmentedByteArray src = new DirectSegmentedByteArray(recycler);
+        for(int i = 0; i < 1000; i++)
+            src.set(i, (byte) i);
+
+        DirectSegmentedByteArray dest = new DirectSegmentedByteArray(recycler);
+        dest.orderedCopy(src, 10, 3, 900);
+
+        byte[] copied = new byte[900];
+        dest.copy(3, copied, 0, 900);
+        for(int i = 0; i < 900; i++)
+            Assert.assertEquals((byte) (i + 10), copied[i]);
+
+        long allocated = recycler.getAllocatedBytes();
+        src.destroy();
+        recycler.swap();
+        DirectSegmentedByteArray reused = new DirectSegmentedByteArray(recycler);
+        reused.orderedCopy(dest, 0, 0, 900);
+        Assert.assertEquals(allocated, recycler.getAllocatedBytes());
+    }
+
+    @Test
+    public void byteArrayCopiesFromOnHeapData() {
+        SegmentedByteArray src = new SegmentedByteArray(new WastefulRecycler(4, 3));
+        for(int i = 0; i < 1000; i++)
+            src.set(i, (byte) (i * 7));
+
+        DirectSegmentedByteArray dest = new DirectSegmentedByteArray(recycler);
+        dest.copy(src, 17, 5, 950);
+        dest.copy(new ArrayByteData(new byte[] { 1, 2, 3 }), 0, 955, 3);
+
+        byte[] copied = new byte[953];
+        dest.copy(5, copied, 0, 953);
+        for(int i = 0; i < 950; i++)
+            Assert.assertEquals((byte) ((i + 17) * 7), copied[i]);
+        Assert.assertEquals(3, copied[952]);
+    }
+}
@@ -171,6 +171,29 @@ public class FixedLengthElementArrayTest {
         }
     }
 
+    @Test
+    public void testGetElementValues() {
+        Random rand = new Random();
+        int[][] layouts = { {1, 1}, {5, 17}, {13, 64}, {27, 100}, {56, 61}, {61, 61}, {64, 64}, {64, 200} };
+
+        for(int[] layout : layouts) {
+            int numBitsPerElement = layout[0];
+            int bitsBetweenElements = layout[1];
+            long mask = numBitsPerElement == 64 ? -1L : (1L << numBitsPerElement) - 1;
+            int numElements = 1000;
+
+            FixedLengthElementArray arr = new FixedLengthElementArray(WastefulRecycler.SMALL_ARRAY_RECYCLER,
+                    (long) numElements * bitsBetweenElements + 64);
+            for(int i=0;i<numElements;i++)
+                arr.setElementValue(3 + (long) i * bitsBetweenElements, numBitsPerElement, rand.nextLong() & mask);
+
+            long[] values = new long[numElements];
+            arr.getElementValues(3, numBitsPerElement, bitsBetweenElements, mask, values, numElements);
+            for(int i=0;i<numElements;i++)
+                Assert.assertEquals(arr.getLargeElementValue(3 + (long) i * bitsBetweenElements, numBitsPerElement, mask), values[i]);
+        }
+    }
+
     @Test
     public void testGetEmpty() {
         FixedLengthElementArray arr = new FixedLengthElementArray(
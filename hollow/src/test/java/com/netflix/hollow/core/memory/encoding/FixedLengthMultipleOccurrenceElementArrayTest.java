@@ -17,8 +17,11 @@
 package com.netflix.hollow.core.memory.encoding;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import com.netflix.hollow.core.memory.pool.WastefulRecycler;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.LongStream;
@@ -77,4 +80,25 @@ public class FixedLengthMultipleOccurrenceElementArrayTest {
                     array.getElements(nodeIndex));
         });
     }
+
+    @Test
+    public void testRemoveAndClear() {
+        LongStream.of(0, 1, 2, 3, 2, 4).forEach(v -> array.addElement(0, v));
+        array.addElement(1, 7);
+
+        array.removeElement(0, 2);
+        assertEquals(Arrays.asList(0L, 1L, 4L, 3L), array.getElements(0));
+
+        array.removeElement(0, 0);
+        array.removeElement(0, 1);
+        assertEquals(Arrays.asList(3L, 4L), array.getElements(0));
+        assertTrue(array.hasElements(0));
+
+        array.clearElements(0);
+        assertFalse(array.hasElements(0));
+        assertEquals(Arrays.asList(7L), array.getElements(1));
+
+        array.addElement(0, 5);
+        assertEquals(Arrays.asList(5L), array.getElements(0));
+    }
 }
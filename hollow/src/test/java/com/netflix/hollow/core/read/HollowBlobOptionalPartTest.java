@@ -28,7 +28,10 @@ import com.netflix.hollow.api.producer.fs.HollowInMemoryBlobStager;
 import com.netflix.hollow.core.memory.MemoryMode;
 import com.netflix.hollow.core.read.engine.HollowBlobReader;
 import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.read.engine.HollowTypeReadState;
+import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
 import com.netflix.hollow.core.read.filter.TypeFilter;
+import com.netflix.hollow.core.schema.HollowMapSchema;
 import com.netflix.hollow.core.write.HollowBlobWriter;
 import com.netflix.hollow.core.write.HollowWriteStateEngine;
 import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
@@ -355,6 +358,81 @@ public class HollowBlobOptionalPartTest {
 
 
 
+    @Test
+    public void optionalPartReferencesAreWiredWhenDeferredTypesAreMaterialized() throws IOException {
+        File localBlobStore = createLocalDir();
+        HollowFilesystemPublisher publisher = new HollowFilesystemPublisher(localBlobStore.toPath());
+        ProducerOptionalBlobPartConfig partConfig = new ProducerOptionalBlobPartConfig();
+        partConfig.addTypesToPart("E", "Extra");
+        HollowInMemoryBlobStager stager = new HollowInMemoryBlobStager(partConfig);
+
+        HollowProducer producer = HollowProducer.withPublisher(publisher).withBlobStager(stager).build();
+        producer.initializeDataModel(Root.class);
+        producer.runCycle(state -> state.add(new Root(1, new Extra("extra"))));
+
+        HollowConsumer consumer = HollowConsumer.newHollowConsumer()
+                .withBlobRetriever(new HollowFilesystemBlobRetriever(localBlobStore.toPath(), Collections.singleton("E")))
+                .withLazyTypeMaterialization()
+                .build();
+        consumer.triggerRefresh();
+
+        /// the optional part type is read eagerly, while the String type it references is deferred
+        HollowReadStateEngine readEngine = consumer.getStateEngine();
+        Assert.assertEquals(new HashSet<>(Arrays.asList("Root", "String")), readEngine.getDeferredTypes());
+        HollowObjectTypeReadState extraState = (HollowObjectTypeReadState) readEngine.getTypeState("Extra");
+        Assert.assertNull(extraState.getSchema().getReferencedTypeState(0));
+
+        HollowTypeReadState stringState = readEngine.getTypeState("String");
+        Assert.assertNotNull(stringState);
+        Assert.assertSame(stringState, extraState.getSchema().getReferencedTypeState(0));
+
+        int stringOrdinal = extraState.readOrdinal(extraState.getPopulatedOrdinals().nextSetBit(0), 0);
+        Assert.assertEquals("extra", new GenericHollowObject(readEngine, "String", stringOrdinal).getString("value"));
+    }
+
+    @Test
+    public void optionalPartHashKeysAreWiredWhenDeferredTypesAreMaterialized() throws IOException {
+        File localBlobStore = createLocalDir();
+        HollowFilesystemPublisher publisher = new HollowFilesystemPublisher(localBlobStore.toPath());
+        HollowInMemoryBlobStager stager = new HollowInMemoryBlobStager(newPartConfig());
+
+        HollowProducer producer = HollowProducer.withPublisher(publisher).withBlobStager(stager).build();
+        producer.initializeDataModel(TypeA.class);
+        producer.runCycle(state -> state.add(new TypeA("1", 1, new TypeB((short)1, 1L, 1f, new char[] {'1'}, new byte[] { 1 }),
+                Collections.singleton(new TypeC('1', Collections.singletonMap("key", Collections.singletonList(1)))))));
+
+        HollowConsumer consumer = HollowConsumer.newHollowConsumer()
+                .withBlobRetriever(new HollowFilesystemBlobRetriever(localBlobStore.toPath(), new HashSet<>(Arrays.asList("B", "C"))))
+                .withLazyTypeMaterialization()
+                .build();
+        consumer.triggerRefresh();
+
+        /// the key deriver of the eagerly read map type looks up its deferred key type while it is wired
+        HollowReadStateEngine readEngine = consumer.getStateEngine();
+        HollowTypeReadState mapState = readEngine.getTypeState("MapOfStringToListOfInteger");
+        Assert.assertSame(readEngine.getTypeState("String"), ((HollowMapSchema) mapState.getSchema()).getKeyTypeState());
+    }
+
+    @SuppressWarnings("unused")
+    private static class Root {
+        int id;
+        Extra extra;
+
+        Root(int id, Extra extra) {
+            this.id = id;
+            this.extra = extra;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class Extra {
+        String name;
+
+        Extra(String name) {
+            this.name = name;
+        }
+    }
+
     private ProducerOptionalBlobPartConfig newPartConfig() {
         ProducerOptionalBlobPartConfig partConfig = new ProducerOptionalBlobPartConfig();
         partConfig.addTypesToPart("B", "TypeB");
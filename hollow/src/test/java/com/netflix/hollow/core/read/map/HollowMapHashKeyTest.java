@@ -16,9 +16,12 @@
  */
 package com.netflix.hollow.core.read.map;
 
+import static com.netflix.hollow.core.HollowConstants.ORDINAL_NONE;
+
 import com.netflix.hollow.api.objects.HollowRecord;
 import com.netflix.hollow.api.objects.generic.GenericHollowMap;
 import com.netflix.hollow.api.objects.generic.GenericHollowObject;
+import com.netflix.hollow.core.read.dataaccess.HollowMapTypeDataAccess;
 import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
 import com.netflix.hollow.core.util.StateEngineRoundTripper;
 import com.netflix.hollow.core.write.HollowWriteStateEngine;
@@ -203,6 +206,47 @@ public class HollowMapHashKeyTest {
         Assert.assertEquals(500, value.getInt("value"));
     }
     
+    @Test
+    public void testSpecializedLookups() throws IOException {
+        HollowWriteStateEngine writeEngine = new HollowWriteStateEngine();
+        HollowObjectMapper mapper = new HollowObjectMapper(writeEngine);
+        mapper.useDefaultHashKeys();
+
+        mapper.add(new TestTopLevelObject(1, new Obj(1, "New York", "US", 100), new Obj(2, "Ottawa", "CA", 200)));
+        TypeWithStringMap stringMap = new TypeWithStringMap();
+        stringMap.stringMap.put("one", 1);
+        stringMap.stringMap.put("two", 2);
+        mapper.add(stringMap);
+
+        HollowReadStateEngine readEngine = StateEngineRoundTripper.roundTripSnapshot(writeEngine);
+
+        HollowMapTypeDataAccess byId = (HollowMapTypeDataAccess) readEngine.getTypeDataAccess("MapById");
+        Assert.assertEquals(byId.findEntry(0, (Object) 2), byId.findEntry(0, 2));
+        Assert.assertEquals(byId.findKey(0, (Object) 2), byId.findKey(0, 2));
+        Assert.assertEquals(ORDINAL_NONE, byId.findKey(0, 3));
+        Assert.assertEquals(ORDINAL_NONE, byId.findKey(0, "2"));
+        Assert.assertEquals(ORDINAL_NONE, byId.findKey(0, 2, "CA"));
+
+        HollowMapTypeDataAccess byIdCountry = (HollowMapTypeDataAccess) readEngine.getTypeDataAccess("MapByIdCountry");
+        Assert.assertEquals(byIdCountry.findEntry(0, new Object[] { 2, "CA" }), byIdCountry.findEntry(0, 2, "CA"));
+        Assert.assertEquals(ORDINAL_NONE, byIdCountry.findValue(0, 2, "US"));
+        Assert.assertEquals(ORDINAL_NONE, byIdCountry.findValue(0, 2));
+
+        HollowMapTypeDataAccess byString = (HollowMapTypeDataAccess) readEngine.getTypeDataAccess("MapOfStringToInteger");
+        GenericHollowObject value = new GenericHollowObject(readEngine, "Integer", byString.findValue(0, "two"));
+        Assert.assertEquals(2, value.getInt("value"));
+        Assert.assertEquals(ORDINAL_NONE, byString.findValue(0, "three"));
+        Assert.assertEquals(ORDINAL_NONE, byString.findValue(0, 2));
+
+        GenericHollowMap map = new GenericHollowMap(readEngine, "MapOfStringToInteger", 0);
+        Assert.assertEquals(1, ((GenericHollowObject) map.findValue("one")).getInt("value"));
+        Assert.assertNull(map.findEntry("three"));
+    }
+
+    private static class TypeWithStringMap {
+        Map<String, Integer> stringMap = new HashMap<>();
+    }
+
     @SuppressWarnings("unused")
     private static class TestTopLevelObject {
         int id;
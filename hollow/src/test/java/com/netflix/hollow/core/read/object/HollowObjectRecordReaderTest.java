@@ -0,0 +1,195 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.read.object;
+
+import com.netflix.hollow.core.AbstractStateEngineTest;
+import com.netflix.hollow.core.read.engine.object.HollowObjectRecordReader;
+import com.netflix.hollow.core.read.engine.object.HollowObjectStringCache;
+import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
+import com.netflix.hollow.core.schema.HollowObjectSchema;
+import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
+import com.netflix.hollow.core.write.HollowObjectTypeWriteState;
+import com.netflix.hollow.core.write.HollowObjectWriteRecord;
+import java.io.IOException;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HollowObjectRecordReaderTest extends AbstractStateEngineTest {
+
+    HollowObjectSchema schema;
+
+    @Before
+    public void setUp() {
+        schema = new HollowObjectSchema("TestObject", 8);
+        schema.addField("int", FieldType.INT);
+        schema.addField("long", FieldType.LONG);
+        schema.addField("float", FieldType.FLOAT);
+        schema.addField("double", FieldType.DOUBLE);
+        schema.addField("boolean", FieldType.BOOLEAN);
+        schema.addField("string", FieldType.STRING);
+        schema.addField("bytes", FieldType.BYTES);
+        schema.addField("ref", FieldType.REFERENCE, "TestObject");
+
+        super.setUp();
+    }
+
+    @Test
+    public void testReadsAllFieldTypes() throws IOException {
+        writeStateEngine.setTargetMaxTypeShardSize(1024);
+        for(int i = 0; i < 1000; i++)
+            addRecord(i);
+        addNullRecord();
+
+        roundTripSnapshot();
+
+        HollowObjectTypeReadState typeState = (HollowObjectTypeReadState) readStateEngine.getTypeState("TestObject");
+        Assert.assertTrue(typeState.numShards() > 1);
+        assertRecords(typeState, 0, 1000);
+
+        for(int i = 500; i < 1500; i++)
+            addRecord(i);
+        addNullRecord();
+        roundTripDelta();
+
+        assertRecords(typeState, 500, 1500);
+    }
+
+    @Test
+    public void testReadRetriesUntilConsistent() throws IOException {
+        addRecord(1);
+        roundTripSnapshot();
+
+        HollowObjectTypeReadState typeState = (HollowObjectTypeReadState) readStateEngine.getTypeState("TestObject");
+        HollowObjectRecordReader reader = typeState.createRecordReader();
+
+        int[] calls = new int[1];
+        String result = reader.read(0, r -> {
+            calls[0]++;
+            return r.readString(5) + r.readInt(0);
+        });
+
+        Assert.assertEquals("s11", result);
+        Assert.assertEquals(1, calls[0]);
+
+        try {
+            reader.read(0, r -> { throw new IllegalStateException(); });
+            Assert.fail();
+        } catch(IllegalStateException expected) { }
+    }
+
+    @Test
+    public void testReadsCachedStringsThroughStringCache() throws IOException {
+        addRecord(1);
+        roundTripSnapshot();
+
+        HollowObjectTypeReadState typeState = (HollowObjectTypeReadState) readStateEngine.getTypeState("TestObject");
+        HollowObjectStringCache stringCache = new HollowObjectStringCache(schema, Collections.singletonMap("string", 16));
+        typeState.setStringCache(stringCache);
+
+        HollowObjectRecordReader reader = typeState.createRecordReader();
+        for(int i = 0; i < 2; i++) {
+            reader.begin(0);
+            Assert.assertEquals("s1", reader.readString(5));
+            Assert.assertTrue(reader.end());
+        }
+        Assert.assertEquals(1, stringCache.getMissCount("string"));
+        Assert.assertEquals(1, stringCache.getHitCount("string"));
+    }
+
+    private void assertRecords(HollowObjectTypeReadState typeState, int from, int to) {
+        HollowObjectRecordReader reader = typeState.createRecordReader();
+
+        for(int i = from; i < to; i++) {
+            int ordinal = findOrdinal(typeState, i);
+            Assert.assertNotEquals(-1, ordinal);
+
+            do {
+                reader.begin(ordinal);
+                Assert.assertEquals(i, reader.readInt(0));
+                Assert.assertEquals(Integer.valueOf(i), reader.readIntBoxed(0));
+                Assert.assertEquals(Long.valueOf(i * 1000L), reader.readLongBoxed(1));
+                Assert.assertEquals(Float.valueOf(i / 2f), reader.readFloatBoxed(2));
+                Assert.assertEquals(Double.valueOf(i / 4d), reader.readDoubleBoxed(3));
+                Assert.assertEquals(i * 1000L, reader.readLong(1));
+                Assert.assertEquals(i / 2f, reader.readFloat(2), 0f);
+                Assert.assertEquals(i / 4d, reader.readDouble(3), 0d);
+                Assert.assertEquals(i % 2 == 0, reader.readBoolean(4));
+                Assert.assertEquals("s" + i, reader.readString(5));
+                Assert.assertTrue(reader.isStringFieldEqual(5, "s" + i));
+                Assert.assertFalse(reader.isStringFieldEqual(5, null));
+                Assert.assertArrayEquals(new byte[] { (byte) i, (byte) (i >> 8) }, reader.readBytes(6));
+                Assert.assertEquals(typeState.readOrdinal(ordinal, 7), reader.readOrdinal(7));
+                Assert.assertFalse(reader.isNull(5));
+            } while(!reader.end());
+        }
+
+        int nullOrdinal = findOrdinal(typeState, Integer.MIN_VALUE);
+        reader.begin(nullOrdinal);
+        Assert.assertEquals(Integer.MIN_VALUE, reader.readInt(0));
+        Assert.assertEquals(Long.MIN_VALUE, reader.readLong(1));
+        Assert.assertTrue(Float.isNaN(reader.readFloat(2)));
+        Assert.assertTrue(Double.isNaN(reader.readDouble(3)));
+        Assert.assertNull(reader.readIntBoxed(0));
+        Assert.assertNull(reader.readLongBoxed(1));
+        Assert.assertNull(reader.readFloatBoxed(2));
+        Assert.assertNull(reader.readDoubleBoxed(3));
+        Assert.assertNull(reader.readBoolean(4));
+        Assert.assertNull(reader.readString(5));
+        Assert.assertTrue(reader.isStringFieldEqual(5, null));
+        Assert.assertNull(reader.readBytes(6));
+        Assert.assertEquals(-1, reader.readOrdinal(7));
+        for(int i = 0; i < schema.numFields(); i++)
+            Assert.assertTrue(reader.isNull(i));
+        Assert.assertTrue(reader.end());
+    }
+
+    private int findOrdinal(HollowObjectTypeReadState typeState, int intValue) {
+        for(int ordinal = 0; ordinal <= typeState.maxOrdinal(); ordinal++) {
+            if(typeState.getPopulatedOrdinals().get(ordinal) && typeState.readInt(ordinal, 0) == intValue)
+                return ordinal;
+        }
+        return -1;
+    }
+
+    private void addRecord(int i) {
+        HollowObjectWriteRecord rec = new HollowObjectWriteRecord(schema);
+        rec.setInt("int", i);
+        rec.setLong("long", i * 1000L);
+        rec.setFloat("float", i / 2f);
+        rec.setDouble("double", i / 4d);
+        rec.setBoolean("boolean", i % 2 == 0);
+        rec.setString("string", "s" + i);
+        rec.setBytes("bytes", new byte[] { (byte) i, (byte) (i >> 8) });
+        rec.setReference("ref", i % 3);
+        writeStateEngine.add("TestObject", rec);
+    }
+
+    private void addNullRecord() {
+        HollowObjectWriteRecord rec = new HollowObjectWriteRecord(schema);
+        rec.setNull("float");
+        rec.setNull("double");
+        writeStateEngine.add("TestObject", rec);
+    }
+
+    @Override
+    protected void initializeTypeStates() {
+        writeStateEngine.addTypeState(new HollowObjectTypeWriteState(schema));
+    }
+
+}
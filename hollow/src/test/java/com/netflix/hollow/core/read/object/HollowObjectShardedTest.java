@@ -18,6 +18,7 @@ package com.netflix.hollow.core.read.object;
 
 import com.netflix.hollow.api.objects.generic.GenericHollowObject;
 import com.netflix.hollow.core.AbstractStateEngineTest;
+import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
 import com.netflix.hollow.core.schema.HollowObjectSchema;
 import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
 import com.netflix.hollow.core.write.HollowObjectTypeWriteState;
@@ -96,6 +97,82 @@ public class HollowObjectShardedTest extends AbstractStateEngineTest {
         }
     }
     
+    @Test
+    public void testBatchReadsAndScans() throws IOException {
+        HollowObjectWriteRecord rec = new HollowObjectWriteRecord(schema);
+
+        for(int i=0;i<1000;i++) {
+            rec.reset();
+            if(i % 7 != 0) {
+                rec.setLong("longField", i * 3L);
+                rec.setInt("intField", -i);
+                rec.setDouble("doubleField", i / 2d);
+            }
+
+            writeStateEngine.add("TestObject", rec);
+        }
+
+        roundTripSnapshot();
+
+        HollowObjectTypeReadState typeState = (HollowObjectTypeReadState) readStateEngine.getTypeState("TestObject");
+        Assert.assertEquals(4, typeState.numShards());
+        int longField = typeState.getSchema().getPosition("longField");
+        int intField = typeState.getSchema().getPosition("intField");
+        int doubleField = typeState.getSchema().getPosition("doubleField");
+
+        int[] ints = new int[101];
+        long[] longs = new long[101];
+        double[] doubles = new double[101];
+        BitSet nulls = new BitSet();
+        for(int from=0;from<=typeState.maxOrdinal();from+=ints.length) {
+            int count = typeState.readInts(from, intField, ints, nulls);
+            Assert.assertEquals(Math.min(ints.length, typeState.maxOrdinal() - from + 1), count);
+            for(int i=0;i<count;i++) {
+                Assert.assertEquals(typeState.readInt(from + i, intField), ints[i]);
+                Assert.assertEquals(typeState.isNull(from + i, intField), nulls.get(i));
+            }
+
+            Assert.assertEquals(count, typeState.readLongs(from, longField, longs, null));
+            for(int i=0;i<count;i++)
+                Assert.assertEquals(typeState.readLong(from + i, longField), longs[i]);
+
+            Assert.assertEquals(count, typeState.readDoubles(from, doubleField, doubles, nulls));
+            for(int i=0;i<count;i++) {
+                Assert.assertEquals(typeState.readDouble(from + i, doubleField), doubles[i], 0);
+                Assert.assertEquals(typeState.isNull(from + i, doubleField), nulls.get(i));
+            }
+        }
+
+        BitSet expected = new BitSet();
+        for(int ordinal=0;ordinal<=typeState.maxOrdinal();ordinal++) {
+            if(!typeState.isNull(ordinal, intField) && typeState.readInt(ordinal, intField) < -500)
+                expected.set(ordinal);
+        }
+        Assert.assertEquals(expected, typeState.scanInts(intField, v -> v < -500));
+        Assert.assertEquals(expected.cardinality(), typeState.scanLongs(longField, v -> v > 1500).cardinality());
+        Assert.assertEquals(expected.cardinality(), typeState.scanDoubles(doubleField, v -> v > 250d).cardinality());
+
+        for(int i=0;i<1000;i+=2) {
+            rec.reset();
+            rec.setLong("longField", i * 3L);
+            rec.setInt("intField", -i);
+            rec.setDouble("doubleField", i / 2d);
+
+            writeStateEngine.add("TestObject", rec);
+        }
+
+        roundTripDelta();
+
+        BitSet matches = typeState.scanInts(intField, v -> v < -500);
+        Assert.assertEquals(249, matches.cardinality());
+        int ordinal = matches.nextSetBit(0);
+        while(ordinal != -1) {
+            Assert.assertTrue(typeState.getPopulatedOrdinals().get(ordinal));
+            Assert.assertTrue(typeState.readInt(ordinal, intField) < -500);
+            ordinal = matches.nextSetBit(ordinal + 1);
+        }
+    }
+
     @Override
     protected void initializeTypeStates() {
         writeStateEngine.setTargetMaxTypeShardSize(4096);
@@ -0,0 +1,135 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.read.object;
+
+import com.netflix.hollow.core.AbstractStateEngineTest;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.read.engine.object.HollowObjectStringCache;
+import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
+import com.netflix.hollow.core.read.engine.object.HollowStringCacheConfig;
+import com.netflix.hollow.core.schema.HollowObjectSchema;
+import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
+import com.netflix.hollow.core.util.StateEngineRoundTripper;
+import com.netflix.hollow.core.write.HollowObjectTypeWriteState;
+import com.netflix.hollow.core.write.HollowObjectWriteRecord;
+import java.io.IOException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HollowObjectStringCacheTest extends AbstractStateEngineTest {
+
+    HollowObjectSchema schema;
+
+    @Before
+    public void setUp() {
+        schema = new HollowObjectSchema("TestObject", 2);
+        schema.addField("cached", FieldType.STRING);
+        schema.addField("uncached", FieldType.STRING);
+        super.setUp();
+    }
+
+    @Test
+    public void testCachedReads() throws IOException {
+        addRecord("a");
+        addRecord("b");
+        addRecord(null);
+
+        roundTripSnapshotWithCache(16);
+
+        HollowObjectTypeReadState typeState = (HollowObjectTypeReadState) readStateEngine.getTypeState("TestObject");
+        HollowObjectStringCache cache = typeState.getStringCache();
+        Assert.assertTrue(cache.isCached(0));
+        Assert.assertFalse(cache.isCached(1));
+
+        for(int i = 0; i < 3; i++) {
+            Assert.assertEquals("a", typeState.readString(0, 0));
+            Assert.assertEquals("b", typeState.readString(1, 0));
+            Assert.assertNull(typeState.readString(2, 0));
+            Assert.assertEquals("a-uncached", typeState.readString(0, 1));
+        }
+
+        Assert.assertEquals(3, cache.getMissCount("cached"));
+        Assert.assertEquals(6, cache.getHitCount("cached"));
+        Assert.assertEquals(6d / 9d, cache.getHitRate("cached"), 0.0001d);
+        Assert.assertEquals(3, cache.getNumCachedValues("cached"));
+        Assert.assertTrue(cache.getApproximateHeapFootprintInBytes("cached") > 0);
+
+        try {
+            cache.getHitCount("uncached");
+            Assert.fail();
+        } catch(IllegalArgumentException expected) { }
+    }
+
+    @Test
+    public void testCacheIsBoundedAndInvalidatedByDeltas() throws IOException {
+        for(int i = 0; i < 100; i++)
+            addRecord("value" + i);
+
+        roundTripSnapshotWithCache(8);
+
+        HollowObjectTypeReadState typeState = (HollowObjectTypeReadState) readStateEngine.getTypeState("TestObject");
+        HollowObjectStringCache cache = typeState.getStringCache();
+        for(int i = 0; i < 100; i++)
+            Assert.assertEquals("value" + i, typeState.readString(i, 0));
+        Assert.assertTrue(cache.getNumCachedValues("cached") <= 8);
+
+        // remove value0-value49, then read the removed records so that they are cached again
+        for(int i = 50; i < 100; i++)
+            addRecord("value" + i);
+        roundTripDelta();
+        for(int i = 0; i < 100; i++)
+            Assert.assertEquals("value" + i, typeState.readString(i, 0));
+
+        // the freed ordinals are reused without a removal notification
+        for(int i = 50; i < 100; i++)
+            addRecord("value" + i);
+        int[] newOrdinals = new int[50];
+        for(int i = 0; i < 50; i++)
+            newOrdinals[i] = addRecord("new" + i);
+        roundTripDelta();
+
+        for(int i = 0; i < 50; i++) {
+            Assert.assertTrue(newOrdinals[i] < 50);
+            Assert.assertEquals("new" + i, typeState.readString(newOrdinals[i], 0));
+            Assert.assertEquals("value" + (i + 50), typeState.readString(i + 50, 0));
+        }
+    }
+
+    private void roundTripSnapshotWithCache(int maxCachedValues) throws IOException {
+        HollowStringCacheConfig config = new HollowStringCacheConfig();
+        config.addField("TestObject", "cached", maxCachedValues);
+        readStateEngine = new HollowReadStateEngine();
+        readStateEngine.setStringCacheConfig(config);
+        StateEngineRoundTripper.roundTripSnapshot(writeStateEngine, readStateEngine, readFilter);
+    }
+
+    private int addRecord(String value) {
+        HollowObjectWriteRecord rec = new HollowObjectWriteRecord(schema);
+        if(value != null) {
+            rec.setString("cached", value);
+            rec.setString("uncached", value + "-uncached");
+        }
+        return writeStateEngine.add("TestObject", rec);
+    }
+
+    @Override
+    protected void initializeTypeStates() {
+        writeStateEngine.addTypeState(new HollowObjectTypeWriteState(schema));
+    }
+
+}
@@ -32,8 +32,9 @@ public class HollowObjectStringEqualityTest extends AbstractStateEngineTest {
 
     @Before
     public void setUp() {
-        schema = new HollowObjectSchema("TestObject", 1);
+        schema = new HollowObjectSchema("TestObject", 2);
         schema.addField("str", FieldType.STRING);
+        schema.addField("bytes", FieldType.BYTES);
         super.setUp();
     }
 
@@ -51,10 +52,67 @@ public class HollowObjectStringEqualityTest extends AbstractStateEngineTest {
         
     }
     
+    @Test
+    public void testStringComparisonWithoutMaterializing() throws Exception {
+        addRecord("test\u2202value");
+        addRecord(null);
+
+        roundTripSnapshot();
+
+        HollowObjectTypeReadState typeState = (HollowObjectTypeReadState)readStateEngine.getTypeState("TestObject");
+
+        Assert.assertTrue(typeState.isStringFieldPrefixedBy(0, 0, ""));
+        Assert.assertTrue(typeState.isStringFieldPrefixedBy(0, 0, "test\u2202"));
+        Assert.assertTrue(typeState.isStringFieldPrefixedBy(0, 0, "test\u2202value"));
+        Assert.assertFalse(typeState.isStringFieldPrefixedBy(0, 0, "test\u2202values"));
+        Assert.assertFalse(typeState.isStringFieldPrefixedBy(0, 0, "tesT"));
+        Assert.assertFalse(typeState.isStringFieldPrefixedBy(1, 0, ""));
+
+        Assert.assertEquals(0, typeState.compareStringField(0, 0, "test\u2202value"));
+        Assert.assertTrue(typeState.compareStringField(0, 0, "test") > 0);
+        Assert.assertTrue(typeState.compareStringField(0, 0, "test\u2202valuez") < 0);
+        Assert.assertTrue(typeState.compareStringField(0, 0, "tesu") < 0);
+        Assert.assertTrue(typeState.compareStringField(0, 0, null) > 0);
+        Assert.assertTrue(typeState.compareStringField(1, 0, "a") < 0);
+        Assert.assertEquals(0, typeState.compareStringField(1, 0, null));
+
+        StringBuilder builder = new StringBuilder("prefix:");
+        Assert.assertTrue(typeState.readString(0, 0, builder));
+        Assert.assertEquals("prefix:test\u2202value", builder.toString());
+        Assert.assertFalse(typeState.readString(1, 0, builder));
+        Assert.assertEquals("prefix:test\u2202value", builder.toString());
+    }
+
+    @Test
+    public void testReadBytesIntoBuffer() throws Exception {
+        HollowObjectWriteRecord rec = new HollowObjectWriteRecord(schema);
+        rec.setBytes("bytes", new byte[] { 1, 2, 3, 4, 5 });
+        writeStateEngine.add("TestObject", rec);
+        addRecord("no bytes");
+
+        roundTripSnapshot();
+
+        HollowObjectTypeReadState typeState = (HollowObjectTypeReadState)readStateEngine.getTypeState("TestObject");
+        int bytesField = schema.getPosition("bytes");
+
+        Assert.assertArrayEquals(new byte[] { 1, 2, 3, 4, 5 }, typeState.readBytes(0, bytesField));
+
+        byte[] buffer = new byte[6];
+        Assert.assertEquals(5, typeState.readBytes(0, bytesField, buffer, 1));
+        Assert.assertArrayEquals(new byte[] { 0, 1, 2, 3, 4, 5 }, buffer);
+
+        byte[] smallBuffer = new byte[4];
+        Assert.assertEquals(5, typeState.readBytes(0, bytesField, smallBuffer, 0));
+        Assert.assertArrayEquals(new byte[4], smallBuffer);
+
+        Assert.assertEquals(-1, typeState.readBytes(1, bytesField, buffer, 0));
+    }
+
     private void addRecord(String strVal) {
         HollowObjectWriteRecord rec = new HollowObjectWriteRecord(schema);
 
-        rec.setString("str", strVal);
+        if(strVal != null)
+            rec.setString("str", strVal);
 
         writeStateEngine.add("TestObject", rec);
     }
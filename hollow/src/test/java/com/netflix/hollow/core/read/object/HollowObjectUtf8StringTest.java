@@ -0,0 +1,205 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.read.object;
+
+import com.netflix.hollow.api.error.HollowWriteStateException;
+import com.netflix.hollow.core.AbstractStateEngineTest;
+import com.netflix.hollow.core.HollowBlobHeader;
+import com.netflix.hollow.core.HollowStringEncoding;
+import com.netflix.hollow.core.index.HollowPrimaryKeyIndex;
+import com.netflix.hollow.core.memory.encoding.HashCodes;
+import com.netflix.hollow.core.read.engine.HollowBlobHeaderReader;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
+import com.netflix.hollow.core.schema.HollowObjectSchema;
+import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
+import com.netflix.hollow.core.util.StateEngineRoundTripper;
+import com.netflix.hollow.core.write.HollowBlobWriter;
+import com.netflix.hollow.core.write.HollowObjectTypeWriteState;
+import com.netflix.hollow.core.write.HollowObjectWriteRecord;
+import com.netflix.hollow.core.write.HollowWriteStateEngine;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HollowObjectUtf8StringTest extends AbstractStateEngineTest {
+
+    private static final String[] VALUES = {
+            "",
+            "ascii",
+            "café",
+            "नमस्ते",
+            "日本語",
+            "emoji 😀!",
+    };
+
+    HollowObjectSchema schema;
+
+    @Before
+    public void setUp() {
+        schema = new HollowObjectSchema("TestObject", 2);
+        schema.addField("str", FieldType.STRING);
+        schema.addField("bytes", FieldType.BYTES);
+        super.setUp();
+        writeStateEngine.setStringEncoding(HollowStringEncoding.UTF_8);
+    }
+
+    @Test
+    public void testReads() throws IOException {
+        for(String value : VALUES)
+            addRecord(value);
+        addRecord(null);
+
+        roundTripSnapshot();
+
+        Assert.assertEquals(HollowStringEncoding.UTF_8, readStateEngine.getStringEncoding());
+        HollowObjectTypeReadState typeState = (HollowObjectTypeReadState) readStateEngine.getTypeState("TestObject");
+
+        for(int i = 0; i < VALUES.length; i++) {
+            String value = VALUES[i];
+            Assert.assertEquals(value, typeState.readString(i, 0));
+            Assert.assertTrue(typeState.isStringFieldEqual(i, 0, value));
+            Assert.assertFalse(typeState.isStringFieldEqual(i, 0, value + "x"));
+            Assert.assertEquals(0, typeState.compareStringField(i, 0, value));
+            Assert.assertTrue(typeState.compareStringField(i, 0, value + "x") < 0);
+            Assert.assertTrue(typeState.isStringFieldPrefixedBy(i, 0, value.substring(0, value.length() / 2)));
+            Assert.assertEquals(HashCodes.hashCode(value), typeState.findVarLengthFieldHashCode(i, 0));
+
+            StringBuilder builder = new StringBuilder();
+            Assert.assertTrue(typeState.readString(i, 0, builder));
+            Assert.assertEquals(value, builder.toString());
+
+            // BYTES fields are never transcoded
+            Assert.assertArrayEquals(value.getBytes("UTF-16"), typeState.readBytes(i, 1));
+        }
+
+        Assert.assertNull(typeState.readString(VALUES.length, 0));
+        Assert.assertTrue(typeState.isStringFieldEqual(VALUES.length, 0, null));
+
+        HollowPrimaryKeyIndex index = new HollowPrimaryKeyIndex(readStateEngine, "TestObject", "str");
+        for(int i = 0; i < VALUES.length; i++)
+            Assert.assertEquals(i, index.getMatchingOrdinal(VALUES[i]));
+    }
+
+    @Test
+    public void testUnpairedSurrogatesAreRejected() throws IOException {
+        addRecord("a\ud83db");
+        try {
+            writeStateEngine.prepareForWrite();
+            Assert.fail();
+        } catch(HollowWriteStateException expected) {
+            Assert.assertTrue(expected.getCause().getCause() instanceof IllegalArgumentException);
+        }
+    }
+
+    @Test
+    public void testHashCodesOfLongAndMixedValues() throws IOException {
+        StringBuilder longValue = new StringBuilder();
+        for(int i = 0; i < 10000; i++)
+            longValue.append(VALUES[i % VALUES.length]);
+        String[] values = { "a", "ab", "abc", "abcd", "é", "aé", "abé", "abcé", "\u4e00", "\u3fff\u4000", "😀", longValue.toString() };
+        for(String value : values)
+            addRecord(value);
+
+        roundTripSnapshot();
+
+        HollowObjectTypeReadState typeState = (HollowObjectTypeReadState) readStateEngine.getTypeState("TestObject");
+        for(int i = 0; i < values.length; i++) {
+            Assert.assertEquals(values[i], typeState.readString(i, 0));
+            Assert.assertEquals(HashCodes.hashCode(values[i]), typeState.findVarLengthFieldHashCode(i, 0));
+        }
+    }
+
+    @Test
+    public void testEncodingIsSignalledInHeader() throws IOException {
+        addRecord("value");
+        writeStateEngine.prepareForWrite();
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        new HollowBlobWriter(writeStateEngine).writeSnapshot(baos);
+        HollowBlobHeader header = new HollowBlobHeaderReader().readHeader(new ByteArrayInputStream(baos.toByteArray()));
+
+        Assert.assertEquals(HollowBlobHeader.HOLLOW_BLOB_VERSION_HEADER_UTF8_STRINGS, header.getBlobFormatVersion());
+        Assert.assertEquals(HollowStringEncoding.UTF_8, header.getStringEncoding());
+    }
+
+    @Test
+    public void testDeltas() throws IOException {
+        for(String value : VALUES)
+            addRecord(value);
+
+        roundTripSnapshot();
+
+        for(String value : VALUES)
+            addRecord(value + "é");
+        roundTripDelta();
+
+        HollowObjectTypeReadState typeState = (HollowObjectTypeReadState) readStateEngine.getTypeState("TestObject");
+        for(int i = 0; i < VALUES.length; i++)
+            Assert.assertEquals(VALUES[i] + "é", typeState.readString(VALUES.length + i, 0));
+    }
+
+    @Test
+    public void testDeltaWithDifferentEncodingIsRejected() throws IOException {
+        writeStateEngine.setStringEncoding(HollowStringEncoding.VARINT_CHARS);
+        addRecord("value");
+        roundTripSnapshot();
+
+        writeStateEngine.setStringEncoding(HollowStringEncoding.UTF_8);
+        addRecord("value");
+        addRecord("other");
+        try {
+            roundTripDelta();
+            Assert.fail();
+        } catch(IOException expected) { }
+    }
+
+    @Test
+    public void testRestoreRequiresSameEncoding() throws IOException {
+        addRecord("value");
+        HollowReadStateEngine readEngine = new HollowReadStateEngine(true);
+        StateEngineRoundTripper.roundTripSnapshot(writeStateEngine, readEngine);
+
+        HollowWriteStateEngine restored = new HollowWriteStateEngine();
+        restored.addTypeState(new HollowObjectTypeWriteState(schema));
+        try {
+            restored.restoreFrom(readEngine);
+            Assert.fail();
+        } catch(IllegalStateException expected) { }
+
+        restored.setStringEncoding(HollowStringEncoding.UTF_8);
+        restored.restoreFrom(readEngine);
+    }
+
+    private void addRecord(String value) throws IOException {
+        HollowObjectWriteRecord rec = new HollowObjectWriteRecord(schema);
+        if(value != null) {
+            rec.setString("str", value);
+            rec.setBytes("bytes", value.getBytes("UTF-16"));
+        }
+        writeStateEngine.add("TestObject", rec);
+    }
+
+    @Override
+    protected void initializeTypeStates() {
+        writeStateEngine.addTypeState(new HollowObjectTypeWriteState(schema));
+    }
+
+}
@@ -16,7 +16,11 @@
  */
 package com.netflix.hollow.core.read.set;
 
+import static com.netflix.hollow.core.HollowConstants.ORDINAL_NONE;
+
 import com.netflix.hollow.api.objects.generic.GenericHollowObject;
+import com.netflix.hollow.api.objects.generic.GenericHollowSet;
+import com.netflix.hollow.core.read.dataaccess.HollowSetTypeDataAccess;
 import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
 import com.netflix.hollow.core.util.StateEngineRoundTripper;
 import com.netflix.hollow.core.write.HollowWriteStateEngine;
@@ -78,6 +82,38 @@ public class HollowSetHashKeyTest {
     }
     
     
+    @Test
+    public void testSpecializedLookups() throws IOException {
+        HollowWriteStateEngine writeEngine = new HollowWriteStateEngine();
+        HollowObjectMapper mapper = new HollowObjectMapper(writeEngine);
+        mapper.useDefaultHashKeys();
+
+        mapper.add(new TestTopLevelObject(1, new Obj(1, "US", 100), new Obj(2, "CA", 200)));
+        TypeWithStringSet stringSet = new TypeWithStringSet();
+        stringSet.stringSet.add("one");
+        stringSet.stringSet.add("two");
+        mapper.add(stringSet);
+
+        HollowReadStateEngine readEngine = StateEngineRoundTripper.roundTripSnapshot(writeEngine);
+
+        HollowSetTypeDataAccess byId = (HollowSetTypeDataAccess) readEngine.getTypeDataAccess("SetById");
+        Assert.assertEquals(byId.findElement(0, (Object) 2), byId.findElement(0, 2));
+        Assert.assertEquals(ORDINAL_NONE, byId.findElement(0, 3));
+        Assert.assertEquals(ORDINAL_NONE, byId.findElement(0, "2"));
+
+        HollowSetTypeDataAccess byIdCountry = (HollowSetTypeDataAccess) readEngine.getTypeDataAccess("SetByIdCountry");
+        Assert.assertEquals(byIdCountry.findElement(0, new Object[] { 2, "CA" }), byIdCountry.findElement(0, 2, "CA"));
+        Assert.assertEquals(ORDINAL_NONE, byIdCountry.findElement(0, 2, "US"));
+
+        GenericHollowSet set = new GenericHollowSet(readEngine, "SetOfString", 0);
+        Assert.assertEquals("two", ((GenericHollowObject) set.findElement("two")).getString("value"));
+        Assert.assertNull(set.findElement("three"));
+    }
+
+    private static class TypeWithStringSet {
+        Set<String> stringSet = new HashSet<>();
+    }
+
     @SuppressWarnings("unused")
     private static class TestTopLevelObject {
         int id;
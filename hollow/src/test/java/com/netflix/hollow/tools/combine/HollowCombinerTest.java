@@ -109,6 +109,22 @@ public class HollowCombinerTest {
         Assert.assertTrue(setOrderingExists(bTypeState, "C4", "C5", "C6"));
     }
 
+    @Test
+    public void testCombinerSpansOrdinalRanges() throws IOException {
+        for(int i=0;i<5000;i++) {
+            addRecord(shard1, i, "C" + (i % 100), "C" + (i % 50));
+            addRecord(shard2, i + 2500, "C" + (i % 70), "C" + (i % 50));
+        }
+
+        HollowCombiner combiner = new HollowCombiner(roundTrip(shard1), roundTrip(shard2));
+        combiner.combine();
+
+        HollowReadStateEngine combinedResult = roundTrip(combiner.getCombinedStateEngine());
+
+        Assert.assertEquals(7500, combinedResult.getTypeState("A").getPopulatedOrdinals().cardinality());
+        Assert.assertEquals(100, combinedResult.getTypeState("C").getPopulatedOrdinals().cardinality());
+    }
+
     @Test
     public void testCombinerPrimaryKey() throws IOException {
         HollowWriteStateEngine sEngine = createStateEngine();
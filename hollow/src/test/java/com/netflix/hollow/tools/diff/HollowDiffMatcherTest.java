@@ -137,6 +137,36 @@ public class HollowDiffMatcherTest {
         Assert.assertEquals("4.4 four", matcher.getKeyDisplayString(toState, to4));
     }
     
+    @Test
+    public void findsMatchesAcrossOrdinalRanges() throws IOException {
+        for(int i=0;i<1000;i++)
+            addFromRecord(i, String.valueOf(i), i, i);
+        for(int i=999;i>=100;i--)
+            addToRecord(String.valueOf(i), i, i);
+
+        HollowObjectTypeReadState fromState = roundTripAndGetTypeState(fromStateEngine);
+        HollowObjectTypeReadState toState = roundTripAndGetTypeState(toStateEngine);
+
+        HollowDiffMatcher matcher = new HollowDiffMatcher(fromState, toState);
+        matcher.addMatchPath("str");
+        matcher.calculateMatches();
+
+        LongList matches = matcher.getMatchedOrdinals();
+        Assert.assertEquals(900, matches.size());
+        for(int i=0;i<matches.size();i++) {
+            int fromOrdinal = (int)(matches.get(i) >> 32);
+            int toOrdinal = (int)matches.get(i);
+            Assert.assertEquals(i, toOrdinal);
+            Assert.assertEquals(fromState.readString(fromOrdinal, 2), toState.readString(toOrdinal, 1));
+        }
+
+        IntList fromExtra = matcher.getExtraInFrom();
+        Assert.assertEquals(100, fromExtra.size());
+        for(int i=0;i<fromExtra.size();i++)
+            Assert.assertTrue(Integer.parseInt(fromState.readString(fromExtra.get(i), 2)) < 100);
+        Assert.assertEquals(0, matcher.getExtraInTo().size());
+    }
+
     private HollowObjectTypeReadState roundTripAndGetTypeState(HollowWriteStateEngine stateEngine) throws IOException {
         HollowBlobWriter writer = new HollowBlobWriter(stateEngine);
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
@@ -71,6 +71,37 @@ public class DiffEqualOrdinalMapTest {
         Assert.assertEquals(-1, map.getIdentityToOrdinal(200));
     }
 
+    @Test
+    public void testPartitionedMap() {
+        int numPartitions = 8;
+        int numMatchesPerPartition[] = new int[numPartitions];
+        for(int i=0;i<1000;i++)
+            numMatchesPerPartition[DiffEqualOrdinalMap.partition(i, numPartitions)]++;
+
+        DiffEqualOrdinalMap partitionedMap = new DiffEqualOrdinalMap(numMatchesPerPartition);
+        for(int i=0;i<1000;i++) {
+            if(i % 2 == 0)
+                partitionedMap.putEqualOrdinals(i, list(i * 3, i * 3 + 1));
+            else
+                partitionedMap.putEqualOrdinal(i, i * 3);
+        }
+        partitionedMap.buildToOrdinalIdentityMapping();
+
+        Assert.assertEquals(numPartitions, partitionedMap.numPartitions());
+        for(int i=0;i<1000;i++) {
+            Assert.assertEquals(i * 3, partitionedMap.getIdentityFromOrdinal(i));
+            Assert.assertEquals(i * 3, partitionedMap.getIdentityToOrdinal(i * 3));
+            if(i % 2 == 0) {
+                assertMatchIterator(partitionedMap.getEqualOrdinals(i), i * 3, i * 3 + 1);
+                Assert.assertEquals(i * 3, partitionedMap.getIdentityToOrdinal(i * 3 + 1));
+            } else {
+                assertMatchIterator(partitionedMap.getEqualOrdinals(i), i * 3);
+                Assert.assertEquals(-1, partitionedMap.getIdentityToOrdinal(i * 3 + 1));
+            }
+        }
+        assertMatchIterator(partitionedMap.getEqualOrdinals(1000));
+    }
+
     private void assertMatchIterator(MatchIterator iter, int... values) {
         for(int i=0;i<values.length;i++) {
             Assert.assertTrue(iter.hasNext());
@@ -28,9 +28,12 @@ import com.netflix.hollow.core.schema.HollowSchema;
 import com.netflix.hollow.core.util.IntList;
 import com.netflix.hollow.core.write.HollowObjectTypeWriteState;
 import com.netflix.hollow.core.write.HollowObjectWriteRecord;
+import com.netflix.hollow.tools.history.keyindex.HollowHistoricalStateTypeKeyOrdinalMapping;
 import com.netflix.hollow.tools.history.keyindex.HollowHistoryKeyIndex;
 import com.netflix.hollow.tools.history.keyindex.HollowHistoryTypeKeyIndex;
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.Map;
 import org.junit.Assert;
 import org.junit.Before;
@@ -134,6 +137,121 @@ public class HollowHistoryTest extends AbstractStateEngineTest {
         assertRecord(retrieveAddedRecord  (history, 5L, 3), 3, 4, 7);
     }
 
+    @Test
+    public void testSpillToDisk() throws IOException {
+        File spillDirectory = Files.createTempDirectory("hollow-history-spill").toFile();
+        spillDirectory.deleteOnExit();
+
+        addRecord(1, 2, 3);
+        addRecord(2, 3, 4);
+        addRecord(3, 4, 5);
+        addRecord(4, 5, 6);
+
+        roundTripSnapshot();
+
+        HollowHistory history = new HollowHistory(readStateEngine, 1L, 3);
+        history.spillHistoricalStatesToDisk(spillDirectory, 1);
+        history.getKeyIndex().indexTypeField("A", "a1");
+
+        addRecord(1, 2, 3);
+        addRecord(3, 4, 5);
+        addRecord(4, 5, 6);
+        addRecord(2, 3, 7);
+
+        roundTripDelta();
+        history.deltaOccurred(2L);
+        Assert.assertFalse(history.isHistoricalStateSpilled(2L));
+
+        addRecord(1, 2, 3);
+        addRecord(3, 4, 7);
+        addRecord(4, 5, 6);
+        addRecord(2, 3, 7);
+
+        roundTripSnapshot();
+        history.doubleSnapshotOccurred(readStateEngine, 3L);
+        super.setUp();
+        Assert.assertTrue(history.isHistoricalStateSpilled(2L));
+        Assert.assertFalse(history.isHistoricalStateSpilled(3L));
+
+        addRecord(4, 5, 7);
+        addRecord(1, 2, 3);
+        addRecord(2, 3, 7);
+
+        roundTripSnapshot();
+        history.doubleSnapshotOccurred(readStateEngine, 4L);
+
+        addRecord(1, 2, 3);
+        addRecord(3, 4, 7);
+        addRecord(5, 6, 7);
+
+        roundTripDelta();
+        history.deltaOccurred(5L);
+
+        Assert.assertEquals(3, history.getNumberOfHistoricalStates());
+        Assert.assertNull(history.getHistoricalState(2L));
+        Assert.assertTrue(history.isHistoricalStateSpilled(3L));
+        Assert.assertTrue(history.isHistoricalStateSpilled(4L));
+        Assert.assertFalse(history.isHistoricalStateSpilled(5L));
+        Assert.assertEquals(2, spillDirectory.listFiles().length);
+
+        assertRecord(retrieveRemovedRecord(history, 3L, 3), 3, 4, 5);
+        assertRecord(retrieveAddedRecord  (history, 3L, 3), 3, 4, 7);
+
+        assertRecord(retrieveRemovedRecord(history, 4L, 4), 4, 5, 6);
+        assertRecord(retrieveAddedRecord  (history, 4L, 4), 4, 5, 7);
+        assertRecord(retrieveRemovedRecord(history, 4L, 3), 3, 4, 7);
+
+        assertRecord(retrieveRemovedRecord(history, 5L, 4), 4, 5, 7);
+        assertRecord(retrieveRemovedRecord(history, 5L, 2), 2, 3, 7);
+        assertRecord(retrieveAddedRecord  (history, 5L, 5), 5, 6, 7);
+        assertRecord(retrieveAddedRecord  (history, 5L, 3), 3, 4, 7);
+
+        history.removeHistoricalStates(3);
+        Assert.assertEquals(0, spillDirectory.listFiles().length);
+    }
+
+    @Test
+    public void testManyChangedRecords() throws IOException {
+        int numRecords = 5000;
+        for(int i=0;i<numRecords;i++)
+            addRecord(i, i, i);
+
+        roundTripSnapshot();
+
+        HollowHistory history = new HollowHistory(readStateEngine, 1L, 5);
+        history.getKeyIndex().indexTypeField("A", "a1");
+
+        for(int i=0;i<numRecords;i++)
+            addRecord(i, i, i % 2 == 0 ? i : i + 1);
+
+        roundTripDelta();
+        history.deltaOccurred(2L);
+
+        for(int i=0;i<numRecords;i++)
+            addRecord(i, i, i % 3 == 0 ? i + 2 : (i % 2 == 0 ? i : i + 1));
+
+        roundTripSnapshot();
+        history.doubleSnapshotOccurred(readStateEngine, 3L);
+
+        HollowHistoricalStateTypeKeyOrdinalMapping deltaMapping = history.getHistoricalState(2L).getKeyOrdinalMapping().getTypeMapping("A");
+        Assert.assertEquals(numRecords / 2, deltaMapping.getNumberOfModifiedRecords());
+        Assert.assertEquals(0, deltaMapping.getNumberOfNewRecords());
+        Assert.assertEquals(0, deltaMapping.getNumberOfRemovedRecords());
+
+        HollowHistoricalStateTypeKeyOrdinalMapping doubleSnapshotMapping = history.getHistoricalState(3L).getKeyOrdinalMapping().getTypeMapping("A");
+        Assert.assertEquals((numRecords + 2) / 3, doubleSnapshotMapping.getNumberOfModifiedRecords());
+
+        for(int i=1;i<numRecords;i+=2) {
+            assertRecord(retrieveRemovedRecord(history, 2L, i), i, i, i);
+            assertRecord(retrieveAddedRecord  (history, 2L, i), i, i, i + 1);
+        }
+
+        for(int i=0;i<numRecords;i+=3) {
+            assertRecord(retrieveRemovedRecord(history, 3L, i), i, i, i % 2 == 0 ? i : i + 1);
+            assertRecord(retrieveAddedRecord  (history, 3L, i), i, i, i + 2);
+        }
+    }
+
     @Test
     public void testNewType() throws IOException {
         addRecord(1, 2, 3);
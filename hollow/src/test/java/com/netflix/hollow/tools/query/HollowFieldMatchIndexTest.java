@@ -0,0 +1,143 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.tools.query;
+
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.util.StateEngineRoundTripper;
+import com.netflix.hollow.core.write.HollowWriteStateEngine;
+import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HollowFieldMatchIndexTest {
+
+    private HollowWriteStateEngine writeEngine;
+    private HollowReadStateEngine readEngine;
+
+    @Before
+    public void setUp() throws IOException {
+        writeEngine = new HollowWriteStateEngine();
+        HollowObjectMapper mapper = new HollowObjectMapper(writeEngine);
+
+        for(int i=0;i<100;i++) {
+            mapper.add(new TypeA(i, i % 7));
+            mapper.add(new TypeB(String.valueOf(i % 10), i * 1.1f));
+        }
+
+        readEngine = StateEngineRoundTripper.roundTripSnapshot(writeEngine);
+    }
+
+    @Test
+    public void indexedQueriesMatchScans() {
+        HollowFieldMatchIndex index = new HollowFieldMatchIndex(readEngine, Long.MAX_VALUE);
+        index.build();
+
+        Assert.assertTrue(index.isIndexed("TypeA", "aValue"));
+        Assert.assertTrue(index.isIndexed("TypeB", "id"));
+        Assert.assertTrue(index.isIndexed("String", "value"));
+        Assert.assertTrue(index.getApproximateHeapFootprintInBytes() > 0);
+
+        assertSameMatches(index, null, "id", "3");
+        assertSameMatches(index, null, "aValue", "5");
+        assertSameMatches(index, "TypeB", "bValue", String.valueOf(7 * 1.1f));
+        assertSameMatches(index, null, "aValue", "not a number");
+        assertSameMatches(index, null, "id", "no such id");
+    }
+
+    @Test
+    public void indexIsMaintainedAcrossDeltas() throws IOException {
+        HollowFieldMatchIndex index = new HollowFieldMatchIndex(readEngine, Long.MAX_VALUE);
+        index.build();
+
+        HollowObjectMapper mapper = new HollowObjectMapper(writeEngine);
+        for(int i=50;i<150;i++) {
+            mapper.add(new TypeA(i, i % 5));
+            mapper.add(new TypeB(String.valueOf(i % 20), i * 1.1f));
+        }
+        StateEngineRoundTripper.roundTripDelta(writeEngine, readEngine);
+
+        Assert.assertTrue(index.isIndexed("TypeA", "aValue"));
+        Assert.assertTrue(index.isIndexed("TypeB", "id"));
+
+        Map<String, BitSet> matches = new HollowFieldMatchQuery(readEngine, index).findMatchingRecords("TypeA", "aValue", "6");
+        Assert.assertNull(matches.get("TypeA"));
+
+        assertSameMatches(index, null, "aValue", "3");
+        assertSameMatches(index, null, "id", "15");
+        assertSameMatches(index, null, "id", "120");
+    }
+
+    @Test
+    public void fieldsOutsideTheBudgetAreScanned() {
+        HollowFieldMatchIndex index = new HollowFieldMatchIndex(readEngine, 0);
+        index.build();
+
+        Assert.assertFalse(index.isIndexed("TypeA", "aValue"));
+        Assert.assertEquals(0, index.getApproximateHeapFootprintInBytes());
+
+        assertSameMatches(index, null, "aValue", "5");
+    }
+
+    @Test
+    public void buildsInBackground() throws InterruptedException {
+        HollowFieldMatchIndex index = new HollowFieldMatchIndex(readEngine, Long.MAX_VALUE);
+        index.buildInBackground();
+
+        for(int i=0;i<500 && !index.isIndexed("TypeB", "bValue");i++)
+            Thread.sleep(10);
+
+        Assert.assertTrue(index.isIndexed("TypeB", "bValue"));
+        assertSameMatches(index, null, "id", "3");
+
+        index.detach();
+        Assert.assertFalse(index.isIndexed("TypeB", "bValue"));
+    }
+
+    private void assertSameMatches(HollowFieldMatchIndex index, String type, String field, String value) {
+        HollowFieldMatchQuery scan = new HollowFieldMatchQuery(readEngine);
+        HollowFieldMatchQuery indexed = new HollowFieldMatchQuery(readEngine, index);
+
+        Map<String, BitSet> expected = type == null ? scan.findMatchingRecords(field, value) : scan.findMatchingRecords(type, field, value);
+        Map<String, BitSet> actual = type == null ? indexed.findMatchingRecords(field, value) : indexed.findMatchingRecords(type, field, value);
+
+        Assert.assertEquals(expected, actual);
+    }
+
+    @SuppressWarnings("unused")
+    private static class TypeA {
+        int id;
+        int aValue;
+        public TypeA(int id, int aValue) {
+            this.id = id;
+            this.aValue = aValue;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class TypeB {
+        String id;
+        float bValue;
+        public TypeB(String id, float bValue) {
+            this.id = id;
+            this.bValue = bValue;
+        }
+    }
+}
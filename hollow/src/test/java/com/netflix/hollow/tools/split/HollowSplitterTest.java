@@ -0,0 +1,97 @@
+/*
+ *  Copyright 2016-2019 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.tools.split;
+
+import com.netflix.hollow.api.objects.generic.GenericHollowObject;
+import com.netflix.hollow.core.AbstractStateEngineTest;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.schema.HollowObjectSchema;
+import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
+import com.netflix.hollow.core.util.StateEngineRoundTripper;
+import com.netflix.hollow.core.write.HollowObjectTypeWriteState;
+import com.netflix.hollow.core.write.HollowObjectWriteRecord;
+import java.io.IOException;
+import java.util.BitSet;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HollowSplitterTest extends AbstractStateEngineTest {
+
+    private HollowObjectSchema aSchema;
+    private HollowObjectSchema bSchema;
+
+    @Before
+    public void setUp() {
+        aSchema = new HollowObjectSchema("A", 2);
+        aSchema.addField("a1", FieldType.INT);
+        aSchema.addField("a2", FieldType.REFERENCE, "B");
+
+        bSchema = new HollowObjectSchema("B", 1);
+        bSchema.addField("b1", FieldType.STRING);
+
+        super.setUp();
+    }
+
+    @Test
+    public void splitsEveryRecordIntoItsDirectedShard() throws IOException {
+        HollowObjectWriteRecord aRec = new HollowObjectWriteRecord(aSchema);
+        HollowObjectWriteRecord bRec = new HollowObjectWriteRecord(bSchema);
+
+        for(int i=0;i<5000;i++) {
+            bRec.reset();
+            bRec.setString("b1", "B" + (i % 100));
+            int bOrdinal = writeStateEngine.add("B", bRec);
+
+            aRec.reset();
+            aRec.setInt("a1", i);
+            aRec.setReference("a2", bOrdinal);
+            writeStateEngine.add("A", aRec);
+        }
+
+        roundTripSnapshot();
+
+        HollowSplitterOrdinalCopyDirector director = new HollowSplitterOrdinalCopyDirector(3, "A");
+        HollowSplitter splitter = new HollowSplitter(director, readStateEngine);
+        splitter.split();
+
+        int totalRecords = 0;
+        for(int shard=0;shard<3;shard++) {
+            HollowReadStateEngine shardEngine = StateEngineRoundTripper.roundTripSnapshot(splitter.getOutputShardStateEngine(shard));
+
+            BitSet populatedOrdinals = shardEngine.getTypeState("A").getPopulatedOrdinals();
+            int ordinal = populatedOrdinals.nextSetBit(0);
+            while(ordinal != -1) {
+                GenericHollowObject a = new GenericHollowObject(shardEngine, "A", ordinal);
+                int a1 = a.getInt("a1");
+                Assert.assertEquals(shard, a1 % 3);
+                Assert.assertEquals("B" + (a1 % 100), a.getObject("a2").getString("b1"));
+                totalRecords++;
+                ordinal = populatedOrdinals.nextSetBit(ordinal + 1);
+            }
+        }
+
+        Assert.assertEquals(5000, totalRecords);
+    }
+
+    @Override
+    protected void initializeTypeStates() {
+        writeStateEngine.addTypeState(new HollowObjectTypeWriteState(aSchema));
+        writeStateEngine.addTypeState(new HollowObjectTypeWriteState(bSchema));
+    }
+
+}